@@ -78,10 +78,13 @@ public abstract class DynarmicBackend extends FastBackend implements Backend, Dy
             log.debug("emu_start begin=0x" + Long.toHexString(begin) + ", until=0x" + Long.toHexString(until) + ", timeout=" + timeout + ", count=" + count);
         }
         this.until = until + 4;
+        regEpoch++;
         try {
             dynarmic.emu_start(begin);
         } catch (DynarmicException e) {
             throw new BackendException(e);
+        } finally {
+            regEpoch++;
         }
     }
 
@@ -207,6 +210,7 @@ public abstract class DynarmicBackend extends FastBackend implements Backend, Dy
 
     @Override
     public void context_restore(long context) {
+        regEpoch++;
         dynarmic.context_restore(context);
     }
 }
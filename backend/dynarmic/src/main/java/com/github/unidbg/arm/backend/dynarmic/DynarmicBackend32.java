@@ -66,8 +66,21 @@ public class DynarmicBackend32 extends DynarmicBackend {
         }
     }
 
+    @Override
+    public long reg_read_long(int regId) throws BackendException {
+        if (regId >= ArmConst.UC_ARM_REG_R0 && regId <= ArmConst.UC_ARM_REG_R12) {
+            try {
+                return dynarmic.reg_read32(regId - ArmConst.UC_ARM_REG_R0) & 0xffffffffL;
+            } catch (DynarmicException e) {
+                throw new BackendException(e);
+            }
+        }
+        return super.reg_read_long(regId);
+    }
+
     @Override
     public void reg_write(int regId, Number value) throws BackendException {
+        regEpoch++;
         try {
             switch (regId) {
                 case ArmConst.UC_ARM_REG_R0:
@@ -84,8 +84,21 @@ public class DynarmicBackend64 extends DynarmicBackend {
         }
     }
 
+    @Override
+    public long reg_read_long(int regId) throws BackendException {
+        if (regId >= Arm64Const.UC_ARM64_REG_X0 && regId <= Arm64Const.UC_ARM64_REG_X28) {
+            try {
+                return dynarmic.reg_read64(regId - Arm64Const.UC_ARM64_REG_X0);
+            } catch (DynarmicException e) {
+                throw new BackendException(e);
+            }
+        }
+        return super.reg_read_long(regId);
+    }
+
     @Override
     public void reg_write(int regId, Number value) throws BackendException {
+        regEpoch++;
         try {
             switch (regId) {
                 case Arm64Const.UC_ARM64_REG_X0:
@@ -188,10 +188,13 @@ public abstract class HypervisorBackend extends FastBackend implements Backend,
             log.debug("emu_start begin=0x" + Long.toHexString(begin) + ", until=0x" + Long.toHexString(until) + ", timeout=" + timeout + ", count=" + count);
         }
         this.until = until + 4;
+        regEpoch++;
         try {
             hypervisor.emu_start(begin);
         } catch (HypervisorException e) {
             throw new BackendException(e);
+        } finally {
+            regEpoch++;
         }
     }
 
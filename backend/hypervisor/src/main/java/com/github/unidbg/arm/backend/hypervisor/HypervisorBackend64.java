@@ -154,8 +154,21 @@ public class HypervisorBackend64 extends HypervisorBackend {
     public void switchUserMode() {
     }
 
+    @Override
+    public long reg_read_long(int regId) throws BackendException {
+        if (regId >= Arm64Const.UC_ARM64_REG_X0 && regId <= Arm64Const.UC_ARM64_REG_X28) {
+            try {
+                return hypervisor.reg_read64(regId - Arm64Const.UC_ARM64_REG_X0);
+            } catch (HypervisorException e) {
+                throw new BackendException(e);
+            }
+        }
+        return super.reg_read_long(regId);
+    }
+
     @Override
     public void reg_write(int regId, Number value) throws BackendException {
+        regEpoch++;
         try {
             switch (regId) {
                 case Arm64Const.UC_ARM64_REG_X0:
@@ -365,6 +378,7 @@ public class HypervisorBackend64 extends HypervisorBackend {
 
     @Override
     public void context_restore(long context) {
+        regEpoch++;
         hypervisor.context_restore(context);
     }
 
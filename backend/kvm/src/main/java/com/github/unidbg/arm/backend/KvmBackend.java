@@ -6,10 +6,14 @@ import com.github.unidbg.arm.ARMEmulator;
 import com.github.unidbg.arm.backend.kvm.Kvm;
 import com.github.unidbg.arm.backend.kvm.KvmCallback;
 import com.github.unidbg.arm.backend.kvm.KvmException;
+import com.sun.jna.Pointer;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.TreeMap;
 
 public abstract class KvmBackend extends FastBackend implements Backend, KvmCallback {
@@ -23,7 +27,7 @@ public abstract class KvmBackend extends FastBackend implements Backend, KvmCall
 
     private int slotIndex;
     private final UserMemoryRegion[] slots;
-    protected final Map<Long, UserMemoryRegion> memoryRegionMap; // key is guest_phys_addr
+    protected final NavigableMap<Long, UserMemoryRegion> memoryRegionMap; // key is guest_phys_addr
 
     protected KvmBackend(Emulator<?> emulator, Kvm kvm) throws BackendException {
         super(emulator);
@@ -189,6 +193,20 @@ public abstract class KvmBackend extends FastBackend implements Backend, KvmCall
         }
     }
 
+    @Override
+    public final ByteBuffer mem_buffer(long address, int size) throws BackendException {
+        Map.Entry<Long, UserMemoryRegion> entry = memoryRegionMap.floorEntry(address);
+        if (entry == null) {
+            return null;
+        }
+        UserMemoryRegion region = entry.getValue();
+        long off = address - region.guest_phys_addr;
+        if (size < 0 || off + size > region.memory_size) {
+            return null;
+        }
+        return new Pointer(region.userspace_addr + off).getByteBuffer(0, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
     protected final void callSVC(long pc, int swi) {
         if (log.isDebugEnabled()) {
             log.debug("callSVC pc=0x" + Long.toHexString(pc) + ", until=0x" + Long.toHexString(until) + ", swi=" + swi);
@@ -220,10 +238,13 @@ public abstract class KvmBackend extends FastBackend implements Backend, KvmCall
         }
 
         this.until = until + 4;
+        regEpoch++;
         try {
             kvm.emu_start(begin);
         } catch (KvmException e) {
             throw new BackendException(e);
+        } finally {
+            regEpoch++;
         }
     }
 
@@ -122,8 +122,21 @@ public class KvmBackend32 extends KvmBackend {
         }
     }
 
+    @Override
+    public long reg_read_long(int regId) throws BackendException {
+        if (regId >= ArmConst.UC_ARM_REG_R0 && regId <= ArmConst.UC_ARM_REG_R12) {
+            try {
+                return kvm.reg_read64(regId - ArmConst.UC_ARM_REG_R0) & 0xffffffffL;
+            } catch (KvmException e) {
+                throw new BackendException(e);
+            }
+        }
+        return super.reg_read_long(regId);
+    }
+
     @Override
     public void reg_write(int regId, Number value) throws BackendException {
+        regEpoch++;
         try {
             switch (regId) {
                 case ArmConst.UC_ARM_REG_R0:
@@ -270,8 +270,21 @@ public class KvmBackend64 extends KvmBackend {
         }
     }
 
+    @Override
+    public long reg_read_long(int regId) throws BackendException {
+        if (regId >= Arm64Const.UC_ARM64_REG_X0 && regId <= Arm64Const.UC_ARM64_REG_X28) {
+            try {
+                return kvm.reg_read64(regId - Arm64Const.UC_ARM64_REG_X0);
+            } catch (KvmException e) {
+                throw new BackendException(e);
+            }
+        }
+        return super.reg_read_long(regId);
+    }
+
     @Override
     public void reg_write(int regId, Number value) throws BackendException {
+        regEpoch++;
         try {
             switch (regId) {
                 case Arm64Const.UC_ARM64_REG_X0:
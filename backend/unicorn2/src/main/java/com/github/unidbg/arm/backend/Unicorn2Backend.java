@@ -3,6 +3,7 @@ package com.github.unidbg.arm.backend;
 import com.github.unidbg.Emulator;
 import com.github.unidbg.arm.ARM;
 import com.github.unidbg.arm.Cpsr;
+import com.github.unidbg.arm.backend.unicorn.TraceHook;
 import com.github.unidbg.arm.backend.unicorn.Unicorn;
 import com.github.unidbg.debugger.BreakPoint;
 import com.github.unidbg.debugger.BreakPointCallback;
@@ -12,6 +13,7 @@ import unicorn.ArmConst;
 import unicorn.UnicornConst;
 import unicorn.UnicornException;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 class Unicorn2Backend extends AbstractBackend implements Backend {
@@ -101,6 +103,7 @@ class Unicorn2Backend extends AbstractBackend implements Backend {
 
     @Override
     public void reg_write(int regId, Number value) throws BackendException {
+        regEpoch++;
         try {
             unicorn.reg_write(regId, is64Bit ? value.longValue() : value.intValue());
         } catch (UnicornException e) {
@@ -108,6 +111,16 @@ class Unicorn2Backend extends AbstractBackend implements Backend {
         }
     }
 
+    @Override
+    public long reg_read_long(int regId) throws BackendException {
+        try {
+            long value = unicorn.reg_read(regId);
+            return is64Bit ? value : value & 0xffffffffL;
+        } catch (UnicornException e) {
+            throw new BackendException(e);
+        }
+    }
+
     @Override
     public byte[] mem_read(long address, long size) throws BackendException {
         try {
@@ -374,12 +387,64 @@ class Unicorn2Backend extends AbstractBackend implements Backend {
         }
     }
 
+    /**
+     * native 层缓冲的记录条数
+     */
+    private static final int TRACE_CAPACITY = 0x10000;
+
+    private boolean nativeTrace = true;
+
+    @Override
+    public void hook_add_trace(final TraceSink sink, int types, long begin, long end) throws BackendException {
+        if (nativeTrace) {
+            try {
+                final Unicorn.UnHook unHook = unicorn.trace_add(new TraceHook() {
+                    @Override
+                    public void onTrace(Unicorn u, ByteBuffer buffer, int count, Object user) {
+                        for (int i = 0, offset = 0; i < count; i++, offset += Unicorn.TRACE_RECORD_SIZE) {
+                            long address = buffer.getLong(offset);
+                            int size = buffer.getInt(offset + 16);
+                            switch (buffer.getInt(offset + 20)) {
+                                case Unicorn.TRACE_CODE:
+                                    sink.onCode(address, size);
+                                    break;
+                                case Unicorn.TRACE_READ:
+                                    sink.onRead(address, size);
+                                    break;
+                                case Unicorn.TRACE_WRITE:
+                                    sink.onWrite(address, size, buffer.getLong(offset + 8));
+                                    break;
+                                default:
+                                    throw new IllegalStateException("type=" + buffer.getInt(offset + 20));
+                            }
+                        }
+                    }
+                }, types, begin, end, TRACE_CAPACITY, null);
+                sink.onAttach(new UnHook() {
+                    @Override
+                    public void unhook() {
+                        unHook.unhook();
+                    }
+                });
+                return;
+            } catch (UnicornException e) {
+                throw new BackendException(e);
+            } catch (UnsatisfiedLinkError e) {
+                nativeTrace = false;
+            }
+        }
+        super.hook_add_trace(sink, types, begin, end);
+    }
+
     @Override
     public final synchronized void emu_start(long begin, long until, long timeout, long count) throws BackendException {
+        regEpoch++;
         try {
             unicorn.emu_start(begin, until, timeout, count);
         } catch (UnicornException e) {
             throw new BackendException(e);
+        } finally {
+            regEpoch++;
         }
     }
 
@@ -403,6 +468,7 @@ class Unicorn2Backend extends AbstractBackend implements Backend {
 
     @Override
     public void context_restore(long context) {
+        regEpoch++;
         unicorn.context_restore(context);
     }
 
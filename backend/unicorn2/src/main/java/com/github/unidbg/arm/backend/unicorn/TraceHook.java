@@ -0,0 +1,13 @@
+package com.github.unidbg.arm.backend.unicorn;
+
+import java.nio.ByteBuffer;
+
+public interface TraceHook extends Hook {
+
+   /**
+    * @param buffer  count records of {@link Unicorn#TRACE_RECORD_SIZE} bytes each, native byte order
+    */
+   void onTrace(Unicorn u, ByteBuffer buffer, int count, Object user);
+
+}
+
@@ -4,6 +4,8 @@ import com.github.unidbg.thread.ThreadContextSwitchException;
 import unicorn.UnicornConst;
 import unicorn.UnicornException;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Hashtable;
@@ -12,6 +14,15 @@ import java.util.Map;
 
 public class Unicorn {
 
+    public static final int TRACE_CODE = 1;
+    public static final int TRACE_READ = 2;
+    public static final int TRACE_WRITE = 4;
+
+    /**
+     * Trace record layout: address(8), value(8), size(4), type(4)
+     */
+    public static final int TRACE_RECORD_SIZE = 24;
+
     private static final Hashtable<Integer,Integer> eventMemMap = new Hashtable<>();
 
     static {
@@ -49,10 +60,31 @@ public class Unicorn {
         private boolean unhooked;
         private void unhookInternal() {
             if (!unhooked && handle != 0) {
-                hook_del(handle);
+                delete(handle);
             }
             unhooked = true;
         }
+        void delete(long handle) {
+            hook_del(handle);
+        }
+    }
+
+    private class TraceUnHook extends UnHook {
+        private final long handle;
+        public TraceUnHook(long handle) {
+            super(handle);
+            this.handle = handle;
+            traceHookList.add(this);
+        }
+        private void flush() {
+            trace_flush(handle);
+        }
+        @Override
+        void delete(long handle) {
+            flush();
+            traceHookList.remove(this);
+            trace_del(handle);
+        }
     }
 
     private class NewHook extends Tuple {
@@ -101,6 +133,16 @@ public class Unicorn {
             hook.hook(Unicorn.this, address, size, value, data);
         }
 
+        private ByteBuffer buffer;
+
+        /**
+         * trace buffer full or flushed
+         */
+        void onTrace(int count) {
+            TraceHook hook = (TraceHook) function;
+            hook.onTrace(Unicorn.this, buffer, count, data);
+        }
+
         /**
          * for UC_HOOK_INTR
          */
@@ -300,6 +342,23 @@ public class Unicorn {
 
     private native static long registerDebugger(long handle, long begin, long end, NewHook hook);
 
+    /**
+     * Register code and/or memory hooks that append records to a native-side buffer
+     * instead of calling back into Java for every event.
+     *
+     * @param types    Combination of TRACE_CODE, TRACE_READ, TRACE_WRITE
+     * @param buffer   Direct buffer receiving the records
+     * @return         Handle for trace_flush and trace_del
+     */
+    private native static long registerTrace(long handle, int types, long begin, long end, ByteBuffer buffer, NewHook hook);
+
+    /**
+     * Deliver the buffered records to the hook and reset the buffer.
+     */
+    private native static void trace_flush(long handle);
+
+    private native static void trace_del(long handle);
+
     /**
      * Emulate machine code in a specific duration of time.
      *
@@ -309,7 +368,13 @@ public class Unicorn {
      * @param count    The number of instructions to be emulated. When this value is 0, we will emulate all the code available, until the code is finished.
      */
     public void emu_start(long begin, long until, long timeout, long count) throws UnicornException {
-        emu_start(nativeHandle, begin, until, timeout, count);
+        try {
+            emu_start(nativeHandle, begin, until, timeout, count);
+        } finally {
+            for (TraceUnHook unHook : traceHookList.toArray(new TraceUnHook[0])) {
+                unHook.flush();
+            }
+        }
     }
 
     private static native void emu_start(long handle, long begin, long until, long timeout, long count) throws UnicornException;
@@ -419,6 +484,19 @@ public class Unicorn {
         return new UnHook(handle);
     }
 
+    /**
+     * @param capacity  Number of records buffered before they are delivered to the callback
+     */
+    public UnHook trace_add(TraceHook callback, int types, long begin, long end, int capacity, Object user_data) throws UnicornException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity=" + capacity);
+        }
+        NewHook hook = new NewHook(callback, user_data);
+        hook.buffer = ByteBuffer.allocateDirect(capacity * TRACE_RECORD_SIZE).order(ByteOrder.nativeOrder());
+        long handle = registerTrace(nativeHandle, types, begin, end, hook.buffer, hook);
+        return new TraceUnHook(handle);
+    }
+
     public UnHook debugger_add(DebugHook callback, long begin, long end, Object user_data) throws UnicornException {
         NewHook hook = new NewHook(callback, user_data);
         long handle = registerDebugger(nativeHandle, begin, end, hook);
@@ -426,6 +504,7 @@ public class Unicorn {
     }
 
     private final List<UnHook> newHookList = new ArrayList<>();
+    private final List<TraceUnHook> traceHookList = new ArrayList<>();
     private final long nativeHandle;
 
     public Unicorn(int arch, int mode) throws UnicornException {
@@ -167,6 +167,30 @@ JNIEXPORT jlong JNICALL Java_com_github_unidbg_arm_backend_unicorn_Unicorn_regis
 JNIEXPORT jlong JNICALL Java_com_github_unidbg_arm_backend_unicorn_Unicorn_registerDebugger
   (JNIEnv *, jclass, jlong, jlong, jlong, jobject);
 
+/*
+ * Class:     com_github_unidbg_arm_backend_unicorn_Unicorn
+ * Method:    registerTrace
+ * Signature: (JIJJLjava/nio/ByteBuffer;Lcom/github/unidbg/arm/backend/unicorn/Unicorn/NewHook;)J
+ */
+JNIEXPORT jlong JNICALL Java_com_github_unidbg_arm_backend_unicorn_Unicorn_registerTrace
+  (JNIEnv *, jclass, jlong, jint, jlong, jlong, jobject, jobject);
+
+/*
+ * Class:     com_github_unidbg_arm_backend_unicorn_Unicorn
+ * Method:    trace_flush
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_github_unidbg_arm_backend_unicorn_Unicorn_trace_1flush
+  (JNIEnv *, jclass, jlong);
+
+/*
+ * Class:     com_github_unidbg_arm_backend_unicorn_Unicorn
+ * Method:    trace_del
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_github_unidbg_arm_backend_unicorn_Unicorn_trace_1del
+  (JNIEnv *, jclass, jlong);
+
 /*
  * Class:     com_github_unidbg_arm_backend_unicorn_Unicorn
  * Method:    emu_start
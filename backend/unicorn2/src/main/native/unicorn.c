@@ -9,6 +9,7 @@ static jmethodID onRead = 0;
 static jmethodID onWrite = 0;
 static jmethodID onInterrupt = 0;
 static jmethodID onMemEvent = 0;
+static jmethodID onTrace = 0;
 
 static void throwException(JNIEnv *env, uc_err err) {
    if (err != UC_ERR_OK) {
@@ -298,6 +299,129 @@ JNIEXPORT jlong JNICALL Java_com_github_unidbg_arm_backend_unicorn_Unicorn_regis
   return (jlong)nh;
 }
 
+static void trace_deliver(JNIEnv *env, struct trace_hook *th) {
+   jint count = th->count;
+   th->count = 0;
+   (*env)->CallVoidMethod(env, th->base.hook, onTrace, count);
+}
+
+static void trace_flush_attached(struct trace_hook *th) {
+   JNIEnv *env;
+   (*cachedJVM)->AttachCurrentThread(cachedJVM, (void **)&env, NULL);
+   trace_deliver(env, th);
+   (*cachedJVM)->DetachCurrentThread(cachedJVM);
+}
+
+static inline void trace_append(struct trace_hook *th, uint32_t type, uint64_t address, uint32_t size, uint64_t value) {
+   if (th->count >= th->capacity) {
+      trace_flush_attached(th);
+   }
+   struct trace_record *record = &th->records[th->count++];
+   record->address = address;
+   record->value = value;
+   record->size = size;
+   record->type = type;
+}
+
+static void cb_tracecode(uc_engine *eng, uint64_t address, uint32_t size, void *user_data) {
+   trace_append((struct trace_hook *) user_data, TRACE_CODE, address, size, 0);
+}
+
+static void cb_tracemem(uc_engine *eng, uc_mem_type type,
+        uint64_t address, int size, int64_t value, void *user_data) {
+   switch (type) {
+      case UC_MEM_READ:
+         trace_append((struct trace_hook *) user_data, TRACE_READ, address, (uint32_t) size, 0);
+         break;
+      case UC_MEM_WRITE:
+         trace_append((struct trace_hook *) user_data, TRACE_WRITE, address, (uint32_t) size, (uint64_t) value);
+         break;
+      default:
+         break;
+   }
+}
+
+/*
+ * Class:     com_github_unidbg_arm_backend_unicorn_Unicorn
+ * Method:    registerTrace
+ * Signature: (JIJJLjava/nio/ByteBuffer;Lcom/github/unidbg/arm/backend/unicorn/Unicorn/NewHook;)J
+ */
+JNIEXPORT jlong JNICALL Java_com_github_unidbg_arm_backend_unicorn_Unicorn_registerTrace
+  (JNIEnv *env, jclass cls, jlong handle, jint types, jlong arg1, jlong arg2, jobject buffer, jobject hook) {
+  t_unicorn unicorn = (t_unicorn) handle;
+  uc_engine *eng = unicorn->uc;
+
+    uint64_t begin = (uint64_t) arg1;
+    uint64_t end = (uint64_t) arg2;
+    uc_err err = UC_ERR_OK;
+
+    struct trace_hook *th = malloc(sizeof(struct trace_hook));
+    memset(th, 0, sizeof(struct trace_hook));
+    th->records = (struct trace_record *) (*env)->GetDirectBufferAddress(env, buffer);
+    th->capacity = (jint) ((*env)->GetDirectBufferCapacity(env, buffer) / sizeof(struct trace_record));
+    th->base.hook = (*env)->NewGlobalRef(env, hook);
+    th->base.unicorn = unicorn;
+
+    if (types & TRACE_CODE) {
+      err = uc_hook_add(eng, &th->base.hh, UC_HOOK_CODE, cb_tracecode, th, begin, end);
+    }
+    if (err == UC_ERR_OK && (types & (TRACE_READ | TRACE_WRITE))) {
+      int type = ((types & TRACE_READ) ? UC_HOOK_MEM_READ : 0) | ((types & TRACE_WRITE) ? UC_HOOK_MEM_WRITE : 0);
+      err = uc_hook_add(eng, &th->mem_hh, type, cb_tracemem, th, begin, end);
+    }
+    if (err != UC_ERR_OK) {
+      if (th->base.hh) {
+        uc_hook_del(eng, th->base.hh);
+      }
+      (*env)->DeleteGlobalRef(env, th->base.hook);
+      free(th);
+      throwException(env, err);
+      return 0;
+    }
+
+    return (jlong)th;
+}
+
+/*
+ * Class:     com_github_unidbg_arm_backend_unicorn_Unicorn
+ * Method:    trace_flush
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_github_unidbg_arm_backend_unicorn_Unicorn_trace_1flush
+  (JNIEnv *env, jclass cls, jlong handle) {
+  struct trace_hook *th = (struct trace_hook *) handle;
+  if (th->count > 0) {
+    trace_deliver(env, th);
+  }
+}
+
+/*
+ * Class:     com_github_unidbg_arm_backend_unicorn_Unicorn
+ * Method:    trace_del
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_com_github_unidbg_arm_backend_unicorn_Unicorn_trace_1del
+  (JNIEnv *env, jclass cls, jlong handle) {
+  struct trace_hook *th = (struct trace_hook *) handle;
+  uc_engine *eng = th->base.unicorn->uc;
+
+   uc_err err = UC_ERR_OK;
+   if (th->base.hh) {
+      err = uc_hook_del(eng, th->base.hh);
+   }
+   if (th->mem_hh) {
+      uc_err mem_err = uc_hook_del(eng, th->mem_hh);
+      if (err == UC_ERR_OK) {
+         err = mem_err;
+      }
+   }
+   (*env)->DeleteGlobalRef(env, th->base.hook);
+   free(th);
+   if (err != UC_ERR_OK) {
+      throwException(env, err);
+   }
+}
+
 /*
  * Class:     com_github_unidbg_arm_backend_unicorn_Unicorn
  * Method:    mem_write
@@ -663,6 +787,7 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM *jvm, void *reserved) {
     onWrite = (*env)->GetMethodID(env, newHookClass, "onWrite", "(JIJ)V");
     onInterrupt = (*env)->GetMethodID(env, newHookClass, "onInterrupt", "(I)V");
     onMemEvent = (*env)->GetMethodID(env, newHookClass, "onMemEvent", "(IJIJ)Z");
+    onTrace = (*env)->GetMethodID(env, newHookClass, "onTrace", "(I)V");
 
     int len = sizeof(s_methods) / sizeof(s_methods[0]);
     if ((*env)->RegisterNatives(env, clz, s_methods, len)) {
@@ -23,6 +23,25 @@ struct new_hook {
     t_unicorn unicorn;
 };
 
+#define TRACE_CODE 1
+#define TRACE_READ 2
+#define TRACE_WRITE 4
+
+struct trace_record {
+    uint64_t address;
+    uint64_t value;
+    uint32_t size;
+    uint32_t type;
+};
+
+struct trace_hook {
+    struct new_hook base;
+    uc_hook mem_hh;
+    struct trace_record *records;
+    jint capacity;
+    jint count;
+};
+
 void armeb_uc_init() {
   fprintf(stderr, "Unsupported armeb\n");
   abort();
@@ -3,8 +3,10 @@ package com.github.unidbg;
 import com.github.unidbg.arm.ARMEmulator;
 import com.github.unidbg.file.linux.AndroidFileIO;
 import com.github.unidbg.linux.android.dvm.VM;
+import com.github.unidbg.snapshot.EmulatorSnapshot;
 
 import java.io.File;
+import java.io.IOException;
 
 public interface AndroidEmulator extends ARMEmulator<AndroidFileIO> {
 
@@ -23,4 +25,32 @@ public interface AndroidEmulator extends ARMEmulator<AndroidFileIO> {
     @SuppressWarnings("unused")
     VM getDalvikVM();
 
+    /**
+     * 保存当前状态，可以恢复到本实例或者以相同方式创建的另一个实例（fork）
+     */
+    EmulatorSnapshot snapshot();
+
+    void restore(EmulatorSnapshot snapshot);
+
+    /**
+     * 以当前状态作为 {@link #reset()} 的还原点，backend 支持时开始记录脏页
+     */
+    void setResetPoint();
+
+    /**
+     * 还原到 {@link #setResetPoint()} 时的状态：支持记录脏页的 backend 只恢复写过的页，否则完整恢复快照。
+     * 适合每次 JNI 调用之后复用同一个实例
+     */
+    void reset();
+
+    /**
+     * 保存当前状态到检查点文件
+     */
+    void writeCheckpoint(File file) throws IOException;
+
+    /**
+     * 读取检查点文件，返回的快照需要通过 {@link #restore(EmulatorSnapshot)} 恢复，本实例必须以相同方式创建
+     */
+    EmulatorSnapshot readCheckpoint(File file) throws IOException;
+
 }
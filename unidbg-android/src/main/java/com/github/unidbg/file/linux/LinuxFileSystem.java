@@ -4,10 +4,13 @@ import com.github.unidbg.Emulator;
 import com.github.unidbg.file.BaseFileSystem;
 import com.github.unidbg.file.FileResult;
 import com.github.unidbg.file.FileSystem;
+import com.github.unidbg.file.overlay.OverlayFile;
+import com.github.unidbg.file.overlay.OverlayStore;
 import com.github.unidbg.linux.android.LogCatHandler;
 import com.github.unidbg.linux.file.DirectoryFileIO;
 import com.github.unidbg.linux.file.MapsFileIO;
 import com.github.unidbg.linux.file.NullFileIO;
+import com.github.unidbg.linux.file.OverlayFileIO;
 import com.github.unidbg.linux.file.SimpleFileIO;
 import com.github.unidbg.linux.file.Stdin;
 import com.github.unidbg.linux.file.Stdout;
@@ -16,6 +19,7 @@ import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 public class LinuxFileSystem extends BaseFileSystem<AndroidFileIO> implements FileSystem<AndroidFileIO>, IOConstants {
 
@@ -49,7 +53,30 @@ public class LinuxFileSystem extends BaseFileSystem<AndroidFileIO> implements Fi
 
     @Override
     public AndroidFileIO createSimpleFileIO(File file, int oflags, String path) {
-        return new SimpleFileIO(oflags, file, path);
+        SimpleFileIO io = new SimpleFileIO(oflags, file, path);
+        io.setDurability(getDurability());
+        return io;
+    }
+
+    @Override
+    protected boolean isOverlaySupported() {
+        return true;
+    }
+
+    @Override
+    protected AndroidFileIO createOverlayFileIO(OverlayFile file, int oflags, String path) {
+        return new OverlayFileIO(emulator, oflags, file, path);
+    }
+
+    @Override
+    protected AndroidFileIO createOverlayDirectoryFileIO(OverlayStore overlay, int oflags, String path) {
+        List<String> names = overlay.list(path);
+        DirectoryFileIO.DirectoryEntry[] entries = new DirectoryFileIO.DirectoryEntry[names.size()];
+        for (int i = 0; i < entries.length; i++) {
+            String name = names.get(i);
+            entries[i] = new DirectoryFileIO.DirectoryEntry(overlay.isFile(path + "/" + name), name);
+        }
+        return new DirectoryFileIO(oflags, path, entries);
     }
 
     @Override
@@ -33,6 +33,7 @@ import com.github.unidbg.linux.thread.KitKatThread;
 import com.github.unidbg.linux.thread.MarshmallowThread;
 import com.github.unidbg.memory.Memory;
 import com.github.unidbg.memory.SvcMemory;
+import com.github.unidbg.metrics.EmulatorMetrics;
 import com.github.unidbg.pointer.UnidbgPointer;
 import com.github.unidbg.thread.PopContextException;
 import com.github.unidbg.thread.Task;
@@ -97,6 +98,7 @@ public class ARM32SyscallHandler extends AndroidSyscallHandler {
         }
 
         int NR = backend.reg_read(ArmConst.UC_ARM_REG_R7).intValue();
+        EmulatorMetrics metrics = emulator.getMetrics();
         String syscall = null;
         Throwable exception = null;
         try {
@@ -129,7 +131,10 @@ public class ARM32SyscallHandler extends AndroidSyscallHandler {
                 }
                 Svc svc = svcMemory.getSvc(swi);
                 if (svc != null) {
-                    backend.reg_write(ArmConst.UC_ARM_REG_R0, (int) svc.handle(emulator));
+                    if (metrics != null) {
+                        metrics.onSvc(swi, svc);
+                    }
+                    backend.reg_write(ArmConst.UC_ARM_REG_R0, (int) handleSvc(emulator, svc));
                     return;
                 }
                 backend.emu_stop();
@@ -140,6 +145,9 @@ public class ARM32SyscallHandler extends AndroidSyscallHandler {
                 ARM.showThumbRegs(emulator);
             }
 
+            if (metrics != null) {
+                metrics.onSyscall(NR);
+            }
             if (handleSyscall(emulator, NR)) {
                 return;
             }
@@ -260,7 +268,7 @@ public class ARM32SyscallHandler extends AndroidSyscallHandler {
                     backend.reg_write(ArmConst.UC_ARM_REG_R0, sysinfo(emulator));
                     return;
                 case 118:
-                    backend.reg_write(ArmConst.UC_ARM_REG_R0, fsync(backend));
+                    backend.reg_write(ArmConst.UC_ARM_REG_R0, fsync(emulator));
                     return;
                 case 120:
                     backend.reg_write(ArmConst.UC_ARM_REG_R0, clone(emulator));
@@ -720,12 +728,18 @@ public class ARM32SyscallHandler extends AndroidSyscallHandler {
         return 0;
     }
 
-    private int fsync(Backend backend) {
+    private int fsync(Emulator<?> emulator) {
+        Backend backend = emulator.getBackend();
         int fd = backend.reg_read(ArmConst.UC_ARM_REG_R0).intValue();
         if (log.isDebugEnabled()) {
             log.debug("fsync fd=" + fd);
         }
-        return 0;
+        FileIO file = fdMap.get(fd);
+        if (file == null) {
+            emulator.getMemory().setErrno(UnixEmulator.EBADF);
+            return -1;
+        }
+        return file.fsync();
     }
 
     private int rename(Emulator<?> emulator) {
@@ -1356,11 +1370,7 @@ public class ARM32SyscallHandler extends AndroidSyscallHandler {
         if (log.isDebugEnabled()) {
             log.debug("nanosleep req=" + req + ", rem=" + rem + ", tv_sec=" + tv_sec + ", tv_nsec=" + tv_nsec);
         }
-        try {
-            java.lang.Thread.sleep(tv_sec * 1000L + tv_nsec / 1000000L);
-        } catch (InterruptedException ignored) {
-        }
-        return 0;
+        return nanosleep(emulator, tv_sec, tv_nsec);
     }
 
     private int setitimer(Emulator<?> emulator) {
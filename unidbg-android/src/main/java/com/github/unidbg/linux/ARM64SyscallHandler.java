@@ -31,6 +31,7 @@ import com.github.unidbg.linux.thread.KitKatThread;
 import com.github.unidbg.linux.thread.MarshmallowThread;
 import com.github.unidbg.memory.Memory;
 import com.github.unidbg.memory.SvcMemory;
+import com.github.unidbg.metrics.EmulatorMetrics;
 import com.github.unidbg.pointer.UnidbgPointer;
 import com.github.unidbg.thread.PopContextException;
 import com.github.unidbg.thread.Task;
@@ -83,6 +84,7 @@ public class ARM64SyscallHandler extends AndroidSyscallHandler {
         }
 
         int NR = backend.reg_read(Arm64Const.UC_ARM64_REG_X8).intValue();
+        EmulatorMetrics metrics = emulator.getMetrics();
         String syscall = null;
         Throwable exception = null;
         try {
@@ -115,7 +117,10 @@ public class ARM64SyscallHandler extends AndroidSyscallHandler {
                 }
                 Svc svc = svcMemory.getSvc(swi);
                 if (svc != null) {
-                    backend.reg_write(Arm64Const.UC_ARM64_REG_X0, svc.handle(emulator));
+                    if (metrics != null) {
+                        metrics.onSvc(swi, svc);
+                    }
+                    backend.reg_write(Arm64Const.UC_ARM64_REG_X0, handleSvc(emulator, svc));
                     return;
                 }
                 backend.emu_stop();
@@ -126,6 +131,9 @@ public class ARM64SyscallHandler extends AndroidSyscallHandler {
                 ARM.showRegs64(emulator, null);
             }
 
+            if (metrics != null) {
+                metrics.onSyscall(NR);
+            }
             if (handleSyscall(emulator, NR)) {
                 return;
             }
@@ -379,7 +387,12 @@ public class ARM64SyscallHandler extends AndroidSyscallHandler {
         if (log.isDebugEnabled()) {
             log.debug("fdatasync fd=" + fd);
         }
-        return 0;
+        FileIO file = fdMap.get(fd);
+        if (file == null) {
+            emulator.getMemory().setErrno(UnixEmulator.EBADF);
+            return -1;
+        }
+        return file.fsync();
     }
 
     private long gerrandom(Emulator<?> emulator) {
@@ -711,11 +724,7 @@ public class ARM64SyscallHandler extends AndroidSyscallHandler {
         if (log.isDebugEnabled()) {
             log.debug("nanosleep req=" + req + ", rem=" + rem + ", tv_sec=" + tv_sec + ", tv_nsec=" + tv_nsec);
         }
-        try {
-            java.lang.Thread.sleep(tv_sec * 1000L + tv_nsec / 1000000L);
-        } catch (InterruptedException ignored) {
-        }
-        return 0;
+        return nanosleep(emulator, tv_sec, tv_nsec);
     }
 
     private int sigaction(Emulator<?> emulator) {
@@ -20,7 +20,9 @@ import com.github.unidbg.memory.MemoryAllocBlock;
 import com.github.unidbg.memory.MemoryBlock;
 import com.github.unidbg.memory.MemoryBlockImpl;
 import com.github.unidbg.memory.MemoryMap;
+import com.github.unidbg.metrics.EmulatorMetrics;
 import com.github.unidbg.pointer.UnidbgPointer;
+import com.github.unidbg.snapshot.EmulatorSnapshot;
 import com.github.unidbg.spi.AbstractLoader;
 import com.github.unidbg.spi.InitFunction;
 import com.github.unidbg.spi.LibraryFile;
@@ -49,6 +51,8 @@ import unicorn.ArmConst;
 import unicorn.Unicorn;
 import unicorn.UnicornConst;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -314,7 +318,8 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
     }
 
     private LinuxModule loadInternal(LibraryFile libraryFile) throws IOException {
-        final ElfFile elfFile = ElfFile.fromBytes(libraryFile.mapBuffer());
+        ElfImageCache.Entry cached = ElfImageCache.get(libraryFile.mapBuffer());
+        final ElfFile elfFile = cached.elfFile;
 
         if (emulator.is32Bit() && elfFile.objectSize != ElfFile.CLASS_32) {
             throw new ElfException("Must be 32-bit");
@@ -338,8 +343,12 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
         long start = System.currentTimeMillis();
         long bound_high = 0;
         long align = 0;
+        ElfDynamicStructure dynamicStructure = null;
         for (int i = 0; i < elfFile.num_ph; i++) {
             ElfSegment ph = elfFile.getProgramHeader(i);
+            if (ph.type == ElfSegment.PT_DYNAMIC) {
+                dynamicStructure = ph.getDynamicStructure();
+            }
             if (ph.type == ElfSegment.PT_LOAD && ph.mem_size > 0) {
                 long high = ph.virtual_address + ph.mem_size;
 
@@ -352,12 +361,16 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
             }
         }
 
-        ElfDynamicStructure dynamicStructure = null;
+        if (dynamicStructure == null) {
+            throw new IllegalStateException("dynamicStructure is empty.");
+        }
 
         final long baseAlign = Math.max(emulator.getPageAlign(), align);
         final long load_base = ((mmapBaseAddress - 1) / baseAlign + 1) * baseAlign;
         long size = ARM.align(0, bound_high, baseAlign).size;
         setMMapBaseAddress(load_base + size);
+        ElfImage image = cached.getImage(dynamicStructure, load_base);
+        RelocationBuffer segments = image.newSegments();
 
         final List<MemRegion> regions = new ArrayList<>(5);
         MemoizedObject<ArmExIdx> armExIdx = null;
@@ -410,11 +423,8 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
                         }
                         lastAlignment = alignment;
                     }
-
-                    ph.getPtLoadData().writeTo(pointer(begin));
                     break;
                 case ElfSegment.PT_DYNAMIC:
-                    dynamicStructure = ph.getDynamicStructure();
                     break;
                 case ElfSegment.PT_INTERP:
                     if (log.isDebugEnabled()) {
@@ -435,9 +445,6 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
             }
         }
 
-        if (dynamicStructure == null) {
-            throw new IllegalStateException("dynamicStructure is empty.");
-        }
         final String soName = dynamicStructure.getSOName(libraryFile.getName());
 
         Map<String, Module> neededLibraries = new HashMap<>();
@@ -480,8 +487,8 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
         }
 
         List<ModuleSymbol> list = new ArrayList<>();
-        for (MemoizedObject<ElfRelocation> object : dynamicStructure.getRelocations()) {
-            ElfRelocation relocation = object.getValue();
+        Log soLog = LogFactory.getLog("com.github.unidbg.linux." + soName);
+        for (ElfRelocation relocation : image.getRelocations()) {
             final int type = relocation.type();
             if (type == 0) {
                 log.warn("Unhandled relocation type " + type);
@@ -492,30 +499,29 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
             Pointer relocationAddr = UnidbgPointer.pointer(emulator, load_base + relocation.offset());
             assert relocationAddr != null;
 
-            Log log = LogFactory.getLog("com.github.unidbg.linux." + soName);
-            if (log.isDebugEnabled()) {
-                log.debug("symbol=" + symbol + ", type=" + type + ", relocationAddr=" + relocationAddr + ", offset=0x" + Long.toHexString(relocation.offset()) + ", addend=" + relocation.addend() + ", sym=" + relocation.sym() + ", android=" + relocation.isAndroid());
+            if (soLog.isDebugEnabled()) {
+                soLog.debug("symbol=" + symbol + ", type=" + type + ", relocationAddr=" + relocationAddr + ", offset=0x" + Long.toHexString(relocation.offset()) + ", addend=" + relocation.addend() + ", sym=" + relocation.sym() + ", android=" + relocation.isAndroid());
             }
 
             ModuleSymbol moduleSymbol;
             switch (type) {
                 case ARMEmulator.R_ARM_ABS32: {
-                    int offset = relocationAddr.getInt(0);
+                    int offset = segments.contains(relocation.offset(), 4) ? segments.getInt(relocation.offset()) : relocationAddr.getInt(0);
                     moduleSymbol = resolveSymbol(load_base, symbol, relocationAddr, soName, neededLibraries.values(), offset);
                     if (moduleSymbol == null) {
                         list.add(new ModuleSymbol(soName, load_base, symbol, relocationAddr, null, offset));
                     } else {
-                        moduleSymbol.relocation(emulator);
+                        relocation(moduleSymbol, relocation.offset(), segments);
                     }
                     break;
                 }
                 case ARMEmulator.R_AARCH64_ABS64: {
-                    long offset = relocationAddr.getLong(0) + relocation.addend();
+                    long offset = (segments.contains(relocation.offset(), 8) ? segments.getLong(relocation.offset()) : relocationAddr.getLong(0)) + relocation.addend();
                     moduleSymbol = resolveSymbol(load_base, symbol, relocationAddr, soName, neededLibraries.values(), offset);
                     if (moduleSymbol == null) {
                         list.add(new ModuleSymbol(soName, load_base, symbol, relocationAddr, null, offset));
                     } else {
-                        moduleSymbol.relocation(emulator);
+                        relocation(moduleSymbol, relocation.offset(), segments);
                     }
                     break;
                 }
@@ -541,7 +547,7 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
                     if (moduleSymbol == null) {
                         list.add(new ModuleSymbol(soName, load_base, symbol, relocationAddr, null, 0));
                     } else {
-                        moduleSymbol.relocation(emulator);
+                        relocation(moduleSymbol, relocation.offset(), segments);
                     }
                     break;
                 case ARMEmulator.R_AARCH64_GLOB_DAT:
@@ -550,7 +556,7 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
                     if (moduleSymbol == null) {
                         list.add(new ModuleSymbol(soName, load_base, symbol, relocationAddr, null, relocation.addend()));
                     } else {
-                        moduleSymbol.relocation(emulator);
+                        relocation(moduleSymbol, relocation.offset(), segments);
                     }
                     break;
                 case ARMEmulator.R_ARM_COPY:
@@ -568,11 +574,18 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
                 case ARMEmulator.R_ARM_IRELATIVE:
                 case ARMEmulator.R_ARM_REL32:
                 default:
-                    log.warn("[" + soName + "]Unhandled relocation type " + type + ", symbol=" + symbol + ", relocationAddr=" + relocationAddr + ", offset=0x" + Long.toHexString(relocation.offset()) + ", addend=" + relocation.addend() + ", android=" + relocation.isAndroid());
+                    soLog.warn("[" + soName + "]Unhandled relocation type " + type + ", symbol=" + symbol + ", relocationAddr=" + relocationAddr + ", offset=0x" + Long.toHexString(relocation.offset()) + ", addend=" + relocation.addend() + ", android=" + relocation.isAndroid());
                     break;
             }
         }
 
+        for (int i = 0; i < elfFile.num_ph; i++) {
+            ElfSegment ph = elfFile.getProgramHeader(i);
+            if (ph.type == ElfSegment.PT_LOAD) {
+                segments.writeTo(i, pointer(load_base + ph.virtual_address));
+            }
+        }
+
         List<InitFunction> initFunctionList = new ArrayList<>();
         if (elfFile.file_type == ElfFile.FT_EXEC) {
             int preInitArraySize = dynamicStructure.getPreInitArraySize();
@@ -649,6 +662,19 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
     private String maxSoName;
     private long maxSizeOfSo;
 
+    /**
+     * 落在 PT_LOAD 段里的先写到 segments，加载完成后一次写入
+     */
+    private void relocation(ModuleSymbol moduleSymbol, long offset, RelocationBuffer segments) {
+        if (emulator.is64Bit() && segments.contains(offset, 8)) {
+            segments.putLong(offset, moduleSymbol.getRelocationValue());
+        } else if (emulator.is32Bit() && segments.contains(offset, 4)) {
+            segments.putInt(offset, (int) moduleSymbol.getRelocationValue());
+        } else {
+            moduleSymbol.relocation(emulator);
+        }
+    }
+
     private ModuleSymbol resolveSymbol(long load_base, ElfSymbol symbol, Pointer relocationAddr, String soName, Collection<Module> neededLibraries, long offset) throws IOException {
         if (symbol == null) {
             return new ModuleSymbol(soName, load_base, null, relocationAddr, soName, offset);
@@ -714,6 +740,10 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
 
     @Override
     public long mmap2(long start, int length, int prot, int flags, int fd, int offset) {
+        EmulatorMetrics metrics = emulator.getMetrics();
+        if (metrics != null) {
+            metrics.onMmap();
+        }
         int aligned = (int) ARM.alignSize(length, emulator.getPageAlign());
 
         boolean isAnonymous = ((flags & MAP_ANONYMOUS) != 0) || (start == 0 && fd <= 0 && offset == 0);
@@ -793,4 +823,200 @@ public class AndroidElfLoader extends AbstractLoader<AndroidFileIO> implements M
     public Collection<Module> getLoadedModules() {
         return new ArrayList<Module>(modules.values());
     }
+
+    private static final String SNAPSHOT_KEY = AndroidElfLoader.class.getName();
+
+    private static class ModuleState {
+        final LinuxModule module;
+        final List<ModuleSymbol> unresolvedSymbol;
+        final List<InitFunction> initFunctionList;
+        final Map<String, Long> hookMap;
+        final int referenceCount;
+        ModuleState(LinuxModule module) {
+            this.module = module;
+            this.unresolvedSymbol = new ArrayList<>(module.getUnresolvedSymbol());
+            this.initFunctionList = new ArrayList<>(module.initFunctionList);
+            this.hookMap = new HashMap<>(module.hookMap);
+            this.referenceCount = module.getReferenceCount();
+        }
+        ModuleState(LinuxModule module, int referenceCount) {
+            this.module = module;
+            this.unresolvedSymbol = new ArrayList<>(module.getUnresolvedSymbol());
+            this.initFunctionList = new ArrayList<>(module.initFunctionList);
+            this.hookMap = new HashMap<>(module.hookMap);
+            this.referenceCount = referenceCount;
+        }
+    }
+
+    private static class ElfLoaderState {
+        final AndroidElfLoader owner;
+        final Map<String, ModuleState> modules = new LinkedHashMap<>();
+        final Symbol malloc, free;
+        final long brk;
+        final long errno;
+        final int lastErrno;
+        final String maxSoName;
+        final long maxSizeOfSo;
+        ElfLoaderState(AndroidElfLoader loader) {
+            this.owner = loader;
+            for (Map.Entry<String, LinuxModule> entry : loader.modules.entrySet()) {
+                modules.put(entry.getKey(), new ModuleState(entry.getValue()));
+            }
+            this.malloc = loader.malloc;
+            this.free = loader.free;
+            this.brk = loader.brk;
+            this.errno = UnidbgPointer.nativeValue(loader.errno);
+            this.lastErrno = loader.lastErrno;
+            this.maxSoName = loader.maxSoName;
+            this.maxSizeOfSo = loader.maxSizeOfSo;
+        }
+        ElfLoaderState(long brk, long errno, int lastErrno, String maxSoName, long maxSizeOfSo) {
+            this.owner = null;
+            this.malloc = null;
+            this.free = null;
+            this.brk = brk;
+            this.errno = errno;
+            this.lastErrno = lastErrno;
+            this.maxSoName = maxSoName;
+            this.maxSizeOfSo = maxSizeOfSo;
+        }
+    }
+
+    @Override
+    protected void snapshotInternal(EmulatorSnapshot snapshot) {
+        snapshot.put(SNAPSHOT_KEY, new ElfLoaderState(this));
+        if (brk > HEAP_BASE) {
+            snapshot.capturePages(backend, HEAP_BASE, brk - HEAP_BASE);
+        }
+    }
+
+    @Override
+    protected void restoreInternal(EmulatorSnapshot snapshot) {
+        ElfLoaderState state = snapshot.get(SNAPSHOT_KEY);
+
+        if (brk > HEAP_BASE) {
+            backend.mem_unmap(HEAP_BASE, brk - HEAP_BASE);
+        }
+        this.brk = state.brk;
+        if (brk > HEAP_BASE) {
+            backend.mem_map(HEAP_BASE, brk - HEAP_BASE, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+            snapshot.restorePages(backend, HEAP_BASE, brk - HEAP_BASE, true);
+        }
+
+        modules.clear();
+        if (state.owner == this) {
+            for (Map.Entry<String, ModuleState> entry : state.modules.entrySet()) {
+                ModuleState ms = entry.getValue();
+                LinuxModule module = ms.module;
+                if (!module.isVirtual()) {
+                    module.getUnresolvedSymbol().clear();
+                    module.getUnresolvedSymbol().addAll(ms.unresolvedSymbol);
+                    module.initFunctionList.clear();
+                    module.initFunctionList.addAll(ms.initFunctionList);
+                    module.hookMap.clear();
+                    module.hookMap.putAll(ms.hookMap);
+                }
+                module.setReferenceCount(ms.referenceCount);
+                modules.put(entry.getKey(), module);
+            }
+            this.malloc = state.malloc;
+            this.free = state.free;
+        } else {
+            Map<Module, LinuxModule> forked = new HashMap<>();
+            Map<LinuxModule, Map<String, Module>> neededMap = new HashMap<>();
+            for (Map.Entry<String, ModuleState> entry : state.modules.entrySet()) {
+                ModuleState ms = entry.getValue();
+                LinuxModule module = ms.module;
+                if (!module.isVirtual()) {
+                    if (!ms.initFunctionList.isEmpty()) {
+                        throw new IllegalStateException("Fork with pending init functions: " + module.name);
+                    }
+                    Map<String, Module> neededLibraries = new LinkedHashMap<>();
+                    LinuxModule copy = module.fork(emulator, neededLibraries, ms.unresolvedSymbol, ms.hookMap);
+                    copy.setReferenceCount(ms.referenceCount);
+                    neededMap.put(copy, neededLibraries);
+                    module = copy;
+                }
+                forked.put(ms.module, module);
+                modules.put(entry.getKey(), module);
+            }
+            for (Map.Entry<Module, LinuxModule> entry : forked.entrySet()) {
+                Map<String, Module> neededLibraries = neededMap.get(entry.getValue());
+                if (neededLibraries == null) {
+                    continue;
+                }
+                for (Module needed : entry.getKey().getNeededLibraries()) {
+                    LinuxModule copy = forked.get(needed);
+                    neededLibraries.put(FilenameUtils.getBaseName(needed.name), copy == null ? needed : copy);
+                }
+            }
+            LinuxModule libc = modules.get("libc.so");
+            this.malloc = libc == null ? null : libc.findSymbolByName("malloc");
+            this.free = libc == null ? null : libc.findSymbolByName("free");
+        }
+
+        this.errno = UnidbgPointer.pointer(emulator, state.errno);
+        this.lastErrno = state.lastErrno;
+        this.maxSoName = state.maxSoName;
+        this.maxSizeOfSo = state.maxSizeOfSo;
+    }
+
+    @Override
+    protected void writeStateInternal(EmulatorSnapshot snapshot, DataOutput out) throws IOException {
+        ElfLoaderState state = snapshot.get(SNAPSHOT_KEY);
+        out.writeInt(state.modules.size());
+        for (Map.Entry<String, ModuleState> entry : state.modules.entrySet()) {
+            ModuleState ms = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeInt(ms.referenceCount);
+            out.writeBoolean(ms.module.isVirtual());
+            if (ms.module.isVirtual()) {
+                continue;
+            }
+            if (!ms.initFunctionList.isEmpty()) {
+                throw new IllegalStateException("Checkpoint with pending init functions: " + ms.module.name);
+            }
+            ms.module.write(out, ms.unresolvedSymbol, ms.hookMap);
+        }
+        out.writeLong(state.brk);
+        out.writeLong(state.errno);
+        out.writeInt(state.lastErrno);
+        out.writeBoolean(state.maxSoName != null);
+        if (state.maxSoName != null) {
+            out.writeUTF(state.maxSoName);
+        }
+        out.writeLong(state.maxSizeOfSo);
+    }
+
+    /**
+     * 虚拟模块不写入检查点，必须已经加载到本实例
+     */
+    @Override
+    protected void readStateInternal(EmulatorSnapshot snapshot, DataInput in) throws IOException {
+        Map<String, ModuleState> moduleStates = new LinkedHashMap<>();
+        Map<String, LinuxModule> loaded = new HashMap<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String soName = in.readUTF();
+            int referenceCount = in.readInt();
+            LinuxModule module;
+            if (in.readBoolean()) {
+                module = modules.get(soName);
+                if (module == null || !module.isVirtual()) {
+                    throw new IllegalStateException("Virtual module not loaded: " + soName);
+                }
+            } else {
+                module = LinuxModule.read(emulator, in, loaded);
+            }
+            loaded.put(module.name, module);
+            moduleStates.put(soName, new ModuleState(module, referenceCount));
+        }
+        long brk = in.readLong();
+        long errno = in.readLong();
+        int lastErrno = in.readInt();
+        String maxSoName = in.readBoolean() ? in.readUTF() : null;
+        ElfLoaderState state = new ElfLoaderState(brk, errno, lastErrno, maxSoName, in.readLong());
+        state.modules.putAll(moduleStates);
+        snapshot.put(SNAPSHOT_KEY, state);
+    }
 }
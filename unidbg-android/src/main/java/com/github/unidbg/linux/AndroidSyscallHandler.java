@@ -19,20 +19,23 @@ import com.github.unidbg.linux.struct.StatFS;
 import com.github.unidbg.linux.struct.StatFS32;
 import com.github.unidbg.linux.struct.StatFS64;
 import com.github.unidbg.linux.thread.FutexIndefinitelyWaiter;
+import com.github.unidbg.linux.thread.FutexTimedWaiter;
+import com.github.unidbg.linux.thread.FutexWaitQueues;
 import com.github.unidbg.linux.thread.FutexWaiter;
 import com.github.unidbg.linux.thread.MarshmallowThread;
+import com.github.unidbg.linux.thread.NanoSleepWaiter;
 import com.github.unidbg.memory.Memory;
 import com.github.unidbg.pointer.UnidbgPointer;
 import com.github.unidbg.signal.SigSet;
 import com.github.unidbg.signal.SignalOps;
 import com.github.unidbg.spi.SyscallHandler;
 import com.github.unidbg.thread.MainTask;
+import com.github.unidbg.thread.ParkWaiter;
 import com.github.unidbg.thread.RunnableTask;
 import com.github.unidbg.thread.Task;
 import com.github.unidbg.thread.ThreadContextSwitchException;
 import com.github.unidbg.thread.ThreadDispatcher;
 import com.github.unidbg.thread.ThreadTask;
-import com.github.unidbg.thread.Waiter;
 import com.github.unidbg.unix.IO;
 import com.github.unidbg.unix.UnixEmulator;
 import com.github.unidbg.unix.UnixSyscallHandler;
@@ -148,6 +151,19 @@ public abstract class AndroidSyscallHandler extends UnixSyscallHandler<AndroidFi
         return 0;
     }
 
+    protected int nanosleep(Emulator<?> emulator, long tv_sec, long tv_nsec) {
+        RunnableTask runningTask = emulator.getThreadDispatcher().getRunningTask();
+        if (threadDispatcherEnabled && runningTask != null && emulator.getThreadDispatcher().getTaskCount() > 1) {
+            runningTask.setWaiter(new NanoSleepWaiter(ParkWaiter.toNanos(tv_sec, tv_nsec)));
+            throw new ThreadContextSwitchException();
+        }
+        try {
+            java.lang.Thread.sleep(tv_sec * 1000L + tv_nsec / 1000000L);
+        } catch (InterruptedException ignored) {
+        }
+        return 0;
+    }
+
     protected int sched_yield(Emulator<AndroidFileIO> emulator) {
         if (log.isDebugEnabled()) {
             log.debug("sched_yield");
@@ -256,6 +272,8 @@ public abstract class AndroidSyscallHandler extends UnixSyscallHandler<AndroidFi
 
     private static final int ETIMEDOUT = 110;
 
+    private final FutexWaitQueues futexWaitQueues = new FutexWaitQueues();
+
     protected int futex(Emulator<?> emulator) {
         RegisterContext context = emulator.getContext();
         Pointer uaddr = context.getPointerArg(0);
@@ -285,12 +303,15 @@ public abstract class AndroidSyscallHandler extends UnixSyscallHandler<AndroidFi
                 }
                 RunnableTask runningTask = emulator.getThreadDispatcher().getRunningTask();
                 if (threadDispatcherEnabled && runningTask != null) {
+                    FutexWaiter waiter;
                     if (timeSpec == null) {
-                        runningTask.setWaiter(new FutexIndefinitelyWaiter(uaddr, val));
-                        throw new ThreadContextSwitchException();
+                        waiter = new FutexIndefinitelyWaiter(uaddr, val);
                     } else {
-                        throw new ThreadContextSwitchException().setReturnValue(-ETIMEDOUT);
+                        waiter = new FutexTimedWaiter(uaddr, val, ParkWaiter.toNanos(timeSpec.getTvSec(), timeSpec.getTvNsec()));
                     }
+                    futexWaitQueues.park(waiter);
+                    runningTask.setWaiter(waiter);
+                    throw new ThreadContextSwitchException();
                 }
                 if (threadDispatcherEnabled && emulator.getThreadDispatcher().getTaskCount() > 1) {
                     throw new ThreadContextSwitchException().setReturnValue(-ETIMEDOUT);
@@ -304,17 +325,7 @@ public abstract class AndroidSyscallHandler extends UnixSyscallHandler<AndroidFi
                 if (emulator.getThreadDispatcher().getTaskCount() <= 1) {
                     return 0;
                 }
-                int count = 0;
-                for (Task t : emulator.getThreadDispatcher().getTaskList()) {
-                    Waiter waiter = t.getWaiter();
-                    if (waiter instanceof FutexWaiter) {
-                        if (((FutexWaiter) waiter).wakeUp(uaddr)) {
-                            if (++count >= val) {
-                                break;
-                            }
-                        }
-                    }
-                }
+                int count = futexWaitQueues.wake(uaddr, val);
                 if (count > 0) {
                     throw new ThreadContextSwitchException().setReturnValue(count);
                 }
@@ -575,6 +586,12 @@ public abstract class AndroidSyscallHandler extends UnixSyscallHandler<AndroidFi
         if (task instanceof ThreadTask) {
             ThreadTask threadTask = (ThreadTask) task;
             threadTask.setExitStatus(status);
+            if (threadTask instanceof MarshmallowThread) {
+                Pointer tidptr = ((MarshmallowThread) threadTask).getClearChildTid();
+                if (tidptr != null) { // CLONE_CHILD_CLEARTID
+                    futexWaitQueues.wake(tidptr, Integer.MAX_VALUE);
+                }
+            }
             throw new ThreadContextSwitchException().setReturnValue(0);
         }
         System.out.println("exit status=" + status);
@@ -0,0 +1,93 @@
+package com.github.unidbg.linux;
+
+import com.github.unidbg.arm.ARMEmulator;
+import net.fornwall.jelf.ElfDynamicStructure;
+import net.fornwall.jelf.ElfFile;
+import net.fornwall.jelf.ElfRelocation;
+import net.fornwall.jelf.ElfSegment;
+import net.fornwall.jelf.MemoizedObject;
+import net.fornwall.jelf.PtLoadData;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * so 在某个 load_base 上的加载镜像：PT_LOAD 段已经应用了 RELATIVE 重定位，
+ * 需要解析符号的重定位只记录下来，由每个模拟器加载时自己处理。
+ * 不依赖模拟器状态，可以在多个模拟器之间共享
+ */
+final class ElfImage {
+
+    private final RelocationBuffer segments;
+    private final List<ElfRelocation> relocations;
+    private final long byteSize;
+
+    private ElfImage(RelocationBuffer segments, List<ElfRelocation> relocations) {
+        this.segments = segments;
+        this.relocations = Collections.unmodifiableList(relocations);
+        this.byteSize = segments.getByteSize() + relocations.size() * 64L;
+    }
+
+    /**
+     * @return 本次加载使用的段数据副本
+     */
+    RelocationBuffer newSegments() {
+        return segments.copy();
+    }
+
+    /**
+     * @return 需要在加载时解析符号的重定位，保持原来的顺序
+     */
+    List<ElfRelocation> getRelocations() {
+        return relocations;
+    }
+
+    long getByteSize() {
+        return byteSize;
+    }
+
+    static ElfImage create(ElfFile elfFile, ElfDynamicStructure dynamicStructure, long load_base) throws IOException {
+        long[] addresses = new long[elfFile.num_ph];
+        long[] memSizes = new long[elfFile.num_ph];
+        byte[][] data = new byte[elfFile.num_ph][];
+        for (int i = 0; i < elfFile.num_ph; i++) {
+            ElfSegment ph = elfFile.getProgramHeader(i);
+            addresses[i] = -1;
+            if (ph.type == ElfSegment.PT_LOAD) {
+                PtLoadData ptLoadData = ph.getPtLoadData();
+                addresses[i] = ph.virtual_address;
+                memSizes[i] = ph.mem_size;
+                data[i] = ptLoadData == null ? new byte[0] : ptLoadData.toByteArray();
+            }
+        }
+        RelocationBuffer segments = new RelocationBuffer(addresses, memSizes, data);
+
+        List<ElfRelocation> list = new ArrayList<>();
+        for (MemoizedObject<ElfRelocation> object : dynamicStructure.getRelocations()) {
+            ElfRelocation relocation = object.getValue();
+            int type = relocation.type();
+            if (type == ARMEmulator.R_ARM_RELATIVE || type == ARMEmulator.R_AARCH64_RELATIVE) {
+                long sym_value = relocation.sym() == 0 ? 0 : relocation.symbol().value;
+                if (sym_value != 0) {
+                    throw new IllegalStateException("sym_value=0x" + Long.toHexString(sym_value));
+                }
+                long offset = relocation.offset();
+                if (type == ARMEmulator.R_ARM_RELATIVE && segments.contains(offset, 4)) {
+                    segments.putInt(offset, (int) load_base + segments.getInt(offset));
+                    continue;
+                }
+                if (type == ARMEmulator.R_AARCH64_RELATIVE && segments.contains(offset, 8)) {
+                    segments.putLong(offset, load_base + relocation.addend());
+                    continue;
+                }
+            } else if (relocation.sym() != 0) {
+                relocation.symbol();
+            }
+            list.add(relocation);
+        }
+        return new ElfImage(segments, list);
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.github.unidbg.linux;
+
+import net.fornwall.jelf.ElfDynamicStructure;
+import net.fornwall.jelf.ElfFile;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 进程内共享的 so 解析缓存：按文件内容的摘要缓存解析好的 {@link ElfFile}（头、动态段、符号表），
+ * 以及按 load_base 缓存的 {@link ElfImage}。同一个 so 在多个模拟器里加载时，只解析和重定位一次
+ */
+public final class ElfImageCache {
+
+    private static final Log log = LogFactory.getLog(ElfImageCache.class);
+
+    private static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+
+    private static final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private static long maxSize = DEFAULT_MAX_SIZE;
+    private static long size;
+
+    /**
+     * @param maxSize 缓存占用的最大字节数，0 表示不缓存
+     */
+    public static synchronized void setMaxSize(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize=" + maxSize);
+        }
+        ElfImageCache.maxSize = maxSize;
+        trimToSize();
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * 解析时不移动 buffer 的 position
+     */
+    static Entry get(ByteBuffer buffer) {
+        synchronized (ElfImageCache.class) {
+            if (maxSize == 0) {
+                return new Entry(null, ElfFile.fromBytes(buffer.duplicate()), buffer.remaining());
+            }
+        }
+
+        String key = digest(buffer);
+        synchronized (ElfImageCache.class) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+
+        Entry entry = new Entry(key, ElfFile.fromBytes(buffer.duplicate()), buffer.remaining());
+        synchronized (ElfImageCache.class) {
+            Entry exists = entries.get(key);
+            if (exists != null) {
+                return exists;
+            }
+            entries.put(key, entry);
+            size += entry.byteSize;
+            trimToSize();
+        }
+        return entry;
+    }
+
+    private static void trimToSize() {
+        for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext() && size > maxSize; ) {
+            Entry entry = iterator.next();
+            iterator.remove();
+            size -= entry.byteSize;
+            if (log.isDebugEnabled()) {
+                log.debug("evict " + entry.key + ", size=" + size);
+            }
+        }
+    }
+
+    private static String digest(ByteBuffer buffer) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+            messageDigest.update(buffer.duplicate());
+            return Hex.encodeHexString(messageDigest.digest()) + "_" + buffer.remaining();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Entry {
+
+        private final String key;
+        final ElfFile elfFile;
+        private final Map<Long, ElfImage> images = new HashMap<>();
+        private long byteSize;
+
+        private Entry(String key, ElfFile elfFile, long byteSize) {
+            this.key = key;
+            this.elfFile = elfFile;
+            this.byteSize = byteSize;
+        }
+
+        ElfImage getImage(ElfDynamicStructure dynamicStructure, long load_base) throws IOException {
+            if (key == null) {
+                return ElfImage.create(elfFile, dynamicStructure, load_base);
+            }
+            synchronized (ElfImageCache.class) {
+                ElfImage image = images.get(load_base);
+                if (image != null) {
+                    return image;
+                }
+            }
+
+            ElfImage image = ElfImage.create(elfFile, dynamicStructure, load_base);
+            synchronized (ElfImageCache.class) {
+                ElfImage exists = images.get(load_base);
+                if (exists != null) {
+                    return exists;
+                }
+                images.put(load_base, image);
+                byteSize += image.getByteSize();
+                if (entries.get(key) == this) {
+                    size += image.getByteSize();
+                    trimToSize();
+                }
+            }
+            return image;
+        }
+    }
+
+}
@@ -9,6 +9,7 @@ import com.github.unidbg.memory.MemRegion;
 import com.github.unidbg.memory.Memory;
 import com.github.unidbg.pointer.UnidbgPointer;
 import com.github.unidbg.spi.InitFunction;
+import com.github.unidbg.spi.LibraryFile;
 import com.github.unidbg.utils.Inspector;
 import com.github.unidbg.virtualmodule.VirtualSymbol;
 import com.sun.jna.Pointer;
@@ -17,15 +18,22 @@ import net.fornwall.jelf.ElfDynamicStructure;
 import net.fornwall.jelf.ElfException;
 import net.fornwall.jelf.ElfFile;
 import net.fornwall.jelf.ElfSection;
+import net.fornwall.jelf.ElfSegment;
 import net.fornwall.jelf.ElfSymbol;
+import net.fornwall.jelf.ElfSymbolStructure;
 import net.fornwall.jelf.GnuEhFrameHeader;
 import net.fornwall.jelf.MemoizedObject;
 import net.fornwall.jelf.SymbolLocator;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -111,6 +119,160 @@ public class LinuxModule extends Module {
         this.dynamicStructure = dynamicStructure;
     }
 
+    /**
+     * 复制到另一个模拟器，解析后的 elf 共享，可变状态独立
+     */
+    LinuxModule fork(Emulator<?> emulator, Map<String, Module> neededLibraries, List<ModuleSymbol> unresolvedSymbol, Map<String, Long> hookMap) {
+        List<ModuleSymbol> symbols = new ArrayList<>(unresolvedSymbol.size());
+        for (ModuleSymbol moduleSymbol : unresolvedSymbol) {
+            symbols.add(moduleSymbol.rebind(emulator));
+        }
+        LinuxModule module = new LinuxModule(base, size, name, dynsym, symbols, new ArrayList<InitFunction>(), neededLibraries, getRegions(),
+                armExIdx, ehFrameHeader, symbolTableSection, elfFile, dynamicStructure);
+        module.hookMap.putAll(hookMap);
+        module.entryPoint = entryPoint;
+        module.initFunctionListener = initFunctionListener;
+        if (isForceCallInit()) {
+            module.setForceCallInit();
+        }
+        return module;
+    }
+
+    /**
+     * 写入检查点，elf 文件原样保存，读取时重新解析
+     */
+    void write(DataOutput out, List<ModuleSymbol> unresolvedSymbol, Map<String, Long> hookMap) throws IOException {
+        out.writeUTF(name);
+        out.writeLong(base);
+        out.writeLong(size);
+        out.writeLong(entryPoint);
+        out.writeBoolean(isForceCallInit());
+        Collection<Module> neededLibraries = getNeededLibraries();
+        out.writeInt(neededLibraries.size());
+        for (Module needed : neededLibraries) {
+            out.writeUTF(needed.name);
+        }
+        List<MemRegion> regions = getRegions();
+        out.writeInt(regions.size());
+        for (MemRegion region : regions) {
+            out.writeLong(region.begin);
+            out.writeLong(region.end);
+            out.writeInt(region.perms);
+            out.writeLong(region.offset);
+        }
+        out.writeUTF(regions.get(0).getName());
+        byte[] elf = regions.get(0).readLibrary();
+        out.writeInt(elf.length);
+        out.write(elf);
+        out.writeInt(hookMap.size());
+        for (Map.Entry<String, Long> entry : hookMap.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+        out.writeInt(unresolvedSymbol.size());
+        for (ModuleSymbol moduleSymbol : unresolvedSymbol) {
+            moduleSymbol.write(out, (ElfSymbolStructure) dynsym);
+        }
+    }
+
+    /**
+     * @param loaded 已经读取的模块，依赖的模块必须在其中
+     */
+    static LinuxModule read(Emulator<?> emulator, DataInput in, Map<String, ? extends Module> loaded) throws IOException {
+        String name = in.readUTF();
+        long base = in.readLong();
+        long size = in.readLong();
+        long entryPoint = in.readLong();
+        boolean forceCallInit = in.readBoolean();
+        int count = in.readInt();
+        Map<String, Module> neededLibraries = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String neededName = in.readUTF();
+            Module needed = loaded.get(neededName);
+            if (needed == null) {
+                throw new IllegalStateException("Needed library not loaded: " + neededName + ", module=" + name);
+            }
+            neededLibraries.put(FilenameUtils.getBaseName(needed.name), needed);
+        }
+        long[][] regionValues = new long[in.readInt()][];
+        for (int i = 0; i < regionValues.length; i++) {
+            regionValues[i] = new long[]{in.readLong(), in.readLong(), in.readInt(), in.readLong()};
+        }
+        final String regionName = in.readUTF();
+        final byte[] elf = new byte[in.readInt()];
+        in.readFully(elf);
+        LibraryFile libraryFile = new LibraryFile() {
+            @Override
+            public String getName() {
+                return FilenameUtils.getName(regionName);
+            }
+            @Override
+            public String getMapRegionName() {
+                return regionName;
+            }
+            @Override
+            public LibraryFile resolveLibrary(Emulator<?> emulator, String soName) {
+                throw new UnsupportedOperationException();
+            }
+            @Override
+            public ByteBuffer mapBuffer() {
+                return ByteBuffer.wrap(elf);
+            }
+            @Override
+            public String getPath() {
+                return regionName;
+            }
+        };
+        List<MemRegion> regions = new ArrayList<>(regionValues.length);
+        for (long[] values : regionValues) {
+            regions.add(new MemRegion(values[0], values[1], (int) values[2], libraryFile, values[3]));
+        }
+
+        ElfFile elfFile = ElfImageCache.get(libraryFile.mapBuffer()).elfFile;
+        ElfDynamicStructure dynamicStructure = null;
+        MemoizedObject<ArmExIdx> armExIdx = null;
+        MemoizedObject<GnuEhFrameHeader> ehFrameHeader = null;
+        for (int i = 0; i < elfFile.num_ph; i++) {
+            ElfSegment ph = elfFile.getProgramHeader(i);
+            switch (ph.type) {
+                case ElfSegment.PT_DYNAMIC:
+                    dynamicStructure = ph.getDynamicStructure();
+                    break;
+                case ElfSegment.PT_GNU_EH_FRAME:
+                    ehFrameHeader = ph.getEhFrameHeader();
+                    break;
+                case ElfSegment.PT_ARM_EXIDX:
+                    armExIdx = ph.getARMExIdxData();
+                    break;
+            }
+        }
+        if (dynamicStructure == null) {
+            throw new IllegalStateException("dynamicStructure is empty: " + name);
+        }
+        ElfSymbolStructure dynsym = dynamicStructure.getSymbolStructure();
+        ElfSection symbolTableSection = null;
+        try {
+            symbolTableSection = elfFile.getSymbolTableSection();
+        } catch(Throwable ignored) {}
+
+        List<ModuleSymbol> unresolvedSymbol = new ArrayList<>();
+        LinuxModule module = new LinuxModule(base, size, name, dynsym, unresolvedSymbol, new ArrayList<InitFunction>(), neededLibraries, regions,
+                armExIdx, ehFrameHeader, symbolTableSection, elfFile, dynamicStructure);
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            module.hookMap.put(in.readUTF(), in.readLong());
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            unresolvedSymbol.add(ModuleSymbol.read(emulator, in, dynsym));
+        }
+        module.entryPoint = entryPoint;
+        if (forceCallInit) {
+            module.setForceCallInit();
+        }
+        return module;
+    }
+
     @Override
     public int virtualMemoryAddressToFileOffset(long offset) {
         try {
@@ -166,8 +328,18 @@ public class LinuxModule extends Module {
         }
     }
 
+    /**
+     * 符号表不会变，查找结果（包括找不到）按名字缓存，加载时同一个符号会被多次重定位
+     */
+    private final Map<String, ElfSymbol> symbolCache = new HashMap<>();
+
     public ElfSymbol getELFSymbolByName(String name) throws IOException {
-        return dynsym.getELFSymbolByName(name);
+        ElfSymbol symbol = symbolCache.get(name);
+        if (symbol == null && !symbolCache.containsKey(name)) {
+            symbol = dynsym.getELFSymbolByName(name);
+            symbolCache.put(name, symbol);
+        }
+        return symbol;
     }
 
     @Override
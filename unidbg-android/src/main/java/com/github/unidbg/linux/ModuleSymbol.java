@@ -4,9 +4,13 @@ import com.github.unidbg.Emulator;
 import com.github.unidbg.Module;
 import com.github.unidbg.hook.HookListener;
 import com.github.unidbg.memory.SvcMemory;
+import com.github.unidbg.pointer.UnidbgPointer;
 import com.sun.jna.Pointer;
 import net.fornwall.jelf.ElfSymbol;
+import net.fornwall.jelf.ElfSymbolStructure;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
@@ -91,13 +95,16 @@ public class ModuleSymbol {
         return null;
     }
 
-    void relocation(Emulator<?> emulator) {
-        final long value;
+    long getRelocationValue() {
         if (load_base == WEAK_BASE) {
-            value = offset;
+            return offset;
         } else {
-            value = load_base + (symbol == null ? 0 : symbol.value) + offset;
+            return load_base + (symbol == null ? 0 : symbol.value) + offset;
         }
+    }
+
+    void relocation(Emulator<?> emulator) {
+        final long value = getRelocationValue();
         if (emulator.is64Bit()) {
             relocationAddr.setLong(0, value);
         } else {
@@ -105,6 +112,33 @@ public class ModuleSymbol {
         }
     }
 
+    ModuleSymbol rebind(Emulator<?> emulator) {
+        Pointer pointer = relocationAddr == null ? null : UnidbgPointer.pointer(emulator, UnidbgPointer.nativeValue(relocationAddr));
+        return new ModuleSymbol(soName, load_base, symbol, pointer, toSoName, offset);
+    }
+
+    void write(DataOutput out, ElfSymbolStructure dynsym) throws IOException {
+        out.writeUTF(soName);
+        out.writeLong(load_base);
+        out.writeInt(symbol == null ? -1 : dynsym.getSymbolIndex(symbol));
+        out.writeLong(relocationAddr == null ? 0 : UnidbgPointer.nativeValue(relocationAddr));
+        out.writeBoolean(toSoName != null);
+        if (toSoName != null) {
+            out.writeUTF(toSoName);
+        }
+        out.writeLong(offset);
+    }
+
+    static ModuleSymbol read(Emulator<?> emulator, DataInput in, ElfSymbolStructure dynsym) throws IOException {
+        String soName = in.readUTF();
+        long load_base = in.readLong();
+        int index = in.readInt();
+        ElfSymbol symbol = index == -1 ? null : dynsym.getELFSymbol(index);
+        Pointer relocationAddr = UnidbgPointer.pointer(emulator, in.readLong());
+        String toSoName = in.readBoolean() ? in.readUTF() : null;
+        return new ModuleSymbol(soName, load_base, symbol, relocationAddr, toSoName, in.readLong());
+    }
+
     public ElfSymbol getSymbol() {
         return symbol;
     }
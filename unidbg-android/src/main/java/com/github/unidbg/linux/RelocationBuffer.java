@@ -0,0 +1,111 @@
+package com.github.unidbg.linux;
+
+import com.github.unidbg.pointer.UnidbgPointer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * PT_LOAD 段在堆上的副本，重定位先写到这里，最后每个段只调用一次 mem_write
+ */
+final class RelocationBuffer {
+
+    private final long[] addresses;
+    private final long[] memSizes;
+    private final byte[][] segments;
+    private final ByteBuffer[] buffers;
+
+    /**
+     * @param addresses 按 program header 下标的 virtual_address，不是 PT_LOAD 的为 -1
+     */
+    RelocationBuffer(long[] addresses, long[] memSizes, byte[][] segments) {
+        this.addresses = addresses;
+        this.memSizes = memSizes;
+        this.segments = segments;
+        this.buffers = new ByteBuffer[segments.length];
+    }
+
+    RelocationBuffer copy() {
+        byte[][] segments = new byte[this.segments.length][];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = this.segments[i] == null ? null : this.segments[i].clone();
+        }
+        return new RelocationBuffer(addresses, memSizes, segments);
+    }
+
+    long getByteSize() {
+        long size = 0;
+        for (byte[] segment : segments) {
+            if (segment != null) {
+                size += segment.length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return offset 开始的 size 字节是否落在某个 PT_LOAD 段里
+     */
+    boolean contains(long offset, int size) {
+        return find(offset, size) != -1;
+    }
+
+    int getInt(long offset) {
+        int index = find(offset, 4);
+        return buffer(index, offset + 4).getInt((int) (offset - addresses[index]));
+    }
+
+    long getLong(long offset) {
+        int index = find(offset, 8);
+        return buffer(index, offset + 8).getLong((int) (offset - addresses[index]));
+    }
+
+    void putInt(long offset, int value) {
+        int index = find(offset, 4);
+        buffer(index, offset + 4).putInt((int) (offset - addresses[index]), value);
+    }
+
+    void putLong(long offset, long value) {
+        int index = find(offset, 8);
+        buffer(index, offset + 8).putLong((int) (offset - addresses[index]), value);
+    }
+
+    /**
+     * 写入第 index 个 program header 对应的 PT_LOAD 段
+     */
+    void writeTo(int index, UnidbgPointer pointer) {
+        byte[] data = segments[index];
+        if (data != null && data.length > 0) {
+            pointer.write(0, data, 0, data.length);
+        }
+    }
+
+    private int find(long offset, int size) {
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] != -1 && offset >= addresses[i] && offset + size <= addresses[i] + memSizes[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ByteBuffer buffer(int index, long end) {
+        if (index == -1) {
+            throw new IllegalArgumentException();
+        }
+        long length = end - addresses[index];
+        if (segments[index].length < length) {
+            // 落在 .bss 里，扩展到覆盖该位置，多出来的部分本来就是 0
+            segments[index] = Arrays.copyOf(segments[index], (int) length);
+            buffers[index] = null;
+        }
+        ByteBuffer buffer = buffers[index];
+        if (buffer == null) {
+            buffer = ByteBuffer.wrap(segments[index]).order(ByteOrder.LITTLE_ENDIAN);
+            buffers[index] = buffer;
+        }
+        return buffer;
+    }
+
+}
@@ -13,14 +13,18 @@ import com.github.unidbg.linux.android.dvm.DalvikVM64;
 import com.github.unidbg.linux.android.dvm.VM;
 import com.github.unidbg.memory.Memory;
 import com.github.unidbg.memory.SvcMemory;
+import com.github.unidbg.snapshot.EmulatorSnapshot;
+import com.github.unidbg.snapshot.Snapshotable;
 import com.github.unidbg.spi.Dlfcn;
 import com.github.unidbg.spi.LibraryFile;
 import com.github.unidbg.unix.UnixSyscallHandler;
 import com.github.unidbg.unwind.Unwinder;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * android arm emulator
@@ -93,6 +97,45 @@ public class AndroidARM64Emulator extends AbstractARM64Emulator<AndroidFileIO> i
         return vm;
     }
 
+    @Override
+    public EmulatorSnapshot snapshot() {
+        return super.snapshot();
+    }
+
+    @Override
+    public void restore(EmulatorSnapshot snapshot) {
+        super.restore(snapshot);
+    }
+
+    @Override
+    public void setResetPoint() {
+        super.setResetPoint();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+    }
+
+    @Override
+    public void writeCheckpoint(File file) throws IOException {
+        super.writeCheckpoint(file);
+    }
+
+    @Override
+    public EmulatorSnapshot readCheckpoint(File file) throws IOException {
+        return super.readCheckpoint(file);
+    }
+
+    @Override
+    protected List<Snapshotable> getSnapshotables() {
+        List<Snapshotable> list = super.getSnapshotables();
+        if (vm != null) {
+            list.add(toSnapshotable(vm));
+        }
+        return list;
+    }
+
     @Override
     public Unwinder getUnwinder() {
         return new AndroidARM64Unwinder(this);
@@ -13,6 +13,8 @@ import com.github.unidbg.linux.android.dvm.DalvikVM;
 import com.github.unidbg.linux.android.dvm.VM;
 import com.github.unidbg.memory.Memory;
 import com.github.unidbg.memory.SvcMemory;
+import com.github.unidbg.snapshot.EmulatorSnapshot;
+import com.github.unidbg.snapshot.Snapshotable;
 import com.github.unidbg.spi.Dlfcn;
 import com.github.unidbg.spi.LibraryFile;
 import com.github.unidbg.unix.UnixSyscallHandler;
@@ -21,10 +23,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * android arm emulator
@@ -132,6 +136,45 @@ public class AndroidARMEmulator extends AbstractARMEmulator<AndroidFileIO> imple
         return vm;
     }
 
+    @Override
+    public EmulatorSnapshot snapshot() {
+        return super.snapshot();
+    }
+
+    @Override
+    public void restore(EmulatorSnapshot snapshot) {
+        super.restore(snapshot);
+    }
+
+    @Override
+    public void setResetPoint() {
+        super.setResetPoint();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+    }
+
+    @Override
+    public void writeCheckpoint(File file) throws IOException {
+        super.writeCheckpoint(file);
+    }
+
+    @Override
+    public EmulatorSnapshot readCheckpoint(File file) throws IOException {
+        return super.readCheckpoint(file);
+    }
+
+    @Override
+    protected List<Snapshotable> getSnapshotables() {
+        List<Snapshotable> list = super.getSnapshotables();
+        if (vm != null) {
+            list.add(toSnapshotable(vm));
+        }
+        return list;
+    }
+
     @Override
     public Unwinder getUnwinder() {
         return new AndroidARMUnwinder(this);
@@ -1,11 +1,9 @@
 package com.github.unidbg.linux.android;
 
 import com.github.unidbg.Emulator;
-import com.github.unidbg.Utils;
 import com.github.unidbg.spi.LibraryFile;
-import org.apache.commons.io.IOUtils;
+import com.github.unidbg.spi.LibraryStore;
 
-import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.ByteBuffer;
@@ -44,11 +42,7 @@ public class URLibraryFile implements LibraryFile {
 
     @Override
     public ByteBuffer mapBuffer() throws IOException {
-        if ("file".equalsIgnoreCase(url.getProtocol())) {
-            return Utils.mapBuffer(new File(url.getPath()));
-        } else {
-            return ByteBuffer.wrap(IOUtils.toByteArray(url));
-        }
+        return LibraryStore.mapBuffer(url);
     }
 
     @Override
@@ -352,7 +352,7 @@ public abstract class AbstractJni implements Jni {
                 MessageDigest messageDigest = (MessageDigest) dvmObject.value;
                 ByteArray array = vaList.getObjectArg(0);
                 assert array != null;
-                return new ByteArray(vm, messageDigest.digest(array.value));
+                return new ByteArray(vm, messageDigest.digest(array.readValue()));
             }
             case "java/util/ArrayList->remove(I)Ljava/lang/Object;": {
                 int index = vaList.getIntArg(0);
@@ -667,12 +667,12 @@ public abstract class AbstractJni implements Jni {
             case "java/io/ByteArrayInputStream-><init>([B)V": {
                 ByteArray array = vaList.getObjectArg(0);
                 assert array != null;
-                return vm.resolveClass("java/io/ByteArrayInputStream").newObject(new ByteArrayInputStream(array.value));
+                return vm.resolveClass("java/io/ByteArrayInputStream").newObject(new ByteArrayInputStream(array.readValue()));
             }
             case "java/lang/String-><init>([B)V": {
                 ByteArray array = vaList.getObjectArg(0);
                 assert array != null;
-                return new StringObject(vm, new String(array.value));
+                return new StringObject(vm, new String(array.readValue()));
             }
             case "java/lang/String-><init>([BLjava/lang/String;)V": {
                 ByteArray array = vaList.getObjectArg(0);
@@ -680,7 +680,7 @@ public abstract class AbstractJni implements Jni {
                 StringObject charsetName = vaList.getObjectArg(1);
                 assert charsetName != null;
                 try {
-                    return new StringObject(vm, new String(array.value, charsetName.value));
+                    return new StringObject(vm, new String(array.readValue(), charsetName.value));
                 } catch (UnsupportedEncodingException e) {
                     throw new IllegalStateException(e);
                 }
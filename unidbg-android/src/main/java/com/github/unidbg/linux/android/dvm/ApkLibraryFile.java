@@ -11,12 +11,12 @@ class ApkLibraryFile implements LibraryFile {
     private final BaseVM baseVM;
     private final Apk apk;
     private final String soName;
-    private final byte[] soData;
+    private final ByteBuffer soData;
     private final String packageName;
     private final String appDir;
     private final boolean is64Bit;
 
-    ApkLibraryFile(BaseVM baseVM, Apk apk, String soName, byte[] soData, String packageName, boolean is64Bit) {
+    ApkLibraryFile(BaseVM baseVM, Apk apk, String soName, ByteBuffer soData, String packageName, boolean is64Bit) {
         this.baseVM = baseVM;
         this.apk = apk;
         this.soName = soName;
@@ -38,13 +38,13 @@ class ApkLibraryFile implements LibraryFile {
 
     @Override
     public LibraryFile resolveLibrary(Emulator<?> emulator, String soName) {
-        byte[] libData = baseVM.loadLibraryData(apk, soName);
+        ByteBuffer libData = baseVM.loadLibraryData(apk, soName);
         return libData == null ? null : new ApkLibraryFile(baseVM, this.apk, soName, libData, packageName, is64Bit);
     }
 
     @Override
     public ByteBuffer mapBuffer() {
-        return ByteBuffer.wrap(soData);
+        return soData.duplicate();
     }
 
     @Override
@@ -7,23 +7,32 @@ import com.github.unidbg.linux.android.ElfLibraryRawFile;
 import com.github.unidbg.linux.android.dvm.apk.Apk;
 import com.github.unidbg.linux.android.dvm.apk.ApkFactory;
 import com.github.unidbg.linux.android.dvm.apk.AssetResolver;
+import com.github.unidbg.snapshot.EmulatorSnapshot;
+import com.github.unidbg.snapshot.Snapshotable;
 import com.github.unidbg.spi.LibraryFile;
 import net.dongliu.apk.parser.bean.CertificateMeta;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
+import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryUsage;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
-public abstract class BaseVM implements VM, DvmClassFactory {
+public abstract class BaseVM implements VM, DvmClassFactory, Snapshotable {
 
     private static final Log log = LogFactory.getLog(BaseVM.class);
 
@@ -75,21 +84,14 @@ public abstract class BaseVM implements VM, DvmClassFactory {
         this.apk = apkFile == null ? null : ApkFactory.createApk(apkFile);
     }
 
-    final static class ObjRef {
-        final DvmObject<?> obj;
-        final boolean weak;
-        ObjRef(DvmObject<?> obj, boolean weak) {
-            this.obj = obj;
-            this.weak = weak;
-        }
-        @Override
-        public String toString() {
-            return String.valueOf(obj);
-        }
-    }
+    /**
+     * 本地引用被覆盖或者删除时还持有内存的对象放到这里，{@link #deleteLocalRefs()} 时统一释放
+     */
+    private final List<DvmObject<?>> deletedLocals = new ArrayList<>();
 
-    final Map<Integer, ObjRef> globalObjectMap = new HashMap<>();
-    final Map<Integer, ObjRef> localObjectMap = new HashMap<>();
+    final IndirectRefTable localRefs = new IndirectRefTable(JNILocalRefType, 256, deletedLocals);
+    final IndirectRefTable globalRefs = new IndirectRefTable(JNIGlobalRefType, 256, null);
+    final IndirectRefTable weakGlobalRefs = new IndirectRefTable(JNIWeakGlobalRefType, 16, null);
 
     private DvmClassFactory dvmClassFactory;
 
@@ -115,7 +117,7 @@ public abstract class BaseVM implements VM, DvmClassFactory {
                 dvmClass = this.createClass(this, className, superClass, interfaceClasses);
             }
             classMap.put(hash, dvmClass);
-            addGlobalObject(dvmClass);
+            dvmClass.globalRef = addGlobalObject(dvmClass);
         }
         return dvmClass;
     }
@@ -125,21 +127,16 @@ public abstract class BaseVM implements VM, DvmClassFactory {
         return new DvmClass(vm, className, superClass, interfaceClasses);
     }
 
-    final int addObject(DvmObject<?> object, boolean global, boolean weak) {
-        int hash = object.hashCode();
-        if (log.isDebugEnabled()) {
-            log.debug("addObject hash=0x" + Long.toHexString(hash) + ", global=" + global);
-        }
+    final int addObject(DvmObject<?> object, IndirectRefTable table) {
         Object value = object.getValue();
         if (value instanceof DvmAwareObject) {
             ((DvmAwareObject) value).initializeDvm(emulator, this, object);
         }
-        if (global) {
-            globalObjectMap.put(hash, new ObjRef(object, weak));
-        } else {
-            localObjectMap.put(hash, new ObjRef(object, weak));
+        int ref = table.add(object);
+        if (log.isDebugEnabled()) {
+            log.debug("addObject ref=0x" + Integer.toHexString(ref) + ", kind=" + IndirectRefTable.kindOf(ref));
         }
-        return hash;
+        return ref;
     }
 
     @Override
@@ -148,7 +145,7 @@ public abstract class BaseVM implements VM, DvmClassFactory {
             return JNI_NULL;
         }
 
-        return addObject(object, false, false);
+        return addObject(object, localRefs);
     }
 
     @Override
@@ -157,19 +154,94 @@ public abstract class BaseVM implements VM, DvmClassFactory {
             return JNI_NULL;
         }
 
-        return addObject(object, true, false);
+        return addObject(object, globalRefs);
+    }
+
+    final int addWeakGlobalObject(DvmObject<?> object) {
+        if (object == null) {
+            return JNI_NULL;
+        }
+
+        return addObject(object, weakGlobalRefs);
+    }
+
+    /**
+     * 类的全局引用在整个虚拟机生命周期内保持不变，被 DeleteGlobalRef 删除时重新创建
+     */
+    final int getClassRef(DvmClass dvmClass) {
+        int ref = dvmClass.globalRef;
+        if (globalRefs.get(ref) != dvmClass) {
+            ref = addGlobalObject(dvmClass);
+            dvmClass.globalRef = ref;
+        }
+        return ref;
+    }
+
+    private IndirectRefTable refTable(int ref) {
+        switch (IndirectRefTable.kindOf(ref)) {
+            case JNILocalRefType:
+                return localRefs;
+            case JNIGlobalRefType:
+                return globalRefs;
+            case JNIWeakGlobalRefType:
+                return weakGlobalRefs;
+            default:
+                return null;
+        }
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public final <T extends DvmObject<?>> T getObject(int hash) {
-        ObjRef ref;
-        if (localObjectMap.containsKey(hash)) {
-            ref = localObjectMap.get(hash);
-        } else {
-            ref = globalObjectMap.get(hash);
+        IndirectRefTable table = refTable(hash);
+        return table == null ? null : (T) table.get(hash);
+    }
+
+    /**
+     * @param ref FindClass 等返回的类引用，也可以是指向类对象的局部引用
+     */
+    final DvmClass getDvmClass(int ref) {
+        DvmObject<?> object = getObject(ref);
+        return object instanceof DvmClass ? (DvmClass) object : null;
+    }
+
+    /**
+     * @return 句柄有效时返回引用类型，否则返回 {@link #JNIInvalidRefType}
+     */
+    final int getObjectRefType(int ref) {
+        IndirectRefTable table = refTable(ref);
+        return table == null || table.get(ref) == null ? JNIInvalidRefType : IndirectRefTable.kindOf(ref);
+    }
+
+    final DvmObject<?> deleteLocalRef(int ref) {
+        return IndirectRefTable.kindOf(ref) == JNILocalRefType ? localRefs.remove(ref) : null;
+    }
+
+    final DvmObject<?> deleteGlobalRef(int ref) {
+        DvmObject<?> object = IndirectRefTable.kindOf(ref) == JNIGlobalRefType ? globalRefs.remove(ref) : null;
+        if (object != null) {
+            object.onDeleteRef();
         }
-        return ref == null ? null : (T) ref.obj;
+        return object;
+    }
+
+    final DvmObject<?> deleteWeakGlobalRef(int ref) {
+        return IndirectRefTable.kindOf(ref) == JNIWeakGlobalRefType ? weakGlobalRefs.remove(ref) : null;
+    }
+
+    final void pushLocalFrame() {
+        localRefs.pushFrame();
+    }
+
+    /**
+     * 弹出当前帧，result 在外层帧重新创建本地引用
+     */
+    final int popLocalFrame(int result) {
+        DvmObject<?> object = result == JNI_NULL ? null : getObject(result);
+        if (!localRefs.popFrame()) {
+            log.warn("PopLocalFrame without PushLocalFrame");
+        }
+        return addLocalObject(object);
     }
 
     @Override
@@ -178,10 +250,17 @@ public abstract class BaseVM implements VM, DvmClassFactory {
     }
 
     final void deleteLocalRefs() {
-        for (ObjRef ref : localObjectMap.values()) {
-            ref.obj.onDeleteRef();
+        for (int i = 0, high = localRefs.getHighWater(); i < high; i++) {
+            DvmObject<?> object = localRefs.objectAt(i);
+            if (object != null) {
+                object.onDeleteRef();
+            }
+        }
+        for (DvmObject<?> object : deletedLocals) {
+            object.onDeleteRef();
         }
-        localObjectMap.clear();
+        deletedLocals.clear();
+        localRefs.reset();
 
         if (throwable != null) {
             throwable.onDeleteRef();
@@ -189,6 +268,248 @@ public abstract class BaseVM implements VM, DvmClassFactory {
         }
     }
 
+    private static final String SNAPSHOT_KEY = BaseVM.class.getName();
+
+    private static class VMState {
+        final BaseVM owner;
+        final Map<Integer, DvmClass> classMap;
+        final IndirectRefTable globalRefs;
+        final IndirectRefTable weakGlobalRefs;
+        final Set<String> notFoundClassSet;
+        VMState(BaseVM vm) {
+            this.owner = vm;
+            this.classMap = new HashMap<>(vm.classMap);
+            this.globalRefs = vm.globalRefs.copy();
+            this.weakGlobalRefs = vm.weakGlobalRefs.copy();
+            this.notFoundClassSet = new HashSet<>(vm.notFoundClassSet);
+        }
+        VMState(Map<Integer, DvmClass> classMap, IndirectRefTable globalRefs, Set<String> notFoundClassSet) {
+            this.owner = null;
+            this.classMap = classMap;
+            this.globalRefs = globalRefs;
+            this.weakGlobalRefs = new IndirectRefTable(JNIWeakGlobalRefType, 16, null);
+            this.notFoundClassSet = notFoundClassSet;
+        }
+    }
+
+    @Override
+    public void snapshot(Emulator<?> emulator, EmulatorSnapshot snapshot) {
+        snapshot.put(SNAPSHOT_KEY, new VMState(this));
+    }
+
+    /**
+     * 全局引用表按原样恢复，native 层缓存的句柄保持有效；
+     * fork 到另一个虚拟机时按类名重新解析类并替换表中的类，其它全局引用的对象直接共享
+     */
+    @Override
+    public void restore(Emulator<?> emulator, EmulatorSnapshot snapshot) {
+        VMState state = snapshot.get(SNAPSHOT_KEY);
+        deleteLocalRefs();
+
+        classMap.clear();
+        if (state.owner == this) {
+            classMap.putAll(state.classMap);
+            globalRefs.copyFrom(state.globalRefs);
+            weakGlobalRefs.copyFrom(state.weakGlobalRefs);
+        } else {
+            Set<Integer> forked = new HashSet<>();
+            for (DvmClass dvmClass : state.classMap.values()) {
+                forkClass(emulator, dvmClass, forked);
+            }
+            globalRefs.copyFrom(state.globalRefs);
+            weakGlobalRefs.copyFrom(state.weakGlobalRefs);
+            replaceClasses(globalRefs, true);
+            replaceClasses(weakGlobalRefs, false);
+        }
+        for (DvmClass dvmClass : classMap.values()) {
+            getClassRef(dvmClass);
+        }
+        notFoundClassSet.clear();
+        notFoundClassSet.addAll(state.notFoundClassSet);
+    }
+
+    private void replaceClasses(IndirectRefTable table, boolean global) {
+        for (int i = 0, top = table.getTop(); i < top; i++) {
+            DvmObject<?> object = table.objectAt(i);
+            if (object instanceof DvmClass) {
+                DvmClass copy = classMap.get(object.hashCode());
+                if (copy == null) {
+                    throw new IllegalStateException("fork class failed: " + object);
+                }
+                table.setAt(i, copy);
+                int ref = table.handleAt(i);
+                if (global && ((DvmClass) object).globalRef == ref) {
+                    copy.globalRef = ref;
+                }
+            }
+        }
+    }
+
+    private DvmClass forkClass(Emulator<?> emulator, DvmClass dvmClass, Set<Integer> forked) {
+        int hash = dvmClass.hashCode();
+        DvmClass copy = classMap.get(hash);
+        if (copy == null) {
+            DvmClass superClass = dvmClass.getSuperclass();
+            DvmClass[] interfaces = dvmClass.getInterfaces();
+            DvmClass[] classes;
+            if (superClass == null) {
+                classes = new DvmClass[0];
+            } else {
+                classes = new DvmClass[1 + (interfaces == null ? 0 : interfaces.length)];
+                classes[0] = forkClass(emulator, superClass, forked);
+                for (int i = 1; i < classes.length; i++) {
+                    classes[i] = forkClass(emulator, interfaces[i - 1], forked);
+                }
+            }
+            copy = resolveClass(dvmClass.getClassName(), classes);
+        }
+        if (forked.add(hash)) {
+            copy.forkFrom(dvmClass, emulator);
+        }
+        return copy;
+    }
+
+    /**
+     * 只写入类以及指向类的全局引用，其它全局引用的对象不能写入检查点
+     */
+    @Override
+    public void writeState(EmulatorSnapshot snapshot, DataOutput out) throws IOException {
+        VMState state = snapshot.get(SNAPSHOT_KEY);
+        IndirectRefTable globalRefs = state.globalRefs;
+        int skipped = 0;
+        int classRefs = 0;
+        for (int i = 0, top = globalRefs.getTop(); i < top; i++) {
+            DvmObject<?> object = globalRefs.objectAt(i);
+            if (object instanceof DvmClass) {
+                classRefs++;
+            } else if (object != null) {
+                skipped++;
+            }
+        }
+        skipped += state.weakGlobalRefs.getTop();
+        if (skipped > 0) {
+            log.warn("writeState skip global objects: count=" + skipped);
+        }
+
+        Set<DvmClass> ordered = new LinkedHashSet<>();
+        for (DvmClass dvmClass : state.classMap.values()) {
+            orderClass(dvmClass, state.classMap, ordered);
+        }
+        out.writeInt(ordered.size());
+        for (DvmClass dvmClass : ordered) {
+            out.writeUTF(dvmClass.getClassName());
+            DvmClass superClass = dvmClass.getSuperclass();
+            DvmClass[] interfaces = dvmClass.getInterfaces();
+            out.writeBoolean(superClass != null);
+            if (superClass != null) {
+                out.writeUTF(superClass.getClassName());
+                out.writeInt(interfaces == null ? 0 : interfaces.length);
+                for (int i = 0; interfaces != null && i < interfaces.length; i++) {
+                    out.writeUTF(interfaces[i].getClassName());
+                }
+            }
+            out.writeInt(globalRefs.get(dvmClass.globalRef) == dvmClass ? dvmClass.globalRef : JNI_NULL);
+            dvmClass.writeState(out);
+        }
+        out.writeInt(classRefs);
+        for (int i = 0, top = globalRefs.getTop(); i < top; i++) {
+            DvmObject<?> object = globalRefs.objectAt(i);
+            if (object instanceof DvmClass) {
+                out.writeInt(globalRefs.handleAt(i));
+                out.writeUTF(((DvmClass) object).getClassName());
+            }
+        }
+        out.writeInt(state.notFoundClassSet.size());
+        for (String className : state.notFoundClassSet) {
+            out.writeUTF(className);
+        }
+    }
+
+    /**
+     * 父类和接口排在前面，读取时可以直接创建
+     */
+    private static void orderClass(DvmClass dvmClass, Map<Integer, DvmClass> classMap, Set<DvmClass> ordered) {
+        if (ordered.contains(dvmClass) || !classMap.containsKey(dvmClass.hashCode())) {
+            return;
+        }
+        DvmClass superClass = dvmClass.getSuperclass();
+        if (superClass != null) {
+            orderClass(superClass, classMap, ordered);
+            DvmClass[] interfaces = dvmClass.getInterfaces();
+            for (int i = 0; interfaces != null && i < interfaces.length; i++) {
+                orderClass(interfaces[i], classMap, ordered);
+            }
+        }
+        ordered.add(dvmClass);
+    }
+
+    @Override
+    public void readState(Emulator<?> emulator, EmulatorSnapshot snapshot, DataInput in) throws IOException {
+        int count = in.readInt();
+        Map<String, String[]> hierarchy = new HashMap<>(count);
+        Map<String, DvmClass> classes = new HashMap<>(count);
+        for (int i = 0; i < count; i++) {
+            String className = in.readUTF();
+            String[] names = new String[0];
+            if (in.readBoolean()) {
+                String superClassName = in.readUTF();
+                names = new String[1 + in.readInt()];
+                names[0] = superClassName;
+                for (int m = 1; m < names.length; m++) {
+                    names[m] = in.readUTF();
+                }
+            }
+            hierarchy.put(className, names);
+            DvmClass dvmClass = readClass(className, hierarchy, classes);
+            dvmClass.globalRef = in.readInt();
+            dvmClass.readState(in, emulator);
+        }
+        Map<Integer, DvmClass> classMap = new HashMap<>(count);
+        for (DvmClass dvmClass : classes.values()) {
+            classMap.put(dvmClass.hashCode(), dvmClass);
+        }
+        count = in.readInt();
+        IndirectRefTable globalRefs = new IndirectRefTable(JNIGlobalRefType, Math.max(count, 16), null);
+        for (int i = 0; i < count; i++) {
+            int ref = in.readInt();
+            String className = in.readUTF();
+            DvmClass dvmClass = classes.get(className);
+            if (dvmClass == null) {
+                throw new IllegalStateException("readState class not found: " + className);
+            }
+            globalRefs.put(ref, dvmClass);
+        }
+        globalRefs.rebuildHoles();
+        count = in.readInt();
+        Set<String> notFoundClassSet = new HashSet<>(count);
+        for (int i = 0; i < count; i++) {
+            notFoundClassSet.add(in.readUTF());
+        }
+        snapshot.put(SNAPSHOT_KEY, new VMState(classMap, globalRefs, notFoundClassSet));
+    }
+
+    /**
+     * 创建不注册到本虚拟机的类，恢复时通过 {@link #forkClass(Emulator, DvmClass, Set)} 复制
+     */
+    private DvmClass readClass(String className, Map<String, String[]> hierarchy, Map<String, DvmClass> classes) {
+        DvmClass dvmClass = classes.get(className);
+        if (dvmClass == null) {
+            String[] names = hierarchy.get(className);
+            DvmClass superClass = null;
+            DvmClass[] interfaces = new DvmClass[0];
+            if (names != null && names.length > 0) {
+                superClass = readClass(names[0], hierarchy, classes);
+                interfaces = new DvmClass[names.length - 1];
+                for (int i = 0; i < interfaces.length; i++) {
+                    interfaces[i] = readClass(names[i + 1], hierarchy, classes);
+                }
+            }
+            dvmClass = new DvmClass(this, className, superClass, interfaces);
+            classes.put(className, dvmClass);
+        }
+        return dvmClass;
+    }
+
     final void checkVersion(int version) {
         if (version != JNI_VERSION_1_1 &&
                 version != JNI_VERSION_1_2 &&
@@ -199,7 +520,7 @@ public abstract class BaseVM implements VM, DvmClassFactory {
         }
     }
 
-    abstract byte[] loadLibraryData(Apk apk, String soName);
+    abstract ByteBuffer loadLibraryData(Apk apk, String soName);
 
     @Override
     public LibraryFile findLibrary(String soName) {
@@ -238,7 +559,7 @@ public abstract class BaseVM implements VM, DvmClassFactory {
     }
 
     private ApkLibraryFile findLibrary(Apk apk, String soName) {
-        byte[] libData = loadLibraryData(apk, soName);
+        ByteBuffer libData = loadLibraryData(apk, soName);
         if (libData == null) {
             return null;
         }
@@ -273,6 +594,18 @@ public abstract class BaseVM implements VM, DvmClassFactory {
         return apk == null ? null : apk.openAsset(fileName);
     }
 
+    @Override
+    public ByteBuffer openAssetBuffer(String fileName) {
+        if (assetResolver != null) {
+            byte[] bytes = assetResolver.resolveAsset(fileName);
+            if (bytes != null) {
+                return ByteBuffer.wrap(bytes);
+            }
+        }
+
+        return apk == null ? null : apk.getFileBuffer("assets/" + fileName);
+    }
+
     @Override
     public byte[] unzip(String path) {
         return apk == null ? null : apk.getFileData(path);
@@ -307,11 +640,17 @@ public abstract class BaseVM implements VM, DvmClassFactory {
         MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
         MemoryUsage heap = memoryMXBean.getHeapMemoryUsage();
         MemoryUsage nonheap = memoryMXBean.getNonHeapMemoryUsage();
-        Map<Integer, ObjRef> map = new HashMap<>(globalObjectMap);
-        for (Integer key : classMap.keySet()) {
-            map.remove(key);
+        int globalObjectSize = 0;
+        int classRefSize = 0;
+        for (int i = 0, top = globalRefs.getTop(); i < top; i++) {
+            DvmObject<?> object = globalRefs.objectAt(i);
+            if (object instanceof DvmClass) {
+                classRefSize++;
+            } else if (object != null) {
+                globalObjectSize++;
+            }
         }
-        System.err.println("globalObjectSize=" + globalObjectMap.size() + ", localObjectSize=" + localObjectMap.size() + ", classSize=" + classMap.size() + ", globalObjectSize=" + map.size());
+        System.err.println("globalRefSize=" + (globalObjectSize + classRefSize) + ", localRefTop=" + localRefs.getTop() + ", classSize=" + classMap.size() + ", globalObjectSize=" + globalObjectSize);
         System.err.println("heap: " + memoryUsage(heap) + ", nonheap: " + memoryUsage(nonheap));
     }
 
@@ -40,21 +40,21 @@ public class DalvikVM extends BaseVM implements VM {
         final SvcMemory svcMemory = emulator.getSvcMemory();
         _JavaVM = svcMemory.allocate(emulator.getPointerSize(), "_JavaVM");
 
-        Pointer _GetVersion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetVersion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetVersion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 return JNI_VERSION_1_6;
             }
         });
 
-        Pointer _DefineClass = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _DefineClass = svcMemory.registerSvc(new ArmSvc("JNIEnv->DefineClass") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _FindClass = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _FindClass = svcMemory.registerSvc(new ArmSvc("JNIEnv->FindClass") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -77,35 +77,35 @@ public class DalvikVM extends BaseVM implements VM {
                 }
 
                 DvmClass dvmClass = resolveClass(name);
-                long hash = dvmClass.hashCode() & 0xffffffffL;
+                int ref = getClassRef(dvmClass);
                 if (log.isDebugEnabled()) {
-                    log.debug("FindClass env=" + env + ", className=" + name + ", hash=0x" + Long.toHexString(hash));
+                    log.debug("FindClass env=" + env + ", className=" + name + ", ref=0x" + Integer.toHexString(ref));
                 }
-                return hash;
+                return ref;
             }
         });
 
-        Pointer _FromReflectedMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _FromReflectedMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->FromReflectedMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _FromReflectedField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _FromReflectedField = svcMemory.registerSvc(new ArmSvc("JNIEnv->FromReflectedField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ToReflectedMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ToReflectedMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->ToReflectedMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
                 UnidbgPointer jmethodID = context.getPointerArg(2);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = null;
                 if (dvmClass != null) {
                     dvmMethod = dvmClass.getStaticMethod(jmethodID.toIntPeer());
@@ -128,12 +128,12 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
         
-        Pointer _GetSuperclass = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetSuperclass = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetSuperclass") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (verbose) {
                     System.out.printf("JNIEnv->GetSuperClass(%s) was called from %s%n", dvmClass, context.getLRPointer());
                 }
@@ -152,26 +152,26 @@ public class DalvikVM extends BaseVM implements VM {
                     if (log.isDebugEnabled()) {
                         log.debug("JNIEnv->GetSuperClass was called, class = " + dvmClass.getClassName() + ", superClass = " + superClass.getClassName());
                     }
-                    return superClass.hashCode();
+                    return getClassRef(superClass);
                 }
             }
         });
 
-        Pointer _IsAssignableFrom = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _IsAssignableFrom = svcMemory.registerSvc(new ArmSvc("JNIEnv->IsAssignableFrom") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ToReflectedField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ToReflectedField = svcMemory.registerSvc(new ArmSvc("JNIEnv->ToReflectedField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _Throw = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _Throw = svcMemory.registerSvc(new ArmSvc("JNIEnv->Throw") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -183,31 +183,31 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _ThrowNew = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ThrowNew = svcMemory.registerSvc(new ArmSvc("JNIEnv->ThrowNew") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ExceptionOccurred = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ExceptionOccurred = svcMemory.registerSvc(new ArmSvc("JNIEnv->ExceptionOccurred") {
             @Override
             public long handle(Emulator<?> emulator) {
                 if (log.isDebugEnabled()) {
                     log.debug("ExceptionOccurred");
                 }
-                return throwable == null ? JNI_NULL : (throwable.hashCode() & 0xffffffffL);
+                return addLocalObject(throwable);
             }
         });
 
-        Pointer _ExceptionDescribe = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ExceptionDescribe = svcMemory.registerSvc(new ArmSvc("JNIEnv->ExceptionDescribe") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ExceptionClear = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ExceptionClear = svcMemory.registerSvc(new ArmSvc("JNIEnv->ExceptionClear") {
             @Override
             public long handle(Emulator<?> emulator) {
                 if (log.isDebugEnabled()) {
@@ -218,14 +218,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _FatalError = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _FatalError = svcMemory.registerSvc(new ArmSvc("JNIEnv->FatalError") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _PushLocalFrame = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _PushLocalFrame = svcMemory.registerSvc(new ArmSvc("JNIEnv->PushLocalFrame") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -233,11 +233,12 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("PushLocalFrame capacity=" + capacity);
                 }
+                pushLocalFrame();
                 return JNI_OK;
             }
         });
 
-        Pointer _PopLocalFrame = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _PopLocalFrame = svcMemory.registerSvc(new ArmSvc("JNIEnv->PopLocalFrame") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -245,11 +246,11 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("PopLocalFrame jresult=" + jresult);
                 }
-                return jresult == null ? 0 : jresult.toIntPeer();
+                return popLocalFrame(jresult == null ? JNI_NULL : jresult.toIntPeer());
             }
         });
 
-        Pointer _NewGlobalRef = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewGlobalRef = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewGlobalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -268,7 +269,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _DeleteGlobalRef = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _DeleteGlobalRef = svcMemory.registerSvc(new ArmSvc("JNIEnv->DeleteGlobalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -276,10 +277,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("DeleteGlobalRef object=" + object);
                 }
-                ObjRef ref = object == null ? null : globalObjectMap.remove(object.toIntPeer());
-                if (ref != null) {
-                    ref.obj.onDeleteRef();
-                }
+                DvmObject<?> ref = object == null ? null : deleteGlobalRef(object.toIntPeer());
                 if (verbose) {
                     System.out.printf("JNIEnv->DeleteGlobalRef(%s) was called from %s%n", ref, context.getLRPointer());
                 }
@@ -287,7 +285,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _DeleteLocalRef = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _DeleteLocalRef = svcMemory.registerSvc(new ArmSvc("JNIEnv->DeleteLocalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -295,11 +293,14 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("DeleteLocalRef object=" + object);
                 }
+                if (object != null) {
+                    deleteLocalRef(object.toIntPeer());
+                }
                 return 0;
             }
         });
 
-        Pointer _IsSameObject = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _IsSameObject = svcMemory.registerSvc(new ArmSvc("JNIEnv->IsSameObject") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -308,11 +309,13 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("IsSameObject ref1=" + ref1 + ", ref2=" + ref2 + ", LR=" + context.getLRPointer());
                 }
-                return ref1 == ref2 || ref1.equals(ref2) ? JNI_TRUE : JNI_FALSE;
+                DvmObject<?> obj1 = ref1 == null ? null : getObject(ref1.toIntPeer());
+                DvmObject<?> obj2 = ref2 == null ? null : getObject(ref2.toIntPeer());
+                return obj1 == obj2 ? JNI_TRUE : JNI_FALSE;
             }
         });
 
-        Pointer _NewLocalRef = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewLocalRef = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewLocalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -327,11 +330,11 @@ public class DalvikVM extends BaseVM implements VM {
                 if (verbose) {
                     System.out.printf("JNIEnv->NewLocalRef(%s) was called from %s%n", dvmObject, context.getLRPointer());
                 }
-                return object.toIntPeer();
+                return addLocalObject(dvmObject);
             }
         });
 
-        Pointer _EnsureLocalCapacity = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _EnsureLocalCapacity = svcMemory.registerSvc(new ArmSvc("JNIEnv->EnsureLocalCapacity") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -343,12 +346,12 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _AllocObject = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _AllocObject = svcMemory.registerSvc(new ArmSvc("JNIEnv->AllocObject") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("AllocObject clazz=" + dvmClass + ", lr=" + context.getLRPointer());
                 }
@@ -364,13 +367,13 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewObject = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewObject = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewObject") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
                 UnidbgPointer jmethodID = context.getPointerArg(2);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("NewObject clazz=" + dvmClass + ", jmethodID=" + jmethodID + ", lr=" + context.getLRPointer());
@@ -388,14 +391,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewObjectV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewObjectV = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewObjectV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
                 UnidbgPointer jmethodID = context.getPointerArg(2);
                 UnidbgPointer va_list = context.getPointerArg(3);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("NewObjectV clazz=" + dvmClass + ", jmethodID=" + jmethodID + ", va_list=" + va_list + ", lr=" + context.getLRPointer());
@@ -413,14 +416,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewObjectA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewObjectA = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewObjectA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
                 UnidbgPointer jmethodID = context.getPointerArg(2);
                 UnidbgPointer jvalue = context.getPointerArg(3);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("NewObjectA clazz=" + dvmClass + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue + ", lr=" + context.getLRPointer());
@@ -438,7 +441,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetObjectClass = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetObjectClass = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetObjectClass") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -451,19 +454,19 @@ public class DalvikVM extends BaseVM implements VM {
                     throw new BackendException();
                 } else {
                     DvmClass dvmClass = dvmObject.getObjectType();
-                    return dvmClass.hashCode();
+                    return getClassRef(dvmClass);
                 }
             }
         });
 
-        Pointer _IsInstanceOf = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _IsInstanceOf = svcMemory.registerSvc(new ArmSvc("JNIEnv->IsInstanceOf") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer object = context.getPointerArg(1);
                 UnidbgPointer clazz = context.getPointerArg(2);
                 DvmObject<?> dvmObject = getObject(object.toIntPeer());
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("IsInstanceOf object=" + object + ", clazz=" + clazz + ", dvmObject=" + dvmObject + ", dvmClass=" + dvmClass);
                 }
@@ -475,7 +478,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetMethodID = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetMethodID = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetMethodID") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -487,7 +490,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetMethodID class=" + clazz + ", methodName=" + name + ", args=" + args + ", LR=" + context.getLRPointer());
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException();
                 } else {
@@ -500,7 +503,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallObjectMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallObjectMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallObjectMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -525,7 +528,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallObjectMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallObjectMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallObjectMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -551,7 +554,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallObjectMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallObjectMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallObjectMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -577,7 +580,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallBooleanMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallBooleanMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallBooleanMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -602,7 +605,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallBooleanMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallBooleanMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallBooleanMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -628,7 +631,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallBooleanMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallBooleanMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallBooleanMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -654,14 +657,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallByteMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallByteMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallByteMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallByteMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallByteMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallByteMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -687,21 +690,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallByteMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallByteMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallByteMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallCharMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallCharMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallCharMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallCharMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallCharMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallCharMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -727,21 +730,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallCharMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallCharMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallCharMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallShortMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallShortMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallShortMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallShortMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallShortMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallShortMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -767,14 +770,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallShortMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallShortMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallShortMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallIntMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallIntMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallIntMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -799,7 +802,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallIntMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallIntMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallIntMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -825,7 +828,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallIntMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallIntMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallIntMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -851,7 +854,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallLongMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallLongMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallLongMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 EditableArm32RegisterContext context = emulator.getContext();
@@ -877,7 +880,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallLongMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallLongMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallLongMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 EditableArm32RegisterContext context = emulator.getContext();
@@ -904,21 +907,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallLongMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallLongMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallLongMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallFloatMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallFloatMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallFloatMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallFloatMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallFloatMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallFloatMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -948,14 +951,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallFloatMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallFloatMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallFloatMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallDoubleMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallDoubleMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallDoubleMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -984,21 +987,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallDoubleMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallDoubleMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallDoubleMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallDoubleMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallDoubleMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallDoubleMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallVoidMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallVoidMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallVoidMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1023,7 +1026,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallVoidMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallVoidMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallVoidMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1049,7 +1052,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallVoidMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallVoidMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallVoidMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1075,42 +1078,42 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallNonvirtualObjectMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualObjectMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualObjectMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualObjectMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualObjectMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualObjectMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualObjectMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualObjectMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualObjectMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualBooleanMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualBooleanMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualBooleanMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualBooleanMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualBooleanMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualBooleanMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualBooleanMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualBooleanMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualBooleanMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1122,7 +1125,7 @@ public class DalvikVM extends BaseVM implements VM {
                     log.debug("CallNonvirtualBooleanMethodA object=" + object + ", clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
                 DvmObject<?> dvmObject = getObject(object.toIntPeer());
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1140,161 +1143,161 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallNonvirtualByteMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualByteMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualByteMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualByteMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualByteMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualByteMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualByteMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualByteMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualByteMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualCharMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualCharMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualCharMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualCharMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualCharMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualCharMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualCharMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualCharMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualCharMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualShortMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualShortMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualShortMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualShortMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualShortMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualShortMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualShortMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualShortMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualShortMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualIntMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualIntMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualIntMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualIntMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualIntMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualIntMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualIntMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualIntMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualIntMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualLongMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualLongMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualLongMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualLongMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualLongMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualLongMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualLongMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualLongMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualLongMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualFloatMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualFloatMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualFloatMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualFloatMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualFloatMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualFloatMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualFloatMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualFloatMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualFloatMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualDoubleMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualDoubleMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualDoubleMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualDoubleMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualDoubleMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualDoubleMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualDoubleMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualDoubleMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualDoubleMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualVoidMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualVoidMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualVoidMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualVoidMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonvirtualVoidMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonvirtualVoidMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1306,7 +1309,7 @@ public class DalvikVM extends BaseVM implements VM {
                     log.debug("CallNonvirtualVoidMethodV object=" + object + ", clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
                 DvmObject<?> dvmObject = getObject(object.toIntPeer());
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1326,7 +1329,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallNonVirtualVoidMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallNonVirtualVoidMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallNonVirtualVoidMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1338,7 +1341,7 @@ public class DalvikVM extends BaseVM implements VM {
                     log.debug("CallNonVirtualVoidMethodA object=" + object + ", clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
                 DvmObject<?> dvmObject = getObject(object.toIntPeer());
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1358,7 +1361,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetFieldID = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetFieldID = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetFieldID") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1370,7 +1373,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetFieldID class=" + clazz + ", fieldName=" + name + ", args=" + args);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException();
                 } else {
@@ -1383,7 +1386,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetObjectField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetObjectField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetObjectField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1407,7 +1410,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetBooleanField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetBooleanField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetBooleanField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1431,28 +1434,28 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetByteField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetByteField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetByteField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetCharField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetCharField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetCharField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetShortField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetShortField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetShortField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetIntField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetIntField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetIntField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1476,7 +1479,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetLongField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetLongField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetLongField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 EditableArm32RegisterContext context = emulator.getContext();
@@ -1501,7 +1504,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetFloatField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetFloatField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetFloatField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1529,14 +1532,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetDoubleField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetDoubleField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetDoubleField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetObjectField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetObjectField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetObjectField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1562,7 +1565,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetBooleanField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetBooleanField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetBooleanField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1588,28 +1591,28 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetByteField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetByteField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetByteField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetCharField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetCharField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetCharField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetShortField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetShortField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetShortField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetIntField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetIntField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetIntField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1634,7 +1637,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
         
-        Pointer _SetLongField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetLongField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetLongField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1660,7 +1663,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetFloatField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetFloatField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetFloatField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1689,7 +1692,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
         
-        Pointer _SetDoubleField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetDoubleField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetDoubleField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1715,7 +1718,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticMethodID = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticMethodID = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticMethodID") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1727,7 +1730,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticMethodID class=" + clazz + ", methodName=" + name + ", args=" + args + ", LR=" + context.getLRPointer());
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException();
                 } else {
@@ -1740,7 +1743,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticObjectMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticObjectMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticObjectMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1749,7 +1752,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticObjectMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1764,7 +1767,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticBooleanMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticBooleanMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticBooleanMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1774,7 +1777,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticBooleanMethodA clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1789,7 +1792,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticObjectMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticObjectMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticObjectMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1799,7 +1802,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticObjectMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1814,7 +1817,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticObjectMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticObjectMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticObjectMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1824,7 +1827,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticObjectMethodA clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1839,7 +1842,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticBooleanMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticBooleanMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticBooleanMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1848,7 +1851,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticBooleanMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1863,7 +1866,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticBooleanMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticBooleanMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticBooleanMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1873,7 +1876,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticBooleanMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1888,70 +1891,70 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticByteMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticByteMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticByteMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticByteMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticByteMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticByteMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticByteMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticByteMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticByteMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticCharMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticCharMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticCharMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticCharMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticCharMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticCharMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticCharMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticCharMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticCharMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticShortMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticShortMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticShortMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticShortMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticShortMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticShortMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticShortMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticShortMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticShortMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticIntMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticIntMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticIntMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1960,7 +1963,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticIntMethodV clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1975,7 +1978,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticIntMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticIntMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticIntMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1985,7 +1988,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticIntMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2000,14 +2003,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticIntMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticIntMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticIntMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticLongMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticLongMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticLongMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 EditableArm32RegisterContext context = emulator.getContext();
@@ -2016,7 +2019,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticLongMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2032,7 +2035,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticLongMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticLongMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticLongMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 EditableArm32RegisterContext context = emulator.getContext();
@@ -2042,7 +2045,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticLongMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list + ", lr=" + context.getLRPointer());
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2058,14 +2061,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticLongMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticLongMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticLongMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticFloatMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticFloatMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticFloatMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2074,7 +2077,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticFloatMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2093,21 +2096,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticFloatMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticFloatMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticFloatMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticFloatMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticFloatMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticFloatMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticDoubleMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticDoubleMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticDoubleMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 EditableArm32RegisterContext context = emulator.getContext();
@@ -2116,7 +2119,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticDoubleMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2138,21 +2141,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticDoubleMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticDoubleMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticDoubleMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticDoubleMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticDoubleMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticDoubleMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticVoidMethod = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticVoidMethod = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticVoidMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2161,7 +2164,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticVoidMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2176,7 +2179,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticVoidMethodV = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticVoidMethodV = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticVoidMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2186,7 +2189,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticVoidMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2201,7 +2204,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticVoidMethodA = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _CallStaticVoidMethodA = svcMemory.registerSvc(new ArmSvc("JNIEnv->CallStaticVoidMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2211,7 +2214,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticVoidMethodA clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2226,7 +2229,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticFieldID = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticFieldID = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticFieldID") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2238,7 +2241,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticFieldID class=" + clazz + ", fieldName=" + name + ", args=" + args);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException();
                 } else {
@@ -2251,7 +2254,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticObjectField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticObjectField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticObjectField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2260,7 +2263,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticObjectField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2274,7 +2277,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticBooleanField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticBooleanField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticBooleanField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2283,7 +2286,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticBooleanField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2297,7 +2300,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticByteField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticByteField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticByteField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2306,7 +2309,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticByteField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2320,21 +2323,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticCharField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticCharField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticCharField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetStaticShortField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticShortField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticShortField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetStaticIntField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticIntField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticIntField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2343,7 +2346,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticIntField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2357,7 +2360,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticLongField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticLongField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticLongField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 EditableArm32RegisterContext context = emulator.getContext();
@@ -2366,7 +2369,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticLongField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2381,21 +2384,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticFloatField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticFloatField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticFloatField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetStaticDoubleField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStaticDoubleField = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStaticDoubleField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticObjectField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetStaticObjectField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetStaticObjectField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2406,7 +2409,7 @@ public class DalvikVM extends BaseVM implements VM {
                     log.debug("SetStaticObjectField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
                 DvmObject<?> dvmObject = value == null ? null : getObject(value.toIntPeer());
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2420,7 +2423,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetStaticBooleanField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetStaticBooleanField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetStaticBooleanField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2430,7 +2433,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("SetStaticBooleanField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2445,28 +2448,28 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetStaticByteField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetStaticByteField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetStaticByteField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticCharField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetStaticCharField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetStaticCharField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticShortField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetStaticShortField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetStaticShortField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticIntField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetStaticIntField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetStaticIntField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2476,7 +2479,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("SetStaticIntField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2490,7 +2493,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetStaticLongField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetStaticLongField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetStaticLongField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2501,7 +2504,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("SetStaticLongField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2515,7 +2518,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetStaticFloatField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetStaticFloatField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetStaticFloatField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2529,7 +2532,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("SetStaticFloatField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2543,7 +2546,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetStaticDoubleField = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetStaticDoubleField = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetStaticDoubleField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2554,7 +2557,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("SetStaticDoubleField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2568,7 +2571,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringUTFLength = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStringUTFLength = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStringUTFLength") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2586,7 +2589,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringUTFChars = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStringUTFChars = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStringUTFChars") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2611,7 +2614,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseStringUTFChars = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseStringUTFChars = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseStringUTFChars") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2629,7 +2632,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetArrayLength = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetArrayLength = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetArrayLength") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2645,7 +2648,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewObjectArray = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewObjectArray = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewObjectArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2655,7 +2658,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("NewObjectArray size=" + size + ", elementClass=" + elementClass + ", initialElement=" + initialElement);
                 }
-                DvmClass dvmClass = classMap.get(elementClass.toIntPeer());
+                DvmClass dvmClass = getDvmClass(elementClass.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException("elementClass=" + elementClass);
                 }
@@ -2670,7 +2673,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetObjectArrayElement = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetObjectArrayElement = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetObjectArrayElement") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2688,7 +2691,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetObjectArrayElement = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetObjectArrayElement = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetObjectArrayElement") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2706,14 +2709,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewLongArray = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewLongArray = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewLongArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewFloatArray = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewFloatArray = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewFloatArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2728,14 +2731,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetLongArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetLongArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetLongArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetFloatArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetFloatArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetFloatArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2746,21 +2749,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetDoubleArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetDoubleArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetDoubleArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewBooleanArray = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewBooleanArray = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewBooleanArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
         
-        Pointer _NewByteArray = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewByteArray = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewByteArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2775,21 +2778,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewCharArray = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewCharArray = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewCharArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewShortArray = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewShortArray = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewShortArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewIntArray = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewIntArray = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewIntArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2804,7 +2807,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
         
-        Pointer _NewDoubleArray = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewDoubleArray = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewDoubleArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2819,14 +2822,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetBooleanArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetBooleanArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetBooleanArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetByteArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetByteArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetByteArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2834,27 +2837,27 @@ public class DalvikVM extends BaseVM implements VM {
                 Pointer isCopy = context.getPointerArg(2);
                 ByteArray array = getObject(object.toIntPeer());
                 if (log.isDebugEnabled()) {
-                    Inspector.inspect(array != null ? array.value : null, "GetByteArrayElements array=" + array + ", isCopy=" + isCopy);
+                    Inspector.inspect(array != null ? array.readValue() : null, "GetByteArrayElements array=" + array + ", isCopy=" + isCopy);
                 }
                 return Objects.requireNonNull(array)._GetArrayCritical(emulator, isCopy).toIntPeer();
             }
         });
 
-        Pointer _GetCharArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetCharArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetCharArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetShortArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetShortArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetShortArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetIntArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetIntArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetIntArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2868,7 +2871,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewString = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewString = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewString") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2897,7 +2900,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringLength = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStringLength = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStringLength") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2911,7 +2914,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringChars = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStringChars = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStringChars") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2938,7 +2941,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseStringChars = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseStringChars = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseStringChars") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2953,7 +2956,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewStringUTF = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewStringUTF = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewStringUTF") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2973,14 +2976,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseBooleanArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseBooleanArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseBooleanArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseByteArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseByteArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseByteArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2996,21 +2999,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseCharArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseCharArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseCharArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseShortArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseShortArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseShortArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseIntArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseIntArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseIntArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3026,14 +3029,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseLongArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseLongArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseLongArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseFloatArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseFloatArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseFloatArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3049,21 +3052,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseDoubleArrayElements = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseDoubleArrayElements = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseDoubleArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetBooleanArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetBooleanArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetBooleanArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetByteArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetByteArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetByteArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3075,7 +3078,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (verbose) {
                     System.out.printf("JNIEnv->GetByteArrayRegion(%s, %d, %d, %s) was called from %s%n", array, start, length, buf, context.getLRPointer());
                 }
-                byte[] data = Arrays.copyOfRange(Objects.requireNonNull(array).value, start, start + length);
+                byte[] data = Arrays.copyOfRange(Objects.requireNonNull(array).readValue(), start, start + length);
                 if (log.isDebugEnabled()) {
                     Inspector.inspect(data, "GetByteArrayRegion array=" + array + ", start=" + start + ", length=" + length + ", buf=" + buf);
                 }
@@ -3084,14 +3087,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetCharArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetCharArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetCharArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetShortArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetShortArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetShortArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3103,7 +3106,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (verbose) {
                     System.out.printf("JNIEnv->GetShortArrayRegion(%s, %d, %d, %s) was called from %s%n", array, start, length, buf, context.getLRPointer());
                 }
-                short[] data = Arrays.copyOfRange(Objects.requireNonNull(array).value, start, start + length);
+                short[] data = Arrays.copyOfRange(Objects.requireNonNull(array).readValue(), start, start + length);
                 if (log.isDebugEnabled()) {
                     log.debug("GetShortArrayRegion array=" + array + ", start=" + start + ", length=" + length + ", buf=" + buf);
                 }
@@ -3112,28 +3115,28 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetIntArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetIntArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetIntArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetLongArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetLongArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetLongArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetFloatArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetFloatArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetFloatArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetDoubleArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetDoubleArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetDoubleArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3145,7 +3148,7 @@ public class DalvikVM extends BaseVM implements VM {
                 if (verbose) {
                     System.out.printf("JNIEnv->GetDoubleArrayRegion(%s, %d, %d, %s) was called from %s%n", array, start, length, buf, context.getLRPointer());
                 }
-                double[] data = Arrays.copyOfRange(Objects.requireNonNull(array).value, start, start + length);
+                double[] data = Arrays.copyOfRange(Objects.requireNonNull(array).readValue(), start, start + length);
                 if (log.isDebugEnabled()) {
                     log.debug("GetDoubleArrayRegion array=" + array + ", start=" + start + ", length=" + length + ", buf=" + buf);
                 }
@@ -3154,14 +3157,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetBooleanArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetBooleanArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetBooleanArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetByteArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetByteArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetByteArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3186,21 +3189,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetCharArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetCharArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetCharArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetShortArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetShortArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetShortArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
         
-        Pointer _SetIntArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetIntArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetIntArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3218,14 +3221,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetLongArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetLongArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetLongArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetFloatArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetFloatArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetFloatArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3243,7 +3246,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
         
-        Pointer _SetDoubleArrayRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _SetDoubleArrayRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->SetDoubleArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3261,14 +3264,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _RegisterNatives = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _RegisterNatives = svcMemory.registerSvc(new ArmSvc("JNIEnv->RegisterNatives") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
                 Pointer methods = context.getPointerArg(2);
                 int nMethods = context.getIntArg(3);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("RegisterNatives dvmClass=" + dvmClass + ", methods=" + methods + ", nMethods=" + nMethods);
                 }
@@ -3295,14 +3298,14 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _UnregisterNatives = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _UnregisterNatives = svcMemory.registerSvc(new ArmSvc("JNIEnv->UnregisterNatives") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _MonitorEnter = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _MonitorEnter = svcMemory.registerSvc(new ArmSvc("JNIEnv->MonitorEnter") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3315,7 +3318,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _MonitorExit = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _MonitorExit = svcMemory.registerSvc(new ArmSvc("JNIEnv->MonitorExit") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3328,7 +3331,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetJavaVM = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetJavaVM = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetJavaVM") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3341,7 +3344,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStringRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStringRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3371,7 +3374,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringUTFRegion = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStringUTFRegion = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStringUTFRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3396,7 +3399,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetPrimitiveArrayCritical = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetPrimitiveArrayCritical = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetPrimitiveArrayCritical") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3410,7 +3413,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleasePrimitiveArrayCritical = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleasePrimitiveArrayCritical = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleasePrimitiveArrayCritical") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3426,21 +3429,21 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringCritical = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetStringCritical = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetStringCritical") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseStringCritical = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ReleaseStringCritical = svcMemory.registerSvc(new ArmSvc("JNIEnv->ReleaseStringCritical") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewWeakGlobalRef = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewWeakGlobalRef = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewWeakGlobalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3452,18 +3455,26 @@ public class DalvikVM extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("NewWeakGlobalRef object=" + object + ", dvmObject=" + dvmObject + ", class=" + dvmObject.getClass());
                 }
-                return addObject(dvmObject, true, true);
+                return addWeakGlobalObject(dvmObject);
             }
         });
 
-        Pointer _DeleteWeakGlobalRef = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _DeleteWeakGlobalRef = svcMemory.registerSvc(new ArmSvc("JNIEnv->DeleteWeakGlobalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
-                throw new UnsupportedOperationException();
+                RegisterContext context = emulator.getContext();
+                UnidbgPointer object = context.getPointerArg(1);
+                if (log.isDebugEnabled()) {
+                    log.debug("DeleteWeakGlobalRef object=" + object);
+                }
+                if (object != null) {
+                    deleteWeakGlobalRef(object.toIntPeer());
+                }
+                return 0;
             }
         });
 
-        Pointer _ExceptionCheck = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _ExceptionCheck = svcMemory.registerSvc(new ArmSvc("JNIEnv->ExceptionCheck") {
             @Override
             public long handle(Emulator<?> emulator) {
                 if (log.isDebugEnabled()) {
@@ -3473,28 +3484,28 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewDirectByteBuffer = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _NewDirectByteBuffer = svcMemory.registerSvc(new ArmSvc("JNIEnv->NewDirectByteBuffer") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetDirectBufferAddress = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetDirectBufferAddress = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetDirectBufferAddress") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetDirectBufferCapacity = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetDirectBufferCapacity = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetDirectBufferCapacity") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetObjectRefType = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetObjectRefType = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetObjectRefType") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3502,22 +3513,15 @@ public class DalvikVM extends BaseVM implements VM {
                 if (object == null) {
                     return JNIInvalidRefType;
                 }
-                ObjRef dvmGlobalObject = globalObjectMap.get(object.toIntPeer());
-                ObjRef dvmLocalObject = localObjectMap.get(object.toIntPeer());
+                int refType = getObjectRefType(object.toIntPeer());
                 if (log.isDebugEnabled()) {
-                    log.debug("GetObjectRefType object=" + object + ", dvmGlobalObject=" + dvmGlobalObject + ", dvmLocalObject=" + dvmLocalObject + ", LR=" + context.getLRPointer());
-                }
-                if (dvmGlobalObject != null) {
-                    return dvmGlobalObject.weak ? JNIWeakGlobalRefType : JNIGlobalRefType;
-                } else if(dvmLocalObject != null) {
-                    return JNILocalRefType;
-                } else {
-                    return JNIInvalidRefType;
+                    log.debug("GetObjectRefType object=" + object + ", refType=" + refType + ", LR=" + context.getLRPointer());
                 }
+                return refType;
             }
         });
 
-        Pointer _GetModule = svcMemory.registerSvc(new ArmSvc() {
+        Pointer _GetModule = svcMemory.registerSvc(new ArmSvc("JNIEnv->GetModule") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
@@ -3763,7 +3767,7 @@ public class DalvikVM extends BaseVM implements VM {
         _JNIEnv = svcMemory.allocate(emulator.getPointerSize(), "_JNIEnv");
         _JNIEnv.setPointer(0, impl);
 
-        UnidbgPointer _AttachCurrentThread = svcMemory.registerSvc(new ArmSvc() {
+        UnidbgPointer _AttachCurrentThread = svcMemory.registerSvc(new ArmSvc("JavaVM->AttachCurrentThread") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3778,7 +3782,7 @@ public class DalvikVM extends BaseVM implements VM {
             }
         });
 
-        UnidbgPointer _GetEnv = svcMemory.registerSvc(new ArmSvc() {
+        UnidbgPointer _GetEnv = svcMemory.registerSvc(new ArmSvc("JavaVM->GetEnv") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3817,15 +3821,15 @@ public class DalvikVM extends BaseVM implements VM {
         return _JNIEnv;
     }
 
-    byte[] loadLibraryData(Apk apk, String soName) {
-        byte[] soData = apk.getFileData("lib/armeabi-v7a/" + soName);
+    ByteBuffer loadLibraryData(Apk apk, String soName) {
+        ByteBuffer soData = apk.getFileBuffer("lib/armeabi-v7a/" + soName);
         if (soData != null) {
             if (log.isDebugEnabled()) {
                 log.debug("resolve armeabi-v7a library: " + soName);
             }
             return soData;
         }
-        soData = apk.getFileData("lib/armeabi/" + soName);
+        soData = apk.getFileBuffer("lib/armeabi/" + soName);
         if (soData != null && log.isDebugEnabled()) {
             log.debug("resolve armeabi library: " + soName);
         }
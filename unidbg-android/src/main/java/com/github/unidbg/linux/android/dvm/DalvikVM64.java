@@ -41,21 +41,21 @@ public class DalvikVM64 extends BaseVM implements VM {
         final SvcMemory svcMemory = emulator.getSvcMemory();
         _JavaVM = svcMemory.allocate(emulator.getPointerSize(), "_JavaVM");
 
-        Pointer _GetVersion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetVersion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetVersion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 return JNI_VERSION_1_8;
             }
         });
 
-        Pointer _DefineClass = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _DefineClass = svcMemory.registerSvc(new Arm64Svc("JNIEnv->DefineClass") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _FindClass = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _FindClass = svcMemory.registerSvc(new Arm64Svc("JNIEnv->FindClass") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -78,35 +78,35 @@ public class DalvikVM64 extends BaseVM implements VM {
                 }
 
                 DvmClass dvmClass = resolveClass(name);
-                long hash = dvmClass.hashCode() & 0xffffffffL;
+                int ref = getClassRef(dvmClass);
                 if (log.isDebugEnabled()) {
-                    log.debug("FindClass env=" + env + ", className=" + name + ", hash=0x" + Long.toHexString(hash));
+                    log.debug("FindClass env=" + env + ", className=" + name + ", ref=0x" + Integer.toHexString(ref));
                 }
-                return hash;
+                return ref;
             }
         });
 
-        Pointer _FromReflectedMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _FromReflectedMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->FromReflectedMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _FromReflectedField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _FromReflectedField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->FromReflectedField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ToReflectedMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ToReflectedMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ToReflectedMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
                 UnidbgPointer jmethodID = context.getPointerArg(2);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = null;
                 if (dvmClass != null) {
                     dvmMethod = dvmClass.getStaticMethod(jmethodID.toIntPeer());
@@ -129,12 +129,12 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         }) ;
 
-        Pointer _GetSuperclass = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetSuperclass = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetSuperclass") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (verbose) {
                     System.out.printf("JNIEnv->GetSuperClass(%s) was called from %s%n", dvmClass, context.getLRPointer());
                 }
@@ -153,26 +153,26 @@ public class DalvikVM64 extends BaseVM implements VM {
                     if (log.isDebugEnabled()) {
                         log.debug("JNIEnv->GetSuperClass was called, class = " + dvmClass.getClassName() + ", superClass = " + superClass.getClassName());
                     }
-                    return superClass.hashCode();
+                    return getClassRef(superClass);
                 }
             }
         });
 
-        Pointer _IsAssignableFrom = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _IsAssignableFrom = svcMemory.registerSvc(new Arm64Svc("JNIEnv->IsAssignableFrom") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ToReflectedField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ToReflectedField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ToReflectedField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _Throw = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _Throw = svcMemory.registerSvc(new Arm64Svc("JNIEnv->Throw") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -184,31 +184,31 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _ThrowNew = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ThrowNew = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ThrowNew") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ExceptionOccurred = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ExceptionOccurred = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ExceptionOccurred") {
             @Override
             public long handle(Emulator<?> emulator) {
                 if (log.isDebugEnabled()) {
                     log.debug("ExceptionOccurred");
                 }
-                return throwable == null ? JNI_NULL : (throwable.hashCode() & 0xffffffffL);
+                return addLocalObject(throwable);
             }
         });
 
-        Pointer _ExceptionDescribe = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ExceptionDescribe = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ExceptionDescribe") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ExceptionClear = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ExceptionClear = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ExceptionClear") {
             @Override
             public long handle(Emulator<?> emulator) {
                 if (log.isDebugEnabled()) {
@@ -219,14 +219,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _FatalError = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _FatalError = svcMemory.registerSvc(new Arm64Svc("JNIEnv->FatalError") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _PushLocalFrame = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _PushLocalFrame = svcMemory.registerSvc(new Arm64Svc("JNIEnv->PushLocalFrame") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -234,11 +234,12 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("PushLocalFrame capacity=" + capacity);
                 }
+                pushLocalFrame();
                 return JNI_OK;
             }
         });
 
-        Pointer _PopLocalFrame = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _PopLocalFrame = svcMemory.registerSvc(new Arm64Svc("JNIEnv->PopLocalFrame") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -246,11 +247,11 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("PopLocalFrame jresult=" + jresult);
                 }
-                return jresult == null ? 0 : jresult.toIntPeer();
+                return popLocalFrame(jresult == null ? JNI_NULL : jresult.toIntPeer());
             }
         });
 
-        Pointer _NewGlobalRef = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewGlobalRef = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewGlobalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -269,7 +270,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _DeleteGlobalRef = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _DeleteGlobalRef = svcMemory.registerSvc(new Arm64Svc("JNIEnv->DeleteGlobalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -277,10 +278,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("DeleteGlobalRef object=" + object);
                 }
-                ObjRef ref = object == null ? null : globalObjectMap.remove(object.toIntPeer());
-                if (ref != null) {
-                    ref.obj.onDeleteRef();
-                }
+                DvmObject<?> ref = object == null ? null : deleteGlobalRef(object.toIntPeer());
                 if (verbose) {
                     System.out.printf("JNIEnv->DeleteGlobalRef(%s) was called from %s%n", ref, context.getLRPointer());
                 }
@@ -288,7 +286,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _DeleteLocalRef = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _DeleteLocalRef = svcMemory.registerSvc(new Arm64Svc("JNIEnv->DeleteLocalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -296,11 +294,14 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("DeleteLocalRef object=" + object);
                 }
+                if (object != null) {
+                    deleteLocalRef(object.toIntPeer());
+                }
                 return 0;
             }
         });
 
-        Pointer _IsSameObject = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _IsSameObject = svcMemory.registerSvc(new Arm64Svc("JNIEnv->IsSameObject") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -309,11 +310,13 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("IsSameObject ref1=" + ref1 + ", ref2=" + ref2);
                 }
-                return ref1 == ref2 || ref1.equals(ref2) ? JNI_TRUE : JNI_FALSE;
+                DvmObject<?> obj1 = ref1 == null ? null : getObject(ref1.toIntPeer());
+                DvmObject<?> obj2 = ref2 == null ? null : getObject(ref2.toIntPeer());
+                return obj1 == obj2 ? JNI_TRUE : JNI_FALSE;
             }
         });
 
-        Pointer _NewLocalRef = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewLocalRef = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewLocalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -328,11 +331,11 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (verbose) {
                     System.out.printf("JNIEnv->NewLocalRef(%s) was called from %s%n", dvmObject, context.getLRPointer());
                 }
-                return object.toIntPeer();
+                return addLocalObject(dvmObject);
             }
         });
 
-        Pointer _EnsureLocalCapacity = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _EnsureLocalCapacity = svcMemory.registerSvc(new Arm64Svc("JNIEnv->EnsureLocalCapacity") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -344,12 +347,12 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _AllocObject = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _AllocObject = svcMemory.registerSvc(new Arm64Svc("JNIEnv->AllocObject") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("AllocObject clazz=" + dvmClass + ", lr=" + context.getLRPointer());
                 }
@@ -365,13 +368,13 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewObject = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewObject = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewObject") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
                 UnidbgPointer jmethodID = context.getPointerArg(2);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("NewObject clazz=" + dvmClass + ", jmethodID=" + jmethodID + ", lr=" + context.getLRPointer());
@@ -389,14 +392,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewObjectV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewObjectV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewObjectV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
                 UnidbgPointer jmethodID = context.getPointerArg(2);
                 UnidbgPointer va_list = context.getPointerArg(3);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("NewObjectV clazz=" + dvmClass + ", jmethodID=" + jmethodID + ", va_list=" + va_list + ", lr=" + context.getLRPointer());
@@ -414,14 +417,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewObjectA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewObjectA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewObjectA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetObjectClass = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetObjectClass = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetObjectClass") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -434,19 +437,19 @@ public class DalvikVM64 extends BaseVM implements VM {
                     throw new BackendException();
                 } else {
                     DvmClass dvmClass = dvmObject.getObjectType();
-                    return dvmClass.hashCode();
+                    return getClassRef(dvmClass);
                 }
             }
         });
 
-        Pointer _IsInstanceOf = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _IsInstanceOf = svcMemory.registerSvc(new Arm64Svc("JNIEnv->IsInstanceOf") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer object = context.getPointerArg(1);
                 UnidbgPointer clazz = context.getPointerArg(2);
                 DvmObject<?> dvmObject = getObject(object.toIntPeer());
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("IsInstanceOf object=" + object + ", clazz=" + clazz + ", dvmObject=" + dvmObject + ", dvmClass=" + dvmClass);
                 }
@@ -458,7 +461,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetMethodID = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetMethodID = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetMethodID") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -470,7 +473,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetMethodID class=" + clazz + ", methodName=" + name + ", args=" + args + ", LR=" + context.getLRPointer());
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException();
                 } else {
@@ -483,7 +486,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallObjectMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallObjectMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallObjectMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -508,7 +511,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallObjectMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallObjectMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallObjectMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -534,7 +537,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallObjectMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallObjectMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallObjectMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -560,7 +563,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallBooleanMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallBooleanMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallBooleanMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -585,7 +588,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallBooleanMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallBooleanMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallBooleanMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -611,7 +614,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallBooleanMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallBooleanMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallBooleanMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -637,14 +640,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallByteMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallByteMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallByteMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallByteMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallByteMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallByteMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -670,42 +673,42 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallByteMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallByteMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallByteMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallCharMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallCharMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallCharMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallCharMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallCharMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallCharMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallCharMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallCharMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallCharMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallShortMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallShortMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallShortMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallShortMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallShortMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallShortMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -731,14 +734,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallShortMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallShortMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallShortMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallIntMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallIntMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallIntMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -763,7 +766,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallIntMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallIntMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallIntMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -789,7 +792,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallIntMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallIntMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallIntMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -815,7 +818,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallLongMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallLongMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallLongMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -840,7 +843,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallLongMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallLongMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallLongMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -866,21 +869,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallLongMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallLongMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallLongMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallFloatMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallFloatMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallFloatMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallFloatMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallFloatMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallFloatMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -910,14 +913,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallFloatMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallFloatMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallFloatMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallDoubleMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallDoubleMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallDoubleMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -946,21 +949,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallDoubleMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallDoubleMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallDoubleMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallDoubleMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallDoubleMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallDoubleMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallVoidMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallVoidMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallVoidMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -985,7 +988,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallVoidMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallVoidMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallVoidMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1011,7 +1014,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallVoidMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallVoidMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallVoidMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1037,42 +1040,42 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallNonvirtualObjectMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualObjectMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualObjectMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualObjectMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualObjectMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualObjectMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualObjectMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualObjectMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualObjectMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualBooleanMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualBooleanMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualBooleanMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualBooleanMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualBooleanMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualBooleanMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualBooleanMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualBooleanMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualBooleanMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1084,7 +1087,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                     log.debug("CallNonvirtualBooleanMethodA object=" + object + ", clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
                 DvmObject<?> dvmObject = getObject(object.toIntPeer());
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1102,161 +1105,161 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallNonvirtualByteMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualByteMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualByteMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualByteMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualByteMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualByteMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualByteMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualByteMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualByteMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualCharMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualCharMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualCharMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualCharMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualCharMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualCharMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualCharMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualCharMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualCharMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualShortMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualShortMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualShortMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualShortMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualShortMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualShortMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualShortMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualShortMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualShortMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualIntMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualIntMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualIntMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualIntMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualIntMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualIntMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualIntMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualIntMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualIntMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualLongMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualLongMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualLongMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualLongMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualLongMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualLongMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualLongMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualLongMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualLongMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualFloatMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualFloatMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualFloatMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualFloatMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualFloatMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualFloatMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualFloatMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualFloatMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualFloatMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualDoubleMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualDoubleMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualDoubleMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualDoubleMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualDoubleMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualDoubleMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualDoubleMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualDoubleMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualDoubleMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualVoidMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualVoidMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualVoidMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallNonvirtualVoidMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonvirtualVoidMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonvirtualVoidMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1268,7 +1271,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                     log.debug("CallNonvirtualVoidMethodV object=" + object + ", clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
                 DvmObject<?> dvmObject = getObject(object.toIntPeer());
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1288,7 +1291,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallNonVirtualVoidMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallNonVirtualVoidMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallNonVirtualVoidMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1300,7 +1303,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                     log.debug("CallNonVirtualVoidMethodA object=" + object + ", clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
                 DvmObject<?> dvmObject = getObject(object.toIntPeer());
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1320,7 +1323,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetFieldID = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetFieldID = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetFieldID") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1332,7 +1335,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetFieldID class=" + clazz + ", fieldName=" + name + ", args=" + args);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException();
                 } else {
@@ -1345,7 +1348,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetObjectField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetObjectField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetObjectField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1369,7 +1372,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetBooleanField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetBooleanField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetBooleanField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1393,28 +1396,28 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetByteField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetByteField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetByteField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetCharField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetCharField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetCharField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetShortField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetShortField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetShortField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetIntField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetIntField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetIntField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1438,7 +1441,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetLongField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetLongField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetLongField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1462,7 +1465,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetFloatField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetFloatField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetFloatField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1490,14 +1493,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetDoubleField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetDoubleField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetDoubleField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetObjectField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetObjectField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetObjectField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1523,7 +1526,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetBooleanField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetBooleanField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetBooleanField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1549,28 +1552,28 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetByteField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetByteField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetByteField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetCharField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetCharField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetCharField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetShortField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetShortField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetShortField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetIntField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetIntField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetIntField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1595,7 +1598,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetLongField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetLongField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetLongField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1620,7 +1623,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetFloatField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetFloatField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetFloatField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1649,7 +1652,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetDoubleField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetDoubleField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetDoubleField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1678,7 +1681,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticMethodID = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticMethodID = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticMethodID") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1690,7 +1693,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticMethodID class=" + clazz + ", methodName=" + name + ", args=" + args + ", LR=" + context.getLRPointer());
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException();
                 } else {
@@ -1703,7 +1706,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticObjectMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticObjectMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticObjectMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1712,7 +1715,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticObjectMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1727,7 +1730,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticObjectMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticObjectMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticObjectMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1737,7 +1740,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticObjectMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1752,7 +1755,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticObjectMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticObjectMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticObjectMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1762,7 +1765,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticObjectMethodA clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1777,7 +1780,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticBooleanMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticBooleanMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticBooleanMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1786,7 +1789,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticBooleanMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1801,7 +1804,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticBooleanMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticBooleanMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticBooleanMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1811,7 +1814,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticBooleanMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1826,7 +1829,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticBooleanMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticBooleanMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticBooleanMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1836,7 +1839,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticBooleanMethodA clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1851,70 +1854,70 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticByteMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticByteMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticByteMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticByteMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticByteMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticByteMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticByteMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticByteMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticByteMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticCharMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticCharMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticCharMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticCharMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticCharMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticCharMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticCharMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticCharMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticCharMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticShortMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticShortMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticShortMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticShortMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticShortMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticShortMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticShortMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticShortMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticShortMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticIntMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticIntMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticIntMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1923,7 +1926,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticIntMethodV clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1938,7 +1941,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticIntMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticIntMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticIntMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1948,7 +1951,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticIntMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1963,14 +1966,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticIntMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticIntMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticIntMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticLongMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticLongMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticLongMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -1979,7 +1982,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticLongMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -1994,7 +1997,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticLongMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticLongMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticLongMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2004,7 +2007,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticLongMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list + ", lr=" + context.getLRPointer());
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2019,14 +2022,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticLongMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticLongMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticLongMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticFloatMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticFloatMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticFloatMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2035,7 +2038,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticFloatMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2054,21 +2057,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticFloatMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticFloatMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticFloatMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticFloatMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticFloatMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticFloatMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticDoubleMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticDoubleMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticDoubleMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2077,7 +2080,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticDoubleMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2096,21 +2099,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticDoubleMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticDoubleMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticDoubleMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticDoubleMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticDoubleMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticDoubleMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _CallStaticVoidMethod = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticVoidMethod = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticVoidMethod") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2119,7 +2122,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticVoidMethod clazz=" + clazz + ", jmethodID=" + jmethodID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2134,7 +2137,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticVoidMethodV = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticVoidMethodV = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticVoidMethodV") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2144,7 +2147,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticVoidMethodV clazz=" + clazz + ", jmethodID=" + jmethodID + ", va_list=" + va_list);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2159,7 +2162,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _CallStaticVoidMethodA = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _CallStaticVoidMethodA = svcMemory.registerSvc(new Arm64Svc("JNIEnv->CallStaticVoidMethodA") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2169,7 +2172,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("CallStaticVoidMethodA clazz=" + clazz + ", jmethodID=" + jmethodID + ", jvalue=" + jvalue);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmMethod dvmMethod = dvmClass == null ? null : dvmClass.getStaticMethod(jmethodID.toIntPeer());
                 if (dvmMethod == null) {
                     throw new BackendException();
@@ -2184,7 +2187,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticFieldID = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticFieldID = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticFieldID") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2196,7 +2199,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticFieldID class=" + clazz + ", fieldName=" + name + ", args=" + args);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException();
                 } else {
@@ -2209,7 +2212,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticObjectField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticObjectField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticObjectField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2218,7 +2221,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticObjectField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2232,7 +2235,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticBooleanField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticBooleanField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticBooleanField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2241,7 +2244,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticBooleanField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2255,7 +2258,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticByteField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticByteField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticByteField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2264,7 +2267,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticByteField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2278,21 +2281,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticCharField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticCharField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticCharField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetStaticShortField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticShortField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticShortField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetStaticIntField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticIntField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticIntField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2301,7 +2304,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticIntField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2315,7 +2318,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticLongField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticLongField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticLongField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 Arm64RegisterContext context = emulator.getContext();
@@ -2324,7 +2327,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("GetStaticLongField clazz=" + clazz + ", jfieldID=" + jfieldID);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException();
@@ -2338,56 +2341,56 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStaticFloatField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticFloatField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticFloatField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetStaticDoubleField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStaticDoubleField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStaticDoubleField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticObjectField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetStaticObjectField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetStaticObjectField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticBooleanField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetStaticBooleanField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetStaticBooleanField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticByteField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetStaticByteField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetStaticByteField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticCharField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetStaticCharField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetStaticCharField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticShortField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetStaticShortField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetStaticShortField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetStaticIntField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetStaticIntField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetStaticIntField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2397,7 +2400,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("SetStaticIntField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2411,7 +2414,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetStaticLongField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetStaticLongField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetStaticLongField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2421,7 +2424,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("SetStaticLongField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2435,7 +2438,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringUTFLength = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStringUTFLength = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStringUTFLength") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2453,7 +2456,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringUTFChars = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStringUTFChars = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStringUTFChars") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2478,7 +2481,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseStringUTFChars = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseStringUTFChars = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseStringUTFChars") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2496,7 +2499,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetArrayLength = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetArrayLength = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetArrayLength") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2512,7 +2515,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewObjectArray = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewObjectArray = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewObjectArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2522,7 +2525,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("NewObjectArray size=" + size + ", elementClass=" + elementClass + ", initialElement=" + initialElement);
                 }
-                DvmClass dvmClass = classMap.get(elementClass.toIntPeer());
+                DvmClass dvmClass = getDvmClass(elementClass.toIntPeer());
                 if (dvmClass == null) {
                     throw new BackendException("elementClass=" + elementClass);
                 }
@@ -2537,7 +2540,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetObjectArrayElement = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetObjectArrayElement = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetObjectArrayElement") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2555,7 +2558,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetObjectArrayElement = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetObjectArrayElement = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetObjectArrayElement") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2573,14 +2576,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewBooleanArray = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewBooleanArray = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewBooleanArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewByteArray = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewByteArray = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewByteArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2595,21 +2598,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewCharArray = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewCharArray = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewCharArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewShortArray = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewShortArray = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewShortArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewIntArray = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewIntArray = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewIntArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2624,14 +2627,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewLongArray = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewLongArray = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewLongArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewFloatArray = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewFloatArray = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewFloatArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2646,7 +2649,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewDoubleArray = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewDoubleArray = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewDoubleArray") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2661,14 +2664,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetBooleanArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetBooleanArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetBooleanArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetByteArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetByteArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetByteArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2685,21 +2688,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetCharArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetCharArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetCharArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetShortArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetShortArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetShortArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetIntArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetIntArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetIntArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2713,7 +2716,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetStaticFloatField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetStaticFloatField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetStaticFloatField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2727,7 +2730,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("SetStaticFloatField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2741,7 +2744,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetStaticDoubleField = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetStaticDoubleField = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetStaticDoubleField") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2755,7 +2758,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("SetStaticDoubleField clazz=" + clazz + ", jfieldID=" + jfieldID + ", value=" + value);
                 }
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 DvmField dvmField = dvmClass == null ? null : dvmClass.getStaticField(jfieldID.toIntPeer());
                 if (dvmField == null) {
                     throw new BackendException("dvmClass=" + dvmClass);
@@ -2769,14 +2772,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewString = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewString = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewString") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetStringLength = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStringLength = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStringLength") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2790,7 +2793,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringChars = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStringChars = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStringChars") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2817,7 +2820,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseStringChars = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseStringChars = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseStringChars") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2832,7 +2835,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewStringUTF = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewStringUTF = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewStringUTF") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2852,14 +2855,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetLongArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetLongArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetLongArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetFloatArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetFloatArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetFloatArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2870,21 +2873,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetDoubleArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetDoubleArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetDoubleArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseBooleanArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseBooleanArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseBooleanArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseByteArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseByteArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseByteArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2900,21 +2903,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseCharArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseCharArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseCharArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseShortArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseShortArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseShortArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseIntArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseIntArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseIntArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2930,14 +2933,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseLongArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseLongArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseLongArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseFloatArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseFloatArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseFloatArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2953,21 +2956,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleaseDoubleArrayElements = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseDoubleArrayElements = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseDoubleArrayElements") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetBooleanArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetBooleanArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetBooleanArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetByteArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetByteArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetByteArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -2979,7 +2982,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (verbose) {
                     System.out.printf("JNIEnv->GetByteArrayRegion(%s, %d, %d, %s) was called from %s%n", array, start, length, buf, context.getLRPointer());
                 }
-                byte[] data = Arrays.copyOfRange(Objects.requireNonNull(array).value, start, start + length);
+                byte[] data = Arrays.copyOfRange(Objects.requireNonNull(array).readValue(), start, start + length);
                 if (log.isDebugEnabled()) {
                     Inspector.inspect(data, "GetByteArrayRegion array=" + array + ", start=" + start + ", length=" + length + ", buf=" + buf);
                 }
@@ -2988,14 +2991,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetCharArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetCharArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetCharArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetShortArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetShortArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetShortArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3007,7 +3010,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (verbose) {
                     System.out.printf("JNIEnv->GetShortArrayRegion(%s, %d, %d, %s) was called from %s%n", array, start, length, buf, context.getLRPointer());
                 }
-                short[] data = Arrays.copyOfRange(Objects.requireNonNull(array).value, start, start + length);
+                short[] data = Arrays.copyOfRange(Objects.requireNonNull(array).readValue(), start, start + length);
                 if (log.isDebugEnabled()) {
                     log.debug("GetShortArrayRegion array=" + array + ", start=" + start + ", length=" + length + ", buf=" + buf);
                 }
@@ -3016,28 +3019,28 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetIntArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetIntArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetIntArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetLongArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetLongArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetLongArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetFloatArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetFloatArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetFloatArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetDoubleArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetDoubleArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetDoubleArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3049,7 +3052,7 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (verbose) {
                     System.out.printf("JNIEnv->GetDoubleArrayRegion(%s, %d, %d, %s) was called from %s%n", array, start, length, buf, context.getLRPointer());
                 }
-                double[] data = Arrays.copyOfRange(Objects.requireNonNull(array).value, start, start + length);
+                double[] data = Arrays.copyOfRange(Objects.requireNonNull(array).readValue(), start, start + length);
                 if (log.isDebugEnabled()) {
                     log.debug("GetDoubleArrayRegion array=" + array + ", start=" + start + ", length=" + length + ", buf=" + buf);
                 }
@@ -3058,14 +3061,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetBooleanArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetBooleanArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetBooleanArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetByteArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetByteArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetByteArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3090,21 +3093,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetCharArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetCharArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetCharArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetShortArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetShortArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetShortArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetIntArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetIntArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetIntArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3122,14 +3125,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetLongArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetLongArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetLongArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _SetFloatArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetFloatArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetFloatArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3147,7 +3150,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _SetDoubleArrayRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _SetDoubleArrayRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->SetDoubleArrayRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3165,14 +3168,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _RegisterNatives = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _RegisterNatives = svcMemory.registerSvc(new Arm64Svc("JNIEnv->RegisterNatives") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
                 UnidbgPointer clazz = context.getPointerArg(1);
                 Pointer methods = context.getPointerArg(2);
                 int nMethods = context.getIntArg(3);
-                DvmClass dvmClass = classMap.get(clazz.toIntPeer());
+                DvmClass dvmClass = getDvmClass(clazz.toIntPeer());
                 if (log.isDebugEnabled()) {
                     log.debug("RegisterNatives dvmClass=" + dvmClass + ", methods=" + methods + ", nMethods=" + nMethods);
                 }
@@ -3199,14 +3202,14 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _UnregisterNatives = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _UnregisterNatives = svcMemory.registerSvc(new Arm64Svc("JNIEnv->UnregisterNatives") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _MonitorEnter = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _MonitorEnter = svcMemory.registerSvc(new Arm64Svc("JNIEnv->MonitorEnter") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3219,7 +3222,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _MonitorExit = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _MonitorExit = svcMemory.registerSvc(new Arm64Svc("JNIEnv->MonitorExit") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3232,7 +3235,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetJavaVM = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetJavaVM = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetJavaVM") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3245,7 +3248,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStringRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStringRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3275,7 +3278,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringUTFRegion = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStringUTFRegion = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStringUTFRegion") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3300,7 +3303,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetPrimitiveArrayCritical = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetPrimitiveArrayCritical = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetPrimitiveArrayCritical") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3314,7 +3317,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _ReleasePrimitiveArrayCritical = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleasePrimitiveArrayCritical = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleasePrimitiveArrayCritical") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3330,21 +3333,21 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _GetStringCritical = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetStringCritical = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetStringCritical") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _ReleaseStringCritical = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ReleaseStringCritical = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ReleaseStringCritical") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _NewWeakGlobalRef = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewWeakGlobalRef = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewWeakGlobalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3356,18 +3359,26 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (log.isDebugEnabled()) {
                     log.debug("NewWeakGlobalRef object=" + object + ", dvmObject=" + dvmObject + ", class=" + dvmObject.getClass());
                 }
-                return addObject(dvmObject, true, true);
+                return addWeakGlobalObject(dvmObject);
             }
         });
 
-        Pointer _DeleteWeakGlobalRef = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _DeleteWeakGlobalRef = svcMemory.registerSvc(new Arm64Svc("JNIEnv->DeleteWeakGlobalRef") {
             @Override
             public long handle(Emulator<?> emulator) {
-                throw new UnsupportedOperationException();
+                RegisterContext context = emulator.getContext();
+                UnidbgPointer object = context.getPointerArg(1);
+                if (log.isDebugEnabled()) {
+                    log.debug("DeleteWeakGlobalRef object=" + object);
+                }
+                if (object != null) {
+                    deleteWeakGlobalRef(object.toIntPeer());
+                }
+                return 0;
             }
         });
 
-        Pointer _ExceptionCheck = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _ExceptionCheck = svcMemory.registerSvc(new Arm64Svc("JNIEnv->ExceptionCheck") {
             @Override
             public long handle(Emulator<?> emulator) {
                 if (log.isDebugEnabled()) {
@@ -3377,28 +3388,28 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        Pointer _NewDirectByteBuffer = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _NewDirectByteBuffer = svcMemory.registerSvc(new Arm64Svc("JNIEnv->NewDirectByteBuffer") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetDirectBufferAddress = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetDirectBufferAddress = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetDirectBufferAddress") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetDirectBufferCapacity = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetDirectBufferCapacity = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetDirectBufferCapacity") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
             }
         });
 
-        Pointer _GetObjectRefType = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetObjectRefType = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetObjectRefType") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3406,22 +3417,15 @@ public class DalvikVM64 extends BaseVM implements VM {
                 if (object == null) {
                     return JNIInvalidRefType;
                 }
-                ObjRef dvmGlobalObject = globalObjectMap.get(object.toIntPeer());
-                ObjRef dvmLocalObject = localObjectMap.get(object.toIntPeer());
+                int refType = getObjectRefType(object.toIntPeer());
                 if (log.isDebugEnabled()) {
-                    log.debug("GetObjectRefType object=" + object + ", dvmGlobalObject=" + dvmGlobalObject + ", dvmLocalObject=" + dvmLocalObject);
-                }
-                if (dvmGlobalObject != null) {
-                    return dvmGlobalObject.weak ? JNIWeakGlobalRefType : JNIGlobalRefType;
-                } else if(dvmLocalObject != null) {
-                    return JNILocalRefType;
-                } else {
-                    return JNIInvalidRefType;
+                    log.debug("GetObjectRefType object=" + object + ", refType=" + refType);
                 }
+                return refType;
             }
         });
 
-        Pointer _GetModule = svcMemory.registerSvc(new Arm64Svc() {
+        Pointer _GetModule = svcMemory.registerSvc(new Arm64Svc("JNIEnv->GetModule") {
             @Override
             public long handle(Emulator<?> emulator) {
                 throw new UnsupportedOperationException();
@@ -3667,7 +3671,7 @@ public class DalvikVM64 extends BaseVM implements VM {
         _JNIEnv = svcMemory.allocate(emulator.getPointerSize(), "_JNIEnv");
         _JNIEnv.setPointer(0, impl);
 
-        UnidbgPointer _AttachCurrentThread = svcMemory.registerSvc(new Arm64Svc() {
+        UnidbgPointer _AttachCurrentThread = svcMemory.registerSvc(new Arm64Svc("JavaVM->AttachCurrentThread") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3682,7 +3686,7 @@ public class DalvikVM64 extends BaseVM implements VM {
             }
         });
 
-        UnidbgPointer _GetEnv = svcMemory.registerSvc(new Arm64Svc() {
+        UnidbgPointer _GetEnv = svcMemory.registerSvc(new Arm64Svc("JavaVM->GetEnv") {
             @Override
             public long handle(Emulator<?> emulator) {
                 RegisterContext context = emulator.getContext();
@@ -3721,8 +3725,8 @@ public class DalvikVM64 extends BaseVM implements VM {
         return _JNIEnv;
     }
 
-    byte[] loadLibraryData(Apk apk, String soName) {
-        byte[] soData = apk.getFileData("lib/arm64-v8a/" + soName);
+    ByteBuffer loadLibraryData(Apk apk, String soName) {
+        ByteBuffer soData = apk.getFileBuffer("lib/arm64-v8a/" + soName);
         if (soData != null) {
             if (log.isDebugEnabled()) {
                 log.debug("resolve arm64-v8a library: " + soName);
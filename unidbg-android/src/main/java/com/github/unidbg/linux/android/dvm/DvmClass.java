@@ -7,6 +7,9 @@ import com.github.unidbg.pointer.UnidbgPointer;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -22,6 +25,11 @@ public class DvmClass extends DvmObject<Class<?>> {
     private final DvmClass[] interfaceClasses;
     private final String className;
 
+    /**
+     * {@link BaseVM#resolveClass(String, DvmClass...)} 时创建的全局引用，FindClass 等直接返回
+     */
+    int globalRef;
+
     protected DvmClass(BaseVM vm, String className, DvmClass superClass, DvmClass[] interfaceClasses) {
         this(vm, className, superClass, interfaceClasses, null);
     }
@@ -74,11 +82,106 @@ public class DvmClass extends DvmObject<Class<?>> {
         return checkJni(vm, this).allocObject(vm, this, signature);
     }
 
+    private final Map<String, MethodHandler> boundMethods = new HashMap<>();
+    private final Map<String, MethodHandler> boundStaticMethods = new HashMap<>();
+
+    /**
+     * 绑定实例方法或者构造方法，GetMethodID 时解析，调用时直接执行 handler，不再经过 {@link Jni} 按签名分发。
+     * 子类会继承父类和接口绑定的方法，已经获取的 jmethodID 也会改用新的 handler。
+     * 返回基本类型的方法可以传入 {@link PrimitiveMethodHandler} 避免装箱
+     * @param methodName 方法名，构造方法为 <code>&lt;init&gt;</code>
+     * @param args 方法描述，比如 <code>(Ljava/lang/String;)I</code>
+     */
+    public DvmClass bindMethod(String methodName, String args, MethodHandler handler) {
+        bind(boundMethods, methodName, args, handler, false);
+        return this;
+    }
+
+    /**
+     * 绑定静态方法，见 {@link #bindMethod(String, String, MethodHandler)}
+     */
+    public DvmClass bindStaticMethod(String methodName, String args, MethodHandler handler) {
+        bind(boundStaticMethods, methodName, args, handler, true);
+        return this;
+    }
+
+    private void bind(Map<String, MethodHandler> bound, String methodName, String args, MethodHandler handler, boolean isStatic) {
+        if (handler == null) {
+            throw new IllegalArgumentException("handler is null");
+        }
+        String key = methodName + args;
+        bound.put(key, handler);
+        for (DvmClass dvmClass : vm.classMap.values()) {
+            if (dvmClass.isAssignableTo(this)) {
+                dvmClass.rebindMethods(key, isStatic);
+            }
+        }
+    }
+
+    /**
+     * 重新解析已经获取的同名方法，子类自己绑定的优先
+     */
+    private void rebindMethods(String key, boolean isStatic) {
+        for (DvmMethod method : (isStatic ? staticMethodMap : methodMap).values()) {
+            if (key.equals(method.methodName + method.args)) {
+                method.setHandler(findBoundMethod(key, isStatic));
+            }
+        }
+    }
+
+    private boolean isAssignableTo(DvmClass dvmClass) {
+        if (this == dvmClass) {
+            return true;
+        }
+        if (superClass != null && superClass.isAssignableTo(dvmClass)) {
+            return true;
+        }
+        if (interfaceClasses != null) {
+            for (DvmClass interfaceClass : interfaceClasses) {
+                if (interfaceClass.isAssignableTo(dvmClass)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private MethodHandler findBoundMethod(String key, boolean isStatic) {
+        MethodHandler handler = (isStatic ? boundStaticMethods : boundMethods).get(key);
+        if (handler == null && superClass != null) {
+            handler = superClass.findBoundMethod(key, isStatic);
+        }
+        if (handler == null && interfaceClasses != null) {
+            for (DvmClass interfaceClass : interfaceClasses) {
+                handler = interfaceClass.findBoundMethod(key, isStatic);
+                if (handler != null) {
+                    break;
+                }
+            }
+        }
+        return handler;
+    }
+
+    private DvmMethod newMethod(String methodName, String args, boolean isStatic) {
+        DvmMethod method = new DvmMethod(this, methodName, args, isStatic);
+        method.setHandler(findBoundMethod(methodName + args, isStatic));
+        return method;
+    }
+
     private final Map<Integer, DvmMethod> staticMethodMap = new HashMap<>();
 
+    private final Map<Integer, DvmMethod> inheritedStaticMethodCache = new HashMap<>();
+
     final DvmMethod getStaticMethod(int hash) {
         DvmMethod method = staticMethodMap.get(hash);
-        if (method == null && superClass != null) {
+        if (method != null) {
+            return method;
+        }
+        method = inheritedStaticMethodCache.get(hash);
+        if (method != null) {
+            return method;
+        }
+        if (superClass != null) {
             method = superClass.getStaticMethod(hash);
         }
         if (method == null) {
@@ -89,6 +192,9 @@ public class DvmClass extends DvmObject<Class<?>> {
                 }
             }
         }
+        if (method != null) {
+            inheritedStaticMethodCache.put(hash, method);
+        }
         return method;
     }
 
@@ -98,9 +204,10 @@ public class DvmClass extends DvmObject<Class<?>> {
         if (log.isDebugEnabled()) {
             log.debug("getStaticMethodID signature=" + signature + ", hash=0x" + Long.toHexString(hash));
         }
-        if (checkJni(vm, this).acceptMethod(this, signature, true)) {
+        MethodHandler handler = findBoundMethod(methodName + args, true);
+        if (handler != null || checkJni(vm, this).acceptMethod(this, signature, true)) {
             if (!staticMethodMap.containsKey(hash)) {
-                staticMethodMap.put(hash, new DvmMethod(this, methodName, args, true));
+                staticMethodMap.put(hash, newMethod(methodName, args, true));
             }
             return hash;
         } else {
@@ -110,9 +217,18 @@ public class DvmClass extends DvmObject<Class<?>> {
 
     private final Map<Integer, DvmMethod> methodMap = new HashMap<>();
 
+    private final Map<Integer, DvmMethod> inheritedMethodCache = new HashMap<>();
+
     final DvmMethod getMethod(int hash) {
         DvmMethod method = methodMap.get(hash);
-        if (method == null && superClass != null) {
+        if (method != null) {
+            return method;
+        }
+        method = inheritedMethodCache.get(hash);
+        if (method != null) {
+            return method;
+        }
+        if (superClass != null) {
             method = superClass.getMethod(hash);
         }
         if (method == null) {
@@ -123,6 +239,9 @@ public class DvmClass extends DvmObject<Class<?>> {
                 }
             }
         }
+        if (method != null) {
+            inheritedMethodCache.put(hash, method);
+        }
         return method;
     }
 
@@ -132,9 +251,9 @@ public class DvmClass extends DvmObject<Class<?>> {
         if (log.isDebugEnabled()) {
             log.debug("getMethodID signature=" + signature + ", hash=0x" + Long.toHexString(hash));
         }
-        if (vm.jni == null || vm.jni.acceptMethod(this, signature, false)) {
+        if (vm.jni == null || findBoundMethod(methodName + args, false) != null || vm.jni.acceptMethod(this, signature, false)) {
             if (!methodMap.containsKey(hash)) {
-                methodMap.put(hash, new DvmMethod(this, methodName, args, false));
+                methodMap.put(hash, newMethod(methodName, args, false));
             }
             return hash;
         } else {
@@ -144,9 +263,18 @@ public class DvmClass extends DvmObject<Class<?>> {
 
     private final Map<Integer, DvmField> fieldMap = new HashMap<>();
 
+    private final Map<Integer, DvmField> inheritedFieldCache = new HashMap<>();
+
     final DvmField getField(int hash) {
         DvmField field = fieldMap.get(hash);
-        if (field == null && superClass != null) {
+        if (field != null) {
+            return field;
+        }
+        field = inheritedFieldCache.get(hash);
+        if (field != null) {
+            return field;
+        }
+        if (superClass != null) {
             field = superClass.getField(hash);
         }
         if (field == null) {
@@ -157,6 +285,9 @@ public class DvmClass extends DvmObject<Class<?>> {
                 }
             }
         }
+        if (field != null) {
+            inheritedFieldCache.put(hash, field);
+        }
         return field;
     }
 
@@ -178,9 +309,18 @@ public class DvmClass extends DvmObject<Class<?>> {
 
     private final Map<Integer, DvmField> staticFieldMap = new HashMap<>();
 
+    private final Map<Integer, DvmField> inheritedStaticFieldCache = new HashMap<>();
+
     final DvmField getStaticField(int hash) {
         DvmField field = staticFieldMap.get(hash);
-        if (field == null && superClass != null) {
+        if (field != null) {
+            return field;
+        }
+        field = inheritedStaticFieldCache.get(hash);
+        if (field != null) {
+            return field;
+        }
+        if (superClass != null) {
             field = superClass.getStaticField(hash);
         }
         if (field == null) {
@@ -191,6 +331,9 @@ public class DvmClass extends DvmObject<Class<?>> {
                 }
             }
         }
+        if (field != null) {
+            inheritedStaticFieldCache.put(hash, field);
+        }
         return field;
     }
 
@@ -230,6 +373,93 @@ public class DvmClass extends DvmObject<Class<?>> {
 
     final Map<String, UnidbgPointer> nativesMap = new HashMap<>();
 
+    /**
+     * 从另一个虚拟机的同名类复制绑定的方法、已经解析的方法、字段和注册的 native 函数
+     */
+    final void forkFrom(DvmClass dvmClass, Emulator<?> emulator) {
+        boundMethods.putAll(dvmClass.boundMethods);
+        boundStaticMethods.putAll(dvmClass.boundStaticMethods);
+        for (Map.Entry<Integer, DvmMethod> entry : dvmClass.methodMap.entrySet()) {
+            DvmMethod method = entry.getValue();
+            methodMap.put(entry.getKey(), newMethod(method.methodName, method.args, false));
+        }
+        for (Map.Entry<Integer, DvmMethod> entry : dvmClass.staticMethodMap.entrySet()) {
+            DvmMethod method = entry.getValue();
+            staticMethodMap.put(entry.getKey(), newMethod(method.methodName, method.args, true));
+        }
+        for (Map.Entry<Integer, DvmField> entry : dvmClass.fieldMap.entrySet()) {
+            DvmField field = entry.getValue();
+            fieldMap.put(entry.getKey(), new DvmField(this, field.fieldName, field.fieldType, false));
+        }
+        for (Map.Entry<Integer, DvmField> entry : dvmClass.staticFieldMap.entrySet()) {
+            DvmField field = entry.getValue();
+            staticFieldMap.put(entry.getKey(), new DvmField(this, field.fieldName, field.fieldType, true));
+        }
+        for (Map.Entry<String, UnidbgPointer> entry : dvmClass.nativesMap.entrySet()) {
+            nativesMap.put(entry.getKey(), UnidbgPointer.pointer(emulator, entry.getValue().peer));
+        }
+    }
+
+    /**
+     * 写入检查点，类名和继承关系由虚拟机写入
+     */
+    final void writeState(DataOutput out) throws IOException {
+        writeMethods(methodMap, out);
+        writeMethods(staticMethodMap, out);
+        writeFields(fieldMap, out);
+        writeFields(staticFieldMap, out);
+        out.writeInt(nativesMap.size());
+        for (Map.Entry<String, UnidbgPointer> entry : nativesMap.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().peer);
+        }
+    }
+
+    final void readState(DataInput in, Emulator<?> emulator) throws IOException {
+        readMethods(methodMap, in, false);
+        readMethods(staticMethodMap, in, true);
+        readFields(fieldMap, in, false);
+        readFields(staticFieldMap, in, true);
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            nativesMap.put(in.readUTF(), UnidbgPointer.pointer(emulator, in.readLong()));
+        }
+    }
+
+    private static void writeMethods(Map<Integer, DvmMethod> map, DataOutput out) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<Integer, DvmMethod> entry : map.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeUTF(entry.getValue().methodName);
+            out.writeUTF(entry.getValue().args);
+        }
+    }
+
+    private void readMethods(Map<Integer, DvmMethod> map, DataInput in, boolean isStatic) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int hash = in.readInt();
+            map.put(hash, newMethod(in.readUTF(), in.readUTF(), isStatic));
+        }
+    }
+
+    private static void writeFields(Map<Integer, DvmField> map, DataOutput out) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<Integer, DvmField> entry : map.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeUTF(entry.getValue().fieldName);
+            out.writeUTF(entry.getValue().fieldType);
+        }
+    }
+
+    private void readFields(Map<Integer, DvmField> map, DataInput in, boolean isStatic) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int hash = in.readInt();
+            map.put(hash, new DvmField(this, in.readUTF(), in.readUTF(), isStatic));
+        }
+    }
+
     UnidbgPointer findNativeFunction(Emulator<?> emulator, String method) {
         UnidbgPointer fnPtr = nativesMap.get(method);
         int index = method.indexOf('(');
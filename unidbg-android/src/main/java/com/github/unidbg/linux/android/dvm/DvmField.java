@@ -9,12 +9,14 @@ public class DvmField extends Hashable {
     final String fieldName;
     final String fieldType;
     private final boolean isStatic;
+    private final String signature;
 
     DvmField(DvmClass dvmClass, String fieldName, String fieldType, boolean isStatic) {
         this.dvmClass = dvmClass;
         this.fieldName = fieldName;
         this.fieldType = fieldType;
         this.isStatic = isStatic;
+        this.signature = dvmClass.getClassName() + "->" + fieldName + ":" + fieldType;
     }
 
     public DvmClass getDvmClass() {
@@ -31,7 +33,7 @@ public class DvmField extends Hashable {
     }
 
     final String getSignature() {
-        return dvmClass.getClassName() + "->" + fieldName + ":" + fieldType;
+        return signature;
     }
 
     DvmObject<?> getStaticObjectField() {
@@ -18,12 +18,25 @@ public class DvmMethod extends Hashable {
     final String methodName;
     final String args;
     final boolean isStatic;
+    private final String signature;
+
+    /**
+     * GetMethodID 时从 {@link DvmClass#bindMethod(String, String, MethodHandler)} 解析，之后绑定的也会同步过来
+     */
+    MethodHandler handler;
+    private PrimitiveMethodHandler primitiveHandler;
 
     DvmMethod(DvmClass dvmClass, String methodName, String args, boolean isStatic) {
         this.dvmClass = dvmClass;
         this.methodName = methodName;
         this.args = args;
         this.isStatic = isStatic;
+        this.signature = dvmClass.getClassName() + "->" + methodName + args;
+    }
+
+    final void setHandler(MethodHandler handler) {
+        this.handler = handler;
+        this.primitiveHandler = handler instanceof PrimitiveMethodHandler ? (PrimitiveMethodHandler) handler : null;
     }
 
     public boolean isConstructor() {
@@ -47,7 +60,56 @@ public class DvmMethod extends Hashable {
     }
 
     public final String getSignature() {
-        return dvmClass.getClassName() + "->" + methodName + args;
+        return signature;
+    }
+
+    private Number toNumber(Object value) {
+        if (value instanceof Character) {
+            return (int) (Character) value;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? VM.JNI_TRUE : VM.JNI_FALSE;
+        }
+        if (value == null) {
+            throw new IllegalStateException("bound method returns null: " + signature);
+        }
+        return (Number) value;
+    }
+
+    private int invokeInt(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        if (primitiveHandler != null) {
+            return primitiveHandler.invokeInt(vm, dvmObject, varArg);
+        }
+        return toNumber(handler.invoke(vm, dvmObject, varArg)).intValue();
+    }
+
+    private long invokeLong(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        if (primitiveHandler != null) {
+            return primitiveHandler.invokeLong(vm, dvmObject, varArg);
+        }
+        return toNumber(handler.invoke(vm, dvmObject, varArg)).longValue();
+    }
+
+    private float invokeFloat(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        if (primitiveHandler != null) {
+            return primitiveHandler.invokeFloat(vm, dvmObject, varArg);
+        }
+        return toNumber(handler.invoke(vm, dvmObject, varArg)).floatValue();
+    }
+
+    private double invokeDouble(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        if (primitiveHandler != null) {
+            return primitiveHandler.invokeDouble(vm, dvmObject, varArg);
+        }
+        return toNumber(handler.invoke(vm, dvmObject, varArg)).doubleValue();
+    }
+
+    private boolean invokeBoolean(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        if (primitiveHandler != null) {
+            return primitiveHandler.invokeBoolean(vm, dvmObject, varArg);
+        }
+        Object value = handler.invoke(vm, dvmObject, varArg);
+        return value instanceof Boolean ? (Boolean) value : toNumber(value).intValue() != VM.JNI_FALSE;
     }
 
     public boolean isStatic() {
@@ -56,151 +118,244 @@ public class DvmMethod extends Hashable {
 
     DvmObject<?>  callStaticObjectMethod(VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (DvmObject<?>) handler.invoke(vm, dvmClass, varArg);
+        }
         return checkJni(vm, dvmClass).callStaticObjectMethod(vm, dvmClass, this, varArg);
     }
 
     DvmObject<?>  callStaticObjectMethodV(VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (DvmObject<?>) handler.invoke(vm, dvmClass, vaList);
+        }
         return checkJni(vm, dvmClass).callStaticObjectMethodV(vm, dvmClass, this, vaList);
     }
 
     DvmObject<?>  callStaticObjectMethodA(VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (DvmObject<?>) handler.invoke(vm, dvmClass, vaList);
+        }
         return checkJni(vm, dvmClass).callStaticObjectMethodV(vm, dvmClass, this, vaList);
     }
 
     DvmObject<?>  callObjectMethod(DvmObject<?>  dvmObject, VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (DvmObject<?>) handler.invoke(vm, dvmObject, varArg);
+        }
         return checkJni(vm, dvmClass).callObjectMethod(vm, dvmObject, this, varArg);
     }
 
     long callLongMethod(DvmObject<?>  dvmObject, VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeLong(vm, dvmObject, varArg);
+        }
         return checkJni(vm, dvmClass).callLongMethod(vm, dvmObject, this, varArg);
     }
 
     long callLongMethodV(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeLong(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callLongMethodV(vm, dvmObject, this, vaList);
     }
 
     DvmObject<?>  callObjectMethodV(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (DvmObject<?>) handler.invoke(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callObjectMethodV(vm, dvmObject, this, vaList);
     }
 
     DvmObject<?>  callObjectMethodA(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (DvmObject<?>) handler.invoke(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callObjectMethodV(vm, dvmObject, this, vaList);
     }
 
     byte callByteMethodV(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (byte) invokeInt(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callByteMethodV(vm, dvmObject, this, vaList);
     }
 
     short callShortMethodV(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (short) invokeInt(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callShortMethodV(vm, dvmObject, this, vaList);
     }
 
     int callIntMethodV(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeInt(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callIntMethodV(vm, dvmObject, this, vaList);
     }
 
     boolean callBooleanMethod(DvmObject<?>  dvmObject, VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeBoolean(vm, dvmObject, varArg);
+        }
         return checkJni(vm, dvmClass).callBooleanMethod(vm, dvmObject, this, varArg);
     }
 
     boolean callBooleanMethodV(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeBoolean(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callBooleanMethodV(vm, dvmObject, this, vaList);
     }
 
     boolean callBooleanMethodA(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeBoolean(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callBooleanMethodV(vm, dvmObject, this, vaList);
     }
 
     int callIntMethod(DvmObject<?>  dvmObject, VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeInt(vm, dvmObject, varArg);
+        }
         return checkJni(vm, dvmClass).callIntMethod(vm, dvmObject, this, varArg);
     }
 
     int callIntMethodA(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeInt(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callIntMethodV(vm, dvmObject, this, vaList);
     }
 
     double callDoubleMethod(DvmObject<?>  dvmObject, VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeDouble(vm, dvmObject, varArg);
+        }
         return checkJni(vm, dvmClass).callDoubleMethod(vm, dvmObject, this, varArg);
     }
 
     char callCharMethodV(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (char) invokeInt(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callCharMethodV(vm, dvmObject, this, vaList);
     }
 
     void callVoidMethod(DvmObject<?>  dvmObject, VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            handler.invoke(vm, dvmObject, varArg);
+            return;
+        }
         checkJni(vm, dvmClass).callVoidMethod(vm, dvmObject, this, varArg);
     }
 
     int callStaticIntMethod(VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeInt(vm, dvmClass, varArg);
+        }
         return checkJni(vm, dvmClass).callStaticIntMethod(vm, dvmClass, this, varArg);
     }
 
     int callStaticIntMethodV(VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeInt(vm, dvmClass, vaList);
+        }
         return checkJni(vm, dvmClass).callStaticIntMethodV(vm, dvmClass, this, vaList);
     }
 
     long callStaticLongMethod(VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeLong(vm, dvmClass, varArg);
+        }
         return checkJni(vm, dvmClass).callStaticLongMethod(vm, dvmClass, this, varArg);
     }
 
     long callStaticLongMethodV(VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeLong(vm, dvmClass, vaList);
+        }
         return checkJni(vm, dvmClass).callStaticLongMethodV(vm, dvmClass, this, vaList);
     }
 
     boolean CallStaticBooleanMethod(VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeBoolean(vm, dvmClass, varArg);
+        }
         return checkJni(vm, dvmClass).callStaticBooleanMethod(vm, dvmClass, this, varArg);
     }
 
     boolean callStaticBooleanMethodV(VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeBoolean(vm, dvmClass, vaList);
+        }
         return checkJni(vm, dvmClass).callStaticBooleanMethodV(vm, dvmClass, this, vaList);
     }
 
     float callStaticFloatMethod(VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeFloat(vm, dvmClass, varArg);
+        }
         return checkJni(vm, dvmClass).callStaticFloatMethod(vm, dvmClass, this, varArg);
     }
 
     double callStaticDoubleMethod(VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeDouble(vm, dvmClass, varArg);
+        }
         return checkJni(vm, dvmClass).callStaticDoubleMethod(vm, dvmClass, this, varArg);
     }
 
     void callStaticVoidMethod(VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            handler.invoke(vm, dvmClass, varArg);
+            return;
+        }
         checkJni(vm, dvmClass).callStaticVoidMethod(vm, dvmClass, this, varArg);
     }
 
     void callStaticVoidMethodV(VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            handler.invoke(vm, dvmClass, vaList);
+            return;
+        }
         checkJni(vm, dvmClass).callStaticVoidMethodV(vm, dvmClass, this, vaList);
     }
 
     void callStaticVoidMethodA(VaList vaList) {
-        String signature = dvmClass.getClassName() + "->" + methodName + args;
+        if (handler != null) {
+            handler.invoke(dvmClass.vm, dvmClass, vaList);
+            return;
+        }
         if (log.isDebugEnabled()) {
             log.debug("callStaticVoidMethodA signature=" + signature);
         }
@@ -210,26 +365,42 @@ public class DvmMethod extends Hashable {
 
     DvmObject<?> newObjectV(VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (DvmObject<?>) handler.invoke(vm, dvmClass, vaList);
+        }
         return checkJni(vm, dvmClass).newObjectV(vm, dvmClass, this, vaList);
     }
 
     DvmObject<?> newObjectA(VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (DvmObject<?>) handler.invoke(vm, dvmClass, vaList);
+        }
         return checkJni(vm, dvmClass).newObjectV(vm, dvmClass, this, vaList);
     }
 
     DvmObject<?> newObject(VarArg varArg) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return (DvmObject<?>) handler.invoke(vm, dvmClass, varArg);
+        }
         return checkJni(vm, dvmClass).newObject(vm, dvmClass, this, varArg);
     }
 
     void callVoidMethodV(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            handler.invoke(vm, dvmObject, vaList);
+            return;
+        }
         checkJni(vm, dvmClass).callVoidMethodV(vm, dvmObject, this, vaList);
     }
 
     void callVoidMethodA(DvmObject<?>  dvmObject, VaList vaList) {
-        String signature = dvmClass.getClassName() + "->" + methodName + args;
+        if (handler != null) {
+            handler.invoke(dvmClass.vm, dvmObject, vaList);
+            return;
+        }
         if (log.isDebugEnabled()) {
             log.debug("callVoidMethodV signature=" + signature + ", dvmObject=" + dvmObject);
         }
@@ -239,6 +410,9 @@ public class DvmMethod extends Hashable {
 
     float callFloatMethodV(DvmObject<?>  dvmObject, VaList vaList) {
         BaseVM vm = dvmClass.vm;
+        if (handler != null) {
+            return invokeFloat(vm, dvmObject, vaList);
+        }
         return checkJni(vm, dvmClass).callFloatMethodV(vm, dvmObject, this, vaList);
     }
 
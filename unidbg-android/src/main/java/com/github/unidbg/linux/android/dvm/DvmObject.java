@@ -100,36 +100,28 @@ public class DvmObject<T> extends Hashable {
 
     protected static Number callJniMethod(Emulator<?> emulator, VM vm, DvmClass objectType, DvmObject<?> thisObj, String method, Object...args) {
         UnidbgPointer fnPtr = objectType.findNativeFunction(emulator, method);
-        vm.addLocalObject(thisObj);
         List<Object> list = new ArrayList<>(10);
         list.add(vm.getJNIEnv());
-        list.add(thisObj.hashCode());
+        list.add(vm.addLocalObject(thisObj));
         if (args != null) {
             for (Object arg : args) {
                 if (arg instanceof Boolean) {
                     list.add((Boolean) arg ? VM.JNI_TRUE : VM.JNI_FALSE);
                     continue;
+                } else if(arg instanceof DvmObject) {
+                    list.add(vm.addLocalObject((DvmObject<?>) arg)); // dvm object
+                    continue;
                 } else if(arg instanceof Hashable) {
-                    list.add(arg.hashCode()); // dvm object
-
-                    if(arg instanceof DvmObject) {
-                        vm.addLocalObject((DvmObject<?>) arg);
-                    }
+                    list.add(arg.hashCode()); // jmethodID or jfieldID
                     continue;
                 } else if (arg instanceof String) {
-                    StringObject str = new StringObject(vm, (String) arg);
-                    list.add(str.hashCode());
-                    vm.addLocalObject(str);
+                    list.add(vm.addLocalObject(new StringObject(vm, (String) arg)));
                     continue;
                 } else if(arg instanceof byte[]) {
-                    ByteArray array = new ByteArray(vm, (byte[]) arg);
-                    list.add(array.hashCode());
-                    vm.addLocalObject(array);
+                    list.add(vm.addLocalObject(new ByteArray(vm, (byte[]) arg)));
                     continue;
                 } else if (arg instanceof Enum) {
-                    DvmObject<?> obj = ProxyDvmObject.createObject(vm, arg);
-                    list.add(obj.hashCode());
-                    vm.addLocalObject(obj);
+                    list.add(vm.addLocalObject(ProxyDvmObject.createObject(vm, arg)));
                     continue;
                 }
 
@@ -172,8 +164,17 @@ public class DvmObject<T> extends Hashable {
         }
     }
 
+    /**
+     * @return <code>true</code> 表示删除 JNI 引用时保留 {@link #memoryBlock}
+     */
+    protected boolean isPinned() {
+        return false;
+    }
+
     final void onDeleteRef() {
-        freeMemoryBlock(null);
+        if (!isPinned()) {
+            freeMemoryBlock(null);
+        }
     }
 
 }
@@ -0,0 +1,290 @@
+package com.github.unidbg.linux.android.dvm;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JNI 间接引用表，句柄由 generation、slot 下标和引用类型组成，引用类型的取值和 {@link VM#JNILocalRefType} 等相同。
+ * slot 每次复用 generation 加一，过期的句柄查不到对象；本地引用按帧分段，弹出帧只需要恢复 top。
+ * <p>
+ * 句柄只有 31 位，generation 只有 9 位：slot 用到最后一个 generation 以后不再分配，过期句柄不会指向新的对象。
+ * 全局引用表里这样的 slot 一直保留，本地引用表在 {@link #reset()} 时重新启用，上一次调用的句柄本来就已经失效。
+ * 表里最多 {@link #MAX_ENTRIES} 个 slot，用完时抛出异常，相当于 ART 引用表溢出时的 abort。
+ */
+final class IndirectRefTable {
+
+    private static final int KIND_BITS = 2;
+    private static final int INDEX_BITS = 20;
+    private static final int GENERATION_BITS = 9;
+
+    private static final int KIND_MASK = (1 << KIND_BITS) - 1;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << GENERATION_BITS) - 1;
+
+    static final int MAX_ENTRIES = 1 << INDEX_BITS;
+
+    static int kindOf(int handle) {
+        return handle & KIND_MASK;
+    }
+
+    private static final int EVICTED_SWEEP_SIZE = 64;
+
+    private final int kind;
+    private final List<DvmObject<?>> evicted;
+    private int evictedLimit = EVICTED_SWEEP_SIZE;
+
+    private DvmObject<?>[] objects;
+    private int[] generations;
+    private int top;
+    private int highWater;
+
+    private int[] holes = new int[16];
+    private int holeCount;
+
+    /**
+     * 每帧保存 top 和 holeCount
+     */
+    private int[] frames = new int[16];
+    private int frameCount;
+    private int segmentStart;
+
+    /**
+     * @param evicted 不为空时收集被删除的对象，以及弹出帧以后被覆盖的对象
+     */
+    IndirectRefTable(int kind, int initialCapacity, List<DvmObject<?>> evicted) {
+        if (kind < VM.JNILocalRefType || kind > VM.JNIWeakGlobalRefType) {
+            throw new IllegalArgumentException("kind=" + kind);
+        }
+        this.kind = kind;
+        this.evicted = evicted;
+        this.objects = new DvmObject<?>[initialCapacity];
+        this.generations = new int[initialCapacity];
+    }
+
+    int add(DvmObject<?> object) {
+        int index = -1;
+        while (holeCount > 0 && holes[holeCount - 1] >= segmentStart) {
+            int hole = holes[--holeCount];
+            if (hole < top && objects[hole] == null && generations[hole] != GENERATION_MASK) {
+                index = hole;
+                break;
+            }
+        }
+        while (index == -1) {
+            if (top == MAX_ENTRIES) {
+                throw new IllegalStateException("JNI reference table overflow: kind=" + kind + ", max=" + MAX_ENTRIES);
+            }
+            if (top == objects.length) {
+                int capacity = Math.min(objects.length * 2, MAX_ENTRIES);
+                objects = Arrays.copyOf(objects, capacity);
+                generations = Arrays.copyOf(generations, capacity);
+            }
+            int slot = top++;
+            if (top > highWater) {
+                highWater = top;
+            } else if (objects[slot] != null) {
+                evict(objects[slot]);
+                objects[slot] = null;
+            }
+            if (generations[slot] != GENERATION_MASK) {
+                index = slot;
+            }
+        }
+        int generation = (generations[index] + 1) & GENERATION_MASK;
+        generations[index] = generation;
+        objects[index] = object;
+        return toHandle(index, generation);
+    }
+
+    private int toHandle(int index, int generation) {
+        return (generation << (KIND_BITS + INDEX_BITS)) | (index << KIND_BITS) | kind;
+    }
+
+    private int indexOf(int handle) {
+        if ((handle & KIND_MASK) != kind) {
+            return -1;
+        }
+        int index = (handle >>> KIND_BITS) & INDEX_MASK;
+        if (index >= top || objects[index] == null ||
+                generations[index] != ((handle >>> (KIND_BITS + INDEX_BITS)) & GENERATION_MASK)) {
+            return -1;
+        }
+        return index;
+    }
+
+    DvmObject<?> get(int handle) {
+        int index = indexOf(handle);
+        return index == -1 ? null : objects[index];
+    }
+
+    DvmObject<?> remove(int handle) {
+        int index = indexOf(handle);
+        if (index == -1) {
+            return null;
+        }
+        DvmObject<?> object = objects[index];
+        objects[index] = null;
+        evict(object);
+        if (holeCount == holes.length) {
+            holes = Arrays.copyOf(holes, holeCount * 2);
+        }
+        holes[holeCount++] = index;
+        return object;
+    }
+
+    /**
+     * 只收集还持有内存的对象，收集的对象多了以后去掉已经释放过内存的，不会随删除的次数一直增长
+     */
+    private void evict(DvmObject<?> object) {
+        if (evicted == null || object.memoryBlock == null) {
+            return;
+        }
+        if (evicted.size() >= evictedLimit) {
+            int count = 0;
+            for (int i = 0; i < evicted.size(); i++) {
+                DvmObject<?> obj = evicted.get(i);
+                if (obj.memoryBlock != null) {
+                    evicted.set(count++, obj);
+                }
+            }
+            evicted.subList(count, evicted.size()).clear();
+            evictedLimit = Math.max(EVICTED_SWEEP_SIZE, count * 2);
+        }
+        evicted.add(object);
+    }
+
+    void pushFrame() {
+        if (frameCount * 2 == frames.length) {
+            frames = Arrays.copyOf(frames, frames.length * 2);
+        }
+        frames[frameCount * 2] = top;
+        frames[frameCount * 2 + 1] = holeCount;
+        frameCount++;
+        segmentStart = top;
+    }
+
+    /**
+     * 帧内的句柄全部失效，slot 中的对象在复用或者 {@link #reset()} 时释放
+     * @return <code>false</code> 表示没有可弹出的帧
+     */
+    boolean popFrame() {
+        if (frameCount == 0) {
+            return false;
+        }
+        frameCount--;
+        int start = frames[frameCount * 2];
+        int savedHoleCount = frames[frameCount * 2 + 1];
+        int count = savedHoleCount;
+        for (int i = savedHoleCount; i < holeCount; i++) {
+            if (holes[i] < start) {
+                holes[count++] = holes[i];
+            }
+        }
+        holeCount = count;
+        top = start;
+        segmentStart = frameCount == 0 ? 0 : frames[(frameCount - 1) * 2];
+        return true;
+    }
+
+    int getFrameCount() {
+        return frameCount;
+    }
+
+    void reset() {
+        for (int i = 0; i < highWater; i++) {
+            if (generations[i] == GENERATION_MASK) {
+                generations[i] = 0;
+            }
+        }
+        Arrays.fill(objects, 0, highWater, null);
+        top = 0;
+        highWater = 0;
+        holeCount = 0;
+        frameCount = 0;
+        segmentStart = 0;
+    }
+
+    int getTop() {
+        return top;
+    }
+
+    int getHighWater() {
+        return highWater;
+    }
+
+    DvmObject<?> objectAt(int index) {
+        return objects[index];
+    }
+
+    int handleAt(int index) {
+        return objects[index] == null ? VM.JNI_NULL : toHandle(index, generations[index]);
+    }
+
+    void setAt(int index, DvmObject<?> object) {
+        if (objects[index] == null) {
+            throw new IllegalStateException("empty slot: index=" + index);
+        }
+        objects[index] = object;
+    }
+
+    /**
+     * 在指定句柄的位置放入对象，用于从快照重建，放完后调用 {@link #rebuildHoles()}
+     */
+    void put(int handle, DvmObject<?> object) {
+        if (kindOf(handle) != kind) {
+            throw new IllegalArgumentException("kind mismatch: handle=0x" + Integer.toHexString(handle));
+        }
+        int index = (handle >>> KIND_BITS) & INDEX_MASK;
+        if (index >= objects.length) {
+            int capacity = Math.max(objects.length * 2, index + 1);
+            objects = Arrays.copyOf(objects, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+        }
+        objects[index] = object;
+        generations[index] = (handle >>> (KIND_BITS + INDEX_BITS)) & GENERATION_MASK;
+        if (index >= top) {
+            top = index + 1;
+        }
+        if (top > highWater) {
+            highWater = top;
+        }
+    }
+
+    void rebuildHoles() {
+        holeCount = 0;
+        for (int i = top - 1; i >= 0; i--) {
+            if (objects[i] == null) {
+                if (holeCount == holes.length) {
+                    holes = Arrays.copyOf(holes, holeCount * 2);
+                }
+                holes[holeCount++] = i;
+            }
+        }
+    }
+
+    IndirectRefTable copy() {
+        IndirectRefTable table = new IndirectRefTable(kind, Math.max(top, 1), null);
+        table.copyFrom(this);
+        return table;
+    }
+
+    void copyFrom(IndirectRefTable table) {
+        if (table.kind != kind || table.frameCount != 0) {
+            throw new IllegalStateException("copy reference table: kind=" + table.kind + ", frameCount=" + table.frameCount);
+        }
+        if (objects.length < table.top) {
+            objects = new DvmObject<?>[table.objects.length];
+            generations = new int[table.objects.length];
+        }
+        Arrays.fill(objects, 0, highWater, null);
+        System.arraycopy(table.objects, 0, objects, 0, table.top);
+        System.arraycopy(table.generations, 0, generations, 0, table.top);
+        top = table.top;
+        highWater = top;
+        holes = Arrays.copyOf(table.holes, Math.max(table.holes.length, 16));
+        holeCount = table.holeCount;
+        frameCount = 0;
+        segmentStart = 0;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.github.unidbg.linux.android.dvm;
+
+/**
+ * 通过 {@link DvmClass#bindMethod(String, String, MethodHandler)} 绑定，GetMethodID 时解析并缓存到 {@link DvmMethod}，
+ * 调用时不再经过 {@link Jni} 的签名分发。返回基本类型的方法用 {@link PrimitiveMethodHandler} 可以避免装箱
+ */
+public interface MethodHandler {
+
+    /**
+     * @param dvmObject 静态方法和 NewObject 时为方法所在的类
+     * @param varArg 参数，V 和 A 系列调用时为 {@link VaList}
+     * @return 引用类型返回 {@link DvmObject}，基本类型返回对应的包装类型，<code>void</code> 返回 <code>null</code>；
+     * NewObject 系列调用返回新创建的对象
+     */
+    Object invoke(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg);
+
+}
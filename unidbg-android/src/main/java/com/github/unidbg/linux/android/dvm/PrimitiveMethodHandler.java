@@ -0,0 +1,37 @@
+package com.github.unidbg.linux.android.dvm;
+
+/**
+ * 返回基本类型的绑定方法，按方法描述的返回类型覆盖对应的 invoke 方法，调用时不会装箱。
+ * <code>byte</code>、<code>short</code>、<code>char</code> 使用 {@link #invokeInt(BaseVM, DvmObject, VarArg)}
+ */
+public abstract class PrimitiveMethodHandler implements MethodHandler {
+
+    public int invokeInt(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        throw new UnsupportedOperationException("invokeInt");
+    }
+
+    public long invokeLong(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        throw new UnsupportedOperationException("invokeLong");
+    }
+
+    public float invokeFloat(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        throw new UnsupportedOperationException("invokeFloat");
+    }
+
+    public double invokeDouble(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        throw new UnsupportedOperationException("invokeDouble");
+    }
+
+    public boolean invokeBoolean(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        return invokeInt(vm, dvmObject, varArg) != VM.JNI_FALSE;
+    }
+
+    /**
+     * 基本类型的方法不会经过这里，void 方法按 {@link MethodHandler} 实现
+     */
+    @Override
+    public Object invoke(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+        throw new UnsupportedOperationException("invoke");
+    }
+
+}
@@ -8,6 +8,7 @@ import com.sun.jna.Pointer;
 import net.dongliu.apk.parser.bean.CertificateMeta;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 
 @SuppressWarnings("unused")
 public interface VM {
@@ -75,6 +76,12 @@ public interface VM {
      */
     byte[] openAsset(String fileName);
 
+    /**
+     * 和 {@link #openAsset(String)} 一样，但返回只读的 ByteBuffer，apk 里没压缩的资源不会复制
+     * @return 可返回null
+     */
+    ByteBuffer openAssetBuffer(String fileName);
+
     /**
      * 设置apkFile以后，可调用该方法获取压缩包内容
      * @return 可返回null
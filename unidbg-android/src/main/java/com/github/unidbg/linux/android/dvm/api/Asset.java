@@ -4,42 +4,60 @@ import com.github.unidbg.Emulator;
 import com.github.unidbg.linux.android.dvm.DvmObject;
 import com.github.unidbg.linux.android.dvm.VM;
 import com.github.unidbg.pointer.UnidbgPointer;
-import com.sun.jna.Pointer;
 
+import java.nio.ByteBuffer;
+
+/**
+ * 资源内容留在 java 层，AAsset_read 按需复制，只有调用 AAsset_getBuffer 时才整体写入模拟器内存
+ */
 public class Asset extends DvmObject<String> {
 
+    private static final int COPY_CHUNK_SIZE = 0x10000;
+
     public Asset(VM vm, String value) {
         super(vm.resolveClass("android/content/res/Asset"), value);
     }
 
+    private Emulator<?> emulator;
+    private ByteBuffer data;
+
     public void open(Emulator<?> emulator, byte[] data) {
-        Pointer pointer = allocateMemoryBlock(emulator, data.length + 8);
-        pointer.setInt(0, 0); // index
-        pointer.setInt(4, data.length);
-        pointer.write(8, data, 0, data.length);
+        open(emulator, ByteBuffer.wrap(data));
+    }
+
+    public void open(Emulator<?> emulator, ByteBuffer data) {
+        this.emulator = emulator;
+        this.data = data.duplicate();
     }
 
     public void close() {
         freeMemoryBlock(null);
+        data = null;
     }
 
     public UnidbgPointer getBuffer() {
-        return memoryBlock.getPointer().share(8, 0);
+        if (memoryBlock == null) {
+            UnidbgPointer pointer = allocateMemoryBlock(emulator, Math.max(1, data.limit()));
+            ByteBuffer buffer = data.duplicate();
+            buffer.position(0);
+            byte[] chunk = new byte[Math.min(COPY_CHUNK_SIZE, buffer.remaining())];
+            for (int offset = 0; buffer.hasRemaining(); offset += chunk.length) {
+                int count = Math.min(chunk.length, buffer.remaining());
+                buffer.get(chunk, 0, count);
+                pointer.write(offset, chunk, 0, count);
+            }
+        }
+        return memoryBlock.getPointer();
     }
 
     public int getLength() {
-        return memoryBlock.getPointer().getInt(4);
+        return data.limit();
     }
 
     public byte[] read(int count) {
-        Pointer pointer = memoryBlock.getPointer();
-        int index = pointer.getInt(0);
-        int length = pointer.getInt(4);
-        Pointer data = pointer.share(8, 0);
-        int remaining = length - index;
-        int read = Math.min(remaining, count);
-        pointer.setInt(0, index + read);
-        return data.getByteArray(index, read);
+        byte[] bytes = new byte[Math.max(0, Math.min(data.remaining(), count))];
+        data.get(bytes);
+        return bytes;
     }
 
 }
@@ -3,6 +3,7 @@ package com.github.unidbg.linux.android.dvm.apk;
 import net.dongliu.apk.parser.bean.CertificateMeta;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 
 public interface Apk {
 
@@ -22,4 +23,9 @@ public interface Apk {
 
     byte[] getFileData(String path);
 
+    /**
+     * @return 只读的文件内容，尽量不复制，不存在时返回 null
+     */
+    ByteBuffer getFileBuffer(String path);
+
 }
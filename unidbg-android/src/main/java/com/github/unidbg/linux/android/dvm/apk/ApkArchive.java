@@ -0,0 +1,146 @@
+package com.github.unidbg.linux.android.dvm.apk;
+
+import com.github.unidbg.file.zip.ZipIndex;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 进程内共享的 apk 索引：通过 {@link ZipIndex} 把 apk mmap 到内存，中心目录只解析一次。
+ * 最多保留最近使用的 {@link #MAX_ARCHIVES} 个 apk，DEFLATED 的文件解压后放进按字节数限制大小的 LRU 缓存。
+ * 不支持 zip64，这种 apk 由 {@link ApkFile} 退回到 apk-parser 读取
+ */
+public final class ApkArchive {
+
+    private static final Log log = LogFactory.getLog(ApkArchive.class);
+
+    private static final long DEFAULT_CACHE_SIZE = 32 * 1024 * 1024;
+
+    static final int MAX_ARCHIVES = 8;
+
+    private static final Map<String, ApkArchive> archives = new LinkedHashMap<>(16, 0.75f, true);
+    private static final Map<ZipIndex.Entry, byte[]> inflated = new LinkedHashMap<>(16, 0.75f, true);
+    private static long maxCacheSize = DEFAULT_CACHE_SIZE;
+    private static long cacheSize;
+
+    /**
+     * @param maxCacheSize 解压缓存占用的最大字节数，0 表示不缓存
+     */
+    public static synchronized void setMaxCacheSize(long maxCacheSize) {
+        if (maxCacheSize < 0) {
+            throw new IllegalArgumentException("maxCacheSize=" + maxCacheSize);
+        }
+        ApkArchive.maxCacheSize = maxCacheSize;
+        trimToSize();
+    }
+
+    public static synchronized void clear() {
+        archives.clear();
+        inflated.clear();
+        cacheSize = 0;
+    }
+
+    static synchronized long getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * 文件长度或修改时间变化后会重新打开
+     */
+    static synchronized ApkArchive open(File file) throws IOException {
+        String key = file.getCanonicalPath();
+        ApkArchive archive = archives.get(key);
+        if (archive != null && archive.length == file.length() && archive.lastModified == file.lastModified()) {
+            return archive;
+        }
+        if (archive != null) {
+            archives.remove(key);
+            archive.evict();
+        }
+        archive = new ApkArchive(file);
+        archives.put(key, archive);
+        for (Iterator<ApkArchive> iterator = archives.values().iterator(); iterator.hasNext() && archives.size() > MAX_ARCHIVES; ) {
+            ApkArchive eldest = iterator.next();
+            iterator.remove();
+            eldest.evict();
+        }
+        return archive;
+    }
+
+    private final long length;
+    private final long lastModified;
+    private final ZipIndex index;
+
+    private ApkArchive(File file) throws IOException {
+        this.length = file.length();
+        this.lastModified = file.lastModified();
+        this.index = ZipIndex.open(file);
+    }
+
+    /**
+     * 不再缓存这个 apk 解压出来的文件，映射在没有引用以后随 GC 释放
+     */
+    private void evict() {
+        for (Iterator<Map.Entry<ZipIndex.Entry, byte[]>> iterator = inflated.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<ZipIndex.Entry, byte[]> entry = iterator.next();
+            if (index.getEntry(entry.getKey().getName()) == entry.getKey()) {
+                iterator.remove();
+                cacheSize -= entry.getValue().length;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("evict " + index.getFile() + ", cacheSize=" + cacheSize);
+        }
+    }
+
+    /**
+     * @return 只读的文件内容，不存在时返回 null
+     */
+    ByteBuffer getData(String name) {
+        ZipIndex.Entry entry = index.getEntry(name);
+        if (entry == null || entry.isDirectory()) {
+            return null;
+        }
+        if (entry.getMethod() == ZipIndex.METHOD_DEFLATED) {
+            return ByteBuffer.wrap(inflate(entry)).asReadOnlyBuffer();
+        }
+        return index.getData(entry);
+    }
+
+    private byte[] inflate(ZipIndex.Entry entry) {
+        synchronized (ApkArchive.class) {
+            byte[] data = inflated.get(entry);
+            if (data != null) {
+                return data;
+            }
+        }
+
+        byte[] data = index.inflate(entry);
+        synchronized (ApkArchive.class) {
+            if (data.length <= maxCacheSize && !inflated.containsKey(entry) && archives.containsValue(this)) {
+                inflated.put(entry, data);
+                cacheSize += data.length;
+                trimToSize();
+            }
+        }
+        return data;
+    }
+
+    private static void trimToSize() {
+        for (Iterator<Map.Entry<ZipIndex.Entry, byte[]>> iterator = inflated.entrySet().iterator(); iterator.hasNext() && cacheSize > maxCacheSize; ) {
+            Map.Entry<ZipIndex.Entry, byte[]> entry = iterator.next();
+            iterator.remove();
+            cacheSize -= entry.getValue().length;
+            if (log.isDebugEnabled()) {
+                log.debug("evict " + entry.getKey().getName() + ", cacheSize=" + cacheSize);
+            }
+        }
+    }
+
+}
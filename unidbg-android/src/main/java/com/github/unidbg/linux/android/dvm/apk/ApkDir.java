@@ -1,5 +1,6 @@
 package com.github.unidbg.linux.android.dvm.apk;
 
+import com.github.unidbg.Utils;
 import net.dongliu.apk.parser.bean.ApkMeta;
 import net.dongliu.apk.parser.bean.ApkSigner;
 import net.dongliu.apk.parser.bean.CertificateMeta;
@@ -69,6 +70,20 @@ class ApkDir implements Apk {
         }
     }
 
+    @Override
+    public ByteBuffer getFileBuffer(String path) {
+        File file = new File(dir, path);
+        if (file.canRead()) {
+            try {
+                return Utils.mapBuffer(file);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            return null;
+        }
+    }
+
     private CertificateMeta[] signatures;
 
     @Override
@@ -3,55 +3,80 @@ package com.github.unidbg.linux.android.dvm.apk;
 import net.dongliu.apk.parser.bean.ApkMeta;
 import net.dongliu.apk.parser.bean.ApkSigner;
 import net.dongliu.apk.parser.bean.CertificateMeta;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.security.cert.CertificateException;
 import java.util.ArrayList;
 import java.util.List;
 
 class ApkFile implements Apk {
 
+    private static final Log log = LogFactory.getLog(ApkFile.class);
+
     private final File apkFile;
 
     ApkFile(File file) {
         this.apkFile = file;
     }
 
+    private ApkArchive archive;
+    private boolean archiveFailed;
+
+    /**
+     * @return 打不开时返回 null，改用 apk-parser 读取
+     */
+    private ApkArchive getArchive() {
+        if (archive == null && !archiveFailed) {
+            try {
+                archive = ApkArchive.open(apkFile);
+            } catch (IOException e) {
+                log.debug("open apk archive failed: " + apkFile, e);
+                archiveFailed = true;
+            }
+        }
+        return archive;
+    }
+
     private ApkMeta apkMeta;
 
-    @Override
-    public long getVersionCode() {
+    private ApkMeta getApkMeta() {
         if (apkMeta != null) {
-            return apkMeta.getVersionCode();
+            return apkMeta;
         }
 
         try (net.dongliu.apk.parser.ApkFile apkFile = new net.dongliu.apk.parser.ApkFile(this.apkFile)) {
             apkMeta = apkFile.getApkMeta();
-            return apkMeta.getVersionCode();
+            return apkMeta;
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
     }
 
     @Override
-    public String getVersionName() {
-        if (apkMeta != null) {
-            return apkMeta.getVersionName();
-        }
+    public long getVersionCode() {
+        return getApkMeta().getVersionCode();
+    }
 
-        try (net.dongliu.apk.parser.ApkFile apkFile = new net.dongliu.apk.parser.ApkFile(this.apkFile)) {
-            apkMeta = apkFile.getApkMeta();
-            return apkMeta.getVersionName();
-        } catch (IOException e) {
-            throw new IllegalStateException(e);
-        }
+    @Override
+    public String getVersionName() {
+        return getApkMeta().getVersionName();
     }
 
+    private String manifestXml;
+
     @Override
     public String getManifestXml() {
+        if (manifestXml != null) {
+            return manifestXml;
+        }
+
         try (net.dongliu.apk.parser.ApkFile apkFile = new net.dongliu.apk.parser.ApkFile(this.apkFile)) {
-            return apkFile.getManifestXml();
+            manifestXml = apkFile.getManifestXml();
+            return manifestXml;
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
@@ -59,11 +84,7 @@ class ApkFile implements Apk {
 
     @Override
     public byte[] openAsset(String fileName) {
-        try (net.dongliu.apk.parser.ApkFile apkFile = new net.dongliu.apk.parser.ApkFile(this.apkFile)) {
-            return apkFile.getFileData("assets/" + fileName);
-        } catch (IOException e) {
-            throw new IllegalStateException(e);
-        }
+        return getFileData("assets/" + fileName);
     }
 
     private CertificateMeta[] signatures;
@@ -88,16 +109,7 @@ class ApkFile implements Apk {
 
     @Override
     public String getPackageName() {
-        if (apkMeta != null) {
-            return apkMeta.getPackageName();
-        }
-
-        try (net.dongliu.apk.parser.ApkFile apkFile = new net.dongliu.apk.parser.ApkFile(this.apkFile)) {
-            apkMeta = apkFile.getApkMeta();
-            return apkMeta.getPackageName();
-        } catch (IOException e) {
-            throw new IllegalStateException(e);
-        }
+        return getApkMeta().getPackageName();
     }
 
     @Override
@@ -107,8 +119,25 @@ class ApkFile implements Apk {
 
     @Override
     public byte[] getFileData(String path) {
+        ByteBuffer buffer = getFileBuffer(path);
+        if (buffer == null) {
+            return null;
+        }
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return data;
+    }
+
+    @Override
+    public ByteBuffer getFileBuffer(String path) {
+        ApkArchive archive = getArchive();
+        if (archive != null) {
+            return archive.getData(path);
+        }
+
         try (net.dongliu.apk.parser.ApkFile apkFile = new net.dongliu.apk.parser.ApkFile(this.apkFile)) {
-            return apkFile.getFileData(path);
+            byte[] data = apkFile.getFileData(path);
+            return data == null ? null : ByteBuffer.wrap(data);
         } catch (IOException e) {
             throw new IllegalStateException(e);
         }
@@ -0,0 +1,170 @@
+package com.github.unidbg.linux.android.dvm.array;
+
+import com.github.unidbg.Emulator;
+import com.github.unidbg.linux.android.dvm.DvmClass;
+import com.github.unidbg.linux.android.dvm.VM;
+import com.github.unidbg.pointer.UnidbgPointer;
+import com.sun.jna.Pointer;
+
+/**
+ * 基本类型数组。固定以后 Get&lt;Type&gt;ArrayElements 和 GetPrimitiveArrayCritical 每次返回同一块 guest 内存，
+ * native 层直接读写，Java 层读取时才从 guest 内存同步，Java 层修改时只写回修改的部分
+ */
+abstract class BasePrimitiveArray<T> extends BaseArray<T> implements PrimitiveArray<T> {
+
+    private boolean pinned;
+    private int pinCount;
+
+    /**
+     * guest 内存可能比 value 新
+     */
+    private boolean javaStale;
+
+    /**
+     * value 比 guest 内存新
+     */
+    private boolean guestStale;
+
+    BasePrimitiveArray(DvmClass objectType, T value) {
+        super(objectType, value);
+    }
+
+    abstract int elementSize();
+
+    abstract void write(Pointer pointer, long offset, T data, int index, int length);
+
+    abstract void read(Pointer pointer, long offset, T data, int index, int length);
+
+    /**
+     * 固定以后删除 JNI 引用不再释放 guest 内存，需要调用 <code>setPinned(false)</code> 释放
+     */
+    public final void setPinned(boolean pinned) {
+        if (this.pinned == pinned) {
+            return;
+        }
+        if (!pinned) {
+            syncFromGuest();
+            pinCount = 0;
+            javaStale = false;
+            guestStale = false;
+            this.pinned = false;
+            freeMemoryBlock(null);
+        } else {
+            if (memoryBlock != null) {
+                throw new IllegalStateException("Array elements not released: " + this);
+            }
+            this.pinned = true;
+        }
+    }
+
+    @Override
+    public final boolean isPinned() {
+        return pinned;
+    }
+
+    private void syncFromGuest() {
+        if (javaStale && memoryBlock != null) {
+            read(memoryBlock.getPointer(), 0, value, 0, length());
+            javaStale = pinCount > 0;
+        }
+    }
+
+    /**
+     * 调用方可能修改返回的数组，固定的数组下次 Get&lt;Type&gt;ArrayElements 时整体写入 guest 内存
+     */
+    @Override
+    public T getValue() {
+        syncFromGuest();
+        if (pinned) {
+            guestStale = true;
+        }
+        return value;
+    }
+
+    @Override
+    public final T readValue() {
+        syncFromGuest();
+        return value;
+    }
+
+    final void replaceValue(T value) {
+        if (pinned && memoryBlock != null && length(value) != length()) {
+            if (pinCount > 0) {
+                throw new IllegalStateException("Array elements not released: " + this);
+            }
+            freeMemoryBlock(null);
+        }
+        this.value = value;
+        javaStale = false;
+        guestStale = true;
+    }
+
+    private static int length(Object array) {
+        return java.lang.reflect.Array.getLength(array);
+    }
+
+    @Override
+    public final void setData(int start, T data) {
+        syncFromGuest();
+        int length = length(data);
+        System.arraycopy(data, 0, value, start, length);
+        if (pinned && memoryBlock != null && !guestStale) {
+            write(memoryBlock.getPointer(), (long) start * elementSize(), data, 0, length);
+        }
+    }
+
+    @Override
+    public final UnidbgPointer _GetArrayCritical(Emulator<?> emulator, Pointer isCopy) {
+        if (!pinned) {
+            if (isCopy != null) {
+                isCopy.setInt(0, VM.JNI_TRUE);
+            }
+            UnidbgPointer pointer = this.allocateMemoryBlock(emulator, length() * elementSize());
+            write(pointer, 0, value, 0, length());
+            return pointer;
+        }
+
+        if (isCopy != null) {
+            isCopy.setInt(0, VM.JNI_FALSE);
+        }
+        if (memoryBlock == null) {
+            allocateMemoryBlock(emulator, length() * elementSize());
+            guestStale = true;
+        }
+        UnidbgPointer pointer = memoryBlock.getPointer();
+        if (guestStale) {
+            write(pointer, 0, value, 0, length());
+            guestStale = false;
+        }
+        pinCount++;
+        javaStale = true;
+        return pointer;
+    }
+
+    /**
+     * 固定的数组没有复制，JNI_COMMIT 和 JNI_ABORT 都不需要复制，Java 层读取时再同步
+     */
+    @Override
+    public final void _ReleaseArrayCritical(Pointer elems, int mode) {
+        if (pinned && memoryBlock != null && memoryBlock.isSame(elems)) {
+            if (mode != VM.JNI_COMMIT && pinCount > 0) {
+                pinCount--;
+            }
+            return;
+        }
+
+        switch (mode) {
+            case VM.JNI_COMMIT:
+                read(elems, 0, value, 0, length());
+                break;
+            case 0:
+                read(elems, 0, value, 0, length());
+                this.freeMemoryBlock(elems);
+                break;
+            case VM.JNI_ABORT:
+                this.freeMemoryBlock(elems);
+                break;
+        }
+    }
+
+}
@@ -1,11 +1,9 @@
 package com.github.unidbg.linux.android.dvm.array;
 
-import com.github.unidbg.Emulator;
 import com.github.unidbg.linux.android.dvm.VM;
-import com.github.unidbg.pointer.UnidbgPointer;
 import com.sun.jna.Pointer;
 
-public class ByteArray extends BaseArray<byte[]> implements PrimitiveArray<byte[]> {
+public class ByteArray extends BasePrimitiveArray<byte[]> {
 
     public ByteArray(VM vm, byte[] value) {
         super(vm.resolveClass("[B"), value);
@@ -17,35 +15,21 @@ public class ByteArray extends BaseArray<byte[]> implements PrimitiveArray<byte[
     }
 
     public void setValue(byte[] value) {
-        super.value = value;
+        super.replaceValue(value);
     }
 
     @Override
-    public void setData(int start, byte[] data) {
-        System.arraycopy(data, 0, value, start, data.length);
+    int elementSize() {
+        return 1;
     }
 
     @Override
-    public UnidbgPointer _GetArrayCritical(Emulator<?> emulator, Pointer isCopy) {
-        if (isCopy != null) {
-            isCopy.setInt(0, VM.JNI_TRUE);
-        }
-        UnidbgPointer pointer = this.allocateMemoryBlock(emulator, value.length);
-        pointer.write(0, value, 0, value.length);
-        return pointer;
+    void write(Pointer pointer, long offset, byte[] data, int index, int length) {
+        pointer.write(offset, data, index, length);
     }
 
     @Override
-    public void _ReleaseArrayCritical(Pointer elems, int mode) {
-        switch (mode) {
-            case VM.JNI_COMMIT:
-                this.setValue(elems.getByteArray(0, this.value.length));
-                break;
-            case 0:
-                this.setValue(elems.getByteArray(0, this.value.length));
-            case VM.JNI_ABORT:
-                this.freeMemoryBlock(elems);
-                break;
-        }
+    void read(Pointer pointer, long offset, byte[] data, int index, int length) {
+        pointer.read(offset, data, index, length);
     }
 }
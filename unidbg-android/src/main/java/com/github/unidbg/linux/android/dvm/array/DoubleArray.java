@@ -1,11 +1,9 @@
 package com.github.unidbg.linux.android.dvm.array;
 
-import com.github.unidbg.Emulator;
 import com.github.unidbg.linux.android.dvm.VM;
-import com.github.unidbg.pointer.UnidbgPointer;
 import com.sun.jna.Pointer;
 
-public class DoubleArray extends BaseArray<double[]> implements PrimitiveArray<double[]> {
+public class DoubleArray extends BasePrimitiveArray<double[]> {
 
     public DoubleArray(VM vm, double[] value) {
         super(vm.resolveClass("[D"), value);
@@ -17,35 +15,21 @@ public class DoubleArray extends BaseArray<double[]> implements PrimitiveArray<d
     }
 
     public void setValue(double[] value) {
-        super.value = value;
+        super.replaceValue(value);
     }
 
     @Override
-    public void setData(int start, double[] data) {
-        System.arraycopy(data, 0, value, start, data.length);
+    int elementSize() {
+        return 8;
     }
 
     @Override
-    public UnidbgPointer _GetArrayCritical(Emulator<?> emulator, Pointer isCopy) {
-        if (isCopy != null) {
-            isCopy.setInt(0, VM.JNI_TRUE);
-        }
-        UnidbgPointer pointer = this.allocateMemoryBlock(emulator, value.length * 8);
-        pointer.write(0, value, 0, value.length);
-        return pointer;
+    void write(Pointer pointer, long offset, double[] data, int index, int length) {
+        pointer.write(offset, data, index, length);
     }
 
     @Override
-    public void _ReleaseArrayCritical(Pointer elems, int mode) {
-        switch (mode) {
-            case VM.JNI_COMMIT:
-                this.setValue(elems.getDoubleArray(0, this.value.length));
-                break;
-            case 0:
-                this.setValue(elems.getDoubleArray(0, this.value.length));
-            case VM.JNI_ABORT:
-                this.freeMemoryBlock(elems);
-                break;
-        }
+    void read(Pointer pointer, long offset, double[] data, int index, int length) {
+        pointer.read(offset, data, index, length);
     }
 }
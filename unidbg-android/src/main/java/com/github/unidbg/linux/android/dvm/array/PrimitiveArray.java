@@ -11,4 +11,9 @@ public interface PrimitiveArray<T> extends Array<T> {
 
     void _ReleaseArrayCritical(Pointer elems, int mode);
 
+    /**
+     * 读取数组内容，调用方不能修改返回的数组
+     */
+    T readValue();
+
 }
@@ -2,6 +2,7 @@ package com.github.unidbg.linux.file;
 
 import com.github.unidbg.Emulator;
 import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.file.FileIO;
 import com.github.unidbg.file.linux.BaseAndroidFileIO;
 import com.github.unidbg.file.linux.StatStructure;
 import com.github.unidbg.unix.IO;
@@ -83,6 +84,24 @@ public class ByteArrayFileIO extends BaseAndroidFileIO {
         return super.lseek(offset, whence);
     }
 
+    @Override
+    protected long getPosition() {
+        return pos;
+    }
+
+    @Override
+    protected void setPosition(long position) {
+        pos = (int) position;
+    }
+
+    @Override
+    public FileIO dup2() {
+        ByteArrayFileIO dup = new ByteArrayFileIO(oflags, path, bytes);
+        dup.op = op;
+        dup.pos = pos;
+        return dup;
+    }
+
     @Override
     public int fstat(Emulator<?> emulator, StatStructure stat) {
         stat.st_dev = 1;
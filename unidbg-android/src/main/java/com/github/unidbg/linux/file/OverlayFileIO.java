@@ -0,0 +1,173 @@
+package com.github.unidbg.linux.file;
+
+import com.github.unidbg.Emulator;
+import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.file.FileIO;
+import com.github.unidbg.file.NewFileIO;
+import com.github.unidbg.file.linux.BaseAndroidFileIO;
+import com.github.unidbg.file.linux.IOConstants;
+import com.github.unidbg.file.linux.StatStructure;
+import com.github.unidbg.file.overlay.OverlayFile;
+import com.github.unidbg.unix.IO;
+import com.github.unidbg.unix.UnixEmulator;
+import com.github.unidbg.utils.Inspector;
+import com.sun.jna.Pointer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * {@link com.github.unidbg.file.overlay.OverlayStore} 里的文件
+ */
+public class OverlayFileIO extends BaseAndroidFileIO implements NewFileIO {
+
+    private static final Log log = LogFactory.getLog(OverlayFileIO.class);
+
+    private final Emulator<?> emulator;
+    private final OverlayFile file;
+    private final String path;
+    private long pos;
+
+    public OverlayFileIO(Emulator<?> emulator, int oflags, OverlayFile file, String path) {
+        super(oflags);
+        this.emulator = emulator;
+        this.file = file;
+        this.path = path;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public int write(byte[] data) {
+        if (log.isDebugEnabled() && data.length < 0x3000) {
+            Inspector.inspect(data, "write path=" + path + ", fp=" + pos);
+        }
+        if ((oflags & IOConstants.O_APPEND) != 0) {
+            pos = file.length();
+        }
+        if (!file.write(pos, data)) {
+            emulator.getMemory().setErrno(UnixEmulator.ENOSPC);
+            return -1;
+        }
+        pos += data.length;
+        return data.length;
+    }
+
+    @Override
+    public int read(Backend backend, Pointer buffer, int count) {
+        int read = pread(backend, buffer, count, pos);
+        pos += read;
+        return read;
+    }
+
+    @Override
+    public int pread(Backend backend, Pointer buffer, int count, long offset) {
+        if (offset >= file.length() || count <= 0) {
+            return 0;
+        }
+        byte[] data = new byte[(int) Math.min(count, file.length() - offset)];
+        int read = file.read(offset, data, 0, data.length);
+        buffer.write(0, data, 0, read);
+        return read;
+    }
+
+    @Override
+    public int lseek(int offset, int whence) {
+        if (whence != SEEK_SET && whence != SEEK_CUR && whence != SEEK_END) {
+            return super.lseek(offset, whence);
+        }
+        long position = position(offset, whence);
+        if (position < 0) {
+            return -UnixEmulator.EINVAL;
+        }
+        pos = position;
+        return (int) pos;
+    }
+
+    @Override
+    public int llseek(long offset, Pointer result, int whence) {
+        if (whence != SEEK_SET && whence != SEEK_CUR && whence != SEEK_END) {
+            return super.llseek(offset, result, whence);
+        }
+        long position = position(offset, whence);
+        if (position < 0) {
+            return -UnixEmulator.EINVAL;
+        }
+        pos = position;
+        result.setLong(0, pos);
+        return 0;
+    }
+
+    private long position(long offset, int whence) {
+        switch (whence) {
+            case SEEK_SET:
+                return offset;
+            case SEEK_CUR:
+                return pos + offset;
+            default:
+                return file.length() + offset;
+        }
+    }
+
+    @Override
+    protected long getPosition() {
+        return pos;
+    }
+
+    @Override
+    protected void setPosition(long position) {
+        pos = position;
+    }
+
+    @Override
+    public int ftruncate(int length) {
+        if (!file.truncate(length)) {
+            emulator.getMemory().setErrno(UnixEmulator.ENOSPC);
+            return -1;
+        }
+        return 0;
+    }
+
+    @Override
+    public int fstat(Emulator<?> emulator, StatStructure stat) {
+        int length = file.length();
+        stat.st_dev = 1;
+        stat.st_mode = IO.S_IFREG;
+        stat.st_uid = 0;
+        stat.st_gid = 0;
+        stat.st_size = length;
+        stat.st_blksize = emulator.getPageAlign();
+        stat.st_ino = 1;
+        stat.st_blocks = ((length + emulator.getPageAlign() - 1) / emulator.getPageAlign());
+        stat.setLastModification(file.getLastModified());
+        stat.pack();
+        return 0;
+    }
+
+    @Override
+    protected byte[] getMmapData(long addr, int offset, int length) {
+        byte[] data = new byte[Math.max(0, Math.min(length, file.length() - offset))];
+        file.read(offset, data, 0, data.length);
+        return data;
+    }
+
+    @Override
+    public FileIO dup2() {
+        OverlayFileIO dup = new OverlayFileIO(emulator, oflags, file, path);
+        dup.op = op;
+        dup.pos = pos;
+        return dup;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+}
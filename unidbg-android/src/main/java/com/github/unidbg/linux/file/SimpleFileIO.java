@@ -4,12 +4,15 @@ import com.alibaba.fastjson.util.IOUtils;
 import com.github.unidbg.Emulator;
 import com.github.unidbg.Utils;
 import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.arm.backend.PageLoader;
+import com.github.unidbg.file.FileDurability;
 import com.github.unidbg.file.FileIO;
 import com.github.unidbg.file.NewFileIO;
 import com.github.unidbg.file.linux.BaseAndroidFileIO;
 import com.github.unidbg.file.linux.IOConstants;
 import com.github.unidbg.file.linux.StatStructure;
 import com.github.unidbg.unix.IO;
+import com.github.unidbg.unix.UnixEmulator;
 import com.github.unidbg.utils.Inspector;
 import com.sun.jna.Pointer;
 import org.apache.commons.io.FileUtils;
@@ -17,12 +20,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 
@@ -33,6 +36,12 @@ public class SimpleFileIO extends BaseAndroidFileIO implements NewFileIO {
     protected final File file;
     protected final String path;
     private RandomAccessFile _randomAccessFile;
+    private FileDurability durability = FileDurability.CLOSE;
+
+    /**
+     * 上次落盘以后是否写过或者截断过
+     */
+    private boolean dirty;
 
     private synchronized RandomAccessFile checkOpenFile() {
         try {
@@ -41,7 +50,7 @@ public class SimpleFileIO extends BaseAndroidFileIO implements NewFileIO {
                 if (!file.exists() && !file.createNewFile()) {
                     throw new IOException("createNewFile failed: " + file);
                 }
-                _randomAccessFile = new RandomAccessFile(file, "rws");
+                _randomAccessFile = new RandomAccessFile(file, "rw");
                 onFileOpened(_randomAccessFile);
             }
             return _randomAccessFile;
@@ -66,8 +75,24 @@ public class SimpleFileIO extends BaseAndroidFileIO implements NewFileIO {
     void onFileOpened(RandomAccessFile randomAccessFile) throws IOException {
     }
 
+    void force() throws IOException {
+        _randomAccessFile.getChannel().force(true);
+    }
+
+    public void setDurability(FileDurability durability) {
+        this.durability = durability;
+    }
+
     @Override
     public void close() {
+        if (_randomAccessFile != null && dirty && durability != FileDurability.NONE) {
+            try {
+                force();
+                dirty = false;
+            } catch (IOException e) {
+                log.debug("force failed: " + file, e);
+            }
+        }
         IOUtils.close(_randomAccessFile);
 
         if (debugStream != null) {
@@ -95,6 +120,11 @@ public class SimpleFileIO extends BaseAndroidFileIO implements NewFileIO {
                 randomAccessFile.seek(randomAccessFile.length());
             }
             randomAccessFile.write(data);
+            if (durability == FileDurability.ALWAYS) {
+                force();
+            } else {
+                dirty = true;
+            }
             return data.length;
         } catch (IOException e) {
             throw new IllegalStateException(e);
@@ -136,31 +166,50 @@ public class SimpleFileIO extends BaseAndroidFileIO implements NewFileIO {
         return 0;
     }
 
+    @Override
+    public int fsync() {
+        if (_randomAccessFile == null || durability == FileDurability.NONE) {
+            return 0;
+        }
+        try {
+            force();
+            dirty = false;
+            return 0;
+        } catch (IOException e) {
+            log.debug("fsync failed: " + file, e);
+            return -UnixEmulator.EIO;
+        }
+    }
+
     @Override
     protected byte[] getMmapData(long addr, int offset, int length) throws IOException {
         RandomAccessFile randomAccessFile = checkOpenFile();
         randomAccessFile.seek(offset);
-        int remaining = (int) (randomAccessFile.length() - randomAccessFile.getFilePointer());
-        ByteArrayOutputStream baos = remaining <= 0 ? new ByteArrayOutputStream() : new ByteArrayOutputStream(Math.min(length, remaining));
-        byte[] buf = new byte[1024];
-        do {
-            int count = length - baos.size();
-            if (count == 0) {
-                break;
-            }
+        long remaining = randomAccessFile.length() - randomAccessFile.getFilePointer();
+        byte[] data = new byte[(int) Math.max(0, Math.min(length, remaining))];
+        randomAccessFile.readFully(data);
+        return data;
+    }
 
-            if (count > buf.length) {
-                count = buf.length;
+    @Override
+    protected PageLoader createPageLoader(final int offset, final int length) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); // 映射以后 fd 可能被关闭，单独打开
+        return new PageLoader() {
+            @Override
+            public void load(long position, byte[] dst) throws IOException {
+                FileChannel channel = randomAccessFile.getChannel();
+                ByteBuffer buffer = ByteBuffer.wrap(dst, 0, (int) Math.max(0, Math.min(dst.length, length - position)));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + position + buffer.position()) == -1) {
+                        break;
+                    }
+                }
             }
-
-            int read = randomAccessFile.read(buf, 0, count);
-            if (read == -1) {
-                break;
+            @Override
+            public void close() {
+                IOUtils.close(randomAccessFile);
             }
-
-            baos.write(buf, 0, read);
-        } while (true);
-        return baos.toByteArray();
+        };
     }
 
     @Override
@@ -183,6 +232,7 @@ public class SimpleFileIO extends BaseAndroidFileIO implements NewFileIO {
         dup.debugStream = debugStream;
         dup.op = op;
         dup.oflags = oflags;
+        dup.durability = durability;
         return dup;
     }
 
@@ -229,10 +279,29 @@ public class SimpleFileIO extends BaseAndroidFileIO implements NewFileIO {
         return super.llseek(offset, result, whence);
     }
 
+    @Override
+    protected synchronized long getPosition() {
+        try {
+            return _randomAccessFile == null ? 0 : _randomAccessFile.getFilePointer();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected void setPosition(long position) {
+        try {
+            checkOpenFile().seek(position);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public int ftruncate(int length) {
         try (FileChannel channel = new FileOutputStream(file, true).getChannel()) {
             channel.truncate(length);
+            dirty = true;
             return 0;
         } catch (IOException e) {
             log.debug("ftruncate failed", e);
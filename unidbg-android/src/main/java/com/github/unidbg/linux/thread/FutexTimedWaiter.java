@@ -0,0 +1,11 @@
+package com.github.unidbg.linux.thread;
+
+import com.sun.jna.Pointer;
+
+public class FutexTimedWaiter extends FutexWaiter {
+
+    public FutexTimedWaiter(Pointer uaddr, int val, long timeoutNanos) {
+        super(uaddr, val, timeoutNanos);
+    }
+
+}
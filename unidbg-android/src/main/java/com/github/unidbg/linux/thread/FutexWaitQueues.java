@@ -0,0 +1,63 @@
+package com.github.unidbg.linux.thread;
+
+import com.github.unidbg.pointer.UnidbgPointer;
+import com.sun.jna.Pointer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按 futex 地址分组的等待队列，FIFO 唤醒
+ */
+public class FutexWaitQueues {
+
+    private final Map<Long, Deque<FutexWaiter>> queues = new HashMap<>();
+
+    public void park(FutexWaiter waiter) {
+        long key = UnidbgPointer.nativeValue(waiter.getAddress());
+        Deque<FutexWaiter> queue = queues.get(key);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            queues.put(key, queue);
+        }
+        queue.add(waiter);
+        waiter.queues = this;
+    }
+
+    /**
+     * @return 唤醒的数量
+     */
+    public int wake(Pointer uaddr, int count) {
+        long key = UnidbgPointer.nativeValue(uaddr);
+        Deque<FutexWaiter> queue = queues.get(key);
+        if (queue == null) {
+            return 0;
+        }
+        int woken = 0;
+        while (woken < count && !queue.isEmpty()) {
+            FutexWaiter waiter = queue.poll();
+            waiter.queues = null;
+            waiter.wakeUp();
+            woken++;
+        }
+        if (queue.isEmpty()) {
+            queues.remove(key);
+        }
+        return woken;
+    }
+
+    void remove(FutexWaiter waiter) {
+        long key = UnidbgPointer.nativeValue(waiter.getAddress());
+        Deque<FutexWaiter> queue = queues.get(key);
+        if (queue != null) {
+            queue.remove(waiter);
+            if (queue.isEmpty()) {
+                queues.remove(key);
+            }
+        }
+        waiter.queues = null;
+    }
+
+}
@@ -1,52 +1,72 @@
 package com.github.unidbg.linux.thread;
 
 import com.github.unidbg.Emulator;
+import com.github.unidbg.thread.ParkWaiter;
 import com.sun.jna.Pointer;
 import unicorn.Arm64Const;
 import unicorn.ArmConst;
 
-public abstract class FutexWaiter extends AndroidWaiter {
+public abstract class FutexWaiter extends ParkWaiter {
+
+    private static final int ETIMEDOUT = 110;
 
     private final Pointer uaddr;
     private final int val;
 
     public FutexWaiter(Pointer uaddr, int val) {
+        this(uaddr, val, -1);
+    }
+
+    public FutexWaiter(Pointer uaddr, int val, long timeoutNanos) {
+        super(timeoutNanos);
         this.uaddr = uaddr;
         this.val = val;
     }
 
-    @Override
-    public boolean canDispatch() {
-        if (wokenUp) {
-            return true;
-        }
-        int old = uaddr.getInt(0);
-        return old != val;
+    public Pointer getAddress() {
+        return uaddr;
     }
 
+    FutexWaitQueues queues;
+
     @Override
     public final void onContinueRun(Emulator<?> emulator) {
-        super.onContinueRun(emulator);
-
-        if (wokenUp) {
+        if (isWokenUp()) {
             emulator.getBackend().reg_write(emulator.is32Bit() ? ArmConst.UC_ARM_REG_R0 : Arm64Const.UC_ARM64_REG_X0, 0);
         } else {
+            if (queues != null) {
+                queues.remove(this);
+            }
             onContinueRunInternal(emulator);
         }
     }
 
-    protected void onContinueRunInternal(Emulator<?> emulator) {
+    @Override
+    public void cancel() {
+        if (queues != null) {
+            queues.remove(this);
+        }
     }
 
-    protected boolean wokenUp;
+    /**
+     * 超时返回
+     */
+    protected void onContinueRunInternal(Emulator<?> emulator) {
+        emulator.getBackend().reg_write(emulator.is32Bit() ? ArmConst.UC_ARM_REG_R0 : Arm64Const.UC_ARM64_REG_X0, -ETIMEDOUT);
+    }
 
     public boolean wakeUp(Pointer uaddr) {
         if (this.uaddr.equals(uaddr)) {
-            this.wokenUp = true;
+            wakeUp();
             return true;
         } else {
             return false;
         }
     }
 
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " uaddr=" + uaddr + ", val=0x" + Integer.toHexString(val);
+    }
+
 }
@@ -75,4 +75,8 @@ public class MarshmallowThread extends ThreadTask {
         this.tidptr = tidptr;
     }
 
+    public Pointer getClearChildTid() {
+        return tidptr;
+    }
+
 }
@@ -0,0 +1,19 @@
+package com.github.unidbg.linux.thread;
+
+import com.github.unidbg.Emulator;
+import com.github.unidbg.thread.ParkWaiter;
+import unicorn.Arm64Const;
+import unicorn.ArmConst;
+
+public class NanoSleepWaiter extends ParkWaiter {
+
+    public NanoSleepWaiter(long timeoutNanos) {
+        super(timeoutNanos);
+    }
+
+    @Override
+    public void onContinueRun(Emulator<?> emulator) {
+        emulator.getBackend().reg_write(emulator.is32Bit() ? ArmConst.UC_ARM_REG_R0 : Arm64Const.UC_ARM64_REG_X0, 0);
+    }
+
+}
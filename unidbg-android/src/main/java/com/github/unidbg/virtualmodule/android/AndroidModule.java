@@ -15,6 +15,7 @@ import com.sun.jna.Pointer;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 public class AndroidModule extends VirtualModule<VM> {
@@ -87,7 +88,7 @@ public class AndroidModule extends VirtualModule<VM> {
         symbols.put("AAsset_read", svcMemory.registerSvc(is64Bit ? new Arm64Svc() {
             @Override
             public long handle(Emulator<?> emulator) {
-                throw new BackendException();
+                return read(emulator, vm);
             }
         } : new ArmSvc() {
             @Override
@@ -122,7 +123,7 @@ public class AndroidModule extends VirtualModule<VM> {
         final int AASSET_MODE_BUFFER = 3;
         if (mode == AASSET_MODE_STREAMING || AASSET_MODE_BUFFER == mode ||
                 mode == AASSET_MODE_UNKNOWN || mode == AASSET_MODE_RANDOM) {
-            byte[] data = vm.openAsset(filename);
+            ByteBuffer data = vm.openAssetBuffer(filename);
             if (data == null) {
                 return 0L;
             }
@@ -56,7 +56,7 @@ public class ArmExIdx {
     public Frame arm_exidx_step(Emulator<?> emulator, Unwinder unwinder, Module module, long fun, DwarfCursor context) {
         int value = ARM_EXIDX_CANT_UNWIND;
 
-        buffer.position(0);
+        ByteBuffer buffer = this.buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
         long offset = virtualAddress;
         int entry = 0;
         while (buffer.hasRemaining()) {
@@ -85,24 +85,28 @@ class ElfGnuHashTable implements HashTable {
         return null;
     }
 
+    private volatile SymbolAddressIndex addressIndex;
+
     @Override
     public ElfSymbol findSymbolByAddress(ElfSymbolStructure symbolStructure, long soaddr) throws IOException {
-        for (int i = 0; i < nbucket; i++) {
-            int n = buckets[i];
-
-            if (n == 0) {
-                continue;
-            }
+        if (addressIndex == null) {
+            SymbolAddressIndex index = new SymbolAddressIndex();
+            for (int i = 0; i < nbucket; i++) {
+                int n = buckets[i];
 
-            do {
-                ElfSymbol symbol = symbolStructure.getELFSymbol(n);
-                if (symbol.matches(soaddr)) {
-                    return symbol;
+                if (n == 0) {
+                    continue;
                 }
-            } while ((chains.chain(n++) & 1) == 0);
+
+                do {
+                    index.add(symbolStructure.getELFSymbol(n), n);
+                } while ((chains.chain(n++) & 1) == 0);
+            }
+            addressIndex = index.build();
         }
 
-        return null;
+        int n = addressIndex.find(soaddr);
+        return n == -1 ? null : symbolStructure.getELFSymbol(n);
     }
 
     private static long elf_hash(String name) {
@@ -74,18 +74,22 @@ class ElfHashTable implements HashTable {
 		return null;
 	}
 
+	private volatile SymbolAddressIndex addressIndex;
+
 	@Override
 	public ElfSymbol findSymbolByAddress(ElfSymbolStructure symbolStructure, long soaddr) throws IOException {
 		// Search the library's symbol table for any defined symbol which
 		// contains this address.
-		for (int i = 0; i < chains.length; i++) {
-			ElfSymbol symbol = symbolStructure.getELFSymbol(i);
-			if (symbol.matches(soaddr)) {
-				return symbol;
+		if (addressIndex == null) {
+			SymbolAddressIndex index = new SymbolAddressIndex();
+			for (int i = 0; i < chains.length; i++) {
+				index.add(symbolStructure.getELFSymbol(i), i);
 			}
+			addressIndex = index.build();
 		}
 
-		return null;
+		int i = addressIndex.find(soaddr);
+		return i == -1 ? null : symbolStructure.getELFSymbol(i);
 	}
 
 	@Override
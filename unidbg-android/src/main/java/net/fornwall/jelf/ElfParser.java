@@ -7,14 +7,28 @@ class ElfParser implements ElfDataIn {
 
 	final ElfFile elfFile;
 	private final ByteBuffer fsFile;
+	private final Thread owner;
+	private final ThreadLocal<ByteBuffer> threadBuffer;
 
-	ElfParser(ElfFile elfFile, ByteBuffer fsFile) {
+	ElfParser(ElfFile elfFile, final ByteBuffer fsFile) {
 		this.elfFile = elfFile;
 		this.fsFile = fsFile;
+		this.owner = Thread.currentThread();
+		/* other threads read through their own view so that a parsed file can be shared between emulators */
+		this.threadBuffer = new ThreadLocal<ByteBuffer>() {
+			@Override
+			protected ByteBuffer initialValue() {
+				return fsFile.duplicate();
+			}
+		};
+	}
+
+	private ByteBuffer buffer() {
+		return Thread.currentThread() == owner ? fsFile : threadBuffer.get();
 	}
 
 	void seek(long offset) {
-		fsFile.position((int) offset);
+		buffer().position((int) offset);
 	}
 
 	/**
@@ -34,7 +48,7 @@ class ElfParser implements ElfDataIn {
 
 	@Override
 	public short readUnsignedByte() {
-		int val = fsFile.get() & 0xff;
+		int val = buffer().get() & 0xff;
 		return (short) val;
 	}
 
@@ -99,17 +113,18 @@ class ElfParser implements ElfDataIn {
 	}
 
 	int read(byte[] data) {
-		fsFile.get(data);
+		buffer().get(data);
 		return data.length;
 	}
 
 	ByteBuffer readBuffer(int length) {
-		int limit = fsFile.limit();
+		ByteBuffer buffer = buffer();
+		int limit = buffer.limit();
 		try {
-			fsFile.limit(fsFile.position() + length);
-			return fsFile.slice();
+			buffer.limit(buffer.position() + length);
+			return buffer.slice();
 		} finally {
-			fsFile.limit(limit);
+			buffer.limit(limit);
 		}
 	}
 
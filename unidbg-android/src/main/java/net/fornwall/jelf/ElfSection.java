@@ -255,15 +255,20 @@ public final class ElfSection implements SymbolLocator {
 		return null;
 	}
 
+	private volatile SymbolAddressIndex addressIndex;
+
 	@Override
 	public ElfSymbol getELFSymbolByAddr(long addr) throws IOException {
-		for (int i = 0, m = getNumberOfSymbols(); i < m; i++) {
-			ElfSymbol symbol = getELFSymbol(i);
-			if (addr >= symbol.value && addr < symbol.value + symbol.size) {
-				return symbol;
+		if (addressIndex == null) {
+			SymbolAddressIndex index = new SymbolAddressIndex();
+			for (int i = 0, m = getNumberOfSymbols(); i < m; i++) {
+				ElfSymbol symbol = getELFSymbol(i);
+				index.add(symbol.value, symbol.size, i);
 			}
+			addressIndex = index.build();
 		}
-		return null;
+		int i = addressIndex.find(addr);
+		return i == -1 ? null : getELFSymbol(i);
 	}
 
 	/** Returns the number of relocations in this section or 0 if none. */
@@ -1,7 +1,6 @@
 package net.fornwall.jelf;
 
 
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 
 final class ElfStringTable {
@@ -15,15 +14,15 @@ final class ElfStringTable {
 		buffer = parser.readBuffer(length);
 	}
 
-	private final ByteArrayOutputStream baos = new ByteArrayOutputStream(16);
-
 	String get(int index) {
-		buffer.position(index);
-		baos.reset();
-		byte b;
-		while((b = buffer.get()) != 0) {
-			baos.write(b);
+		int end = index;
+		while (buffer.get(end) != 0) {
+			end++;
 		}
-		return baos.toString();
+		byte[] data = new byte[end - index];
+		ByteBuffer buffer = this.buffer.duplicate();
+		buffer.position(index);
+		buffer.get(data);
+		return new String(data);
 	}
 }
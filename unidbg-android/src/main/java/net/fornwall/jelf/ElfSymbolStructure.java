@@ -24,6 +24,11 @@ public class ElfSymbolStructure implements SymbolLocator {
         return new ElfSymbol(parser, offset + (long) index * entrySize, -1).setStringTable(stringTable.getValue());
     }
 
+    /** Returns the index of a symbol read from this structure. */
+    public int getSymbolIndex(ElfSymbol symbol) {
+        return (int) ((symbol.offset - offset) / entrySize);
+    }
+
     @Override
     public ElfSymbol getELFSymbolByAddr(long addr) throws IOException {
         if (hashTable == null) {
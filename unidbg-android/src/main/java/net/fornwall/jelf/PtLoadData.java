@@ -12,6 +12,16 @@ public class PtLoadData {
         this.buffer = buffer;
     }
 
+    /**
+     * 不改变 buffer 的读取位置，可以多次调用
+     */
+    public byte[] toByteArray() {
+        ByteBuffer buffer = this.buffer.duplicate();
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return data;
+    }
+
     public void writeTo(final Pointer ptr) {
         Pointer pointer = ptr;
         byte[] buf = new byte[Math.min(0x1000, buffer.remaining())];
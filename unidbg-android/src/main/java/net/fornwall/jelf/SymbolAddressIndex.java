@@ -0,0 +1,134 @@
+package net.fornwall.jelf;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 按地址排序的符号区间，二分查找包含某个地址的符号。
+ * 多个符号包含同一地址时，返回最先 add 的那个，和线性遍历的结果一致
+ */
+final class SymbolAddressIndex {
+
+    private long[] starts = new long[16];
+    private long[] ends = new long[16];
+    private int[] indices = new int[16];
+    private int count;
+
+    private int[] orders;
+
+    /**
+     * 按 starts 排好序的区间上的线段树：子树里最大的 end 和最小的 add 顺序
+     */
+    private long[] treeEnds;
+    private int[] treeOrders;
+
+    /**
+     * 和 {@link ElfSymbol#matches(long)} 一致：忽略 thumb 位和未定义符号
+     */
+    void add(ElfSymbol symbol, int index) {
+        if (!symbol.isUndef()) {
+            add(symbol.value & ~1L, symbol.size, index);
+        }
+    }
+
+    void add(long start, long size, int index) {
+        if (size <= 0) {
+            return;
+        }
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            indices = Arrays.copyOf(indices, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = start + size;
+        indices[count] = index;
+        count++;
+    }
+
+    SymbolAddressIndex build() {
+        Integer[] sorted = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = i;
+        }
+        final long[] unsorted = this.starts;
+        Arrays.sort(sorted, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                int ret = Long.compare(unsorted[o1], unsorted[o2]);
+                return ret != 0 ? ret : Integer.compare(o1, o2);
+            }
+        });
+
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        int[] indices = new int[count];
+        this.orders = new int[count];
+        for (int i = 0; i < count; i++) {
+            int order = sorted[i];
+            starts[i] = this.starts[order];
+            ends[i] = this.ends[order];
+            indices[i] = this.indices[order];
+            orders[i] = order;
+        }
+        this.starts = starts;
+        this.ends = ends;
+        this.indices = indices;
+        if (count > 0) {
+            this.treeEnds = new long[count * 4];
+            this.treeOrders = new int[count * 4];
+            buildTree(1, 0, count - 1);
+        }
+        return this;
+    }
+
+    private void buildTree(int node, int low, int high) {
+        if (low == high) {
+            treeEnds[node] = ends[low];
+            treeOrders[node] = orders[low];
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        buildTree(node * 2, low, mid);
+        buildTree(node * 2 + 1, mid + 1, high);
+        treeEnds[node] = Math.max(treeEnds[node * 2], treeEnds[node * 2 + 1]);
+        treeOrders[node] = Math.min(treeOrders[node * 2], treeOrders[node * 2 + 1]);
+    }
+
+    /**
+     * @return 符号的 index，找不到时返回 -1
+     */
+    int find(long addr) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= addr) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0) {
+            return -1;
+        }
+        int best = find(1, 0, count - 1, high, addr, -1);
+        return best == -1 ? -1 : indices[best];
+    }
+
+    /**
+     * 在 [low, min(high, right)] 里找包含 addr 且最先 add 的区间，跳过 end 都不超过 addr 或者不可能比 best 更早的子树
+     */
+    private int find(int node, int low, int high, int right, long addr, int best) {
+        if (low > right || treeEnds[node] <= addr || (best != -1 && treeOrders[node] >= orders[best])) {
+            return best;
+        }
+        if (low == high) {
+            return low;
+        }
+        int mid = (low + high) >>> 1;
+        best = find(node * 2, low, mid, right, addr, best);
+        return find(node * 2 + 1, mid + 1, high, right, addr, best);
+    }
+
+}
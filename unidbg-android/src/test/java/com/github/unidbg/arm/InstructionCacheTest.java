@@ -0,0 +1,42 @@
+package com.github.unidbg.arm;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import com.github.unidbg.pointer.UnidbgPointer;
+import junit.framework.TestCase;
+import unicorn.UnicornConst;
+
+public class InstructionCacheTest extends TestCase {
+
+    private static final int MOV_X0_1 = 0xd2800020;
+    private static final int MOV_X0_2 = 0xd2800040;
+    private static final int RET = 0xd65f03c0;
+
+    public void testInvalidate() throws Exception {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for64Bit().build();
+        try {
+            UnidbgPointer code = emulator.getMemory().mmap(emulator.getPageAlign(), UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE | UnicornConst.UC_PROT_EXEC);
+            code.setInt(0, MOV_X0_1);
+            code.setInt(4, RET);
+
+            InstructionCache cache = emulator.getInstructionCache();
+            CodeBlock block = cache.getBlock(code.peer, 8, false);
+            assertEquals(2, block.getInstructionCount());
+            assertEquals("ret", block.getLastInstruction().getMnemonic());
+            assertEquals(1, block.indexOf(code.peer + 4));
+            assertEquals(-1, block.indexOf(code.peer + 8));
+            assertSame(block, cache.getBlock(code.peer, 8, false));
+
+            code.setInt(0, MOV_X0_2);
+            CodeBlock modified = cache.getBlock(code.peer, 8, false);
+            assertNotSame(block, modified);
+            assertEquals("x0, #0x2", modified.getInstruction(0).getOpStr());
+
+            cache.invalidate(code.peer, emulator.getPageAlign());
+            assertNotSame(modified, cache.getBlock(code.peer, 8, false));
+        } finally {
+            emulator.close();
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.github.unidbg.arm.context;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import junit.framework.TestCase;
+import unicorn.Arm64Const;
+import unicorn.ArmConst;
+
+import java.io.IOException;
+
+public class BaseRegisterContextTest extends TestCase {
+
+    public void testEpochInvalidation32() throws IOException {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for32Bit().build();
+        try {
+            Backend backend = emulator.getBackend();
+            BaseRegisterContext context = emulator.getContext();
+            backend.reg_write(ArmConst.UC_ARM_REG_R0, 1);
+            backend.reg_write(ArmConst.UC_ARM_REG_R1, 0xfffffffe);
+
+            context.cacheArgs();
+            assertEquals(1, context.getIntArg(0));
+            assertEquals(1, context.getIntArg(0));
+            assertEquals(0xfffffffeL, context.getPointerArg(1).peer);
+
+            backend.reg_write(ArmConst.UC_ARM_REG_R0, 3);
+            assertEquals(3, context.getIntArg(0));
+            backend.reg_write(ArmConst.UC_ARM_REG_R1, 4);
+            assertEquals(4, context.getIntArg(1));
+
+            context.cacheArgs();
+            assertEquals(4, context.getIntArg(1));
+            context.clearArgCache();
+            backend.reg_write(ArmConst.UC_ARM_REG_R1, 5);
+            assertEquals(5, context.getIntArg(1));
+        } finally {
+            emulator.close();
+        }
+    }
+
+    public void testEpochInvalidation64() throws IOException {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for64Bit().build();
+        try {
+            Backend backend = emulator.getBackend();
+            BaseRegisterContext context = emulator.getContext();
+            long saved = backend.context_alloc();
+            backend.reg_write(Arm64Const.UC_ARM64_REG_X7, 0x1234);
+            backend.context_save(saved);
+            backend.reg_write(Arm64Const.UC_ARM64_REG_X7, 0x123456789L);
+
+            context.cacheArgs();
+            assertEquals(0x123456789L, context.getLongArg(7));
+            backend.reg_write(Arm64Const.UC_ARM64_REG_X7, 0x987654321L);
+            assertEquals(0x987654321L, context.getLongArg(7));
+
+            context.cacheArgs();
+            assertEquals(0x987654321L, context.getLongArg(7));
+            backend.context_restore(saved);
+            assertEquals(0x1234, context.getLongArg(7));
+            backend.context_free(saved);
+        } finally {
+            emulator.close();
+        }
+    }
+
+}
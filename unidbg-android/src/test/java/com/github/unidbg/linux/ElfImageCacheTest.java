@@ -0,0 +1,113 @@
+package com.github.unidbg.linux;
+
+import com.github.unidbg.arm.ARMEmulator;
+import junit.framework.TestCase;
+import net.fornwall.jelf.ElfDynamicStructure;
+import net.fornwall.jelf.ElfFile;
+import net.fornwall.jelf.ElfRelocation;
+import net.fornwall.jelf.ElfSegment;
+import net.fornwall.jelf.MemoizedObject;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class ElfImageCacheTest extends TestCase {
+
+    private static final String EXAMPLE_BINARIES = "src/test/resources/example_binaries/armeabi-v7a/";
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ElfImageCache.clear();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ElfImageCache.setMaxSize(64 * 1024 * 1024);
+        ElfImageCache.clear();
+        super.tearDown();
+    }
+
+    private static ByteBuffer load(String name) throws IOException {
+        return ByteBuffer.wrap(FileUtils.readFileToByteArray(new File(EXAMPLE_BINARIES + name)));
+    }
+
+    static ElfDynamicStructure getDynamicStructure(ElfFile elfFile) throws IOException {
+        for (int i = 0; i < elfFile.num_ph; i++) {
+            ElfSegment ph = elfFile.getProgramHeader(i);
+            if (ph.type == ElfSegment.PT_DYNAMIC) {
+                return ph.getDynamicStructure();
+            }
+        }
+        throw new IllegalStateException("dynamicStructure is empty.");
+    }
+
+    public void testImagePerLoadBase() throws IOException {
+        ElfImageCache.Entry entry = ElfImageCache.get(load("libnative-lib.so"));
+        assertSame(entry, ElfImageCache.get(load("libnative-lib.so")));
+
+        ElfDynamicStructure dynamicStructure = getDynamicStructure(entry.elfFile);
+        long base1 = 0x40000000L;
+        long base2 = 0x50000000L;
+        ElfImage image1 = entry.getImage(dynamicStructure, base1);
+        ElfImage image2 = entry.getImage(dynamicStructure, base2);
+        assertSame(image1, entry.getImage(dynamicStructure, base1));
+        assertSame(image2, entry.getImage(dynamicStructure, base2));
+        assertNotSame(image1, image2);
+        assertEquals(image1.getRelocations(), image2.getRelocations());
+
+        RelocationBuffer segments1 = image1.newSegments();
+        RelocationBuffer segments2 = image2.newSegments();
+        int relative = 0;
+        for (MemoizedObject<ElfRelocation> object : dynamicStructure.getRelocations()) {
+            ElfRelocation relocation = object.getValue();
+            if (relocation.type() == ARMEmulator.R_ARM_RELATIVE && segments1.contains(relocation.offset(), 4)) {
+                assertEquals((int) (base2 - base1), segments2.getInt(relocation.offset()) - segments1.getInt(relocation.offset()));
+                relative++;
+            } else {
+                assertTrue(image1.getRelocations().contains(relocation));
+            }
+        }
+        assertTrue(relative > 0);
+
+        // newSegments 是副本，加载时的符号重定位不能改到缓存里
+        for (MemoizedObject<ElfRelocation> object : dynamicStructure.getRelocations()) {
+            long offset = object.getValue().offset();
+            if (segments1.contains(offset, 4)) {
+                int value = segments1.getInt(offset);
+                segments1.putInt(offset, ~value);
+                assertEquals(value, image1.newSegments().getInt(offset));
+                break;
+            }
+        }
+    }
+
+    public void testLruEviction() throws IOException {
+        ByteBuffer a = load("libnative-lib.so");
+        ByteBuffer b = load("libsignutil.so");
+        ByteBuffer c = load("libd-lib.so");
+        ElfImageCache.setMaxSize(a.remaining() + b.remaining() + c.remaining() - 1);
+
+        ElfImageCache.Entry entryA = ElfImageCache.get(a);
+        ElfImageCache.Entry entryB = ElfImageCache.get(b);
+        assertSame(entryA, ElfImageCache.get(a));
+        ElfImageCache.Entry entryC = ElfImageCache.get(c);
+
+        assertSame(entryA, ElfImageCache.get(a));
+        assertSame(entryC, ElfImageCache.get(c));
+        assertNotSame(entryB, ElfImageCache.get(b));
+        assertNotSame(entryA, ElfImageCache.get(a));
+    }
+
+    public void testDisabled() throws IOException {
+        ElfImageCache.setMaxSize(0);
+        ByteBuffer buffer = load("libnative-lib.so");
+        ElfImageCache.Entry entry = ElfImageCache.get(buffer);
+        assertNotSame(entry, ElfImageCache.get(buffer));
+        ElfDynamicStructure dynamicStructure = getDynamicStructure(entry.elfFile);
+        assertNotSame(entry.getImage(dynamicStructure, 0x40000000L), entry.getImage(dynamicStructure, 0x40000000L));
+    }
+
+}
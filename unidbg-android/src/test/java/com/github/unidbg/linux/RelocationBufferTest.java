@@ -0,0 +1,163 @@
+package com.github.unidbg.linux;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.arm.ARM;
+import com.github.unidbg.arm.ARMEmulator;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import com.github.unidbg.pointer.UnidbgPointer;
+import junit.framework.TestCase;
+import net.fornwall.jelf.ElfDynamicStructure;
+import net.fornwall.jelf.ElfFile;
+import net.fornwall.jelf.ElfRelocation;
+import net.fornwall.jelf.ElfSegment;
+import net.fornwall.jelf.ElfSymbol;
+import net.fornwall.jelf.MemoizedObject;
+import org.apache.commons.io.FileUtils;
+import unicorn.UnicornConst;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class RelocationBufferTest extends TestCase {
+
+    public void testBss() {
+        RelocationBuffer buffer = new RelocationBuffer(new long[]{-1, 0x1000}, new long[]{0, 0x20}, new byte[][]{null, new byte[]{1, 2, 3, 4, 5, 6, 7, 8}});
+        assertFalse(buffer.contains(0xffc, 4));
+        assertFalse(buffer.contains(0x101d, 4));
+        assertTrue(buffer.contains(0x101c, 4));
+        assertEquals(0x04030201, buffer.getInt(0x1000));
+        assertEquals(0, buffer.getInt(0x1010));
+
+        RelocationBuffer copy = buffer.copy();
+        buffer.putLong(0x1018, 0x1122334455667788L);
+        assertEquals(0x1122334455667788L, buffer.getLong(0x1018));
+        assertEquals(0x20, buffer.getByteSize());
+        assertEquals(0x14, copy.getByteSize());
+        assertEquals(0, copy.getLong(0x1018));
+        try {
+            buffer.putInt(0x2000, 0);
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    public void testMatchesGuestWrites32() throws IOException {
+        checkMatchesGuestWrites(AndroidEmulatorBuilder.for32Bit().build(), "src/test/resources/example_binaries/armeabi-v7a/libnative-lib.so");
+    }
+
+    public void testMatchesGuestWrites64() throws IOException {
+        checkMatchesGuestWrites(AndroidEmulatorBuilder.for64Bit().build(), "src/test/resources/example_binaries/arm64-v8a/libjnidispatch.so");
+    }
+
+    /**
+     * 按原来的方式把段写进模拟器再逐个重定位，和先在 RelocationBuffer 里重定位再整段写入的结果比较
+     */
+    private void checkMatchesGuestWrites(AndroidEmulator emulator, String path) throws IOException {
+        try {
+            byte[] data = FileUtils.readFileToByteArray(new File(path));
+            ElfFile elfFile = ElfFile.fromBytes(ByteBuffer.wrap(data));
+            long bound_high = 0;
+            for (int i = 0; i < elfFile.num_ph; i++) {
+                ElfSegment ph = elfFile.getProgramHeader(i);
+                if (ph.type == ElfSegment.PT_LOAD) {
+                    bound_high = Math.max(bound_high, ph.virtual_address + ph.mem_size);
+                }
+            }
+            int size = (int) ARM.align(0, bound_high, emulator.getPageAlign()).size;
+            UnidbgPointer expected = emulator.getMemory().mmap(size, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+            UnidbgPointer actual = emulator.getMemory().mmap(size, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+
+            ElfFile old = ElfFile.fromBytes(ByteBuffer.wrap(data));
+            for (int i = 0; i < old.num_ph; i++) {
+                ElfSegment ph = old.getProgramHeader(i);
+                if (ph.type == ElfSegment.PT_LOAD && ph.getPtLoadData() != null) {
+                    ph.getPtLoadData().writeTo(expected.share(ph.virtual_address, 0));
+                }
+            }
+            int relocations = 0;
+            for (MemoizedObject<ElfRelocation> object : ElfImageCacheTest.getDynamicStructure(old).getRelocations()) {
+                ElfRelocation relocation = object.getValue();
+                UnidbgPointer pointer = expected.share(relocation.offset(), 0);
+                long load_base = expected.peer;
+                switch (relocation.type()) {
+                    case ARMEmulator.R_ARM_RELATIVE:
+                        pointer.setInt(0, (int) load_base + pointer.getInt(0));
+                        break;
+                    case ARMEmulator.R_AARCH64_RELATIVE:
+                        pointer.setLong(0, load_base + relocation.addend());
+                        break;
+                    case ARMEmulator.R_ARM_ABS32:
+                        pointer.setInt(0, (int) symbolValue(relocation, load_base) + pointer.getInt(0));
+                        break;
+                    case ARMEmulator.R_AARCH64_ABS64:
+                        pointer.setLong(0, symbolValue(relocation, load_base) + pointer.getLong(0) + relocation.addend());
+                        break;
+                    case ARMEmulator.R_ARM_GLOB_DAT:
+                    case ARMEmulator.R_ARM_JUMP_SLOT:
+                        pointer.setInt(0, (int) symbolValue(relocation, load_base));
+                        break;
+                    case ARMEmulator.R_AARCH64_GLOB_DAT:
+                    case ARMEmulator.R_AARCH64_JUMP_SLOT:
+                        pointer.setLong(0, symbolValue(relocation, load_base) + relocation.addend());
+                        break;
+                    default:
+                        continue;
+                }
+                relocations++;
+            }
+            assertTrue(relocations > 0);
+
+            // 同一个 load_base 重定位，写到另一块内存里比较
+            long load_base = expected.peer;
+            ElfDynamicStructure dynamicStructure = ElfImageCacheTest.getDynamicStructure(elfFile);
+            RelocationBuffer segments = ElfImage.create(elfFile, dynamicStructure, load_base).newSegments();
+            for (ElfRelocation relocation : ElfImage.create(elfFile, dynamicStructure, load_base).getRelocations()) {
+                long offset = relocation.offset();
+                switch (relocation.type()) {
+                    case ARMEmulator.R_ARM_RELATIVE:
+                    case ARMEmulator.R_AARCH64_RELATIVE:
+                        fail("RELATIVE outside PT_LOAD: 0x" + Long.toHexString(offset));
+                        break;
+                    case ARMEmulator.R_ARM_ABS32:
+                        segments.putInt(offset, (int) symbolValue(relocation, load_base) + segments.getInt(offset));
+                        break;
+                    case ARMEmulator.R_AARCH64_ABS64:
+                        segments.putLong(offset, symbolValue(relocation, load_base) + segments.getLong(offset) + relocation.addend());
+                        break;
+                    case ARMEmulator.R_ARM_GLOB_DAT:
+                    case ARMEmulator.R_ARM_JUMP_SLOT:
+                        segments.putInt(offset, (int) symbolValue(relocation, load_base));
+                        break;
+                    case ARMEmulator.R_AARCH64_GLOB_DAT:
+                    case ARMEmulator.R_AARCH64_JUMP_SLOT:
+                        segments.putLong(offset, symbolValue(relocation, load_base) + relocation.addend());
+                        break;
+                }
+            }
+            for (int i = 0; i < elfFile.num_ph; i++) {
+                ElfSegment ph = elfFile.getProgramHeader(i);
+                if (ph.type == ElfSegment.PT_LOAD) {
+                    segments.writeTo(i, actual.share(ph.virtual_address, 0));
+                }
+            }
+
+            assertTrue(Arrays.equals(expected.getByteArray(0, size), actual.getByteArray(0, size)));
+        } finally {
+            emulator.close();
+        }
+    }
+
+    /**
+     * 已定义的符号按 load_base 计算，未定义的用一个和 load_base 无关的假地址
+     */
+    private static long symbolValue(ElfRelocation relocation, long load_base) throws IOException {
+        if (relocation.sym() == 0) {
+            return load_base;
+        }
+        ElfSymbol symbol = relocation.symbol();
+        return symbol.isUndef() ? 0x70000000L + relocation.sym() * 0x10L : load_base + symbol.value;
+    }
+
+}
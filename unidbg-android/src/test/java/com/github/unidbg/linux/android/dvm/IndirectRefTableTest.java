@@ -0,0 +1,136 @@
+package com.github.unidbg.linux.android.dvm;
+
+import com.github.unidbg.memory.MemoryBlock;
+import com.github.unidbg.pointer.UnidbgPointer;
+import com.sun.jna.Pointer;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IndirectRefTableTest extends TestCase {
+
+    private static DvmObject<?> newObject(String value) {
+        return new DvmObject<>(null, value);
+    }
+
+    private static class TestMemoryBlock implements MemoryBlock {
+        @Override
+        public UnidbgPointer getPointer() {
+            return null;
+        }
+        @Override
+        public boolean isSame(Pointer pointer) {
+            return false;
+        }
+        @Override
+        public void free() {
+        }
+    }
+
+    /**
+     * 持有内存的对象被删除时才需要收集
+     */
+    private static DvmObject<?> newObjectWithMemory(String value) {
+        DvmObject<?> object = newObject(value);
+        object.memoryBlock = new TestMemoryBlock();
+        return object;
+    }
+
+    public void testStaleHandle() {
+        IndirectRefTable table = new IndirectRefTable(VM.JNIGlobalRefType, 1, null);
+        DvmObject<?> a = newObject("a");
+        int ref = table.add(a);
+        assertEquals(VM.JNIGlobalRefType, IndirectRefTable.kindOf(ref));
+        assertTrue(ref > 0);
+        assertSame(a, table.get(ref));
+
+        assertSame(a, table.remove(ref));
+        assertNull(table.get(ref));
+        assertNull(table.remove(ref));
+
+        DvmObject<?> b = newObject("b");
+        int reused = table.add(b);
+        assertTrue(reused != ref);
+        assertNull(table.get(ref));
+        assertSame(b, table.get(reused));
+
+        IndirectRefTable local = new IndirectRefTable(VM.JNILocalRefType, 1, null);
+        assertNull(local.get(reused));
+    }
+
+    public void testLocalFrame() {
+        List<DvmObject<?>> evicted = new ArrayList<>();
+        IndirectRefTable table = new IndirectRefTable(VM.JNILocalRefType, 2, evicted);
+        DvmObject<?> outer = newObject("outer");
+        int outerRef = table.add(outer);
+        int hole = table.add(newObject("hole"));
+        table.remove(hole);
+
+        table.pushFrame();
+        int inner = table.add(newObject("inner"));
+        assertSame(outer, table.get(outerRef));
+        assertTrue(table.popFrame());
+        assertNull(table.get(inner));
+        assertSame(outer, table.get(outerRef));
+        assertFalse(table.popFrame());
+
+        table.add(newObject("a"));
+        int b = table.add(newObject("b"));
+        assertNotNull(table.get(b));
+        assertEquals(0, evicted.size());
+
+        int c = table.add(newObjectWithMemory("c"));
+        table.remove(c);
+        assertEquals(1, evicted.size());
+
+        table.reset();
+        assertNull(table.get(outerRef));
+        assertEquals(0, table.getTop());
+    }
+
+    public void testEvictedBounded() {
+        List<DvmObject<?>> evicted = new ArrayList<>();
+        IndirectRefTable table = new IndirectRefTable(VM.JNILocalRefType, 4, evicted);
+        DvmObject<?> held = newObjectWithMemory("held");
+        table.remove(table.add(held));
+        for (int i = 0; i < 10000; i++) {
+            DvmObject<?> object = newObjectWithMemory("object" + i);
+            table.remove(table.add(object));
+            object.memoryBlock = null;
+            table.remove(table.add(newObject("plain" + i)));
+        }
+        assertTrue(evicted.size() < 200);
+        assertTrue(evicted.contains(held));
+    }
+
+    public void testGenerationNotReused() {
+        IndirectRefTable table = new IndirectRefTable(VM.JNIGlobalRefType, 1, null);
+        int first = table.add(newObject("first"));
+        table.remove(first);
+        int last = first;
+        for (int i = 0; i < 1000; i++) {
+            int ref = table.add(newObject("object" + i));
+            assertTrue(ref != first);
+            assertNull(table.get(first));
+            last = ref;
+            table.remove(ref);
+        }
+        DvmObject<?> object = newObject("object");
+        int ref = table.add(object);
+        assertSame(object, table.get(ref));
+        assertNull(table.get(last));
+        assertTrue(table.getTop() > 1);
+
+        IndirectRefTable local = new IndirectRefTable(VM.JNILocalRefType, 1, null);
+        for (int i = 0; i < 1000; i++) {
+            local.remove(local.add(newObject("local" + i)));
+        }
+        int retired = local.getTop();
+        assertTrue(retired > 1);
+        local.reset();
+        local.add(newObject("a"));
+        assertEquals(1, local.getTop());
+    }
+
+}
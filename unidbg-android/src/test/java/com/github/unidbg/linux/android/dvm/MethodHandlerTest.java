@@ -0,0 +1,128 @@
+package com.github.unidbg.linux.android.dvm;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import junit.framework.TestCase;
+
+public class MethodHandlerTest extends TestCase {
+
+    public void testBindMethod() throws Exception {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for32Bit().build();
+        try {
+            BaseVM vm = (BaseVM) emulator.createDalvikVM();
+            DvmClass base = vm.resolveClass("com/example/Base");
+            DvmClass child = vm.resolveClass("com/example/Child", base);
+            base.bindMethod("size", "()I", new MethodHandler() {
+                @Override
+                public Object invoke(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+                    return 42;
+                }
+            });
+            child.bindStaticMethod("isDebug", "()Z", new MethodHandler() {
+                @Override
+                public Object invoke(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+                    return Boolean.TRUE;
+                }
+            });
+
+            int methodID = child.getMethodID("size", "()I");
+            DvmMethod method = child.getMethod(methodID);
+            assertNotNull(method.handler);
+            assertEquals(42, method.callIntMethod(child.newObject(null), new VarArg(vm, method) {
+            }));
+
+            DvmMethod staticMethod = child.getStaticMethod(child.getStaticMethodID("isDebug", "()Z"));
+            assertTrue(staticMethod.CallStaticBooleanMethod(new VarArg(vm, staticMethod) {
+            }));
+
+            int baseMethodID = base.getMethodID("size", "()I");
+            assertSame(child.getMethod(baseMethodID), child.getMethod(baseMethodID));
+            assertSame(base.getMethod(baseMethodID), child.getMethod(baseMethodID));
+        } finally {
+            emulator.close();
+        }
+    }
+
+    public void testPrimitiveHandler() throws Exception {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for32Bit().build();
+        try {
+            BaseVM vm = (BaseVM) emulator.createDalvikVM();
+            DvmClass dvmClass = vm.resolveClass("com/example/Counter");
+            dvmClass.bindMethod("next", "()J", new PrimitiveMethodHandler() {
+                @Override
+                public long invokeLong(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+                    return 0x100000000L;
+                }
+            });
+            dvmClass.bindMethod("ready", "()Z", new PrimitiveMethodHandler() {
+                @Override
+                public int invokeInt(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+                    return VM.JNI_TRUE;
+                }
+            });
+            DvmObject<?> object = dvmClass.newObject(null);
+            DvmMethod next = dvmClass.getMethod(dvmClass.getMethodID("next", "()J"));
+            assertEquals(0x100000000L, next.callLongMethod(object, new VarArg(vm, next) {
+            }));
+            DvmMethod ready = dvmClass.getMethod(dvmClass.getMethodID("ready", "()Z"));
+            assertTrue(ready.callBooleanMethod(object, new VarArg(vm, ready) {
+            }));
+        } finally {
+            emulator.close();
+        }
+    }
+
+    public void testBindAfterGetMethodID() throws Exception {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for32Bit().build();
+        try {
+            BaseVM vm = (BaseVM) emulator.createDalvikVM();
+            DvmClass base = vm.resolveClass("com/example/Base");
+            DvmClass child = vm.resolveClass("com/example/Child", base);
+            DvmClass other = vm.resolveClass("com/example/Other");
+            base.bindMethod("size", "()I", new MethodHandler() {
+                @Override
+                public Object invoke(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+                    return 1;
+                }
+            });
+            DvmMethod childMethod = child.getMethod(child.getMethodID("size", "()I"));
+            int baseMethodID = base.getMethodID("size", "()I");
+            DvmMethod inherited = child.getMethod(baseMethodID);
+            DvmMethod otherMethod = other.getMethod(other.getMethodID("size", "()I"));
+            assertNull(otherMethod.handler);
+
+            base.bindMethod("size", "()I", new MethodHandler() {
+                @Override
+                public Object invoke(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+                    return 2;
+                }
+            });
+            DvmObject<?> object = child.newObject(null);
+            assertEquals(2, childMethod.callIntMethod(object, new VarArg(vm, childMethod) {
+            }));
+            assertEquals(2, inherited.callIntMethod(object, new VarArg(vm, inherited) {
+            }));
+            assertNull(otherMethod.handler);
+
+            child.bindMethod("size", "()I", new MethodHandler() {
+                @Override
+                public Object invoke(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+                    return 3;
+                }
+            });
+            base.bindMethod("size", "()I", new MethodHandler() {
+                @Override
+                public Object invoke(BaseVM vm, DvmObject<?> dvmObject, VarArg varArg) {
+                    return 4;
+                }
+            });
+            assertEquals(3, childMethod.callIntMethod(object, new VarArg(vm, childMethod) {
+            }));
+            assertEquals(4, inherited.callIntMethod(object, new VarArg(vm, inherited) {
+            }));
+        } finally {
+            emulator.close();
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.github.unidbg.linux.android.dvm.apk;
+
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ApkArchiveTest extends TestCase {
+
+    private final List<File> files = new ArrayList<>();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ApkArchive.clear();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ApkArchive.setMaxCacheSize(32 * 1024 * 1024);
+        ApkArchive.clear();
+        for (File file : files) {
+            FileUtils.deleteQuietly(file);
+        }
+        super.tearDown();
+    }
+
+    private File createApk(int entries, byte[]... assets) throws IOException {
+        File file = File.createTempFile("archive", ".apk");
+        files.add(file);
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < assets.length; i++) {
+                ZipEntry entry = new ZipEntry("assets/" + i);
+                if (i % 2 == 0) {
+                    CRC32 crc32 = new CRC32();
+                    crc32.update(assets[i]);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(assets[i].length);
+                    entry.setCrc(crc32.getValue());
+                }
+                zos.putNextEntry(entry);
+                zos.write(assets[i]);
+                zos.closeEntry();
+            }
+            for (int i = 0; i < entries; i++) {
+                zos.putNextEntry(new ZipEntry("res/" + i));
+                zos.closeEntry();
+            }
+        }
+        return file;
+    }
+
+    private static byte[] bytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void testStoredAndDeflated() throws IOException {
+        byte[] deflated = new byte[0x1000];
+        Arrays.fill(deflated, (byte) 'x');
+        ApkFile apk = new ApkFile(createApk(0, bytes("stored"), deflated));
+        assertEquals("stored", new String(apk.openAsset("0"), StandardCharsets.UTF_8));
+        assertTrue(Arrays.equals(deflated, apk.openAsset("1")));
+        ByteBuffer buffer = apk.getFileBuffer("assets/0");
+        assertTrue(buffer.isReadOnly());
+        assertNull(apk.openAsset("2"));
+        assertEquals(deflated.length, ApkArchive.getCacheSize());
+    }
+
+    public void testArchiveLru() throws IOException {
+        File[] apks = new File[ApkArchive.MAX_ARCHIVES + 1];
+        ApkArchive[] archives = new ApkArchive[apks.length];
+        for (int i = 0; i < apks.length; i++) {
+            apks[i] = createApk(0, bytes("stored" + i), bytes("deflated" + i));
+        }
+        for (int i = 0; i < ApkArchive.MAX_ARCHIVES; i++) {
+            archives[i] = ApkArchive.open(apks[i]);
+        }
+        assertEquals("deflated0", new String(toArray(archives[0].getData("assets/1")), StandardCharsets.UTF_8));
+        assertEquals(9, ApkArchive.getCacheSize());
+        assertSame(archives[0], ApkArchive.open(apks[0]));
+
+        // apks[1] 是最久没用的
+        archives[ApkArchive.MAX_ARCHIVES] = ApkArchive.open(apks[ApkArchive.MAX_ARCHIVES]);
+        assertSame(archives[0], ApkArchive.open(apks[0]));
+        assertSame(archives[2], ApkArchive.open(apks[2]));
+        assertNotSame(archives[1], ApkArchive.open(apks[1]));
+        assertEquals(9, ApkArchive.getCacheSize());
+
+        // 文件修改以后重新打开，原来解压的缓存一起丢掉
+        assertTrue(apks[0].setLastModified(apks[0].lastModified() + 2000));
+        assertNotSame(archives[0], ApkArchive.open(apks[0]));
+        assertEquals(0, ApkArchive.getCacheSize());
+    }
+
+    public void testInflatedLru() throws IOException {
+        byte[] a = new byte[100];
+        byte[] b = new byte[150];
+        Arrays.fill(b, (byte) 1);
+        ApkArchive.setMaxCacheSize(200);
+        ApkArchive archive = ApkArchive.open(createApk(0, bytes("stored"), a, bytes("stored"), b));
+        archive.getData("assets/1");
+        assertEquals(100, ApkArchive.getCacheSize());
+        archive.getData("assets/3");
+        assertEquals(150, ApkArchive.getCacheSize());
+        assertTrue(Arrays.equals(a, toArray(archive.getData("assets/1"))));
+        assertEquals(100, ApkArchive.getCacheSize());
+
+        ApkArchive.setMaxCacheSize(0);
+        assertEquals(0, ApkArchive.getCacheSize());
+        assertTrue(Arrays.equals(b, toArray(archive.getData("assets/3"))));
+        assertEquals(0, ApkArchive.getCacheSize());
+    }
+
+    /**
+     * 索引打不开的 apk 退回到 apk-parser
+     */
+    public void testFallback() throws IOException {
+        File zip64 = createApk(0x10000, bytes("stored"), bytes("deflated"));
+        try {
+            ApkArchive.open(zip64);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("zip64 not supported"));
+        }
+        ApkFile apk = new ApkFile(zip64);
+        assertEquals("stored", new String(apk.openAsset("0"), StandardCharsets.UTF_8));
+        assertEquals("deflated", new String(apk.openAsset("1"), StandardCharsets.UTF_8));
+
+        File small = File.createTempFile("small", ".apk");
+        files.add(small);
+        FileUtils.writeByteArrayToFile(small, new byte[]{'P', 'K'});
+        try {
+            new ApkFile(small).openAsset("0");
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return data;
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.github.unidbg.linux.android.dvm.array;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import com.github.unidbg.linux.android.dvm.VM;
+import com.github.unidbg.pointer.UnidbgPointer;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+public class PrimitiveArrayTest extends TestCase {
+
+    public void testPinned() throws Exception {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for32Bit().build();
+        try {
+            VM vm = emulator.createDalvikVM();
+            IntArray array = new IntArray(vm, new int[]{1, 2, 3, 4});
+            array.setPinned(true);
+
+            UnidbgPointer elems = array._GetArrayCritical(emulator, null);
+            elems.setInt(4, 20);
+            array._ReleaseArrayCritical(elems, VM.JNI_ABORT);
+            assertTrue(Arrays.equals(new int[]{1, 20, 3, 4}, array.readValue()));
+
+            array.setData(2, new int[]{30});
+            UnidbgPointer again = array._GetArrayCritical(emulator, null);
+            assertEquals(elems.peer, again.peer);
+            assertEquals(30, again.getInt(8));
+            again.setInt(12, 40);
+            array._ReleaseArrayCritical(again, 0);
+
+            array.getValue()[0] = 10;
+            again = array._GetArrayCritical(emulator, null);
+            assertEquals(10, again.getInt(0));
+            array._ReleaseArrayCritical(again, 0);
+            assertTrue(Arrays.equals(new int[]{10, 20, 30, 40}, array.readValue()));
+
+            array.setPinned(false);
+            ByteArray bytes = new ByteArray(vm, new byte[]{1, 2});
+            UnidbgPointer copy = bytes._GetArrayCritical(emulator, null);
+            copy.setByte(1, (byte) 3);
+            bytes._ReleaseArrayCritical(copy, 0);
+            assertTrue(Arrays.equals(new byte[]{1, 3}, bytes.getValue()));
+        } finally {
+            emulator.close();
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.github.unidbg.linux.file;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.file.FileIO;
+import com.github.unidbg.file.linux.IOConstants;
+import com.github.unidbg.file.overlay.OverlayStore;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import com.github.unidbg.pointer.UnidbgPointer;
+import com.github.unidbg.unix.UnixEmulator;
+import junit.framework.TestCase;
+import unicorn.UnicornConst;
+
+import java.nio.charset.StandardCharsets;
+
+public class OverlayFileIOTest extends TestCase {
+
+    private AndroidEmulator emulator;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        emulator = AndroidEmulatorBuilder.for32Bit().setProcessName("overlay").build();
+        emulator.getFileSystem().setOverlay(new OverlayStore(null, 0x10000));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        emulator.close();
+        super.tearDown();
+    }
+
+    public void testSeek() {
+        int fd = emulator.getSyscallHandler().open(emulator, "/data/overlay.txt", IOConstants.O_RDWR | IOConstants.O_CREAT);
+        assertTrue(fd >= 0);
+        FileIO io = emulator.getSyscallHandler().getFileIO(fd);
+        assertTrue(io instanceof OverlayFileIO);
+        assertEquals(10, io.write("0123456789".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(8, io.lseek(-2, FileIO.SEEK_END));
+        assertEquals(5, io.lseek(-3, FileIO.SEEK_CUR));
+        assertEquals(-UnixEmulator.EINVAL, io.lseek(-6, FileIO.SEEK_CUR));
+        assertEquals(-UnixEmulator.EINVAL, io.lseek(-1, FileIO.SEEK_SET));
+        assertEquals(-UnixEmulator.EINVAL, io.lseek(-11, FileIO.SEEK_END));
+        assertEquals(5, io.lseek(0, FileIO.SEEK_CUR));
+
+        UnidbgPointer result = emulator.getMemory().mmap(emulator.getPageAlign(), UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+        assertEquals(0, io.llseek(2, result, FileIO.SEEK_END));
+        assertEquals(12, result.getLong(0));
+        assertEquals(0, io.llseek(-4, result, FileIO.SEEK_CUR));
+        assertEquals(8, result.getLong(0));
+        assertEquals(0, io.llseek(-10, result, FileIO.SEEK_END));
+        assertEquals(0, result.getLong(0));
+        assertEquals(-UnixEmulator.EINVAL, io.llseek(-1, result, FileIO.SEEK_CUR));
+        assertEquals(0, io.lseek(0, FileIO.SEEK_CUR));
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.github.unidbg.linux.file;
+
+import com.github.unidbg.file.FileDurability;
+import com.github.unidbg.file.linux.IOConstants;
+import com.github.unidbg.unix.UnixEmulator;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class SimpleFileIOTest extends TestCase {
+
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("simple", ".txt");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteQuietly(file);
+        super.tearDown();
+    }
+
+    private static class CountingFileIO extends SimpleFileIO {
+        int forced;
+        boolean fail;
+        CountingFileIO(File file, FileDurability durability) {
+            super(IOConstants.O_RDWR, file, "/data/simple.txt");
+            setDurability(durability);
+        }
+        @Override
+        void force() throws IOException {
+            if (fail) {
+                throw new IOException("force");
+            }
+            super.force();
+            forced++;
+        }
+    }
+
+    private static byte[] bytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public void testForceOnCloseOnlyWhenDirty() throws IOException {
+        CountingFileIO io = new CountingFileIO(file, FileDurability.CLOSE);
+        assertEquals(0, io.lseek(0, SimpleFileIO.SEEK_END));
+        io.close();
+        assertEquals(0, io.forced);
+
+        io = new CountingFileIO(file, FileDurability.CLOSE);
+        assertEquals(3, io.write(bytes("abc")));
+        assertEquals(3, io.write(bytes("def")));
+        assertEquals(0, io.forced);
+        io.close();
+        assertEquals(1, io.forced);
+        assertEquals("abcdef", FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+
+        io = new CountingFileIO(file, FileDurability.CLOSE);
+        assertEquals(0, io.lseek(0, SimpleFileIO.SEEK_SET));
+        assertEquals(0, io.ftruncate(2));
+        io.close();
+        assertEquals(1, io.forced);
+        assertEquals(2, file.length());
+    }
+
+    public void testFsync() {
+        CountingFileIO io = new CountingFileIO(file, FileDurability.CLOSE);
+        assertEquals(0, io.fsync());
+        assertEquals(0, io.forced);
+
+        io.write(bytes("abc"));
+        assertEquals(0, io.fsync());
+        assertEquals(1, io.forced);
+        io.close();
+        assertEquals(1, io.forced);
+
+        io = new CountingFileIO(file, FileDurability.CLOSE);
+        io.write(bytes("abc"));
+        io.fail = true;
+        assertEquals(-UnixEmulator.EIO, io.fsync());
+        io.close();
+    }
+
+    public void testDurability() {
+        CountingFileIO always = new CountingFileIO(file, FileDurability.ALWAYS);
+        always.write(bytes("a"));
+        always.write(bytes("b"));
+        assertEquals(2, always.forced);
+        always.close();
+        assertEquals(2, always.forced);
+
+        CountingFileIO none = new CountingFileIO(file, FileDurability.NONE);
+        none.write(bytes("c"));
+        assertEquals(0, none.fsync());
+        none.close();
+        assertEquals(0, none.forced);
+    }
+
+}
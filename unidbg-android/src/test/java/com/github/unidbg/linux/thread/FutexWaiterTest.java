@@ -0,0 +1,173 @@
+package com.github.unidbg.linux.thread;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import com.github.unidbg.pointer.UnidbgPointer;
+import com.github.unidbg.thread.ParkWaiter;
+import junit.framework.TestCase;
+import unicorn.UnicornConst;
+
+import java.util.concurrent.TimeUnit;
+
+public class FutexWaiterTest extends TestCase {
+
+    private static final int FUTEX_WAIT = 0;
+    private static final int FUTEX_WAKE = 1;
+    private static final int ETIMEDOUT = 110;
+
+    /**
+     * r0-r3 为参数调用 futex
+     */
+    private static final int[] FUTEX = new int[]{
+            0xe3a070f0, // mov r7, #240
+            0xef000000, // svc #0
+            0xe12fff1e, // bx lr
+    };
+
+    /**
+     * futex(thread, FUTEX_WAIT, 0, NULL) 以后 exit(r0)
+     */
+    private static final int[] WAIT_THEN_EXIT = new int[]{
+            0xe3a01000, // mov r1, #0
+            0xe3a02000, // mov r2, #0
+            0xe3a03000, // mov r3, #0
+            0xe3a070f0, // mov r7, #240
+            0xef000000, // svc #0
+            0xe3a07001, // mov r7, #1
+            0xef000000, // svc #0
+    };
+
+    private static final int[] EXIT = new int[]{
+            0xe3a00000, // mov r0, #0
+            0xe3a07001, // mov r7, #1
+            0xef000000, // svc #0
+    };
+
+    private AndroidEmulator emulator;
+    private UnidbgPointer code;
+    private UnidbgPointer data;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        emulator = AndroidEmulatorBuilder.for32Bit().setProcessName("futex").build();
+        emulator.getSyscallHandler().setEnableThreadDispatcher(true);
+        code = emulator.getMemory().mmap(emulator.getPageAlign(), UnicornConst.UC_PROT_ALL);
+        data = emulator.getMemory().mmap(emulator.getPageAlign(), UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+        code.write(0, FUTEX, 0, FUTEX.length);
+        code.write(0x20, WAIT_THEN_EXIT, 0, WAIT_THEN_EXIT.length);
+        code.write(0x40, EXIT, 0, EXIT.length);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        emulator.close();
+        super.tearDown();
+    }
+
+    private int futex(UnidbgPointer uaddr, int op, int val, UnidbgPointer timeout) {
+        return emulator.eFunc(code.peer, uaddr.toIntPeer(), op, val, timeout == null ? 0 : timeout.toIntPeer()).intValue();
+    }
+
+    private void addThread(int codeOffset, UnidbgPointer thread, UnidbgPointer tidptr, int tid) {
+        emulator.getThreadDispatcher().addThread(new MarshmallowThread(emulator, code.share(codeOffset, 0), thread, tidptr, tid));
+    }
+
+    public void testTimedWaitAndWakeCount() {
+        UnidbgPointer thread = data.share(0x100, 0x100);
+        addThread(0x20, thread, null, 101);
+        addThread(0x20, thread, null, 102);
+
+        UnidbgPointer timeout = data.share(0x10, 8);
+        timeout.setInt(0, 0);
+        timeout.setInt(4, (int) TimeUnit.MILLISECONDS.toNanos(5));
+        long start = System.nanoTime();
+        assertEquals(-ETIMEDOUT, futex(data, FUTEX_WAIT, 0, timeout));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(2, emulator.getThreadDispatcher().getTaskCount());
+
+        assertEquals(1, futex(thread, FUTEX_WAKE, 1, null));
+        assertEquals(1, emulator.getThreadDispatcher().getTaskCount());
+        assertEquals(1, futex(thread, FUTEX_WAKE, 5, null));
+        assertEquals(0, emulator.getThreadDispatcher().getTaskCount());
+    }
+
+    public void testClearChildTidWakesOnExit() {
+        UnidbgPointer tidptr = data.share(0x20, 4);
+        tidptr.setInt(0, 102);
+        addThread(0x40, data.share(0x100, 0x100), tidptr, 102);
+
+        assertEquals(0, futex(tidptr, FUTEX_WAIT, 102, null));
+        assertEquals(0, tidptr.getInt(0));
+    }
+
+    public void testAllTasksBlocked() {
+        try {
+            futex(data, FUTEX_WAIT, 0, null);
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("All tasks are blocked"));
+        }
+    }
+
+    public void testResetDequeuesWaiter() {
+        emulator.setResetPoint();
+        UnidbgPointer thread = data.share(0x100, 0x100);
+        UnidbgPointer timeout = data.share(0x10, 8);
+        timeout.setInt(0, 0);
+        timeout.setInt(4, (int) TimeUnit.MILLISECONDS.toNanos(1));
+
+        addThread(0x20, thread, null, 101);
+        assertEquals(-ETIMEDOUT, futex(data, FUTEX_WAIT, 0, timeout));
+        assertEquals(1, emulator.getThreadDispatcher().getTaskCount());
+        emulator.reset();
+        assertEquals(0, emulator.getThreadDispatcher().getTaskCount());
+
+        timeout.setInt(0, 0);
+        timeout.setInt(4, (int) TimeUnit.MILLISECONDS.toNanos(1));
+        addThread(0x20, thread, null, 102);
+        assertEquals(-ETIMEDOUT, futex(data, FUTEX_WAIT, 0, timeout));
+        assertEquals(1, emulator.getThreadDispatcher().getTaskCount());
+        assertEquals(1, futex(thread, FUTEX_WAKE, 1, null));
+        assertEquals(0, emulator.getThreadDispatcher().getTaskCount());
+    }
+
+    public void testWaitQueues() {
+        FutexWaitQueues queues = new FutexWaitQueues();
+        FutexWaiter first = new FutexIndefinitelyWaiter(data, 0);
+        FutexWaiter second = new FutexIndefinitelyWaiter(data, 0);
+        FutexWaiter third = new FutexTimedWaiter(data, 0, TimeUnit.SECONDS.toNanos(10));
+        FutexWaiter other = new FutexIndefinitelyWaiter(data.share(4), 0);
+        queues.park(first);
+        queues.park(second);
+        queues.park(third);
+        queues.park(other);
+
+        assertEquals(2, queues.wake(UnidbgPointer.pointer(emulator, data.peer), 2));
+        assertTrue(first.canDispatch());
+        assertTrue(second.canDispatch());
+        assertFalse(third.canDispatch());
+        assertFalse(other.canDispatch());
+
+        queues.remove(third);
+        assertEquals(0, queues.wake(data, Integer.MAX_VALUE));
+        assertEquals(1, queues.wake(data.share(4), Integer.MAX_VALUE));
+        assertTrue(other.isWokenUp());
+    }
+
+    public void testNanoSleepWaiter() throws InterruptedException {
+        ParkWaiter waiter = new NanoSleepWaiter(TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(waiter.isTimed());
+        assertFalse(waiter.canDispatch());
+        TimeUnit.MILLISECONDS.sleep(25);
+        assertTrue(waiter.canDispatch());
+        assertFalse(waiter.isWokenUp());
+
+        ParkWaiter indefinitely = new NanoSleepWaiter(-1);
+        assertFalse(indefinitely.isTimed());
+        assertFalse(indefinitely.canDispatch());
+        indefinitely.wakeUp();
+        assertTrue(indefinitely.canDispatch());
+    }
+
+}
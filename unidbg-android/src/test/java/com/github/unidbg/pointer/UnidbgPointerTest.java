@@ -0,0 +1,105 @@
+package com.github.unidbg.pointer;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import com.github.unidbg.memory.MemoryBlock;
+import com.github.unidbg.unix.struct.TimeVal32;
+import com.sun.jna.Pointer;
+import junit.framework.TestCase;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+public class UnidbgPointerTest extends TestCase {
+
+    public void testBulkMemory() throws Exception {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for32Bit().build();
+        try {
+            MemoryBlock block = emulator.getMemory().malloc(0x100, true);
+            UnidbgPointer pointer = block.getPointer();
+
+            pointer.write(0, new int[]{0, 1, 2, 3}, 1, 3);
+            assertTrue(Arrays.equals(new int[]{1, 2, 3}, pointer.getIntArray(0, 3)));
+            long[] longs = new long[3];
+            pointer.read(0, longs, 1, 1);
+            assertEquals(0x200000001L, longs[1]);
+
+            pointer.setLong(0x10, 0x1122334455667788L);
+            assertEquals(0x55667788, pointer.getInt(0x10));
+            assertEquals(0x1122334455667788L, emulator.getBackend().mem_read_u64(pointer.peer + 0x10));
+            pointer.setDouble(0x18, 1.5);
+            assertEquals(1.5, pointer.getDouble(0x18));
+
+            ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            pointer.read(0x10, buffer);
+            assertFalse(buffer.hasRemaining());
+            assertEquals(0x1122334455667788L, buffer.getLong(0));
+
+            TimeVal32 timeVal = new TimeVal32(pointer.share(0x20, 8));
+            timeVal.tv_sec = 7;
+            timeVal.tv_usec = 9;
+            timeVal.pack();
+            assertEquals(7, pointer.getInt(0x20));
+            assertEquals(9, pointer.getInt(0x24));
+
+            pointer.setInt(0x24, 11);
+            timeVal.unpack();
+            assertEquals(11, timeVal.tv_usec);
+
+            pointer.setInt(0x28, -2);
+            assertEquals(-2, pointer.getInt(0x28));
+            assertEquals(0xfffffffeL, pointer.getLong(0x28) & 0xffffffffL);
+            block.free();
+        } finally {
+            emulator.close();
+        }
+    }
+
+    public static class Entry extends UnidbgStructure {
+        public Entry(Pointer p) {
+            super(p);
+        }
+        public Pointer next;
+        public short[] flags = new short[3];
+        public char tag;
+        public long value;
+        @Override
+        protected List<String> getFieldOrder() {
+            return Arrays.asList("next", "flags", "tag", "value");
+        }
+    }
+
+    public void testBufferedStructure() throws Exception {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for32Bit().build();
+        try {
+            MemoryBlock block = emulator.getMemory().malloc(0x100, true);
+            UnidbgPointer pointer = block.getPointer();
+            pointer.setPointer(0, pointer.share(0x80));
+            pointer.write(4, new short[]{1, 2, 3}, 0, 3);
+            pointer.setLong(0x10, 0x1122334455667788L);
+
+            Entry entry = new Entry(pointer);
+            entry.unpack();
+            assertEquals(pointer.peer + 0x80, UnidbgPointer.nativeValue(entry.next));
+            assertTrue(Arrays.equals(new short[]{1, 2, 3}, entry.flags));
+            assertEquals(0x1122334455667788L, entry.value);
+
+            entry.next = null;
+            entry.flags[1] = 5;
+            entry.value = 7;
+            entry.pack();
+            assertEquals(0, pointer.getInt(0));
+            assertEquals(5, pointer.getShort(6));
+            assertEquals(7, pointer.getLong(0x10));
+
+            pointer.setInt(0x10, 9);
+            assertEquals(9, pointer.getInt(0x10));
+            block.free();
+        } finally {
+            emulator.close();
+        }
+    }
+
+}
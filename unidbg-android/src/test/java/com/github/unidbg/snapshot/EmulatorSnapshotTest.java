@@ -0,0 +1,184 @@
+package com.github.unidbg.snapshot;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.Emulator;
+import com.github.unidbg.file.FileIO;
+import com.github.unidbg.file.FileResult;
+import com.github.unidbg.file.IOResolver;
+import com.github.unidbg.file.linux.AndroidFileIO;
+import com.github.unidbg.file.linux.IOConstants;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import com.github.unidbg.linux.android.dvm.DvmObject;
+import com.github.unidbg.linux.android.dvm.VM;
+import com.github.unidbg.linux.file.ByteArrayFileIO;
+import com.github.unidbg.linux.file.SimpleFileIO;
+import com.github.unidbg.pointer.UnidbgPointer;
+import com.github.unidbg.spi.SyscallHandler;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+import unicorn.ArmConst;
+import unicorn.UnicornConst;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class EmulatorSnapshotTest extends TestCase {
+
+    private static final int F_GETFD = 1;
+    private static final int F_SETFD = 2;
+    private static final int FD_CLOEXEC = 1;
+
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("snapshot", ".txt");
+        FileUtils.writeStringToFile(file, "0123456789", StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteQuietly(file);
+        super.tearDown();
+    }
+
+    private AndroidEmulator createEmulator() {
+        AndroidEmulator emulator = AndroidEmulatorBuilder.for32Bit().setProcessName("snapshot").build();
+        emulator.getSyscallHandler().addIOResolver(new IOResolver<AndroidFileIO>() {
+            @Override
+            public FileResult<AndroidFileIO> resolve(Emulator<AndroidFileIO> emulator, String pathname, int oflags) {
+                if ("/data/snapshot.txt".equals(pathname)) {
+                    return FileResult.<AndroidFileIO>success(new SimpleFileIO(oflags, file, pathname));
+                }
+                if ("/data/other.txt".equals(pathname)) {
+                    return FileResult.<AndroidFileIO>success(new ByteArrayFileIO(oflags, pathname, new byte[16]));
+                }
+                return null;
+            }
+        });
+        emulator.createDalvikVM();
+        return emulator;
+    }
+
+    public void testRestore() throws IOException {
+        AndroidEmulator emulator = createEmulator();
+        try {
+            SyscallHandler<AndroidFileIO> syscallHandler = emulator.getSyscallHandler();
+            VM vm = emulator.getDalvikVM();
+            UnidbgPointer pointer = emulator.getMemory().mmap(emulator.getPageAlign(), UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+            pointer.setInt(0, 0x1234);
+            emulator.getBackend().reg_write(ArmConst.UC_ARM_REG_R4, 1);
+            int fd = syscallHandler.open(emulator, "/data/snapshot.txt", IOConstants.O_RDWR);
+            assertTrue(fd >= 0);
+            assertEquals(3, syscallHandler.getFileIO(fd).lseek(3, FileIO.SEEK_SET));
+            DvmObject<?> global = vm.resolveClass("java/lang/Object").newObject("global");
+            int globalRef = vm.addGlobalObject(global);
+
+            EmulatorSnapshot snapshot = emulator.snapshot();
+
+            pointer.setInt(0, 0x5678);
+            emulator.getBackend().reg_write(ArmConst.UC_ARM_REG_R4, 2);
+            FileIO io = syscallHandler.getFileIO(fd);
+            assertEquals(7, io.lseek(7, FileIO.SEEK_SET));
+            assertEquals(0, io.fcntl(emulator, F_SETFD, FD_CLOEXEC));
+            int other = syscallHandler.open(emulator, "/data/other.txt", IOConstants.O_RDONLY);
+            assertTrue(other > fd);
+            int addedRef = vm.addGlobalObject(vm.resolveClass("java/lang/Object").newObject("added"));
+            int localRef = vm.addLocalObject(vm.resolveClass("java/lang/Object").newObject("local"));
+
+            emulator.restore(snapshot);
+            assertEquals(0x1234, pointer.getInt(0));
+            assertEquals(1, emulator.getBackend().reg_read(ArmConst.UC_ARM_REG_R4).intValue());
+            assertSame(io, syscallHandler.getFileIO(fd));
+            assertEquals(3, io.lseek(0, FileIO.SEEK_CUR));
+            assertEquals(0, io.fcntl(emulator, F_GETFD, 0));
+            assertNull(syscallHandler.getFileIO(other));
+            assertSame(global, vm.getObject(globalRef));
+            assertNull(vm.getObject(addedRef));
+            assertNull(vm.getObject(localRef));
+        } finally {
+            emulator.close();
+        }
+    }
+
+    public void testFork() throws IOException {
+        AndroidEmulator emulator = createEmulator();
+        AndroidEmulator fork = createEmulator();
+        try {
+            UnidbgPointer pointer = emulator.getMemory().mmap(emulator.getPageAlign(), UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+            pointer.setInt(0, 0x1234);
+            emulator.getBackend().reg_write(ArmConst.UC_ARM_REG_R4, 1);
+            int fd = emulator.getSyscallHandler().open(emulator, "/data/snapshot.txt", IOConstants.O_RDWR);
+            FileIO io = emulator.getSyscallHandler().getFileIO(fd);
+            assertEquals(3, io.lseek(3, FileIO.SEEK_SET));
+            DvmObject<?> global = emulator.getDalvikVM().resolveClass("java/lang/Object").newObject("global");
+            int globalRef = emulator.getDalvikVM().addGlobalObject(global);
+
+            fork.restore(emulator.snapshot());
+
+            assertEquals(0x1234, UnidbgPointer.pointer(fork, pointer.peer).getInt(0));
+            assertEquals(1, fork.getBackend().reg_read(ArmConst.UC_ARM_REG_R4).intValue());
+            assertSame(global, fork.getDalvikVM().getObject(globalRef));
+            FileIO forked = fork.getSyscallHandler().getFileIO(fd);
+            assertNotSame(io, forked);
+            assertEquals(3, forked.lseek(0, FileIO.SEEK_CUR));
+            assertEquals(8, forked.lseek(8, FileIO.SEEK_SET));
+            assertEquals(3, io.lseek(0, FileIO.SEEK_CUR));
+        } finally {
+            fork.close();
+            emulator.close();
+        }
+    }
+
+    public void testCheckpoint() throws IOException {
+        AndroidEmulator emulator = createEmulator();
+        AndroidEmulator fresh = createEmulator();
+        File checkpoint = File.createTempFile("snapshot", ".udcp");
+        try {
+            UnidbgPointer pointer = emulator.getMemory().mmap(emulator.getPageAlign() * 2, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+            pointer.setInt(0, 0x1234);
+            pointer.setInt(emulator.getPageAlign() + 4, 0x5678);
+            emulator.getBackend().reg_write(ArmConst.UC_ARM_REG_R4, 1);
+            emulator.writeCheckpoint(checkpoint);
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            emulator.serialize(new DataOutputStream(baos));
+            assertTrue(Arrays.equals(baos.toByteArray(), FileUtils.readFileToByteArray(checkpoint)));
+
+            EmulatorSnapshot snapshot = fresh.readCheckpoint(checkpoint);
+            assertEquals(emulator.snapshot().getPageCount(), snapshot.getPageCount());
+            fresh.restore(snapshot);
+            UnidbgPointer restored = UnidbgPointer.pointer(fresh, pointer.peer);
+            assertNotNull(restored);
+            assertEquals(0x1234, restored.getInt(0));
+            assertEquals(0x5678, restored.getInt(emulator.getPageAlign() + 4));
+            assertEquals(0, restored.getInt(emulator.getPageAlign()));
+            assertEquals(1, fresh.getBackend().reg_read(ArmConst.UC_ARM_REG_R4).intValue());
+
+            restored.setInt(0, 0);
+            fresh.restore(fresh.snapshot());
+            fresh.restore(snapshot);
+            assertEquals(0x1234, restored.getInt(0));
+
+            byte[] data = FileUtils.readFileToByteArray(checkpoint);
+            data[0] ^= 1;
+            FileUtils.writeByteArrayToFile(checkpoint, data);
+            try {
+                fresh.readCheckpoint(checkpoint);
+                fail();
+            } catch (IOException e) {
+                assertTrue(e.getMessage().startsWith("Invalid checkpoint"));
+            }
+        } finally {
+            FileUtils.deleteQuietly(checkpoint);
+            fresh.close();
+            emulator.close();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package net.fornwall.jelf;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class SymbolAddressIndexTest extends TestCase {
+
+    public void testOverlap() {
+        SymbolAddressIndex index = new SymbolAddressIndex();
+        index.add(0x1000, 0x100, 0);
+        index.add(0x1080, 0x10, 1);
+        index.add(0x1000, 0x1000, 2);
+        index.add(0x3000, 0, 3);
+        index.add(0x3000, 0x10, 4);
+        index.build();
+
+        assertEquals(-1, index.find(0xfff));
+        assertEquals(0, index.find(0x1000));
+        assertEquals(0, index.find(0x1088));
+        assertEquals(2, index.find(0x1100));
+        assertEquals(2, index.find(0x1fff));
+        assertEquals(-1, index.find(0x2000));
+        assertEquals(4, index.find(0x3000));
+        assertEquals(-1, index.find(0x3010));
+    }
+
+    public void testEmpty() {
+        SymbolAddressIndex index = new SymbolAddressIndex().build();
+        assertEquals(-1, index.find(0));
+    }
+
+    /**
+     * 前面有一个很大的符号时，查找后面的地址不应该退化成线性扫描，结果和线性遍历一致
+     */
+    public void testMatchesLinearScan() {
+        Random random = new Random(0x1234);
+        int count = 2000;
+        long[] starts = new long[count];
+        long[] sizes = new long[count];
+        SymbolAddressIndex index = new SymbolAddressIndex();
+        starts[0] = 0;
+        sizes[0] = 0x100000;
+        index.add(starts[0], sizes[0], 0);
+        for (int i = 1; i < count; i++) {
+            starts[i] = random.nextInt(0x100000);
+            sizes[i] = random.nextInt(0x40);
+            index.add(starts[i], sizes[i], i);
+        }
+        index.build();
+
+        for (int n = 0; n < 10000; n++) {
+            long addr = random.nextInt(0x100100);
+            int expected = -1;
+            for (int i = 0; i < count; i++) {
+                if (sizes[i] > 0 && addr >= starts[i] && addr < starts[i] + sizes[i]) {
+                    expected = i;
+                    break;
+                }
+            }
+            assertEquals(expected, index.find(addr));
+        }
+
+        SymbolAddressIndex reversed = new SymbolAddressIndex();
+        for (int i = count - 1; i >= 0; i--) {
+            reversed.add(starts[i], sizes[i], i);
+        }
+        reversed.build();
+        for (int n = 0; n < 10000; n++) {
+            long addr = random.nextInt(0x100100);
+            int expected = -1;
+            for (int i = count - 1; i >= 0; i--) {
+                if (sizes[i] > 0 && addr >= starts[i] && addr < starts[i] + sizes[i]) {
+                    expected = i;
+                    break;
+                }
+            }
+            assertEquals(expected, reversed.find(addr));
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package com.github.unidbg;
 
 import com.alibaba.fastjson.util.IOUtils;
 import com.github.unidbg.arm.ARMSvcMemory;
+import com.github.unidbg.arm.InstructionCache;
 import com.github.unidbg.arm.backend.Backend;
 import com.github.unidbg.arm.backend.BackendFactory;
 import com.github.unidbg.arm.backend.ReadHook;
@@ -20,8 +21,12 @@ import com.github.unidbg.listener.TraceSystemMemoryWriteListener;
 import com.github.unidbg.listener.TraceWriteListener;
 import com.github.unidbg.memory.Memory;
 import com.github.unidbg.memory.SvcMemory;
-import com.github.unidbg.pointer.MemoryWriteListener;
+import com.github.unidbg.metrics.EmulatorMetrics;
+import com.github.unidbg.metrics.MBeans;
+import com.github.unidbg.pointer.TraceMemoryWriteListener;
 import com.github.unidbg.pointer.UnidbgPointer;
+import com.github.unidbg.snapshot.EmulatorSnapshot;
+import com.github.unidbg.snapshot.Snapshotable;
 import com.github.unidbg.spi.Dlfcn;
 import com.github.unidbg.thread.MainTask;
 import com.github.unidbg.thread.PopContextException;
@@ -37,6 +42,7 @@ import org.apache.commons.logging.LogFactory;
 import unicorn.Arm64Const;
 import unicorn.ArmConst;
 
+import javax.management.ObjectName;
 import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
@@ -45,8 +51,10 @@ import java.io.StringWriter;
 import java.lang.management.ManagementFactory;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 
@@ -55,7 +63,7 @@ import java.util.Stack;
  * Created by zhkl0228 on 2017/5/2.
  */
 
-public abstract class AbstractEmulator<T extends NewFileIO> implements Emulator<T>, MemoryWriteListener {
+public abstract class AbstractEmulator<T extends NewFileIO> implements Emulator<T>, TraceMemoryWriteListener {
 
     private static final Log log = LogFactory.getLog(AbstractEmulator.class);
 
@@ -244,6 +252,11 @@ public abstract class AbstractEmulator<T extends NewFileIO> implements Emulator<
         traceSystemMemoryWriteListener = listener;
     }
 
+    @Override
+    public boolean isTraceSystemWrite(long addr, long size) {
+        return traceSystemMemoryWrite && Math.max(addr, traceSystemMemoryWriteBegin) < Math.min(addr + size, traceSystemMemoryWriteEnd);
+    }
+
     @Override
     public void onSystemWrite(long addr, byte[] data) {
         if (!traceSystemMemoryWrite) {
@@ -299,6 +312,7 @@ public abstract class AbstractEmulator<T extends NewFileIO> implements Emulator<
     public TraceHook traceCode(long begin, long end, TraceCodeListener listener) {
         AssemblyCodeDumper hook = new AssemblyCodeDumper(this);
         hook.initialize(begin, end, listener);
+        backend.hook_add_new(hook.blockHook, begin, end, this);
         backend.hook_add_new(hook, begin, end, this);
         return hook;
     }
@@ -360,6 +374,8 @@ public abstract class AbstractEmulator<T extends NewFileIO> implements Emulator<
 
         final Pointer pointer = UnidbgPointer.pointer(this, begin);
         long start = 0;
+        final EmulatorMetrics metrics = this.metrics;
+        final long startNanos = metrics == null ? 0 : System.nanoTime();
         Thread exitHook = null;
         try {
             setContextEmulator(this);
@@ -406,6 +422,9 @@ public abstract class AbstractEmulator<T extends NewFileIO> implements Emulator<
                 Runtime.getRuntime().removeShutdownHook(exitHook);
             }
             running = false;
+            if (metrics != null) {
+                metrics.onEmulate(System.nanoTime() - startNanos);
+            }
 
             if (log.isDebugEnabled()) {
                 log.debug("emulate " + pointer + " finished sp=" + getStackPointer() + ", offset=" + (System.currentTimeMillis() - start) + "ms");
@@ -440,6 +459,8 @@ public abstract class AbstractEmulator<T extends NewFileIO> implements Emulator<
 
         try {
             IOUtils.close(debugger);
+            MBeans.unregister(metricsName);
+            instructionCache.clear();
 
             closeInternal();
 
@@ -451,6 +472,31 @@ public abstract class AbstractEmulator<T extends NewFileIO> implements Emulator<
 
     protected abstract void closeInternal();
 
+    protected EmulatorMetrics metrics;
+    private ObjectName metricsName;
+
+    @Override
+    public synchronized EmulatorMetrics enableMetrics() {
+        if (metrics == null) {
+            EmulatorMetrics metrics = new EmulatorMetrics();
+            metricsName = MBeans.register(metrics, "Emulator", getProcessName());
+            this.metrics = metrics;
+        }
+        return metrics;
+    }
+
+    @Override
+    public EmulatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    private final InstructionCache instructionCache = new InstructionCache(this);
+
+    @Override
+    public InstructionCache getInstructionCache() {
+        return instructionCache;
+    }
+
     @Override
     public Backend getBackend() {
         return backend;
@@ -488,11 +534,94 @@ public abstract class AbstractEmulator<T extends NewFileIO> implements Emulator<
 
     @Override
     public final void serialize(DataOutput out) throws IOException {
-        out.writeUTF(getClass().getName());
-        getMemory().serialize(out);
-        getSvcMemory().serialize(out);
-        getSyscallHandler().serialize(out);
-        getDlfcn().serialize(out);
+        snapshot().write(out, getSnapshotables());
+    }
+
+    /**
+     * 快照只在 android 上实现，由 AndroidEmulator 公开
+     */
+    protected void writeCheckpoint(File file) throws IOException {
+        snapshot().writeCheckpoint(file, getSnapshotables());
+    }
+
+    protected EmulatorSnapshot readCheckpoint(File file) throws IOException {
+        return EmulatorSnapshot.readCheckpoint(file, this, getSnapshotables());
+    }
+
+    private EmulatorSnapshot restoredSnapshot;
+
+    protected EmulatorSnapshot snapshot() {
+        if (running) {
+            throw new IllegalStateException("running");
+        }
+        if (threadDispatcher.getTaskCount() > 0) {
+            log.warn("snapshot with pending tasks, tasks are not included: count=" + threadDispatcher.getTaskCount());
+        }
+
+        EmulatorSnapshot snapshot = new EmulatorSnapshot(this, restoredSnapshot);
+        snapshot.captureRegisters(backend);
+        for (Snapshotable snapshotable : getSnapshotables()) {
+            snapshotable.snapshot(this, snapshot);
+        }
+        snapshot.freeze();
+        return snapshot;
+    }
+
+    protected void restore(EmulatorSnapshot snapshot) {
+        if (running) {
+            throw new IllegalStateException("running");
+        }
+        snapshot.checkCompatible(this);
+
+        for (Snapshotable snapshotable : getSnapshotables()) {
+            snapshotable.restore(this, snapshot);
+        }
+        snapshot.restoreRegisters(backend);
+        restoredSnapshot = snapshot;
+    }
+
+    private EmulatorSnapshot resetPoint;
+    private boolean trackDirty;
+
+    protected void setResetPoint() {
+        EmulatorSnapshot snapshot = snapshot();
+        resetPoint = snapshot;
+        restoredSnapshot = snapshot;
+        trackDirty = backend.mem_track_dirty();
+    }
+
+    protected void reset() {
+        if (resetPoint == null) {
+            throw new IllegalStateException("No reset point");
+        }
+        if (running) {
+            throw new IllegalStateException("running");
+        }
+        threadDispatcher.reset();
+
+        long[] dirtyPages = trackDirty ? backend.mem_dirty_pages() : null;
+        if (dirtyPages == null) {
+            restore(resetPoint);
+        } else {
+            restore(resetPoint.incremental(dirtyPages));
+            restoredSnapshot = resetPoint;
+            backend.mem_track_dirty();
+        }
+    }
+
+    protected List<Snapshotable> getSnapshotables() {
+        List<Snapshotable> list = new ArrayList<>(4);
+        list.add(toSnapshotable(getMemory()));
+        list.add(toSnapshotable(svcMemory));
+        list.add(toSnapshotable(getSyscallHandler()));
+        return list;
+    }
+
+    protected static Snapshotable toSnapshotable(Object obj) {
+        if (obj instanceof Snapshotable) {
+            return (Snapshotable) obj;
+        }
+        throw new UnsupportedOperationException("snapshot not supported: " + obj);
     }
 
     private static class Context {
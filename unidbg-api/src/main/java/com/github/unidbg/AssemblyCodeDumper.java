@@ -1,17 +1,22 @@
 package com.github.unidbg;
 
 import capstone.api.Instruction;
-import capstone.api.RegsAccess;
 import com.alibaba.fastjson.util.IOUtils;
-import com.github.unidbg.arm.InstructionVisitor;
+import com.github.unidbg.arm.ARM;
+import com.github.unidbg.arm.CodeBlock;
 import com.github.unidbg.arm.backend.Backend;
 import com.github.unidbg.arm.backend.BackendException;
+import com.github.unidbg.arm.backend.BlockHook;
 import com.github.unidbg.arm.backend.CodeHook;
 import com.github.unidbg.arm.backend.UnHook;
 import com.github.unidbg.listener.TraceCodeListener;
 
 import java.io.PrintStream;
-import java.util.Arrays;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 
 /**
  * my code hook
@@ -39,22 +44,21 @@ public class AssemblyCodeDumper implements CodeHook, TraceHook {
         this.listener = listener;
     }
 
-    private UnHook unHook;
+    private final List<UnHook> unHooks = new ArrayList<>(2);
 
     @Override
     public void onAttach(UnHook unHook) {
-        if (this.unHook != null) {
-            throw new IllegalStateException();
-        }
-        this.unHook = unHook;
+        unHooks.add(unHook);
     }
 
     @Override
     public void detach() {
-        if (unHook != null) {
+        for (UnHook unHook : unHooks) {
             unHook.unhook();
-            unHook = null;
         }
+        unHooks.clear();
+        block = null;
+        closeWriter();
     }
 
     @Override
@@ -72,46 +76,105 @@ public class AssemblyCodeDumper implements CodeHook, TraceHook {
 
     @Override
     public void setRedirect(PrintStream redirect) {
+        closeWriter();
         this.redirect = redirect;
     }
 
-    private RegAccessPrinter lastInstructionWritePrinter;
+    private TraceWriter writer;
+
+    private TraceWriter writer() {
+        if (writer == null) {
+            writer = new TraceWriter(redirect == null ? System.err : redirect);
+        }
+        return writer;
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private CodeBlock block;
+
+    /**
+     * 进入基本块时整块反汇编一次，块内每条指令直接取缓存的结果
+     */
+    final BlockHook blockHook = new BlockHook() {
+        @Override
+        public void hookBlock(Backend backend, long address, int size, Object user) {
+            block = size > 0 ? emulator.getInstructionCache().getBlock(address, size, isThumb(backend)) : null;
+        }
+        @Override
+        public void onAttach(UnHook unHook) {
+            AssemblyCodeDumper.this.onAttach(unHook);
+        }
+        @Override
+        public void detach() {
+            AssemblyCodeDumper.this.detach();
+        }
+    };
+
+    private boolean isThumb(Backend backend) {
+        return emulator.is32Bit() && ARM.isThumb(backend);
+    }
+
+    private final DateFormat dateFormat = new SimpleDateFormat("[HH:mm:ss SSS]");
+    private long lastMillis = -1;
+    private String lastDate;
+
+    private String currentDate() {
+        long millis = System.currentTimeMillis();
+        if (millis != lastMillis) {
+            lastMillis = millis;
+            lastDate = dateFormat.format(new Date(millis));
+        }
+        return lastDate;
+    }
+
+    private Instruction lastInstruction;
+    private short[] lastWriteRegs;
+    private long lastNextAddress;
 
     @Override
     public void hook(final Backend backend, final long address, final int size, Object user) {
         if (canTrace(address)) {
             try {
-                PrintStream out = System.err;
-                if (redirect != null) {
-                    out = redirect;
+                CodeBlock block = this.block;
+                int index = block == null ? -1 : block.indexOf(address);
+                if (index == -1) { // 块的起点不在 trace 范围内，或者后端没有给出块大小
+                    block = emulator.getInstructionCache().getInstruction(address, size, isThumb(backend));
+                    index = block.indexOf(address);
                 }
-                Instruction[] insns = emulator.printAssemble(out, address, size, new InstructionVisitor() {
-                    @Override
-                    public void visitLast(StringBuilder builder) {
-                        if (lastInstructionWritePrinter != null) {
-                            lastInstructionWritePrinter.print(emulator, backend, builder, address);
-                        }
-                    }
-                    @Override
-                    public void visit(StringBuilder builder, Instruction ins) {
-                        RegsAccess regsAccess = ins.regsAccess();
-                        if (regsAccess != null) {
-                            short[] regsRead = regsAccess.getRegsRead();
-                            RegAccessPrinter readPrinter = new RegAccessPrinter(address, ins, regsRead, false);
-                            readPrinter.print(emulator, backend, builder, address);
-
-                            short[] regWrite = regsAccess.getRegsWrite();
-                            if (regWrite.length > 0) {
-                                lastInstructionWritePrinter = new RegAccessPrinter(address + size, ins, regWrite, true);
-                            }
-                        }
+                if (index == -1) {
+                    if (listener != null) {
+                        throw new IllegalStateException("insns=[]");
                     }
-                });
+                    return;
+                }
+
+                Instruction ins = block.getInstruction(index);
+                StringBuilder builder = new StringBuilder();
+                if (lastWriteRegs != null && lastNextAddress == address) {
+                    RegAccessPrinter.print(emulator, backend, builder, lastInstruction, lastWriteRegs, true);
+                    lastWriteRegs = null;
+                }
+                builder.append('\n');
+                builder.append(currentDate()).append(" Trace Instruction ");
+                builder.append(block.getDetail(emulator, index));
+                RegAccessPrinter.print(emulator, backend, builder, ins, block.getRegsRead(index), false);
+
+                short[] regsWrite = block.getRegsWrite(index);
+                if (regsWrite.length > 0) {
+                    lastInstruction = ins;
+                    lastWriteRegs = regsWrite;
+                    lastNextAddress = address + size;
+                }
+                writer().print(builder);
+
                 if (listener != null) {
-                    if (insns == null || insns.length != 1) {
-                        throw new IllegalStateException("insns=" + Arrays.toString(insns));
-                    }
-                    listener.onInstruction(emulator, address, insns[0]);
+                    listener.onInstruction(emulator, address, ins);
                 }
             } catch (BackendException e) {
                 throw new IllegalStateException(e);
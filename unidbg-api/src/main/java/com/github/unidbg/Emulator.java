@@ -1,5 +1,6 @@
 package com.github.unidbg;
 
+import com.github.unidbg.arm.InstructionCache;
 import com.github.unidbg.arm.backend.Backend;
 import com.github.unidbg.arm.context.RegisterContext;
 import com.github.unidbg.debugger.Debugger;
@@ -12,6 +13,7 @@ import com.github.unidbg.listener.TraceSystemMemoryWriteListener;
 import com.github.unidbg.listener.TraceWriteListener;
 import com.github.unidbg.memory.Memory;
 import com.github.unidbg.memory.SvcMemory;
+import com.github.unidbg.metrics.EmulatorMetrics;
 import com.github.unidbg.serialize.Serializable;
 import com.github.unidbg.spi.ArmDisassembler;
 import com.github.unidbg.spi.Dlfcn;
@@ -131,4 +133,19 @@ public interface Emulator<T extends NewFileIO> extends Closeable, ArmDisassemble
 
     long getReturnAddress();
 
+    /**
+     * 开启系统调用、svc、JNI、执行耗时等统计，并以 {@link com.github.unidbg.metrics.EmulatorMetricsMXBean} 注册到 JMX，关闭时注销
+     */
+    EmulatorMetrics enableMetrics();
+
+    /**
+     * @return 未开启时返回 <code>null</code>
+     */
+    EmulatorMetrics getMetrics();
+
+    /**
+     * trace 使用的基本块反汇编缓存
+     */
+    InstructionCache getInstructionCache();
+
 }
@@ -81,6 +81,14 @@ public abstract class Module {
         return --referenceCount;
     }
 
+    public int getReferenceCount() {
+        return referenceCount;
+    }
+
+    public void setReferenceCount(int referenceCount) {
+        this.referenceCount = referenceCount;
+    }
+
     private boolean forceCallInit;
 
     public boolean isForceCallInit() {
@@ -10,22 +10,7 @@ import java.util.Locale;
 
 final class RegAccessPrinter {
 
-    private final long address;
-    private final Instruction instruction;
-    private final short[] accessRegs;
-    private boolean forWriteRegs;
-
-    public RegAccessPrinter(long address, Instruction instruction, short[] accessRegs, boolean forWriteRegs) {
-        this.address = address;
-        this.instruction = instruction;
-        this.accessRegs = accessRegs;
-        this.forWriteRegs = forWriteRegs;
-    }
-
-    public void print(Emulator<?> emulator, Backend backend, StringBuilder builder, long address) {
-        if (this.address != address) {
-            return;
-        }
+    static void print(Emulator<?> emulator, Backend backend, StringBuilder builder, Instruction instruction, short[] accessRegs, boolean forWriteRegs) {
         for (short reg : accessRegs) {
             if (emulator.is32Bit()) {
                 if ((reg >= Arm_const.ARM_REG_R0 && reg <= Arm_const.ARM_REG_R12) ||
@@ -53,6 +53,7 @@ public class TraceMemoryHook implements ReadHook, WriteHook, TraceHook {
             unHook.unhook();
             unHook = null;
         }
+        closeWriter();
     }
 
     @Override
@@ -64,9 +65,26 @@ public class TraceMemoryHook implements ReadHook, WriteHook, TraceHook {
 
     @Override
     public void setRedirect(PrintStream redirect) {
+        closeWriter();
         this.redirect = redirect;
     }
 
+    private TraceWriter writer;
+
+    private TraceWriter writer() {
+        if (writer == null) {
+            writer = new TraceWriter(redirect == null ? System.out : redirect);
+        }
+        return writer;
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
     @Override
     public void hook(Backend backend, long address, int size, Object user) {
         if (!read) {
@@ -96,14 +114,10 @@ public class TraceMemoryHook implements ReadHook, WriteHook, TraceHook {
         RegisterContext context = emulator.getContext();
         UnidbgPointer pc = context.getPCPointer();
         UnidbgPointer lr = context.getLRPointer();
-        PrintStream out = System.out;
-        if (redirect != null) {
-            out = redirect;
-        }
         String sb = type + Long.toHexString(address) + ", data size = " + size + ", data value = " + value +
                 " pc=" + pc +
-                " lr=" + lr;
-        out.println(sb);
+                " lr=" + lr + System.lineSeparator();
+        writer().print(sb);
     }
 
     @Override
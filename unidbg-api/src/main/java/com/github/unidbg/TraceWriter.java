@@ -0,0 +1,144 @@
+package com.github.unidbg;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步写 trace：模拟线程只把文本放进有界队列，后台线程批量写入 <code>PrintStream</code>。
+ * 队列满时写入方阻塞；后台线程空闲一段时间后退出，有新输出时再启动，所以进程退出前不会丢输出。
+ * 和同一个流上的其它同步输出之间顺序不保证
+ */
+public class TraceWriter implements Runnable, Flushable, Closeable {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long IDLE_MILLIS = 500;
+
+    private final PrintStream out;
+    private final BlockingQueue<CharSequence> queue;
+    private final long idleMillis;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private long written;
+
+    private volatile Thread thread;
+    private volatile boolean closed;
+
+    public TraceWriter(PrintStream out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+
+    public TraceWriter(PrintStream out, int capacity) {
+        this(out, capacity, IDLE_MILLIS);
+    }
+
+    TraceWriter(PrintStream out, int capacity, long idleMillis) {
+        this.out = out;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.idleMillis = idleMillis;
+    }
+
+    public void print(CharSequence text) {
+        if (closed) {
+            throw new IllegalStateException("Trace writer closed");
+        }
+        try {
+            queue.put(text);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        submitted.incrementAndGet();
+        if (thread == null) {
+            startIfIdle();
+        }
+    }
+
+    synchronized boolean isRunning() {
+        return thread != null;
+    }
+
+    private synchronized void startIfIdle() {
+        if (thread == null && !queue.isEmpty()) {
+            Thread thread = new Thread(this, "unidbg-trace-writer");
+            this.thread = thread;
+            thread.start();
+        }
+    }
+
+    @Override
+    public void run() {
+        List<CharSequence> batch = new ArrayList<>();
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            CharSequence text;
+            try {
+                text = queue.poll(idleMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                text = null;
+            }
+            if (text == null) {
+                boolean idle;
+                synchronized (this) {
+                    idle = queue.isEmpty();
+                    if (idle) {
+                        thread = null;
+                    }
+                }
+                if (idle) {
+                    // print() 可能在 isEmpty 之后放入，却还看到旧的 thread 没有启动新线程
+                    startIfIdle();
+                    return;
+                }
+                continue;
+            }
+
+            batch.add(text);
+            queue.drainTo(batch);
+            for (CharSequence cs : batch) {
+                builder.append(cs);
+            }
+            out.print(builder);
+            out.flush();
+            builder.setLength(0);
+
+            synchronized (this) {
+                written += batch.size();
+                notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * 等待已提交的输出全部写入
+     */
+    @Override
+    public synchronized void flush() {
+        long target = submitted.get();
+        while (written < target) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 写完已提交的输出，不关闭下层的流
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+    }
+
+}
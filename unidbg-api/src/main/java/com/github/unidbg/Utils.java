@@ -86,6 +86,8 @@ public class Utils {
         }
     }
 
+    private static final int READ_CHUNK_SIZE = 0x40000;
+
     public static int readFile(RandomAccessFile randomAccessFile, Pointer buffer, final int _count) {
         try {
             int count = _count;
@@ -107,7 +109,7 @@ public class Utils {
             }
 
             int total = 0;
-            byte[] buf = new byte[Math.min(0x1000, count)];
+            byte[] buf = new byte[Math.min(READ_CHUNK_SIZE, count)]; // 大块读取，减少写入模拟器内存的次数
             Pointer pointer = buffer;
             while (total < count) {
                 int read = randomAccessFile.read(buf, 0, Math.min(buf.length, count - total));
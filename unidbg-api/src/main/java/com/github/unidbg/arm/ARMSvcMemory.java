@@ -6,21 +6,26 @@ import com.github.unidbg.arm.backend.Backend;
 import com.github.unidbg.memory.MemRegion;
 import com.github.unidbg.memory.SvcMemory;
 import com.github.unidbg.pointer.UnidbgPointer;
+import com.github.unidbg.snapshot.EmulatorSnapshot;
+import com.github.unidbg.snapshot.Snapshotable;
 import com.github.unidbg.spi.SyscallHandler;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import unicorn.UnicornConst;
 
+import java.io.DataInput;
 import java.io.DataOutput;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
-public class ARMSvcMemory implements SvcMemory {
+public class ARMSvcMemory implements SvcMemory, Snapshotable {
 
     private static final Log log = LogFactory.getLog(ARMSvcMemory.class);
 
@@ -41,8 +46,8 @@ public class ARMSvcMemory implements SvcMemory {
     }
 
     @Override
-    public void serialize(DataOutput out) {
-        throw new UnsupportedOperationException();
+    public void serialize(DataOutput out) throws IOException {
+        new SvcMemoryState(this).write(out);
     }
 
     private final long baseAddr;
@@ -80,13 +85,17 @@ public class ARMSvcMemory implements SvcMemory {
         if (log.isDebugEnabled()) {
             log.debug("allocate size=" + size + ", label=" + label + ", base=" + base);
         }
-        memRegions.add(new MemRegion(pointer.peer, pointer.peer + size, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_EXEC, null, 0) {
+        memRegions.add(createRegion(pointer.peer, pointer.peer + size, label));
+        return pointer;
+    }
+
+    private static MemRegion createRegion(long begin, long end, final String label) {
+        return new MemRegion(begin, end, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_EXEC, null, 0) {
             @Override
             public String getName() {
                 return label;
             }
-        });
-        return pointer;
+        };
     }
 
     private final Map<String, UnidbgPointer> symbolMap = new HashMap<>();
@@ -147,6 +156,129 @@ public class ARMSvcMemory implements SvcMemory {
         return svc.onRegister(this, number);
     }
 
+    private static final String SNAPSHOT_KEY = ARMSvcMemory.class.getName();
+
+    private static class SvcMemoryState {
+        final long base;
+        final List<MemRegion> memRegions;
+        final Map<String, UnidbgPointer> symbolMap;
+        final int thumbSvcNumber;
+        final int armSvcNumber;
+        final Map<Integer, String> svcClassMap = new HashMap<>();
+        SvcMemoryState(ARMSvcMemory svcMemory) {
+            this.base = svcMemory.base.peer;
+            this.memRegions = new ArrayList<>(svcMemory.memRegions);
+            this.symbolMap = new HashMap<>(svcMemory.symbolMap);
+            this.thumbSvcNumber = svcMemory.thumbSvcNumber;
+            this.armSvcNumber = svcMemory.armSvcNumber;
+            for (Map.Entry<Integer, Svc> entry : svcMemory.svcMap.entrySet()) {
+                svcClassMap.put(entry.getKey(), entry.getValue().getClass().getName());
+            }
+        }
+        SvcMemoryState(Emulator<?> emulator, DataInput in) throws IOException {
+            this.base = in.readLong();
+            int count = in.readInt();
+            this.memRegions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long begin = in.readLong();
+                long end = in.readLong();
+                byte[] label = new byte[in.readInt()];
+                in.readFully(label);
+                memRegions.add(createRegion(begin, end, new String(label, StandardCharsets.UTF_8)));
+            }
+            count = in.readInt();
+            this.symbolMap = new HashMap<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                UnidbgPointer pointer = UnidbgPointer.pointer(emulator, in.readLong());
+                assert pointer != null;
+                symbolMap.put(name, pointer.setSize(in.readLong()));
+            }
+            this.thumbSvcNumber = in.readInt();
+            this.armSvcNumber = in.readInt();
+            count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                svcClassMap.put(in.readInt(), in.readUTF());
+            }
+        }
+        void write(DataOutput out) throws IOException {
+            out.writeLong(base);
+            out.writeInt(memRegions.size());
+            for (MemRegion region : memRegions) {
+                out.writeLong(region.begin);
+                out.writeLong(region.end);
+                byte[] label = region.getName().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(label.length);
+                out.write(label);
+            }
+            out.writeInt(symbolMap.size());
+            for (Map.Entry<String, UnidbgPointer> entry : symbolMap.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().peer);
+                out.writeLong(entry.getValue().getSize());
+            }
+            out.writeInt(thumbSvcNumber);
+            out.writeInt(armSvcNumber);
+            out.writeInt(svcClassMap.size());
+            for (Map.Entry<Integer, String> entry : svcClassMap.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void writeState(EmulatorSnapshot snapshot, DataOutput out) throws IOException {
+        SvcMemoryState state = snapshot.get(SNAPSHOT_KEY);
+        state.write(out);
+    }
+
+    @Override
+    public void readState(Emulator<?> emulator, EmulatorSnapshot snapshot, DataInput in) throws IOException {
+        snapshot.put(SNAPSHOT_KEY, new SvcMemoryState(emulator, in));
+    }
+
+    @Override
+    public void snapshot(Emulator<?> emulator, EmulatorSnapshot snapshot) {
+        snapshot.put(SNAPSHOT_KEY, new SvcMemoryState(this));
+        snapshot.capturePages(emulator.getBackend(), baseAddr, size);
+    }
+
+    /**
+     * 快照中的 svc 必须已经以相同的顺序注册到本实例，之后注册的 svc 会被移除
+     */
+    @Override
+    public void restore(Emulator<?> emulator, EmulatorSnapshot snapshot) {
+        SvcMemoryState state = snapshot.get(SNAPSHOT_KEY);
+        for (Map.Entry<Integer, String> entry : state.svcClassMap.entrySet()) {
+            Svc svc = svcMap.get(entry.getKey());
+            if (svc == null || !entry.getValue().equals(svc.getClass().getName())) {
+                throw new IllegalStateException("svc not registered: number=0x" + Integer.toHexString(entry.getKey()) + ", class=" + entry.getValue() + ", svc=" + svc);
+            }
+        }
+        for (Iterator<Integer> iterator = svcMap.keySet().iterator(); iterator.hasNext(); ) {
+            if (!state.svcClassMap.containsKey(iterator.next())) {
+                iterator.remove();
+            }
+        }
+        this.thumbSvcNumber = state.thumbSvcNumber;
+        this.armSvcNumber = state.armSvcNumber;
+
+        this.base = UnidbgPointer.pointer(emulator, state.base);
+        assert this.base != null;
+        this.base.setSize(baseAddr + size - state.base);
+        memRegions.clear();
+        memRegions.addAll(state.memRegions);
+        symbolMap.clear();
+        for (Map.Entry<String, UnidbgPointer> entry : state.symbolMap.entrySet()) {
+            UnidbgPointer ptr = entry.getValue();
+            UnidbgPointer pointer = UnidbgPointer.pointer(emulator, ptr.peer);
+            assert pointer != null;
+            symbolMap.put(entry.getKey(), pointer.setSize(ptr.getSize()));
+        }
+        snapshot.restorePages(emulator.getBackend(), baseAddr, size, false);
+    }
+
     @Override
     public final UnidbgPointer writeStackString(String str) {
         byte[] data = str.getBytes(StandardCharsets.UTF_8);
@@ -0,0 +1,131 @@
+package com.github.unidbg.arm;
+
+import capstone.api.Instruction;
+import capstone.api.RegsAccess;
+import com.github.unidbg.Emulator;
+import com.github.unidbg.memory.Memory;
+
+import java.util.Arrays;
+
+/**
+ * 一次反汇编得到的基本块，由 {@link InstructionCache} 按地址和指令集缓存
+ */
+public final class CodeBlock {
+
+    private static final short[] EMPTY_REGS = new short[0];
+
+    private final long address;
+    final byte[] code;
+    private final boolean thumb;
+    private final Instruction[] instructions;
+
+    private final short[][] regsRead;
+    private final short[][] regsWrite;
+    private final String[] details;
+    private int detailNameLength = -1;
+    private long detailMaxSize = -1;
+
+    private int cursor;
+
+    CodeBlock(long address, byte[] code, boolean thumb, Instruction[] instructions) {
+        this.address = address;
+        this.code = code;
+        this.thumb = thumb;
+        this.instructions = instructions;
+        this.regsRead = new short[instructions.length][];
+        this.regsWrite = new short[instructions.length][];
+        this.details = new String[instructions.length];
+    }
+
+    public long getAddress() {
+        return address;
+    }
+
+    public int getSize() {
+        return code.length;
+    }
+
+    public boolean isThumb() {
+        return thumb;
+    }
+
+    public int getInstructionCount() {
+        return instructions.length;
+    }
+
+    public Instruction getInstruction(int index) {
+        return instructions[index];
+    }
+
+    /**
+     * @return 块内最后一条指令，反汇编失败时返回 <code>null</code>
+     */
+    public Instruction getLastInstruction() {
+        return instructions.length == 0 ? null : instructions[instructions.length - 1];
+    }
+
+    /**
+     * 块内指令按顺序执行，从上次命中的位置往后找
+     * @return 指令下标，不在块内返回 -1
+     */
+    public int indexOf(long address) {
+        if (address < this.address || address >= this.address + code.length) {
+            return -1;
+        }
+        for (int i = cursor; i < instructions.length; i++) {
+            if (instructions[i].getAddress() == address) {
+                cursor = i;
+                return i;
+            }
+        }
+        for (int i = 0; i < cursor; i++) {
+            if (instructions[i].getAddress() == address) {
+                cursor = i;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public short[] getRegsRead(int index) {
+        short[] regs = regsRead[index];
+        if (regs == null) {
+            RegsAccess regsAccess = instructions[index].regsAccess();
+            regs = regsAccess == null ? EMPTY_REGS : regsAccess.getRegsRead();
+            regsRead[index] = regs;
+        }
+        return regs;
+    }
+
+    public short[] getRegsWrite(int index) {
+        short[] regs = regsWrite[index];
+        if (regs == null) {
+            RegsAccess regsAccess = instructions[index].regsAccess();
+            regs = regsAccess == null ? EMPTY_REGS : regsAccess.getRegsWrite();
+            regsWrite[index] = regs;
+        }
+        return regs;
+    }
+
+    /**
+     * {@link ARM#assembleDetail(Emulator, Instruction, long, boolean)} 的结果，加载新模块后对齐宽度会变，需要重新生成
+     */
+    public String getDetail(Emulator<?> emulator, int index) {
+        Memory memory = emulator.getMemory();
+        String maxLengthSoName = memory.getMaxLengthLibraryName();
+        int nameLength = maxLengthSoName == null ? -1 : maxLengthSoName.length();
+        long maxSize = memory.getMaxSizeOfLibrary();
+        if (nameLength != detailNameLength || maxSize != detailMaxSize) {
+            Arrays.fill(details, null);
+            detailNameLength = nameLength;
+            detailMaxSize = maxSize;
+        }
+        String detail = details[index];
+        if (detail == null) {
+            detail = ARM.assembleDetail(emulator, instructions[index], instructions[index].getAddress(), thumb);
+            details[index] = detail;
+        }
+        return detail;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.github.unidbg.arm;
+
+import capstone.api.Instruction;
+import com.github.unidbg.Emulator;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按地址和指令集缓存反汇编结果，trace 时每个基本块只反汇编一次。
+ * 命中时比较块的字节，代码页被改写（自修改代码、重新映射）后自动重新反汇编；munmap 时清除对应范围
+ */
+public class InstructionCache {
+
+    private static final int MAX_BLOCKS = 0x10000;
+
+    private final Emulator<?> emulator;
+
+    private final Map<Long, CodeBlock> blocks = createCache();
+
+    /**
+     * 后端没有给出块大小时（unicorn 同时有 code hook 时块大小可能为 0）按单条指令缓存，和基本块分开存放
+     */
+    private final Map<Long, CodeBlock> instructions = createCache();
+
+    private static Map<Long, CodeBlock> createCache() {
+        return new LinkedHashMap<Long, CodeBlock>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CodeBlock> eldest) {
+                return size() > MAX_BLOCKS;
+            }
+        };
+    }
+
+    public InstructionCache(Emulator<?> emulator) {
+        this.emulator = emulator;
+    }
+
+    /**
+     * @param thumb arm64 时为 <code>false</code>
+     */
+    public CodeBlock getBlock(long address, int size, boolean thumb) {
+        return lookup(blocks, address, size, thumb);
+    }
+
+    /**
+     * @return 只包含一条指令的块
+     */
+    public CodeBlock getInstruction(long address, int size, boolean thumb) {
+        return lookup(instructions, address, size, thumb);
+    }
+
+    private CodeBlock lookup(Map<Long, CodeBlock> cache, long address, int size, boolean thumb) {
+        byte[] code = emulator.getBackend().mem_read(address, size);
+        Long key = thumb ? address | 1 : address;
+        CodeBlock block = cache.get(key);
+        if (block != null && Arrays.equals(block.code, code)) {
+            return block;
+        }
+        Instruction[] insns = emulator.disassemble(address, code, thumb, 0);
+        block = new CodeBlock(address, code, thumb, insns == null ? new Instruction[0] : insns);
+        cache.put(key, block);
+        return block;
+    }
+
+    public void invalidate(long address, long size) {
+        invalidate(blocks, address, size);
+        invalidate(instructions, address, size);
+    }
+
+    private static void invalidate(Map<Long, CodeBlock> cache, long address, long size) {
+        if (cache.isEmpty()) {
+            return;
+        }
+        long end = address + size;
+        for (Iterator<CodeBlock> iterator = cache.values().iterator(); iterator.hasNext(); ) {
+            CodeBlock block = iterator.next();
+            if (block.getAddress() < end && block.getAddress() + block.getSize() > address) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        blocks.clear();
+        instructions.clear();
+    }
+
+}
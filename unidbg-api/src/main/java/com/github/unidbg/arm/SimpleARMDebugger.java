@@ -6,6 +6,8 @@ import com.github.unidbg.Module;
 import com.github.unidbg.Utils;
 import com.github.unidbg.arm.backend.Backend;
 import com.github.unidbg.arm.backend.BackendException;
+import com.github.unidbg.arm.backend.BlockHook;
+import com.github.unidbg.arm.backend.CodeHook;
 import com.github.unidbg.debugger.DebugRunnable;
 import com.github.unidbg.debugger.Debugger;
 import com.github.unidbg.debugger.FunctionCallListener;
@@ -34,7 +36,8 @@ class SimpleARMDebugger extends AbstractARMDebugger implements Debugger {
         TraceFunctionCall hook = new TraceFunctionCall32(emulator, listener);
         long begin = module == null ? 1 : module.base;
         long end = module == null ? 0 : module.base + module.size;
-        backend.hook_add_new(hook, begin, end, emulator);
+        backend.hook_add_new((BlockHook) hook, begin, end, emulator);
+        backend.hook_add_new((CodeHook) hook, begin, end, emulator);
     }
 
     @Override
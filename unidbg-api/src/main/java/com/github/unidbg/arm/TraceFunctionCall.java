@@ -4,6 +4,7 @@ import capstone.api.Instruction;
 import com.github.unidbg.Emulator;
 import com.github.unidbg.arm.backend.Backend;
 import com.github.unidbg.arm.backend.BackendException;
+import com.github.unidbg.arm.backend.BlockHook;
 import com.github.unidbg.arm.backend.CodeHook;
 import com.github.unidbg.arm.backend.UnHook;
 import com.github.unidbg.debugger.FunctionCallListener;
@@ -13,9 +14,11 @@ import org.apache.commons.collections4.bag.HashBag;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
 
-public abstract class TraceFunctionCall implements CodeHook {
+public abstract class TraceFunctionCall implements CodeHook, BlockHook {
 
     private static final Log log = LogFactory.getLog(TraceFunctionCall.class);
 
@@ -49,6 +52,29 @@ public abstract class TraceFunctionCall implements CodeHook {
         listener.onCall(emulator, callerAddress, functionAddress);
     }
 
+    private Instruction callInstruction;
+    private boolean blockUnknown;
+
+    /**
+     * 调用指令总是基本块的最后一条：进入基本块时整块反汇编一次（有缓存），只记下末尾的调用指令
+     */
+    @Override
+    public void hookBlock(Backend backend, long address, int size, Object user) {
+        callInstruction = null;
+        blockUnknown = size <= 0;
+        if (!blockUnknown) {
+            try {
+                boolean thumb = emulator.is32Bit() && ARM.isThumb(backend);
+                checkCall(emulator.getInstructionCache().getBlock(address, size, thumb).getLastInstruction(), thumb);
+            } catch (BackendException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 执行到调用指令时参数寄存器才确定，这里只比较地址；后端没有给出块大小时才逐条检查
+     */
     @Override
     public void hook(Backend backend, long address, int size, Object user) {
         if (bag.remove(address)) {
@@ -59,58 +85,68 @@ public abstract class TraceFunctionCall implements CodeHook {
                 listener.postCall(emulator, functionCall.callerAddress, functionCall.functionAddress, functionCall.args);
             }
         }
-        try {
-            Instruction instruction = disassemble(address, size);
-            if (instruction != null) {
-                if (log.isDebugEnabled()) {
-                    if (!instruction.getMnemonic().startsWith("bl")) {
-                        log.warn(Inspector.inspectString(backend.mem_read(address, size), "Invalid " + instruction + ": thumb=" + ARM.isThumb(backend)));
-                    }
-                }
-                onInstruction(instruction);
-            } else if (log.isDebugEnabled()) {
-                Instruction[] instructions = emulator.disassemble(address, size, 1);
-                if (instructions.length != 1) {
-                    return;
+        if (blockUnknown) {
+            try {
+                boolean thumb = emulator.is32Bit() && ARM.isThumb(backend);
+                checkCall(emulator.getInstructionCache().getInstruction(address, size, thumb).getLastInstruction(), thumb);
+            } catch (BackendException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        Instruction call = callInstruction;
+        if (call != null && call.getAddress() == address) {
+            callInstruction = null;
+            onInstruction(call);
+        }
+    }
+
+    private void checkCall(Instruction instruction, boolean thumb) {
+        if (instruction == null) {
+            return;
+        }
+        if (isCall(instruction.getBytes(), thumb)) {
+            if (log.isDebugEnabled() && !instruction.getMnemonic().startsWith("bl")) {
+                log.warn(Inspector.inspectString(instruction.getBytes(), "Invalid " + instruction + ": thumb=" + thumb));
+            }
+            callInstruction = instruction;
+        } else if (log.isDebugEnabled()) {
+            String mnemonic = instruction.getMnemonic();
+            if (emulator.is32Bit()) {
+                if (mnemonic.startsWith("bl") &&
+                        !mnemonic.startsWith("ble") &&
+                        !mnemonic.startsWith("blt") &&
+                        !mnemonic.startsWith("bls") &&
+                        !mnemonic.startsWith("blo")) {
+                    log.warn(Inspector.inspectString(instruction.getBytes(), "Unsupported " + instruction + ": thumb=" + thumb));
                 }
-                instruction = instructions[0];
-                String mnemonic = instruction.getMnemonic();
-                if (emulator.is32Bit()) {
-                    if (mnemonic.startsWith("bl") &&
-                            !mnemonic.startsWith("ble") &&
-                            !mnemonic.startsWith("blt") &&
-                            !mnemonic.startsWith("bls") &&
-                            !mnemonic.startsWith("blo")) {
-                        log.warn(Inspector.inspectString(backend.mem_read(address, size), "Unsupported " + instruction + ": thumb=" + ARM.isThumb(backend)));
-                    }
-                } else {
-                    if (mnemonic.startsWith("bl")) {
-                        log.warn(Inspector.inspectString(backend.mem_read(address, size), "Unsupported " + instruction + ": thumb=" + ARM.isThumb(backend)));
-                    }
+            } else {
+                if (mnemonic.startsWith("bl")) {
+                    log.warn(Inspector.inspectString(instruction.getBytes(), "Unsupported " + instruction + ": thumb=" + thumb));
                 }
             }
-        } catch (BackendException e) {
-            throw new IllegalStateException(e);
         }
     }
 
-    protected abstract Instruction disassemble(long address, int size);
+    /**
+     * @param code 一条指令的机器码
+     */
+    protected abstract boolean isCall(byte[] code, boolean thumb);
 
     protected abstract void onInstruction(Instruction instruction);
 
-    private UnHook unHook;
+    private final List<UnHook> unHooks = new ArrayList<>(2);
 
     @Override
     public void onAttach(UnHook unHook) {
-        this.unHook = unHook;
+        unHooks.add(unHook);
     }
 
     @Override
     public void detach() {
-        if (unHook != null) {
+        for (UnHook unHook : unHooks) {
             unHook.unhook();
-            unHook = null;
         }
+        unHooks.clear();
     }
 
 }
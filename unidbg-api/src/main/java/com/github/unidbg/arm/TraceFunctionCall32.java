@@ -5,7 +5,6 @@ import capstone.api.Instruction;
 import capstone.api.arm.OpInfo;
 import capstone.api.arm.Operand;
 import com.github.unidbg.Emulator;
-import com.github.unidbg.arm.backend.Backend;
 import com.github.unidbg.arm.context.RegisterContext;
 import com.github.unidbg.debugger.FunctionCallListener;
 
@@ -19,13 +18,11 @@ class TraceFunctionCall32 extends TraceFunctionCall {
     }
 
     @Override
-    protected Instruction disassemble(long address, int size) {
-        Backend backend = emulator.getBackend();
-        boolean thumb = ARM.isThumb(backend);
+    protected boolean isCall(byte[] code, boolean thumb) {
         if (thumb) {
-            return disassembleThumb(address, size);
+            return isThumbCall(code);
         } else {
-            return disassembleArm(address, size);
+            return isArmCall(code);
         }
     }
 
@@ -35,23 +32,14 @@ class TraceFunctionCall32 extends TraceFunctionCall {
     private static final int ARM_BL_REG_MASK = ~0xf000000f;
     private static final int ARM_BL_REG = 0x12fff30; // BLX<c> <Rm>
 
-    private Instruction disassembleArm(long address, int size) {
-        if (size != 4) {
+    private boolean isArmCall(byte[] code) {
+        if (code.length != 4) {
             throw new IllegalStateException();
         }
-        byte[] code = emulator.getBackend().mem_read(address, 4);
-        ByteBuffer buffer = ByteBuffer.wrap(code).order(ByteOrder.LITTLE_ENDIAN);
-        int value = buffer.getInt();
-        if ((value & ARM_BL_IMM_MASK) == ARM_BL_IMM ||
-                (value & 0xfe000000) == 0xfa000000) { // Encoding A2: BLX <label>
-            Instruction[] instructions = emulator.disassemble(address, code, false, 1);
-            return instructions[0];
-        }
-        if ((value & ARM_BL_REG_MASK) == ARM_BL_REG) {
-            Instruction[] instructions = emulator.disassemble(address, code, false, 1);
-            return instructions[0];
-        }
-        return null;
+        int value = ByteBuffer.wrap(code).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        return (value & ARM_BL_IMM_MASK) == ARM_BL_IMM ||
+                (value & 0xfe000000) == 0xfa000000 || // Encoding A2: BLX <label>
+                (value & ARM_BL_REG_MASK) == ARM_BL_REG;
     }
 
     private static final int THUMB_BL_IMM_MASK = 0xf800c000;
@@ -60,28 +48,19 @@ class TraceFunctionCall32 extends TraceFunctionCall {
     private static final short THUMB_BL_REG_MASK = ~0x78;
     private static final short THUMB_BL_REG = 0x4780; // BLX<c> <Rm>
 
-    private Instruction disassembleThumb(long address, int size) {
-        byte[] code = emulator.getBackend().mem_read(address, size);
-        if (size == 4) { // thumb2
-            ByteBuffer buffer = ByteBuffer.wrap(code).order(ByteOrder.LITTLE_ENDIAN);
+    private boolean isThumbCall(byte[] code) {
+        ByteBuffer buffer = ByteBuffer.wrap(code).order(ByteOrder.LITTLE_ENDIAN);
+        if (code.length == 4) { // thumb2
             int t1 = buffer.getShort() & 0xffff;
             int t2 = buffer.getShort() & 0xffff;
             int value = (t1 << 16) | t2;
-            if ((value & THUMB_BL_IMM_MASK) == THUMB_BL_IMM) {
-                Instruction[] instructions = emulator.disassemble(address, code, true, 1);
-                return instructions[0];
-            }
-        } else if (size == 2) {
-            ByteBuffer buffer = ByteBuffer.wrap(code).order(ByteOrder.LITTLE_ENDIAN);
+            return (value & THUMB_BL_IMM_MASK) == THUMB_BL_IMM;
+        } else if (code.length == 2) {
             short value = buffer.getShort();
-            if ((value & THUMB_BL_REG_MASK) == THUMB_BL_REG) {
-                Instruction[] instructions = emulator.disassemble(address, code, true, 1);
-                return instructions[0];
-            }
+            return (value & THUMB_BL_REG_MASK) == THUMB_BL_REG;
         } else {
             throw new IllegalStateException();
         }
-        return null;
     }
 
     @Override
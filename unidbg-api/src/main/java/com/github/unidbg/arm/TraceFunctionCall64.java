@@ -24,22 +24,12 @@ class TraceFunctionCall64 extends TraceFunctionCall {
     private static final int BLR = 0xd63f0000; // BLR <Xn>
 
     @Override
-    protected Instruction disassemble(long address, int size) {
-        if (size != 4) {
+    protected boolean isCall(byte[] code, boolean thumb) {
+        if (code.length != 4) {
             throw new IllegalStateException();
         }
-        byte[] code = emulator.getBackend().mem_read(address, 4);
-        ByteBuffer buffer = ByteBuffer.wrap(code).order(ByteOrder.LITTLE_ENDIAN);
-        int value = buffer.getInt();
-        if ((value & BL_MASK) == BL) {
-            Instruction[] instructions = emulator.disassemble(address, code, false, 1);
-            return instructions[0];
-        }
-        if ((value & BLR_MASK) == BLR) {
-            Instruction[] instructions = emulator.disassemble(address, code, false, 1);
-            return instructions[0];
-        }
-        return null;
+        int value = ByteBuffer.wrap(code).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        return (value & BL_MASK) == BL || (value & BLR_MASK) == BLR;
     }
 
     @Override
@@ -1,7 +1,95 @@
 package com.github.unidbg.arm.backend;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 public abstract class AbstractBackend implements Backend {
 
+    /**
+     * 子类修改寄存器时递增
+     */
+    protected long regEpoch;
+
+    @Override
+    public long reg_epoch() {
+        return regEpoch;
+    }
+
+    /**
+     * 默认实现认为 32 位寄存器的 {@link #reg_read(int)} 返回 Integer
+     */
+    @Override
+    public long reg_read_long(int regId) throws BackendException {
+        Number number = reg_read(regId);
+        return number instanceof Integer ? number.intValue() & 0xffffffffL : number.longValue();
+    }
+
+    /**
+     * 默认实现逐条回调，用普通的 code/read/write hook 转发
+     */
+    @Override
+    public void hook_add_trace(final TraceSink sink, int types, long begin, long end) throws BackendException {
+        final List<UnHook> unHooks = new ArrayList<>(3);
+        if ((types & TraceSink.TRACE_CODE) != 0) {
+            hook_add_new(new CodeHook() {
+                @Override
+                public void hook(Backend backend, long address, int size, Object user) {
+                    sink.onCode(address, size);
+                }
+                @Override
+                public void onAttach(UnHook unHook) {
+                    unHooks.add(unHook);
+                }
+                @Override
+                public void detach() {
+                    throw new UnsupportedOperationException();
+                }
+            }, begin, end, null);
+        }
+        if ((types & TraceSink.TRACE_READ) != 0) {
+            hook_add_new(new ReadHook() {
+                @Override
+                public void hook(Backend backend, long address, int size, Object user) {
+                    sink.onRead(address, size);
+                }
+                @Override
+                public void onAttach(UnHook unHook) {
+                    unHooks.add(unHook);
+                }
+                @Override
+                public void detach() {
+                    throw new UnsupportedOperationException();
+                }
+            }, begin, end, null);
+        }
+        if ((types & TraceSink.TRACE_WRITE) != 0) {
+            hook_add_new(new WriteHook() {
+                @Override
+                public void hook(Backend backend, long address, int size, long value, Object user) {
+                    sink.onWrite(address, size, value);
+                }
+                @Override
+                public void onAttach(UnHook unHook) {
+                    unHooks.add(unHook);
+                }
+                @Override
+                public void detach() {
+                    throw new UnsupportedOperationException();
+                }
+            }, begin, end, null);
+        }
+        sink.onAttach(new UnHook() {
+            @Override
+            public void unhook() {
+                for (UnHook unHook : unHooks) {
+                    unHook.unhook();
+                }
+                unHooks.clear();
+            }
+        });
+    }
+
     @Override
     public void onInitialize() {
     }
@@ -16,4 +104,111 @@ public abstract class AbstractBackend implements Backend {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public ByteBuffer mem_buffer(long address, int size) throws BackendException {
+        return null;
+    }
+
+    @Override
+    public boolean mem_map_lazy(long address, long size, int perms, PageLoader loader) throws BackendException {
+        return false;
+    }
+
+    @Override
+    public boolean mem_track_dirty() throws BackendException {
+        return false;
+    }
+
+    @Override
+    public long[] mem_dirty_pages() throws BackendException {
+        return null;
+    }
+
+    @Override
+    public void mem_read(long address, ByteBuffer dst) throws BackendException {
+        ByteBuffer view = mem_buffer(address, dst.remaining());
+        if (view != null) {
+            dst.put(view);
+        } else {
+            dst.put(mem_read(address, dst.remaining()));
+        }
+    }
+
+    @Override
+    public void mem_write(long address, ByteBuffer src) throws BackendException {
+        ByteBuffer view = mem_buffer(address, src.remaining());
+        if (view != null) {
+            view.put(src);
+            return;
+        }
+
+        byte[] data;
+        if (src.hasArray() && src.arrayOffset() == 0 && src.position() == 0 && src.limit() == src.array().length) {
+            data = src.array();
+        } else {
+            data = new byte[src.remaining()];
+            src.duplicate().get(data);
+        }
+        mem_write(address, data);
+        src.position(src.limit());
+    }
+
+    /**
+     * 没有 {@link #mem_buffer(long, int)} 时标量写入复用的数组，和后端的其它调用一样只在模拟器线程使用
+     */
+    private final byte[] scalar32 = new byte[4];
+    private final byte[] scalar64 = new byte[8];
+
+    @Override
+    public int mem_read_u32(long address) throws BackendException {
+        ByteBuffer view = mem_buffer(address, 4);
+        if (view != null) {
+            return view.getInt(0);
+        }
+        byte[] data = mem_read(address, 4);
+        return (data[0] & 0xff) | (data[1] & 0xff) << 8 | (data[2] & 0xff) << 16 | (data[3] & 0xff) << 24;
+    }
+
+    @Override
+    public long mem_read_u64(long address) throws BackendException {
+        ByteBuffer view = mem_buffer(address, 8);
+        if (view != null) {
+            return view.getLong(0);
+        }
+        byte[] data = mem_read(address, 8);
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = value << 8 | (data[i] & 0xff);
+        }
+        return value;
+    }
+
+    @Override
+    public void mem_write_u32(long address, int value) throws BackendException {
+        ByteBuffer view = mem_buffer(address, 4);
+        if (view != null) {
+            view.putInt(0, value);
+            return;
+        }
+        byte[] data = scalar32;
+        for (int i = 0; i < 4; i++) {
+            data[i] = (byte) (value >>> (i * 8));
+        }
+        mem_write(address, data);
+    }
+
+    @Override
+    public void mem_write_u64(long address, long value) throws BackendException {
+        ByteBuffer view = mem_buffer(address, 8);
+        if (view != null) {
+            view.putLong(0, value);
+            return;
+        }
+        byte[] data = scalar64;
+        for (int i = 0; i < 8; i++) {
+            data[i] = (byte) (value >>> (i * 8));
+        }
+        mem_write(address, data);
+    }
+
 }
@@ -3,6 +3,8 @@ package com.github.unidbg.arm.backend;
 import com.github.unidbg.debugger.BreakPoint;
 import com.github.unidbg.debugger.BreakPointCallback;
 
+import java.nio.ByteBuffer;
+
 public interface Backend {
 
     void onInitialize();
@@ -17,16 +19,65 @@ public interface Backend {
 
     void reg_write(int regId, Number value) throws BackendException;
 
+    /**
+     * 不装箱读取寄存器，32 位寄存器按无符号扩展
+     */
+    long reg_read_long(int regId) throws BackendException;
+
+    /**
+     * reg_write、context_restore、emu_start 等可能修改寄存器的操作都会让它递增，用来判断之前读取的寄存器值是否还有效
+     */
+    long reg_epoch();
+
     byte[] mem_read(long address, long size) throws BackendException;
 
     void mem_write(long address, byte[] bytes) throws BackendException;
 
+    /**
+     * 读取 <code>dst.remaining()</code> 字节，读取后 position 移动到 limit
+     */
+    void mem_read(long address, ByteBuffer dst) throws BackendException;
+
+    /**
+     * 写入 <code>src.remaining()</code> 字节，写入后 position 移动到 limit
+     */
+    void mem_write(long address, ByteBuffer src) throws BackendException;
+
+    int mem_read_u32(long address) throws BackendException;
+    long mem_read_u64(long address) throws BackendException;
+
+    void mem_write_u32(long address, int value) throws BackendException;
+    void mem_write_u64(long address, long value) throws BackendException;
+
+    /**
+     * 视图在 mem_unmap 以后失效，不要保存
+     * @return 宿主机直接映射的 guest 内存视图，小端字节序；不支持或者跨越映射区域时返回 <code>null</code>
+     */
+    ByteBuffer mem_buffer(long address, int size) throws BackendException;
+
     void mem_map(long address, long size, int perms) throws BackendException;
 
+    /**
+     * 映射以后不立即加载内容，第一次访问某页时才通过 loader 读取，address 和 size 需要按 4K 对齐
+     * @return <code>false</code> 表示不支持，调用者需要自己 mem_map 并写入内容
+     */
+    boolean mem_map_lazy(long address, long size, int perms, PageLoader loader) throws BackendException;
+
     void mem_protect(long address, long size, int perms) throws BackendException;
 
     void mem_unmap(long address, long size) throws BackendException;
 
+    /**
+     * 开始记录写过的页，guest 和 java 层的写入都算。已经在记录时清空之前的结果
+     * @return <code>false</code> 表示不支持
+     */
+    boolean mem_track_dirty() throws BackendException;
+
+    /**
+     * @return 开始记录以后写过的页，按 4K 对齐并升序排列；没有在记录时返回 <code>null</code>
+     */
+    long[] mem_dirty_pages() throws BackendException;
+
     BreakPoint addBreakPoint(long address, BreakPointCallback callback, boolean thumb);
     boolean removeBreakPoint(long address);
     void setSingleStep(int singleStep);
@@ -46,6 +97,11 @@ public interface Backend {
 
     void hook_add_new(BlockHook callback, long begin, long end, Object user_data) throws BackendException;
 
+    /**
+     * @param types {@link TraceSink#TRACE_CODE}、{@link TraceSink#TRACE_READ}、{@link TraceSink#TRACE_WRITE} 的组合
+     */
+    void hook_add_trace(TraceSink sink, int types, long begin, long end) throws BackendException;
+
     void emu_start(long begin, long until, long timeout, long count) throws BackendException;
 
     void emu_stop() throws BackendException;
@@ -0,0 +1,164 @@
+package com.github.unidbg.arm.backend;
+
+import unicorn.MemRegion;
+import unicorn.Unicorn;
+import unicorn.UnicornConst;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * unicorn 上的脏页记录：开始记录后把可写的页改成只读，第一次写入时在 write_prot 回调里恢复权限并记下这一页。
+ * java 层的 mem_write 不检查权限，直接记下
+ */
+final class DirtyMemory {
+
+    private static final int PAGE_SIZE = LazyMemory.PAGE_SIZE;
+
+    private final Unicorn unicorn;
+
+    /**
+     * 被改成只读的页和它原来的权限
+     */
+    private final Map<Long, Integer> protectedPages = new HashMap<>();
+    private final NavigableSet<Long> dirtyPages = new TreeSet<>();
+
+    private boolean tracking;
+
+    DirtyMemory(Unicorn unicorn) {
+        this.unicorn = unicorn;
+    }
+
+    /**
+     * 第一次调用时保护所有可写的页，之后只需要重新保护写过的页
+     */
+    void start() {
+        MemRegion[] regions = unicorn.mem_regions();
+        Arrays.sort(regions, new Comparator<MemRegion>() {
+            @Override
+            public int compare(MemRegion o1, MemRegion o2) {
+                return Long.compare(o1.begin, o2.begin);
+            }
+        });
+        if (tracking) {
+            long runStart = 0, runEnd = 0;
+            int runPerms = 0;
+            for (long page : dirtyPages) {
+                if (protectedPages.containsKey(page)) {
+                    continue;
+                }
+                MemRegion region = find(regions, page);
+                if (region == null || (region.perms & UnicornConst.UC_PROT_WRITE) == 0) {
+                    continue;
+                }
+                if (page != runEnd || region.perms != runPerms) {
+                    protect(runStart, runEnd, runPerms);
+                    runStart = page;
+                    runPerms = region.perms;
+                }
+                runEnd = page + PAGE_SIZE;
+            }
+            protect(runStart, runEnd, runPerms);
+        } else {
+            for (MemRegion region : regions) {
+                if ((region.perms & UnicornConst.UC_PROT_WRITE) != 0) {
+                    protect(region.begin, region.end + 1, region.perms);
+                }
+            }
+            tracking = true;
+        }
+        dirtyPages.clear();
+    }
+
+    long[] getDirtyPages() {
+        if (!tracking) {
+            return null;
+        }
+        long[] pages = new long[dirtyPages.size()];
+        int index = 0;
+        for (long page : dirtyPages) {
+            pages[index++] = page;
+        }
+        return pages;
+    }
+
+    /**
+     * unicorn 的 strex/stxr 碰到只读页时，回调返回 true 以后会报告成功但不写入，所以这里先把值写进去，普通的写入会再写一次同样的值
+     * @return address 所在的页是不是因为记录脏页才被改成只读的
+     */
+    boolean fault(long address, int size, long value) {
+        long page = address & ~(PAGE_SIZE - 1);
+        Integer perms = protectedPages.remove(page);
+        if (perms == null) {
+            return false;
+        }
+        unicorn.mem_protect(page, PAGE_SIZE, perms);
+        dirtyPages.add(page);
+        if (size > 0 && size <= 8) {
+            byte[] data = new byte[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = (byte) (value >>> (i * 8));
+            }
+            unicorn.mem_write(address, data);
+        }
+        return true;
+    }
+
+    /**
+     * java 层写入，页的权限保持不变
+     */
+    void mark(long address, long size) {
+        if (!tracking || size <= 0) {
+            return;
+        }
+        long end = address + size;
+        for (long page = address & ~(PAGE_SIZE - 1); page < end; page += PAGE_SIZE) {
+            dirtyPages.add(page);
+        }
+    }
+
+    /**
+     * 映射或者权限要变了，这些页不再由这里保护
+     */
+    void unprotect(long address, long size) {
+        if (!tracking || size <= 0) {
+            return;
+        }
+        long end = address + size;
+        for (long page = address & ~(PAGE_SIZE - 1); page < end; page += PAGE_SIZE) {
+            protectedPages.remove(page);
+            dirtyPages.add(page);
+        }
+    }
+
+    private void protect(long begin, long end, int perms) {
+        if (end <= begin) {
+            return;
+        }
+        unicorn.mem_protect(begin, end - begin, perms & ~UnicornConst.UC_PROT_WRITE);
+        for (long page = begin; page < end; page += PAGE_SIZE) {
+            protectedPages.put(page, perms);
+        }
+    }
+
+    private static MemRegion find(MemRegion[] regions, long address) {
+        int low = 0, high = regions.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            MemRegion region = regions[mid];
+            if (address < region.begin) {
+                high = mid - 1;
+            } else if (address > region.end) {
+                low = mid + 1;
+            } else {
+                return region;
+            }
+        }
+        return null;
+    }
+
+}
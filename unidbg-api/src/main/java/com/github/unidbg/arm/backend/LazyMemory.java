@@ -0,0 +1,214 @@
+package com.github.unidbg.arm.backend;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import unicorn.Unicorn;
+import unicorn.UnicornException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * unicorn 上按需加载的映射：还没访问过的页在 unicorn 里不映射，
+ * 模拟执行时通过 unmapped 回调、java 层读写之前通过 {@link #pageIn(long, long)} 加载
+ */
+final class LazyMemory {
+
+    private static final Log log = LogFactory.getLog(LazyMemory.class);
+
+    static final int PAGE_SIZE = 0x1000;
+
+    /**
+     * 缺页时最多连续加载的页数
+     */
+    private static final int LOAD_PAGES = 16;
+
+    private static final byte UNLOADED = 0;
+    private static final byte LOADED = 1;
+    private static final byte REMOVED = 2;
+
+    private final Unicorn unicorn;
+    private final DirtyMemory dirtyMemory;
+    private final NavigableMap<Long, Region> regions = new TreeMap<>();
+
+    LazyMemory(Unicorn unicorn, DirtyMemory dirtyMemory) {
+        this.unicorn = unicorn;
+        this.dirtyMemory = dirtyMemory;
+    }
+
+    void map(long address, long size, int perms, PageLoader loader) {
+        regions.put(address, new Region(address, (int) (size / PAGE_SIZE), perms, loader));
+    }
+
+    /**
+     * @return 是否加载了 address 所在的页
+     */
+    boolean fault(long address) {
+        Region region = find(address);
+        if (region == null) {
+            return false;
+        }
+        int index = region.index(address);
+        if (region.states[index] != UNLOADED) {
+            return false;
+        }
+        try {
+            load(region, index, LOAD_PAGES);
+            return true;
+        } catch (BackendException e) {
+            log.warn("page in failed: address=0x" + Long.toHexString(address), e);
+            return false;
+        }
+    }
+
+    /**
+     * java 层读写之前保证这些页已经加载
+     */
+    void pageIn(long address, long size) {
+        if (!overlaps(address, size)) {
+            return;
+        }
+        long end = address + size;
+        for (long page = address & ~(PAGE_SIZE - 1); page < end; page += PAGE_SIZE) {
+            Region region = find(page);
+            if (region != null) {
+                int index = region.index(page);
+                if (region.states[index] == UNLOADED) {
+                    load(region, index, (int) ((end - page + PAGE_SIZE - 1) / PAGE_SIZE));
+                }
+            }
+        }
+    }
+
+    /**
+     * 处理 [address, address + size) 里还没加载的页：perms 小于 0 时去掉，否则修改它们的权限
+     * @return unicorn 里需要继续 mem_unmap 或 mem_protect 的区间
+     */
+    List<long[]> split(long address, long size, int perms) {
+        if (!overlaps(address, size)) {
+            return Collections.singletonList(new long[]{address, size});
+        }
+        List<long[]> ranges = new ArrayList<>();
+        long end = address + size;
+        long runStart = address;
+        long page = address;
+        while (page < end) {
+            Region region = find(page);
+            if (region == null) {
+                Long next = regions.higherKey(page);
+                page = next == null ? end : Math.min(end, next);
+                continue;
+            }
+            int index = region.index(page);
+            if (region.states[index] == UNLOADED) {
+                if (page > runStart) {
+                    ranges.add(new long[]{runStart, page - runStart});
+                }
+                if (perms < 0) {
+                    region.remove(index);
+                } else {
+                    region.perms[index] = perms;
+                }
+                runStart = page + PAGE_SIZE;
+            } else if (region.states[index] == LOADED && perms < 0) {
+                region.remove(index);
+            }
+            page += PAGE_SIZE;
+        }
+        if (end > runStart) {
+            ranges.add(new long[]{runStart, end - runStart});
+        }
+        if (perms < 0) {
+            Long from = regions.floorKey(address);
+            for (Iterator<Region> iterator = regions.subMap(from == null ? address : from, true, end, false).values().iterator(); iterator.hasNext(); ) {
+                Region region = iterator.next();
+                if (region.pages == 0) {
+                    iterator.remove();
+                    region.loader.close();
+                }
+            }
+        }
+        return ranges;
+    }
+
+    void close() {
+        for (Region region : regions.values()) {
+            region.loader.close();
+        }
+        regions.clear();
+    }
+
+    private boolean overlaps(long address, long size) {
+        if (regions.isEmpty()) {
+            return false;
+        }
+        Map.Entry<Long, Region> entry = regions.lowerEntry(address + size);
+        return entry != null && entry.getValue().end() > address;
+    }
+
+    private Region find(long address) {
+        Map.Entry<Long, Region> entry = regions.floorEntry(address);
+        if (entry == null || address >= entry.getValue().end()) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    private void load(Region region, int index, int maxPages) {
+        int end = index + 1;
+        while (end < region.states.length && end - index < maxPages && region.states[end] == UNLOADED && region.perms[end] == region.perms[index]) {
+            end++;
+        }
+        long address = region.base + (long) index * PAGE_SIZE;
+        byte[] data = new byte[(end - index) * PAGE_SIZE];
+        try {
+            region.loader.load((long) index * PAGE_SIZE, data);
+            unicorn.mem_map(address, data.length, region.perms[index]);
+            unicorn.mem_write(address, data);
+            dirtyMemory.unprotect(address, data.length);
+        } catch (IOException | UnicornException e) {
+            throw new BackendException("page in address=0x" + Long.toHexString(address) + ", size=" + data.length, e);
+        }
+        for (int i = index; i < end; i++) {
+            region.states[i] = LOADED;
+        }
+    }
+
+    private static final class Region {
+        final long base;
+        final byte[] states;
+        final int[] perms;
+        final PageLoader loader;
+        int pages;
+
+        Region(long base, int pages, int perms, PageLoader loader) {
+            this.base = base;
+            this.states = new byte[pages];
+            this.perms = new int[pages];
+            this.loader = loader;
+            this.pages = pages;
+            Arrays.fill(this.perms, perms);
+        }
+
+        long end() {
+            return base + (long) states.length * PAGE_SIZE;
+        }
+
+        int index(long address) {
+            return (int) ((address - base) / PAGE_SIZE);
+        }
+
+        void remove(int index) {
+            states[index] = REMOVED;
+            pages--;
+        }
+    }
+
+}
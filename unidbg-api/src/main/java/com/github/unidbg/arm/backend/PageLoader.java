@@ -0,0 +1,20 @@
+package com.github.unidbg.arm.backend;
+
+import java.io.IOException;
+
+/**
+ * {@link Backend#mem_map_lazy(long, long, int, PageLoader)} 映射的内容，第一次访问时按页读取
+ */
+public interface PageLoader {
+
+    /**
+     * 读取映射区域内 offset 开始的 <code>dst.length</code> 字节，超出文件末尾的部分保持为 0
+     */
+    void load(long offset, byte[] dst) throws IOException;
+
+    /**
+     * 映射全部解除或者 backend 销毁时调用
+     */
+    void close();
+
+}
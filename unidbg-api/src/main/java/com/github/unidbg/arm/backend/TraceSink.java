@@ -0,0 +1,19 @@
+package com.github.unidbg.arm.backend;
+
+/**
+ * 批量接收指令和内存访问记录。支持的 backend 在 native 层先把记录写进缓冲区，
+ * 缓冲区满或者 emu_start 返回时再统一回调，所以回调和其它 hook 之间的先后顺序不保证
+ */
+public interface TraceSink extends Detachable {
+
+    int TRACE_CODE = 1;
+    int TRACE_READ = 2;
+    int TRACE_WRITE = 4;
+
+    void onCode(long address, int size);
+
+    void onRead(long address, int size);
+
+    void onWrite(long address, int size, long value);
+
+}
@@ -19,12 +19,33 @@ public class UnicornBackend extends AbstractBackend implements Backend {
     private final Emulator<?> emulator;
     private final boolean is64Bit;
     private final Unicorn unicorn;
+    private final LazyMemory lazyMemory;
+    private final DirtyMemory dirtyMemory;
 
     UnicornBackend(Emulator<?> emulator, boolean is64Bit) throws BackendException {
         this.emulator = emulator;
         this.is64Bit = is64Bit;
         try {
             this.unicorn = new Unicorn(is64Bit ? UnicornConst.UC_ARCH_ARM64 : UnicornConst.UC_ARCH_ARM, UnicornConst.UC_MODE_ARM);
+            this.dirtyMemory = new DirtyMemory(unicorn);
+            this.lazyMemory = new LazyMemory(unicorn, dirtyMemory);
+
+            // 要在其它 unmapped 回调之前注册，按需加载的页不算访问错误
+            unicorn.EventMemHook pageFault = new unicorn.EventMemHook() {
+                @Override
+                public boolean hook(Unicorn u, long address, int size, long value, Object user) {
+                    return lazyMemory.fault(address);
+                }
+            };
+            unicorn.hook_add_new(pageFault, UnicornConst.UC_HOOK_MEM_READ_UNMAPPED, null);
+            unicorn.hook_add_new(pageFault, UnicornConst.UC_HOOK_MEM_WRITE_UNMAPPED, null);
+            unicorn.hook_add_new(pageFault, UnicornConst.UC_HOOK_MEM_FETCH_UNMAPPED, null);
+            unicorn.hook_add_new(new unicorn.EventMemHook() {
+                @Override
+                public boolean hook(Unicorn u, long address, int size, long value, Object user) {
+                    return dirtyMemory.fault(address, size, value);
+                }
+            }, UnicornConst.UC_HOOK_MEM_WRITE_PROT, null);
         } catch (UnicornException e) {
             throw new BackendException(e);
         }
@@ -101,8 +122,15 @@ public class UnicornBackend extends AbstractBackend implements Backend {
         }
     }
 
+    @Override
+    public long reg_read_long(int regId) throws BackendException {
+        Number number = reg_read(regId);
+        return is64Bit ? number.longValue() : number.intValue() & 0xffffffffL;
+    }
+
     @Override
     public void reg_write(int regId, Number value) throws BackendException {
+        regEpoch++;
         try {
             unicorn.reg_write(regId, value);
         } catch (UnicornException e) {
@@ -113,6 +141,7 @@ public class UnicornBackend extends AbstractBackend implements Backend {
     @Override
     public byte[] mem_read(long address, long size) throws BackendException {
         try {
+            lazyMemory.pageIn(address, size);
             return unicorn.mem_read(address, size);
         } catch (UnicornException e) {
             throw new BackendException("mem_read address=0x" + Long.toHexString(address) + ", size=" + size, e);
@@ -122,6 +151,8 @@ public class UnicornBackend extends AbstractBackend implements Backend {
     @Override
     public void mem_write(long address, byte[] bytes) throws BackendException {
         try {
+            lazyMemory.pageIn(address, bytes.length);
+            dirtyMemory.mark(address, bytes.length);
             unicorn.mem_write(address, bytes);
         } catch (UnicornException e) {
             throw new BackendException("mem_write address=0x" + Long.toHexString(address), e);
@@ -131,16 +162,31 @@ public class UnicornBackend extends AbstractBackend implements Backend {
     @Override
     public void mem_map(long address, long size, int perms) throws BackendException {
         try {
+            lazyMemory.split(address, size, -1);
+            dirtyMemory.unprotect(address, size);
             unicorn.mem_map(address, size, perms);
         } catch (UnicornException e) {
             throw new BackendException("mem_map address=0x" + Long.toHexString(address) + ", size=" + size + ", perms=0x" + Integer.toHexString(perms), e);
         }
     }
 
+    @Override
+    public boolean mem_map_lazy(long address, long size, int perms, PageLoader loader) throws BackendException {
+        if ((address & (LazyMemory.PAGE_SIZE - 1)) != 0 || size <= 0 || (size & (LazyMemory.PAGE_SIZE - 1)) != 0) {
+            return false;
+        }
+        dirtyMemory.unprotect(address, size);
+        lazyMemory.map(address, size, perms, loader);
+        return true;
+    }
+
     @Override
     public void mem_protect(long address, long size, int perms) throws BackendException {
         try {
-            unicorn.mem_protect(address, size, perms);
+            dirtyMemory.unprotect(address, size);
+            for (long[] range : lazyMemory.split(address, size, perms)) {
+                unicorn.mem_protect(range[0], range[1], perms);
+            }
         } catch (UnicornException e) {
             throw new BackendException("mem_protect address=0x" + Long.toHexString(address) + ", size=" + size + ", perms=0x" + Integer.toHexString(perms), e);
         }
@@ -149,12 +195,33 @@ public class UnicornBackend extends AbstractBackend implements Backend {
     @Override
     public void mem_unmap(long address, long size) throws BackendException {
         try {
-            unicorn.mem_unmap(address, size);
+            dirtyMemory.unprotect(address, size);
+            for (long[] range : lazyMemory.split(address, size, -1)) {
+                unicorn.mem_unmap(range[0], range[1]);
+            }
         } catch (UnicornException e) {
             throw new BackendException("mem_unmap address=0x" + Long.toHexString(address) + ", size=" + size, e);
         }
     }
 
+    /**
+     * 通过写保护记录脏页，第一次写入每一页时多一次回调
+     */
+    @Override
+    public boolean mem_track_dirty() throws BackendException {
+        try {
+            dirtyMemory.start();
+            return true;
+        } catch (UnicornException e) {
+            throw new BackendException(e);
+        }
+    }
+
+    @Override
+    public long[] mem_dirty_pages() throws BackendException {
+        return dirtyMemory.getDirtyPages();
+    }
+
     private static class BreakPointImpl implements BreakPoint {
         final BreakPointCallback callback;
         final boolean thumb;
@@ -372,10 +439,13 @@ public class UnicornBackend extends AbstractBackend implements Backend {
 
     @Override
     public final synchronized void emu_start(long begin, long until, long timeout, long count) throws BackendException {
+        regEpoch++;
         try {
             unicorn.emu_start(begin, until, timeout, count);
         } catch (UnicornException e) {
             throw new BackendException(e);
+        } finally {
+            regEpoch++;
         }
     }
 
@@ -391,6 +461,7 @@ public class UnicornBackend extends AbstractBackend implements Backend {
     @Override
     public void destroy() throws BackendException {
         try {
+            lazyMemory.close();
             unicorn.closeAll();
         } catch (UnicornException e) {
             throw new BackendException(e);
@@ -399,6 +470,7 @@ public class UnicornBackend extends AbstractBackend implements Backend {
 
     @Override
     public void context_restore(long context) {
+        regEpoch++;
         unicorn.context_restore(context);
     }
 
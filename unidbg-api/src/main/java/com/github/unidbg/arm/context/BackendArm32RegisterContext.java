@@ -15,10 +15,6 @@ public class BackendArm32RegisterContext extends BaseRegisterContext implements
         this.backend = backend;
     }
 
-    private long reg(int regId) {
-        return backend.reg_read(regId).intValue() & 0xffffffffL;
-    }
-
     private void set(int regId, int value) {
         backend.reg_write(regId, value);
     }
@@ -15,10 +15,6 @@ public class BackendArm64RegisterContext extends BaseRegisterContext implements
         this.backend = backend;
     }
 
-    private long reg(int regId) {
-        return backend.reg_read(regId).longValue();
-    }
-
     @Override
     public void setXLong(int index, long value) {
         if (index >= 0 && index <= 28) {
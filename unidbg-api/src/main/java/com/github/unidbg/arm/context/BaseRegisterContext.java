@@ -10,17 +10,58 @@ public abstract class BaseRegisterContext extends AbstractRegisterContext implem
     private final int firstArgReg;
     private final int regArgCount;
 
+    private final long[] args;
+    private int cached;
+    private boolean caching;
+    private long cacheEpoch;
+
     BaseRegisterContext(Emulator<?> emulator, int firstArgReg, int regArgCount) {
         this.emulator = emulator;
         this.firstArgReg = firstArgReg;
         this.regArgCount = regArgCount;
+
+        this.args = new long[regArgCount];
+    }
+
+    /**
+     * 进入 svc 时开始缓存参数寄存器：每个寄存器第一次读取时才访问 backend，之后直接使用缓存，
+     * 寄存器被修改（{@link Backend#reg_epoch()} 变化）或者 {@link #clearArgCache()} 以后失效
+     */
+    public void cacheArgs() {
+        cacheEpoch = emulator.getBackend().reg_epoch();
+        cached = 0;
+        caching = true;
+    }
+
+    public void clearArgCache() {
+        caching = false;
+    }
+
+    /**
+     * @return 32 位寄存器按无符号扩展
+     */
+    protected final long reg(int regId) {
+        Backend backend = emulator.getBackend();
+        int index = regId - firstArgReg;
+        if (caching && index >= 0 && index < regArgCount) {
+            if (cacheEpoch != backend.reg_epoch()) {
+                caching = false;
+            } else if ((cached & (1 << index)) != 0) {
+                return args[index];
+            } else {
+                args[index] = backend.reg_read_long(regId);
+                cached |= 1 << index;
+                return args[index];
+            }
+        }
+        return backend.reg_read_long(regId);
     }
 
     @Override
     public UnidbgPointer getPointerArg(int index) {
         if (index < regArgCount) {
             int reg = firstArgReg + index;
-            return UnidbgPointer.register(emulator, reg);
+            return UnidbgPointer.pointer(emulator, reg(reg));
         }
 
         UnidbgPointer sp = getStackPointer();
@@ -29,9 +70,7 @@ public abstract class BaseRegisterContext extends AbstractRegisterContext implem
 
     @Override
     public int getIntByReg(int regId) {
-        Backend backend = emulator.getBackend();
-        Number number = backend.reg_read(regId);
-        return number.intValue();
+        return (int) reg(regId);
     }
 
     @Override
@@ -0,0 +1,141 @@
+package com.github.unidbg.coverage;
+
+import com.github.unidbg.Emulator;
+import com.github.unidbg.Module;
+import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.arm.backend.BlockHook;
+import com.github.unidbg.arm.backend.UnHook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * AFL 风格的边覆盖率：每个基本块按模块内偏移算出位置，和上一个块异或后计入 bitmap。
+ * 只统计 attach 过的地址范围，块之间的跳转不区分来自哪个模块
+ */
+public class EdgeCoverage implements BlockHook {
+
+    public static final int MAP_SIZE = 0x10000;
+
+    private static final byte[] COUNT_CLASS = new byte[256];
+
+    static {
+        COUNT_CLASS[1] = 1;
+        COUNT_CLASS[2] = 2;
+        COUNT_CLASS[3] = 4;
+        Arrays.fill(COUNT_CLASS, 4, 8, (byte) 8);
+        Arrays.fill(COUNT_CLASS, 8, 16, (byte) 16);
+        Arrays.fill(COUNT_CLASS, 16, 32, (byte) 32);
+        Arrays.fill(COUNT_CLASS, 32, 128, (byte) 64);
+        Arrays.fill(COUNT_CLASS, 128, 256, (byte) 128);
+    }
+
+    private final byte[] bitmap;
+    private final int mask;
+    private final List<UnHook> unHooks = new ArrayList<>();
+
+    private int prevLocation;
+
+    public EdgeCoverage() {
+        this(new byte[MAP_SIZE]);
+    }
+
+    /**
+     * @param bitmap 长度必须是 2 的幂，可以和其它实例共用
+     */
+    public EdgeCoverage(byte[] bitmap) {
+        if (bitmap.length == 0 || (bitmap.length & (bitmap.length - 1)) != 0) {
+            throw new IllegalArgumentException("bitmap length=" + bitmap.length);
+        }
+        this.bitmap = bitmap;
+        this.mask = bitmap.length - 1;
+    }
+
+    /**
+     * 已经翻译过的代码不会再触发新加的 hook，最好在 {@link com.github.unidbg.ModuleListener#onLoaded} 里 attach，这时还没有执行初始化函数
+     */
+    public void attach(Emulator<?> emulator, Module module) {
+        attach(emulator.getBackend(), module.base, module.base + module.size);
+    }
+
+    public void attach(Backend backend, long begin, long end) {
+        backend.hook_add_new(this, begin, end, begin);
+    }
+
+    @Override
+    public void hookBlock(Backend backend, long address, int size, Object user) {
+        long offset = address - (Long) user;
+        int location = (int) ((offset >>> 4) ^ (offset << 8)) & mask;
+        int index = location ^ prevLocation;
+        byte count = (byte) (bitmap[index] + 1);
+        bitmap[index] = count == 0 ? 1 : count; // never zero
+        prevLocation = location >>> 1;
+    }
+
+    @Override
+    public void onAttach(UnHook unHook) {
+        unHooks.add(unHook);
+    }
+
+    @Override
+    public void detach() {
+        for (UnHook unHook : unHooks) {
+            unHook.unhook();
+        }
+        unHooks.clear();
+    }
+
+    /**
+     * 每次执行前调用
+     */
+    public void reset() {
+        Arrays.fill(bitmap, (byte) 0);
+        prevLocation = 0;
+    }
+
+    public byte[] getBitmap() {
+        return bitmap;
+    }
+
+    public byte[] snapshot() {
+        return bitmap.clone();
+    }
+
+    /**
+     * @return 命中过的边数
+     */
+    public int countEdges() {
+        int count = 0;
+        for (byte b : bitmap) {
+            if (b != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 按 AFL 的命中次数分桶和 virgin 比较，并把这次的结果合并进 virgin
+     * @param virgin 和 bitmap 一样长，初始全部是 0xff
+     * @return 是否出现了新的边或者新的命中次数区间
+     */
+    public boolean hasNewBits(byte[] virgin) {
+        if (virgin.length != bitmap.length) {
+            throw new IllegalArgumentException("virgin length=" + virgin.length);
+        }
+        boolean found = false;
+        for (int i = 0; i < bitmap.length; i++) {
+            if (bitmap[i] == 0) {
+                continue;
+            }
+            byte bucket = COUNT_CLASS[bitmap[i] & 0xff];
+            if ((bucket & virgin[i]) != 0) {
+                virgin[i] &= ~bucket;
+                found = true;
+            }
+        }
+        return found;
+    }
+
+}
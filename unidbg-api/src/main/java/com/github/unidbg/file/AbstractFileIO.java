@@ -2,10 +2,12 @@ package com.github.unidbg.file;
 
 import com.github.unidbg.Emulator;
 import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.arm.backend.PageLoader;
 import com.github.unidbg.utils.Inspector;
 import com.sun.jna.Pointer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public abstract class AbstractFileIO implements NewFileIO {
 
@@ -19,6 +21,13 @@ public abstract class AbstractFileIO implements NewFileIO {
 
     private static final int FD_CLOEXEC = 1;
 
+    /**
+     * 超过这个大小的文件映射才按需加载
+     */
+    private static final int LAZY_MMAP_MIN_SIZE = 0x10000;
+
+    private static final int MMAP_CHUNK_SIZE = 0x100000;
+
     protected int op;
     protected int oflags;
 
@@ -28,6 +37,43 @@ public abstract class AbstractFileIO implements NewFileIO {
 
     protected abstract void setFlags(long arg);
 
+    /**
+     * 快照记录的描述符状态
+     */
+    public static final class State {
+        private final int op;
+        private final int oflags;
+        private final long position;
+        private State(int op, int oflags, long position) {
+            this.op = op;
+            this.oflags = oflags;
+            this.position = position;
+        }
+    }
+
+    public final State saveState() {
+        return new State(op, oflags, getPosition());
+    }
+
+    public final void restoreState(State state) {
+        op = state.op;
+        oflags = state.oflags;
+        if (state.position >= 0) {
+            setPosition(state.position);
+        }
+    }
+
+    /**
+     * @return 当前读写位置，没有读写位置的返回 -1
+     */
+    protected long getPosition() {
+        return -1;
+    }
+
+    protected void setPosition(long position) {
+        throw new UnsupportedOperationException(getClass().getName() + ", position=" + position);
+    }
+
     @Override
     public int fcntl(Emulator<?> emulator, int cmd, long arg) {
         switch (cmd) {
@@ -107,6 +153,11 @@ public abstract class AbstractFileIO implements NewFileIO {
         throw new UnsupportedOperationException(getClass().getName());
     }
 
+    @Override
+    public int fsync() {
+        return 0;
+    }
+
     @Override
     public int getpeername(Pointer addr, Pointer addrlen) {
         throw new AbstractMethodError();
@@ -120,12 +171,39 @@ public abstract class AbstractFileIO implements NewFileIO {
     @Override
     public final long mmap2(Emulator<?> emulator, long addr, int aligned, int prot, int offset, int length) throws IOException {
         Backend backend = emulator.getBackend();
+        PageLoader loader = aligned >= LAZY_MMAP_MIN_SIZE ? createPageLoader(offset, length) : null;
+        if (loader != null) {
+            if (backend.mem_map_lazy(addr, aligned, prot, loader)) {
+                return addr;
+            }
+            try {
+                backend.mem_map(addr, aligned, prot);
+                byte[] buf = new byte[Math.min(MMAP_CHUNK_SIZE, length)];
+                for (int pos = 0; pos < length; pos += buf.length) {
+                    int count = Math.min(buf.length, length - pos);
+                    loader.load(pos, buf);
+                    backend.mem_write(addr + pos, ByteBuffer.wrap(buf, 0, count));
+                }
+            } finally {
+                loader.close();
+            }
+            return addr;
+        }
+
         byte[] data = getMmapData(addr, offset, length);
         backend.mem_map(addr, aligned, prot);
         emulator.getMemory().pointer(addr).write(data);
         return addr;
     }
 
+    /**
+     * 子类可以直接读取文件时返回非 null：backend 支持的话按需加载，否则分块写入，不用一次读出整个映射
+     * @return 读取 [offset, offset + length) 的 loader
+     */
+    protected PageLoader createPageLoader(int offset, int length) throws IOException {
+        return null;
+    }
+
     protected byte[] getMmapData(long addr, int offset, int length) throws IOException {
         throw new AbstractMethodError(getClass().getName() + ", addr=0x" + Long.toHexString(addr) + ", offset=" + offset + ", length=" + length);
     }
@@ -1,6 +1,8 @@
 package com.github.unidbg.file;
 
 import com.github.unidbg.Emulator;
+import com.github.unidbg.file.overlay.OverlayFile;
+import com.github.unidbg.file.overlay.OverlayStore;
 import com.github.unidbg.unix.IO;
 import com.github.unidbg.unix.UnixEmulator;
 import org.apache.commons.io.FileUtils;
@@ -19,6 +21,9 @@ public abstract class BaseFileSystem<T extends NewFileIO> implements FileSystem<
     protected final Emulator<T> emulator;
     protected final File rootDir;
 
+    private FileDurability durability = FileDurability.CLOSE;
+    private OverlayStore overlay;
+
     public BaseFileSystem(Emulator<T> emulator, File rootDir) {
         this.emulator = emulator;
         this.rootDir = rootDir;
@@ -30,6 +35,39 @@ public abstract class BaseFileSystem<T extends NewFileIO> implements FileSystem<
         }
     }
 
+    @Override
+    public FileDurability getDurability() {
+        return durability;
+    }
+
+    @Override
+    public void setDurability(FileDurability durability) {
+        if (durability == null) {
+            throw new NullPointerException("durability is null");
+        }
+        this.durability = durability;
+    }
+
+    @Override
+    public OverlayStore getOverlay() {
+        return overlay;
+    }
+
+    @Override
+    public void setOverlay(OverlayStore overlay) {
+        if (overlay != null && !isOverlaySupported()) {
+            throw new UnsupportedOperationException("overlay is not supported: " + getClass().getName());
+        }
+        this.overlay = overlay;
+    }
+
+    /**
+     * 支持 overlay 的子类需要实现 {@link #createOverlayFileIO(OverlayFile, int, String)} 和 {@link #createOverlayDirectoryFileIO(OverlayStore, int, String)}
+     */
+    protected boolean isOverlaySupported() {
+        return false;
+    }
+
     protected void initialize(File rootDir) throws IOException {
         FileUtils.forceMkdir(new File(rootDir, "tmp"));
     }
@@ -56,10 +94,55 @@ public abstract class BaseFileSystem<T extends NewFileIO> implements FileSystem<
             }
         }
 
+        if (overlay != null) {
+            return createOverlayFileIO(oflags, pathname);
+        }
+
         File file = new File(rootDir, pathname);
         return createFileIO(file, oflags, pathname);
     }
 
+    protected T createOverlayFileIO(OverlayFile file, int oflags, String path) {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
+
+    protected T createOverlayDirectoryFileIO(OverlayStore overlay, int oflags, String path) {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
+
+    private FileResult<T> createOverlayFileIO(int oflags, String path) {
+        boolean create = hasCreat(oflags);
+        if (overlay.isDirectory(path)) {
+            if (create && hasExcl(oflags)) {
+                return FileResult.failed(UnixEmulator.EEXIST);
+            }
+            return FileResult.success(createOverlayDirectoryFileIO(overlay, oflags, path));
+        }
+
+        boolean directory = hasDirectory(oflags);
+        OverlayFile file = overlay.getFile(path);
+        if (file != null) {
+            if (directory) {
+                return FileResult.failed(UnixEmulator.ENOTDIR);
+            }
+            if (create && hasExcl(oflags)) {
+                return FileResult.failed(UnixEmulator.EEXIST);
+            }
+            return FileResult.success(createOverlayFileIO(file, oflags, path));
+        }
+
+        if (!create) {
+            return FileResult.failed(UnixEmulator.ENOENT);
+        }
+        if (directory) {
+            if (!overlay.mkdir(path)) {
+                return FileResult.failed(UnixEmulator.ENOTDIR);
+            }
+            return FileResult.success(createOverlayDirectoryFileIO(overlay, oflags, path));
+        }
+        return FileResult.success(createOverlayFileIO(overlay.createFile(path), oflags, path));
+    }
+
     protected abstract T createStdout(int oflags, File stdio, String pathname);
 
     protected abstract T createStdin(int oflags);
@@ -105,6 +188,10 @@ public abstract class BaseFileSystem<T extends NewFileIO> implements FileSystem<
             System.out.printf("mkdir '%s' with mode 0x%x from %s%n", path, mode, emulator.getContext().getLRPointer());
         }
 
+        if (overlay != null) {
+            return overlay.mkdir(path);
+        }
+
         if (dir.exists()) {
             return true;
         } else {
@@ -114,8 +201,12 @@ public abstract class BaseFileSystem<T extends NewFileIO> implements FileSystem<
 
     @Override
     public void rmdir(String path) {
-        File dir = new File(rootDir, path);
-        FileUtils.deleteQuietly(dir);
+        if (overlay != null) {
+            overlay.rmdir(path);
+        } else {
+            File dir = new File(rootDir, path);
+            FileUtils.deleteQuietly(dir);
+        }
 
         if (emulator.getSyscallHandler().isVerbose()) {
             System.out.printf("rmdir '%s' from %s%n", path, emulator.getContext().getLRPointer());
@@ -130,10 +221,14 @@ public abstract class BaseFileSystem<T extends NewFileIO> implements FileSystem<
 
     @Override
     public void unlink(String path) {
-        File file = new File(rootDir, path);
-        FileUtils.deleteQuietly(file);
-        if (log.isDebugEnabled()) {
-            log.debug("unlink path=" + path + ", file=" + file);
+        if (overlay != null) {
+            overlay.unlink(path);
+        } else {
+            File file = new File(rootDir, path);
+            FileUtils.deleteQuietly(file);
+            if (log.isDebugEnabled()) {
+                log.debug("unlink path=" + path + ", file=" + file);
+            }
         }
         if (emulator.getSyscallHandler().isVerbose()) {
             System.out.printf("unlink '%s' from %s%n", path, emulator.getContext().getLRPointer());
@@ -156,6 +251,14 @@ public abstract class BaseFileSystem<T extends NewFileIO> implements FileSystem<
 
     @Override
     public int rename(String oldPath, String newPath) {
+        if (overlay != null) {
+            int ret = overlay.rename(oldPath, newPath);
+            if (ret == 0 && emulator.getSyscallHandler().isVerbose()) {
+                System.out.printf("rename '%s' to '%s' from %s%n", oldPath, newPath, emulator.getContext().getLRPointer());
+            }
+            return ret;
+        }
+
         File oldFile = new File(rootDir, oldPath);
         File newFile = new File(rootDir, newPath);
 
@@ -0,0 +1,23 @@
+package com.github.unidbg.file;
+
+/**
+ * 模拟器写宿主文件时何时调用 {@link java.nio.channels.FileChannel#force(boolean)} 落盘
+ */
+public enum FileDurability {
+
+    /**
+     * 从不主动落盘，fsync 也直接返回，由操作系统决定何时写回
+     */
+    NONE,
+
+    /**
+     * 在 fsync 和 close 时落盘
+     */
+    CLOSE,
+
+    /**
+     * 每次 write 都落盘，和以前用 "rws" 打开文件的行为一致
+     */
+    ALWAYS
+
+}
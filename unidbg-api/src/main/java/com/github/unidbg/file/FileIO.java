@@ -40,6 +40,8 @@ public interface FileIO {
 
     int ftruncate(int length);
 
+    int fsync();
+
     int getpeername(Pointer addr, Pointer addrlen);
 
     int shutdown(int how);
@@ -1,5 +1,7 @@
 package com.github.unidbg.file;
 
+import com.github.unidbg.file.overlay.OverlayStore;
+
 import java.io.File;
 
 public interface FileSystem<T extends NewFileIO> {
@@ -25,4 +27,20 @@ public interface FileSystem<T extends NewFileIO> {
     T createDirectoryFileIO(File file, int oflags, String path);
 
     int rename(String oldPath, String newPath);
+
+    FileDurability getDurability();
+
+    /**
+     * 设置之后新打开的文件生效
+     */
+    void setDurability(FileDurability durability);
+
+    OverlayStore getOverlay();
+
+    /**
+     * 设置以后 open/unlink/mkdir/rmdir/rename 都在 overlay 里进行，不再读写 rootDir
+     * @param overlay 为 null 时恢复使用 rootDir
+     * @throws UnsupportedOperationException 文件系统不支持 overlay
+     */
+    void setOverlay(OverlayStore overlay);
 }
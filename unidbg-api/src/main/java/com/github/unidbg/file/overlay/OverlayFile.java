@@ -0,0 +1,110 @@
+package com.github.unidbg.file.overlay;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * overlay 里的一个文件，同一路径的所有 fd 共享。
+ * 没写过时直接读 {@link RootfsArchive} 的数据，第一次修改时复制到堆上
+ */
+public final class OverlayFile {
+
+    private final OverlayStore store;
+    private ByteBuffer base;
+    private byte[] data;
+    private int length;
+    private long lastModified;
+    boolean unlinked;
+
+    OverlayFile(OverlayStore store, ByteBuffer base, long lastModified) {
+        this.store = store;
+        this.base = base;
+        this.data = base == null ? new byte[0] : null;
+        this.length = base == null ? 0 : base.remaining();
+        this.lastModified = lastModified;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return 实际读取的字节数，position 超过文件末尾时返回 0
+     */
+    public int read(long position, byte[] buf, int off, int len) {
+        if (position >= length) {
+            return 0;
+        }
+        int count = (int) Math.min(len, length - position);
+        if (data != null) {
+            System.arraycopy(data, (int) position, buf, off, count);
+        } else {
+            ByteBuffer dup = base.duplicate();
+            dup.position((int) position);
+            dup.get(buf, off, count);
+        }
+        return count;
+    }
+
+    /**
+     * @return <code>false</code> 表示超出了 overlay 的容量限制
+     */
+    public boolean write(long position, byte[] src) {
+        long end = position + src.length;
+        if (end > Integer.MAX_VALUE || !ensureCapacity((int) end)) {
+            return false;
+        }
+        System.arraycopy(src, 0, data, (int) position, src.length);
+        if (end > length) {
+            length = (int) end;
+        }
+        lastModified = System.currentTimeMillis();
+        return true;
+    }
+
+    public boolean truncate(long newLength) {
+        if (newLength < 0 || newLength > Integer.MAX_VALUE || !ensureCapacity((int) newLength)) {
+            return false;
+        }
+        if (newLength < length) {
+            Arrays.fill(data, (int) newLength, length, (byte) 0);
+        }
+        length = (int) newLength;
+        lastModified = System.currentTimeMillis();
+        return true;
+    }
+
+    private boolean ensureCapacity(int capacity) {
+        if (data == null) { // copy on write
+            int size = Math.max(capacity, length);
+            if (!store.reserve(this, size)) {
+                return false;
+            }
+            data = new byte[size];
+            base.duplicate().get(data, 0, length);
+            base = null;
+            return true;
+        }
+        if (capacity <= data.length) {
+            return true;
+        }
+        int size = (int) Math.min(Integer.MAX_VALUE, Math.max(capacity, data.length * 2L));
+        if (!store.reserve(this, size - data.length)) {
+            size = capacity;
+            if (!store.reserve(this, size - data.length)) {
+                return false;
+            }
+        }
+        data = Arrays.copyOf(data, size);
+        return true;
+    }
+
+    long heapSize() {
+        return data == null ? 0 : data.length;
+    }
+
+}
@@ -0,0 +1,274 @@
+package com.github.unidbg.file.overlay;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 每个模拟器一个的内存文件系统：只读的 {@link RootfsArchive} 作为下层，修改都写到堆上的上层，
+ * 删除下层的文件或目录时记录 whiteout。不读写磁盘，模拟器销毁时直接丢弃即可。
+ * 不是线程安全的，和模拟器一样只能在一个线程里使用
+ */
+public class OverlayStore {
+
+    private final RootfsArchive base;
+    private final long maxSize;
+
+    private final Map<String, OverlayFile> files = new HashMap<>();
+    private final Set<String> directories = new HashSet<>();
+    private final Set<String> whiteouts = new HashSet<>();
+    private long size;
+
+    /**
+     * @param base 可以为 null，表示空的 rootfs
+     * @param maxSize 上层最多占用的堆内存字节数
+     */
+    public OverlayStore(RootfsArchive base, long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize=" + maxSize);
+        }
+        this.base = base;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 转成以 / 开头、不以 / 结尾的绝对路径，处理 . 和 ..
+     */
+    public static String normalize(String path) {
+        Deque<String> names = new ArrayDeque<>();
+        for (String name : path.split("/")) {
+            if (name.isEmpty() || ".".equals(name)) {
+                continue;
+            }
+            if ("..".equals(name)) {
+                names.pollLast();
+            } else {
+                names.addLast(name);
+            }
+        }
+        if (names.isEmpty()) {
+            return "/";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String name : names) {
+            builder.append('/').append(name);
+        }
+        return builder.toString();
+    }
+
+    private static String parent(String path) {
+        int index = path.lastIndexOf('/');
+        return index <= 0 ? "/" : path.substring(0, index);
+    }
+
+    private static String child(String dir, String name) {
+        return "/".equals(dir) ? "/" + name : dir + "/" + name;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    boolean reserve(OverlayFile file, long bytes) {
+        if (size + bytes > maxSize) {
+            return false;
+        }
+        if (!file.unlinked) {
+            size += bytes;
+        }
+        return true;
+    }
+
+    private boolean isBaseVisible(String path) {
+        if (base == null) {
+            return false;
+        }
+        for (String p = path; ; p = parent(p)) {
+            if (whiteouts.contains(p)) {
+                return false;
+            }
+            if ("/".equals(p)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean isFile(String path) {
+        path = normalize(path);
+        return files.containsKey(path) || (isBaseVisible(path) && base.isFile(path));
+    }
+
+    public boolean isDirectory(String path) {
+        path = normalize(path);
+        return "/".equals(path) || directories.contains(path) || (isBaseVisible(path) && base.isDirectory(path));
+    }
+
+    public boolean exists(String path) {
+        return isFile(path) || isDirectory(path);
+    }
+
+    /**
+     * @return 不存在时返回 null
+     */
+    public OverlayFile getFile(String path) {
+        path = normalize(path);
+        OverlayFile file = files.get(path);
+        if (file == null && isBaseVisible(path) && base.isFile(path)) {
+            file = new OverlayFile(this, base.getData(path), base.getLastModified());
+            files.put(path, file);
+        }
+        return file;
+    }
+
+    /**
+     * 创建空文件，已存在时替换，父目录不存在时自动创建
+     */
+    public OverlayFile createFile(String path) {
+        path = normalize(path);
+        mkdirs(parent(path));
+        OverlayFile file = new OverlayFile(this, null, System.currentTimeMillis());
+        release(files.put(path, file));
+        return file;
+    }
+
+    private void release(OverlayFile file) {
+        if (file != null && !file.unlinked) {
+            size -= file.heapSize();
+            file.unlinked = true;
+        }
+    }
+
+    /**
+     * @return <code>false</code> 表示路径上存在同名文件
+     */
+    public boolean mkdir(String path) {
+        path = normalize(path);
+        if (isDirectory(path)) {
+            return true;
+        }
+        if (isFile(path) || (!"/".equals(path) && !mkdir(parent(path)))) {
+            return false;
+        }
+        directories.add(path);
+        return true;
+    }
+
+    private void mkdirs(String path) {
+        if (!mkdir(path)) {
+            throw new IllegalStateException("mkdirs failed: " + path);
+        }
+    }
+
+    /**
+     * 和 rm -rf 一样连同子目录一起删除
+     */
+    public void rmdir(String path) {
+        path = normalize(path);
+        if ("/".equals(path)) {
+            throw new IllegalArgumentException("rmdir /");
+        }
+        String prefix = path + "/";
+        for (Iterator<Map.Entry<String, OverlayFile>> iterator = files.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, OverlayFile> entry = iterator.next();
+            if (entry.getKey().equals(path) || entry.getKey().startsWith(prefix)) {
+                release(entry.getValue());
+                iterator.remove();
+            }
+        }
+        for (Iterator<String> iterator = directories.iterator(); iterator.hasNext(); ) {
+            String dir = iterator.next();
+            if (dir.equals(path) || dir.startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+        if (isBaseVisible(path)) {
+            whiteouts.add(path);
+        }
+    }
+
+    public void unlink(String path) {
+        path = normalize(path);
+        if (directories.contains(path)) {
+            return;
+        }
+        release(files.remove(path));
+        if (isBaseVisible(path) && base.isFile(path)) {
+            whiteouts.add(path);
+        }
+    }
+
+    /**
+     * @return 0 表示成功，源路径不存在时返回 -1
+     */
+    public int rename(String oldPath, String newPath) {
+        oldPath = normalize(oldPath);
+        newPath = normalize(newPath);
+        if (oldPath.equals(newPath)) {
+            return exists(oldPath) ? 0 : -1;
+        }
+        if (isDirectory(oldPath)) {
+            if (newPath.startsWith(oldPath + "/")) {
+                return -1;
+            }
+            mkdirs(newPath);
+            for (String name : list(oldPath)) {
+                rename(child(oldPath, name), child(newPath, name));
+            }
+            rmdir(oldPath);
+            return 0;
+        }
+
+        OverlayFile file = getFile(oldPath);
+        if (file == null) {
+            return -1;
+        }
+        files.remove(oldPath);
+        if (isBaseVisible(oldPath) && base.isFile(oldPath)) {
+            whiteouts.add(oldPath);
+        }
+        mkdirs(parent(newPath));
+        release(files.put(newPath, file));
+        return 0;
+    }
+
+    /**
+     * @return 目录下的文件名，按名字排序，不是目录时返回 null
+     */
+    public List<String> list(String path) {
+        path = normalize(path);
+        if (!isDirectory(path)) {
+            return null;
+        }
+        Set<String> names = new TreeSet<>();
+        for (String file : files.keySet()) {
+            if (!"/".equals(file) && parent(file).equals(path)) {
+                names.add(file.substring(file.lastIndexOf('/') + 1));
+            }
+        }
+        for (String dir : directories) {
+            if (parent(dir).equals(path)) {
+                names.add(dir.substring(dir.lastIndexOf('/') + 1));
+            }
+        }
+        if (isBaseVisible(path) && base.isDirectory(path)) {
+            for (String name : base.list(path)) {
+                if (isBaseVisible(child(path, name))) {
+                    names.add(name);
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+}
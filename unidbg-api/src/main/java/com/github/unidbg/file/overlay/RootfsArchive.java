@@ -0,0 +1,119 @@
+package com.github.unidbg.file.overlay;
+
+import com.github.unidbg.file.zip.ZipIndex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 打包成 zip 的只读 rootfs，通过 {@link ZipIndex} 整个 mmap 到内存，可以在多个模拟器之间共享。
+ * STORED 的文件直接返回映射区域，DEFLATED 的文件第一次读取时解压并缓存。
+ * 不支持 zip64，文件不能超过 2G
+ */
+public final class RootfsArchive {
+
+    public static RootfsArchive open(File file) throws IOException {
+        return new RootfsArchive(ZipIndex.open(file));
+    }
+
+    private final ZipIndex index;
+    private final long lastModified;
+    private final Map<String, ZipIndex.Entry> files = new HashMap<>();
+    private final Map<String, List<String>> directories = new HashMap<>();
+    private final Map<ZipIndex.Entry, byte[]> inflated = new HashMap<>();
+
+    private RootfsArchive(ZipIndex index) throws IOException {
+        this.index = index;
+        this.lastModified = index.getFile().lastModified();
+
+        Map<String, TreeSet<String>> children = new HashMap<>();
+        children.put("/", new TreeSet<String>());
+        for (ZipIndex.Entry entry : index.getEntries()) {
+            String path = OverlayStore.normalize(entry.getName());
+            addParents(children, path);
+            if (entry.isDirectory()) {
+                if (!children.containsKey(path)) {
+                    children.put(path, new TreeSet<String>());
+                }
+                continue;
+            }
+            if (entry.getMethod() != ZipIndex.METHOD_STORED && entry.getMethod() != ZipIndex.METHOD_DEFLATED) {
+                throw new IOException("unsupported compression method " + entry.getMethod() + ": " + entry.getName());
+            }
+            files.put(path, entry);
+        }
+
+        for (Map.Entry<String, TreeSet<String>> entry : children.entrySet()) {
+            directories.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+        }
+    }
+
+    private static void addParents(Map<String, TreeSet<String>> children, String path) {
+        while (!"/".equals(path)) {
+            int index = path.lastIndexOf('/');
+            String parent = index == 0 ? "/" : path.substring(0, index);
+            TreeSet<String> set = children.get(parent);
+            if (set == null) {
+                set = new TreeSet<>();
+                children.put(parent, set);
+            }
+            set.add(path.substring(index + 1));
+            path = parent;
+        }
+    }
+
+    public File getFile() {
+        return index.getFile();
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @param path 经过 {@link OverlayStore#normalize(String)} 的路径
+     */
+    public boolean isFile(String path) {
+        return files.containsKey(path);
+    }
+
+    public boolean isDirectory(String path) {
+        return directories.containsKey(path);
+    }
+
+    /**
+     * @return 目录下的文件名，按名字排序，不是目录时返回 null
+     */
+    public List<String> list(String path) {
+        return directories.get(path);
+    }
+
+    /**
+     * @return 只读的文件内容，不是文件时返回 null
+     */
+    public ByteBuffer getData(String path) {
+        ZipIndex.Entry entry = files.get(path);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.getMethod() == ZipIndex.METHOD_STORED) {
+            return index.getData(entry);
+        }
+        synchronized (inflated) {
+            byte[] data = inflated.get(entry);
+            if (data == null) {
+                data = index.inflate(entry);
+                inflated.put(entry, data);
+            }
+            return ByteBuffer.wrap(data).asReadOnlyBuffer();
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.github.unidbg.file.zip;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 整个 zip 文件 mmap 到内存，中心目录只解析一次。
+ * STORED 的文件直接返回映射区域，DEFLATED 的文件每次调用 {@link #getData(Entry)} 都重新解压，由调用方决定是否缓存。
+ * 不支持 zip64，文件不能超过 2G
+ */
+public final class ZipIndex {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_HEADER_SIGNATURE = 0x06054b50;
+
+    private static final int END_HEADER_SIZE = 22;
+
+    public static final int METHOD_STORED = 0;
+    public static final int METHOD_DEFLATED = 8;
+
+    /**
+     * @throws IOException 不是 zip 文件、中心目录损坏或者是 zip64
+     */
+    public static ZipIndex open(File file) throws IOException {
+        ByteBuffer buffer;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); FileChannel channel = randomAccessFile.getChannel()) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("zip too large: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        try {
+            return new ZipIndex(file, buffer);
+        } catch (IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("bad zip file: " + file, e);
+        }
+    }
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private ZipIndex(File file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+
+        int end = findEndHeader();
+        int count = buffer.getShort(end + 10) & 0xffff;
+        long offset = buffer.getInt(end + 16) & 0xffffffffL;
+        if (count == 0xffff || offset == 0xffffffffL) {
+            throw new IOException("zip64 not supported: " + file);
+        }
+        int pos = (int) offset;
+        for (int i = 0; i < count; i++) {
+            if (buffer.getInt(pos) != CENTRAL_HEADER_SIGNATURE) {
+                throw new IOException("bad central directory: " + file);
+            }
+            int method = buffer.getShort(pos + 10) & 0xffff;
+            long compressedSize = buffer.getInt(pos + 20) & 0xffffffffL;
+            long size = buffer.getInt(pos + 24) & 0xffffffffL;
+            int nameLength = buffer.getShort(pos + 28) & 0xffff;
+            int extraLength = buffer.getShort(pos + 30) & 0xffff;
+            int commentLength = buffer.getShort(pos + 32) & 0xffff;
+            long localOffset = buffer.getInt(pos + 42) & 0xffffffffL;
+            byte[] name = new byte[nameLength];
+            ByteBuffer dup = buffer.duplicate();
+            dup.position(pos + 46);
+            dup.get(name);
+            pos += 46 + nameLength + extraLength + commentLength;
+
+            String entryName = new String(name, StandardCharsets.UTF_8);
+            if (compressedSize == 0xffffffffL || size == 0xffffffffL || localOffset == 0xffffffffL) {
+                throw new IOException("zip64 not supported: " + file);
+            }
+            if (buffer.getInt((int) localOffset) != LOCAL_HEADER_SIGNATURE) {
+                throw new IOException("bad local header: " + entryName);
+            }
+            int dataOffset = (int) localOffset + 30 + (buffer.getShort((int) localOffset + 26) & 0xffff) + (buffer.getShort((int) localOffset + 28) & 0xffff);
+            if (dataOffset + compressedSize > buffer.limit()) {
+                throw new IOException("bad entry size: " + entryName);
+            }
+            entries.put(entryName, new Entry(entryName, method, dataOffset, (int) compressedSize, (int) size));
+        }
+    }
+
+    private int findEndHeader() throws IOException {
+        if (buffer.limit() < END_HEADER_SIZE) {
+            throw new IOException("not a zip file: " + file);
+        }
+        int limit = Math.max(0, buffer.limit() - END_HEADER_SIZE - 0xffff);
+        for (int pos = buffer.limit() - END_HEADER_SIZE; pos >= limit; pos--) {
+            if (buffer.getInt(pos) == END_HEADER_SIGNATURE) {
+                return pos;
+            }
+        }
+        throw new IOException("not a zip file: " + file);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return 按中心目录顺序的全部条目，包括以 / 结尾的目录
+     */
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * @return 不存在时返回 null
+     */
+    public Entry getEntry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * @return 只读的文件内容
+     */
+    public ByteBuffer getData(Entry entry) {
+        switch (entry.method) {
+            case METHOD_STORED:
+                ByteBuffer dup = buffer.duplicate();
+                dup.limit(entry.offset + entry.size);
+                dup.position(entry.offset);
+                return dup.slice().asReadOnlyBuffer();
+            case METHOD_DEFLATED:
+                return ByteBuffer.wrap(inflate(entry)).asReadOnlyBuffer();
+            default:
+                throw new IllegalStateException("unsupported compression method " + entry.method + ": " + entry.name);
+        }
+    }
+
+    /**
+     * @return DEFLATED 条目解压后的内容
+     */
+    public byte[] inflate(Entry entry) {
+        byte[] input = new byte[entry.compressedSize];
+        ByteBuffer dup = buffer.duplicate();
+        dup.position(entry.offset);
+        dup.get(input);
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(input);
+            byte[] data = new byte[entry.size];
+            int total = 0;
+            while (total < entry.size) {
+                int read = inflater.inflate(data, total, entry.size - total);
+                if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                total += read;
+            }
+            if (total != entry.size) {
+                throw new IllegalStateException("inflate " + entry.name + " failed: expected=" + entry.size + ", actual=" + total);
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public static final class Entry {
+        private final String name;
+        private final int method;
+        private final int offset;
+        private final int compressedSize;
+        private final int size;
+
+        private Entry(String name, int method, int offset, int compressedSize, int size) {
+            this.name = name;
+            this.method = method;
+            this.offset = offset;
+            this.compressedSize = compressedSize;
+            this.size = size;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+
+        public int getMethod() {
+            return method;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+
+}
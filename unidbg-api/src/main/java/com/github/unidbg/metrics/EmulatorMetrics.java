@@ -0,0 +1,187 @@
+package com.github.unidbg.metrics;
+
+import com.github.unidbg.Svc;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 模拟器热路径统计，通过 {@link com.github.unidbg.Emulator#enableMetrics()} 开启，未开启时
+ * {@link com.github.unidbg.Emulator#getMetrics()} 返回 <code>null</code>，调用方只需要判空
+ */
+public class EmulatorMetrics implements EmulatorMetricsMXBean {
+
+    /**
+     * JNI 函数的 svc 名称前缀
+     */
+    public static final String JNI_ENV_PREFIX = "JNIEnv->";
+    public static final String JAVA_VM_PREFIX = "JavaVM->";
+
+    private static final int SYSCALL_TABLE_SIZE = 0x400;
+
+    private static class SvcCounter {
+        final String name;
+        final AtomicLong count = new AtomicLong();
+        SvcCounter(String name) {
+            this.name = name;
+        }
+    }
+
+    private final AtomicReferenceArray<AtomicLong> syscalls = new AtomicReferenceArray<>(SYSCALL_TABLE_SIZE);
+    private final ConcurrentMap<Integer, AtomicLong> otherSyscalls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Svc, SvcCounter> svcCounters = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram emulate = new LatencyHistogram();
+    private final AtomicLong mmap = new AtomicLong();
+    private final AtomicLong munmap = new AtomicLong();
+    private final AtomicLong pageFault = new AtomicLong();
+
+    public void onSyscall(int NR) {
+        if (NR >= 0 && NR < SYSCALL_TABLE_SIZE) {
+            AtomicLong counter = syscalls.get(NR);
+            if (counter == null) {
+                syscalls.compareAndSet(NR, null, new AtomicLong());
+                counter = syscalls.get(NR);
+            }
+            counter.incrementAndGet();
+        } else {
+            AtomicLong counter = otherSyscalls.get(NR);
+            if (counter == null) {
+                AtomicLong old = otherSyscalls.putIfAbsent(NR, counter = new AtomicLong());
+                if (old != null) {
+                    counter = old;
+                }
+            }
+            counter.incrementAndGet();
+        }
+    }
+
+    public void onSvc(int svcNumber, Svc svc) {
+        SvcCounter counter = svcCounters.get(svc);
+        if (counter == null) {
+            String name = svc.getName();
+            SvcCounter old = svcCounters.putIfAbsent(svc, counter = new SvcCounter(name == null ? "svc#0x" + Integer.toHexString(svcNumber) : name));
+            if (old != null) {
+                counter = old;
+            }
+        }
+        counter.count.incrementAndGet();
+    }
+
+    public void onEmulate(long nanos) {
+        emulate.record(nanos);
+    }
+
+    public void onMmap() {
+        mmap.incrementAndGet();
+    }
+
+    public void onMunmap() {
+        munmap.incrementAndGet();
+    }
+
+    public void onPageFault() {
+        pageFault.incrementAndGet();
+    }
+
+    @Override
+    public Map<Integer, Long> getSyscallCounts() {
+        Map<Integer, Long> map = new TreeMap<>();
+        for (int i = 0; i < SYSCALL_TABLE_SIZE; i++) {
+            AtomicLong counter = syscalls.get(i);
+            if (counter != null) {
+                map.put(i, counter.get());
+            }
+        }
+        for (Map.Entry<Integer, AtomicLong> entry : otherSyscalls.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().get());
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Long> getSvcCounts() {
+        return collectSvcCounts(false);
+    }
+
+    @Override
+    public Map<String, Long> getJniCounts() {
+        return collectSvcCounts(true);
+    }
+
+    private Map<String, Long> collectSvcCounts(boolean jni) {
+        Map<String, Long> map = new TreeMap<>();
+        for (SvcCounter counter : svcCounters.values()) {
+            if (jni == (counter.name.startsWith(JNI_ENV_PREFIX) || counter.name.startsWith(JAVA_VM_PREFIX))) {
+                Long old = map.get(counter.name);
+                map.put(counter.name, counter.count.get() + (old == null ? 0 : old));
+            }
+        }
+        return map;
+    }
+
+    public LatencyHistogram getEmulateHistogram() {
+        return emulate;
+    }
+
+    @Override
+    public long getEmulateCount() {
+        return emulate.getCount();
+    }
+
+    @Override
+    public long getEmulateTotalNanos() {
+        return emulate.getTotal();
+    }
+
+    @Override
+    public long getEmulateMaxNanos() {
+        return emulate.getMax();
+    }
+
+    @Override
+    public long getEmulateP50Nanos() {
+        return emulate.getPercentile(50);
+    }
+
+    @Override
+    public long getEmulateP99Nanos() {
+        return emulate.getPercentile(99);
+    }
+
+    @Override
+    public long getMmapCount() {
+        return mmap.get();
+    }
+
+    @Override
+    public long getMunmapCount() {
+        return munmap.get();
+    }
+
+    @Override
+    public long getPageFaultCount() {
+        return pageFault.get();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < SYSCALL_TABLE_SIZE; i++) {
+            AtomicLong counter = syscalls.get(i);
+            if (counter != null) {
+                counter.set(0);
+            }
+        }
+        otherSyscalls.clear();
+        svcCounters.clear();
+        emulate.reset();
+        mmap.set(0);
+        munmap.set(0);
+        pageFault.set(0);
+    }
+
+}
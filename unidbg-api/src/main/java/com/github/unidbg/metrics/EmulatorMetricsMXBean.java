@@ -0,0 +1,38 @@
+package com.github.unidbg.metrics;
+
+import java.util.Map;
+
+/**
+ * 通过 JMX 导出的模拟器统计，耗时单位为纳秒
+ */
+public interface EmulatorMetricsMXBean {
+
+    /**
+     * key 为系统调用号
+     */
+    Map<Integer, Long> getSyscallCounts();
+
+    /**
+     * 不包括 JNI 函数
+     */
+    Map<String, Long> getSvcCounts();
+
+    Map<String, Long> getJniCounts();
+
+    long getEmulateCount();
+    long getEmulateTotalNanos();
+    long getEmulateMaxNanos();
+    long getEmulateP50Nanos();
+    long getEmulateP99Nanos();
+
+    long getMmapCount();
+    long getMunmapCount();
+
+    /**
+     * 访问未映射内存的次数
+     */
+    long getPageFaultCount();
+
+    void reset();
+
+}
@@ -0,0 +1,42 @@
+package com.github.unidbg.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 注册到 platform MBeanServer，名称为 <code>com.github.unidbg:type=...,name=...,id=...</code>
+ */
+public class MBeans {
+
+    public static final String DOMAIN = "com.github.unidbg";
+
+    private static final AtomicInteger ID = new AtomicInteger();
+
+    public static ObjectName register(Object mbean, String type, String name) {
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name) + ",id=" + ID.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("register mbean failed: type=" + type + ", name=" + name, e);
+        }
+    }
+
+    public static void unregister(ObjectName objectName) {
+        if (objectName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("unregister mbean failed: " + objectName, e);
+        }
+    }
+
+}
@@ -7,11 +7,15 @@ import com.github.unidbg.arm.backend.CodeHook;
 import com.github.unidbg.arm.backend.DebugHook;
 import com.github.unidbg.arm.backend.EventMemHook;
 import com.github.unidbg.arm.backend.InterruptHook;
+import com.github.unidbg.arm.backend.PageLoader;
 import com.github.unidbg.arm.backend.ReadHook;
+import com.github.unidbg.arm.backend.TraceSink;
 import com.github.unidbg.arm.backend.WriteHook;
 import com.github.unidbg.debugger.BreakPoint;
 import com.github.unidbg.debugger.BreakPointCallback;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
 class ByteArrayBackend implements Backend {
@@ -57,6 +61,16 @@ class ByteArrayBackend implements Backend {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public long reg_read_long(int regId) throws BackendException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long reg_epoch() {
+        return 0;
+    }
+
     @Override
     public byte[] mem_read(long address, long size) throws BackendException {
         return Arrays.copyOfRange(data, (int) address, (int) (address + size));
@@ -67,11 +81,62 @@ class ByteArrayBackend implements Backend {
         System.arraycopy(bytes, 0, data, (int) address, bytes.length);
     }
 
+    @Override
+    public ByteBuffer mem_buffer(long address, int size) throws BackendException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, (int) address, size).slice();
+        return buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void mem_read(long address, ByteBuffer dst) throws BackendException {
+        dst.put(data, (int) address, dst.remaining());
+    }
+
+    @Override
+    public void mem_write(long address, ByteBuffer src) throws BackendException {
+        src.get(data, (int) address, src.remaining());
+    }
+
+    @Override
+    public int mem_read_u32(long address) throws BackendException {
+        return mem_buffer(address, 4).getInt(0);
+    }
+
+    @Override
+    public long mem_read_u64(long address) throws BackendException {
+        return mem_buffer(address, 8).getLong(0);
+    }
+
+    @Override
+    public void mem_write_u32(long address, int value) throws BackendException {
+        mem_buffer(address, 4).putInt(0, value);
+    }
+
+    @Override
+    public void mem_write_u64(long address, long value) throws BackendException {
+        mem_buffer(address, 8).putLong(0, value);
+    }
+
     @Override
     public void mem_map(long address, long size, int perms) throws BackendException {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public boolean mem_map_lazy(long address, long size, int perms, PageLoader loader) throws BackendException {
+        return false;
+    }
+
+    @Override
+    public boolean mem_track_dirty() throws BackendException {
+        return false;
+    }
+
+    @Override
+    public long[] mem_dirty_pages() throws BackendException {
+        return null;
+    }
+
     @Override
     public void mem_protect(long address, long size, int perms) throws BackendException {
         throw new UnsupportedOperationException();
@@ -137,6 +202,11 @@ class ByteArrayBackend implements Backend {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void hook_add_trace(TraceSink sink, int types, long begin, long end) throws BackendException {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public void emu_start(long begin, long until, long timeout, long count) throws BackendException {
         throw new UnsupportedOperationException();
@@ -0,0 +1,10 @@
+package com.github.unidbg.pointer;
+
+public interface TraceMemoryWriteListener extends MemoryWriteListener {
+
+    /**
+     * 返回 <code>false</code> 时写入不需要复制成 byte[] 回调 {@link #onSystemWrite(long, byte[])}
+     */
+    boolean isTraceSystemWrite(long addr, long size);
+
+}
@@ -4,6 +4,7 @@ import com.github.unidbg.Emulator;
 import com.github.unidbg.InvalidMemoryAccessException;
 import com.github.unidbg.Module;
 import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.arm.backend.BackendException;
 import com.github.unidbg.hook.BaseHook;
 import com.github.unidbg.memory.Memory;
 import com.github.unidbg.memory.MemoryMap;
@@ -42,6 +43,17 @@ public class UnidbgPointer extends Pointer {
     }
 
     private final MemoryWriteListener listener;
+    private final TraceMemoryWriteListener traceListener;
+
+    /**
+     * @return 写入是否需要复制成 byte[] 回调 {@link MemoryWriteListener#onSystemWrite(long, byte[])}
+     */
+    private boolean isTraceSystemWrite(long addr, long size) {
+        if (listener == null) {
+            return false;
+        }
+        return traceListener == null || traceListener.isTraceSystemWrite(addr, size);
+    }
 
     UnidbgPointer(Emulator<?> emulator, byte[] data) {
         super(0);
@@ -51,6 +63,7 @@ public class UnidbgPointer extends Pointer {
         this.peer = 0L;
         this.pointerSize = 0;
         this.listener = null;
+        this.traceListener = null;
     }
 
     private UnidbgPointer(Emulator<?> emulator, long peer, int pointerSize) {
@@ -66,6 +79,11 @@ public class UnidbgPointer extends Pointer {
         } else {
             listener = null;
         }
+        if (emulator instanceof TraceMemoryWriteListener) {
+            traceListener = (TraceMemoryWriteListener) emulator;
+        } else {
+            traceListener = null;
+        }
     }
 
     private long size;
@@ -91,7 +109,7 @@ public class UnidbgPointer extends Pointer {
     }
 
     public static UnidbgPointer register(Emulator<?> emulator, int reg) {
-        return pointer(emulator, emulator.getBackend().reg_read(reg));
+        return pointer(emulator, emulator.getBackend().reg_read_long(reg));
     }
 
     @Override
@@ -101,46 +119,43 @@ public class UnidbgPointer extends Pointer {
 
     @Override
     public void read(long offset, byte[] buf, int index, int length) {
-        byte[] data = getByteArray(offset, length);
-        System.arraycopy(data, 0, buf, index, length);
+        read(offset, ByteBuffer.wrap(buf, index, length));
     }
 
     @Override
     public void read(long offset, short[] buf, int index, int length) {
-        throw new AbstractMethodError();
+        ByteBuffer buffer = readBuffer(offset, length * 2);
+        buffer.asShortBuffer().get(buf, index, length);
     }
 
     @Override
     public void read(long offset, char[] buf, int index, int length) {
-        throw new AbstractMethodError();
+        ByteBuffer buffer = readBuffer(offset, length * 2);
+        buffer.asCharBuffer().get(buf, index, length);
     }
 
     @Override
     public void read(long offset, int[] buf, int index, int length) {
-        for (int i = index; i < length; i++) {
-            buf[i] = getInt((i - index) * 4L + offset);
-        }
+        ByteBuffer buffer = readBuffer(offset, length * 4);
+        buffer.asIntBuffer().get(buf, index, length);
     }
 
     @Override
     public void read(long offset, long[] buf, int index, int length) {
-        for (int i = index; i < length; i++) {
-            buf[i] = getLong((i - index) * 8L + offset);
-        }
+        ByteBuffer buffer = readBuffer(offset, length * 8);
+        buffer.asLongBuffer().get(buf, index, length);
     }
 
     @Override
     public void read(long offset, float[] buf, int index, int length) {
-    	 for (int i = index; i < length; i++) {
-             buf[i] = getFloat((i - index) * 4L + offset);
-         }
+        ByteBuffer buffer = readBuffer(offset, length * 4);
+        buffer.asFloatBuffer().get(buf, index, length);
     }
 
     @Override
     public void read(long offset, double[] buf, int index, int length) {
-    	  for (int i = index; i < length; i++) {
-              buf[i] = getDouble((i - index) * 8L + offset);
-          }
+        ByteBuffer buffer = readBuffer(offset, length * 8);
+        buffer.asDoubleBuffer().get(buf, index, length);
     }
 
     @Override
@@ -148,74 +163,88 @@ public class UnidbgPointer extends Pointer {
         throw new AbstractMethodError();
     }
 
+    private ByteBuffer readBuffer(long offset, int length) {
+        ByteBuffer buffer = allocateBuffer(length);
+        read(offset, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * 读取 <code>dst.remaining()</code> 字节
+     */
+    public void read(long offset, ByteBuffer dst) {
+        int length = dst.remaining();
+        checkRange(offset, length);
+        backend.mem_read(peer + offset, dst);
+    }
+
     public void write(byte[] buf) {
         write(0, buf, 0, buf.length);
     }
 
     @Override
     public void write(long offset, byte[] buf, int index, int length) {
-        if (size > 0) {
-            if (offset < 0) {
-                throw new IllegalArgumentException();
-            }
-
-            if (size - offset < length) {
-                throw new InvalidMemoryAccessException();
-            }
-        }
+        write(offset, ByteBuffer.wrap(buf, index, length));
+    }
 
-        byte[] data;
-        if (index == 0 && buf.length == length) {
-            data = buf;
-        } else {
-            data = new byte[length];
-            System.arraycopy(buf, index, data, 0, length);
-        }
+    /**
+     * 写入 <code>src.remaining()</code> 字节
+     */
+    public void write(long offset, ByteBuffer src) {
+        int length = src.remaining();
+        checkRange(offset, length);
         long addr = peer + offset;
-        backend.mem_write(addr, data);
-        if (listener != null) {
+        if (isTraceSystemWrite(addr, length)) {
+            byte[] data = new byte[length];
+            src.get(data);
+            backend.mem_write(addr, data);
             listener.onSystemWrite(addr, data);
+        } else {
+            backend.mem_write(addr, src);
         }
     }
 
     @Override
     public void write(long offset, short[] buf, int index, int length) {
-        for (int i = index; i < length; i++) {
-            setShort((i - index) * 2L + offset, buf[i]);
-        }
+        ByteBuffer buffer = allocateBuffer(length * 2);
+        buffer.asShortBuffer().put(buf, index, length);
+        write(offset, buffer);
     }
 
     @Override
     public void write(long offset, char[] buf, int index, int length) {
-        throw new AbstractMethodError();
+        ByteBuffer buffer = allocateBuffer(length * 2);
+        buffer.asCharBuffer().put(buf, index, length);
+        write(offset, buffer);
     }
 
     @Override
     public void write(long offset, int[] buf, int index, int length) {
-        for (int i = index; i < length; i++) {
-            setInt((i - index) * 4L + offset, buf[i]);
-        }
+        ByteBuffer buffer = allocateBuffer(length * 4);
+        buffer.asIntBuffer().put(buf, index, length);
+        write(offset, buffer);
     }
 
     @Override
     public void write(long offset, long[] buf, int index, int length) {
-        for (int i = index; i < length; i++) {
-            setLong((i - index) * 8L + offset, buf[i]);
-        }
+        ByteBuffer buffer = allocateBuffer(length * 8);
+        buffer.asLongBuffer().put(buf, index, length);
+        write(offset, buffer);
     }
 
     @Override
     public void write(long offset, float[] buf, int index, int length) {
-        for (int i = index; i < length; i++) {
-            setFloat((i - index) * 4L + offset, buf[i]);
-        }
+        ByteBuffer buffer = allocateBuffer(length * 4);
+        buffer.asFloatBuffer().put(buf, index, length);
+        write(offset, buffer);
     }
 
     @Override
     public void write(long offset, double[] buf, int index, int length) {
-        for (int i = index; i < length; i++) {
-            setDouble((i - index) * 8L + offset, buf[i]);
-        }
+        ByteBuffer buffer = allocateBuffer(length * 8);
+        buffer.asDoubleBuffer().put(buf, index, length);
+        write(offset, buffer);
     }
 
     @Override
@@ -223,6 +252,18 @@ public class UnidbgPointer extends Pointer {
         throw new AbstractMethodError();
     }
 
+    private void checkRange(long offset, long length) {
+        if (size > 0) {
+            if (offset < 0) {
+                throw new IllegalArgumentException();
+            }
+
+            if (size - offset < length) {
+                throw new InvalidMemoryAccessException();
+            }
+        }
+    }
+
     @Override
     public byte getByte(long offset) {
         return getByteArray(offset, 1)[0];
@@ -240,12 +281,14 @@ public class UnidbgPointer extends Pointer {
 
     @Override
     public int getInt(long offset) {
-        return getByteBuffer(offset, 4).getInt();
+        checkRange(offset, 4);
+        return backend.mem_read_u32(peer + offset);
     }
 
     @Override
     public long getLong(long offset) {
-        return getByteBuffer(offset, 8).getLong();
+        checkRange(offset, 8);
+        return backend.mem_read_u64(peer + offset);
     }
 
     @Override
@@ -255,12 +298,12 @@ public class UnidbgPointer extends Pointer {
 
     @Override
     public float getFloat(long offset) {
-        return getByteBuffer(offset, 4).getFloat();
+        return Float.intBitsToFloat(getInt(offset));
     }
 
     @Override
     public double getDouble(long offset) {
-        return getByteBuffer(offset, 8).getDouble();
+        return Double.longBitsToDouble(getLong(offset));
     }
 
     @Override
@@ -268,6 +311,22 @@ public class UnidbgPointer extends Pointer {
         return pointer(emulator, pointerSize == 4 ? (Number) getInt(offset) : (Number) getLong(offset));
     }
 
+    /**
+     * 从 {@link UnidbgStructure} 整体读入的缓冲区解析指针
+     */
+    final UnidbgPointer getPointer(ByteBuffer buffer, int offset) {
+        return pointer(emulator, pointerSize == 4 ? (Number) buffer.getInt(offset) : (Number) buffer.getLong(offset));
+    }
+
+    final void setPointer(ByteBuffer buffer, int offset, Pointer pointer) {
+        long value = pointer == null ? 0 : ((UnidbgPointer) pointer).peer;
+        if (pointerSize == 4) {
+            buffer.putInt(offset, (int) value);
+        } else {
+            buffer.putLong(offset, value);
+        }
+    }
+
     @Override
     public byte[] getByteArray(long offset, int arraySize) {
         if (size > 0 && offset + arraySize > size) {
@@ -287,9 +346,7 @@ public class UnidbgPointer extends Pointer {
         }
 
         int[] array = new int[arraySize];
-        for (int i = 0; i < arraySize; i++) {
-            array[i] = getInt(offset + i * 4);
-        }
+        read(offset, array, 0, arraySize);
         return array;
     }
 
@@ -375,12 +432,24 @@ public class UnidbgPointer extends Pointer {
 
     @Override
     public void setInt(long offset, int value) {
-        write(offset, allocateBuffer(4).putInt(value).array(), 0, 4);
+        checkRange(offset, 4);
+        long addr = peer + offset;
+        if (isTraceSystemWrite(addr, 4)) {
+            write(offset, allocateBuffer(4).putInt(value).array(), 0, 4);
+        } else {
+            backend.mem_write_u32(addr, value);
+        }
     }
 
     @Override
     public void setLong(long offset, long value) {
-        write(offset, allocateBuffer(8).putLong(value).array(), 0, 8);
+        checkRange(offset, 8);
+        long addr = peer + offset;
+        if (isTraceSystemWrite(addr, 8)) {
+            write(offset, allocateBuffer(8).putLong(value).array(), 0, 8);
+        } else {
+            backend.mem_write_u64(addr, value);
+        }
     }
 
     @Override
@@ -390,12 +459,12 @@ public class UnidbgPointer extends Pointer {
 
     @Override
     public void setFloat(long offset, float value) {
-        write(offset, allocateBuffer(4).putFloat(value).array(), 0, 4);
+        setInt(offset, Float.floatToRawIntBits(value));
     }
 
     @Override
     public void setDouble(long offset, double value) {
-        write(offset, allocateBuffer(8).putDouble(value).array(), 0, 8);
+        setLong(offset, Double.doubleToRawLongBits(value));
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.github.unidbg.pointer;
 
 import com.github.unidbg.AbstractEmulator;
 import com.github.unidbg.Emulator;
+import com.github.unidbg.arm.backend.BackendException;
 import com.sun.jna.Memory;
 import com.sun.jna.Native;
 import com.sun.jna.Pointer;
@@ -14,6 +15,9 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -114,11 +118,212 @@ public abstract class UnidbgStructure extends Structure {
     }
 
     public void pack() {
-        super.write();
+        write();
     }
 
     public void unpack() {
-        super.read();
+        read();
+    }
+
+    /**
+     * 整体读写时的缓冲区，只在 {@link #read()} 和 {@link #write()} 期间存在，指针本身的读写不受影响
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * 整个结构体一次读入，基本类型和指针字段从缓冲区解析
+     */
+    @Override
+    public void read() {
+        UnidbgPointer pointer = bufferedPointer(false);
+        if (pointer == null || buffer != null) {
+            super.read();
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size()).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            pointer.read(0, buffer);
+        } catch (BackendException e) { // 结尾的对齐填充可能没有映射
+            super.read();
+            return;
+        }
+        this.buffer = buffer;
+        try {
+            super.read();
+        } finally {
+            this.buffer = null;
+        }
+    }
+
+    /**
+     * 字段先写入缓冲区，再整体写回；包含其它类型的字段时逐个字段写入
+     */
+    @Override
+    public void write() {
+        UnidbgPointer pointer = bufferedPointer(true);
+        if (pointer == null || buffer != null) {
+            super.write();
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size()).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            pointer.read(0, buffer);
+        } catch (BackendException e) {
+            super.write();
+            return;
+        }
+        this.buffer = buffer;
+        try {
+            super.write();
+        } finally {
+            this.buffer = null;
+        }
+        ((Buffer) buffer).clear();
+        pointer.write(0, buffer);
+    }
+
+    @Override
+    protected Object readField(StructField sf) {
+        if (buffer == null || !isBuffered(sf)) {
+            return super.readField(sf);
+        }
+        try {
+            Object value = sf.field.get(this);
+            Class<?> type = sf.type;
+            if (type.isArray()) {
+                if (value == null) {
+                    return super.readField(sf);
+                }
+                ByteBuffer view = slice(sf.offset);
+                Class<?> componentType = type.getComponentType();
+                if (componentType == byte.class) {
+                    view.get((byte[]) value);
+                } else if (componentType == short.class) {
+                    view.asShortBuffer().get((short[]) value);
+                } else if (componentType == int.class) {
+                    view.asIntBuffer().get((int[]) value);
+                } else if (componentType == long.class) {
+                    view.asLongBuffer().get((long[]) value);
+                } else if (componentType == float.class) {
+                    view.asFloatBuffer().get((float[]) value);
+                } else {
+                    view.asDoubleBuffer().get((double[]) value);
+                }
+                return value;
+            }
+            Object result;
+            if (type == byte.class) {
+                result = buffer.get(sf.offset);
+            } else if (type == short.class) {
+                result = buffer.getShort(sf.offset);
+            } else if (type == int.class) {
+                result = buffer.getInt(sf.offset);
+            } else if (type == long.class) {
+                result = buffer.getLong(sf.offset);
+            } else if (type == float.class) {
+                result = buffer.getFloat(sf.offset);
+            } else if (type == double.class) {
+                result = buffer.getDouble(sf.offset);
+            } else {
+                UnidbgPointer pointer = ((UnidbgPointer) getPointer()).getPointer(buffer, sf.offset);
+                if (pointer != null && value instanceof UnidbgPointer && ((UnidbgPointer) value).peer == pointer.peer) {
+                    return value;
+                }
+                result = pointer;
+            }
+            sf.field.set(this, result);
+            return result;
+        } catch (IllegalAccessException e) { // final 字段等交给 jna 处理
+            return super.readField(sf);
+        }
+    }
+
+    @Override
+    protected void writeField(StructField sf) {
+        if (buffer == null) {
+            super.writeField(sf);
+            return;
+        }
+        if (sf.isReadOnly) {
+            return;
+        }
+        Object value;
+        try {
+            value = sf.field.get(this);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+        Class<?> type = sf.type;
+        if (type.isArray()) {
+            if (value == null) {
+                return;
+            }
+            ByteBuffer view = slice(sf.offset);
+            Class<?> componentType = type.getComponentType();
+            if (componentType == byte.class) {
+                view.put((byte[]) value);
+            } else if (componentType == short.class) {
+                view.asShortBuffer().put((short[]) value);
+            } else if (componentType == int.class) {
+                view.asIntBuffer().put((int[]) value);
+            } else if (componentType == long.class) {
+                view.asLongBuffer().put((long[]) value);
+            } else if (componentType == float.class) {
+                view.asFloatBuffer().put((float[]) value);
+            } else {
+                view.asDoubleBuffer().put((double[]) value);
+            }
+        } else if (type == byte.class) {
+            buffer.put(sf.offset, (Byte) value);
+        } else if (type == short.class) {
+            buffer.putShort(sf.offset, (Short) value);
+        } else if (type == int.class) {
+            buffer.putInt(sf.offset, (Integer) value);
+        } else if (type == long.class) {
+            buffer.putLong(sf.offset, (Long) value);
+        } else if (type == float.class) {
+            buffer.putFloat(sf.offset, (Float) value);
+        } else if (type == double.class) {
+            buffer.putDouble(sf.offset, (Double) value);
+        } else {
+            ((UnidbgPointer) getPointer()).setPointer(buffer, sf.offset, (Pointer) value);
+        }
+    }
+
+    private ByteBuffer slice(int offset) {
+        ByteBuffer view = buffer.duplicate();
+        ((Buffer) view).position(offset);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 没有类型转换的基本类型、基本类型数组和指针字段，<code>char</code> 和 <code>boolean</code> 的长度跟平台有关，逐个字段读写
+     */
+    private static boolean isBuffered(StructField sf) {
+        if (sf.readConverter != null || sf.writeConverter != null) {
+            return false;
+        }
+        Class<?> type = sf.type.isArray() ? sf.type.getComponentType() : sf.type;
+        if (type.isPrimitive()) {
+            return type != char.class && type != boolean.class;
+        }
+        return !sf.type.isArray() && Pointer.class.isAssignableFrom(type);
+    }
+
+    private UnidbgPointer bufferedPointer(boolean write) {
+        Pointer pointer = getPointer();
+        if (!(pointer instanceof UnidbgPointer) || pointer instanceof ByteArrayPointer || isPlaceholderMemory(pointer)) {
+            return null;
+        }
+        if (write) {
+            ensureAllocated();
+            for (StructField sf : fields().values()) {
+                if (!sf.isVolatile && !isBuffered(sf)) {
+                    return null;
+                }
+            }
+        }
+        return (UnidbgPointer) pointer;
     }
 
     /**
@@ -0,0 +1,483 @@
+package com.github.unidbg.snapshot;
+
+import com.github.unidbg.Emulator;
+import com.github.unidbg.arm.ARM;
+import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.arm.backend.BackendException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import unicorn.Arm64Const;
+import unicorn.ArmConst;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * 模拟器快照：寄存器、内存页和各组件状态。
+ * 全零页不保存，与上一个快照内容相同的页共享同一个数组，所以从同一个快照 fork 出来的多个实例只需要各自的脏页。
+ */
+public class EmulatorSnapshot {
+
+    private static final Log log = LogFactory.getLog(EmulatorSnapshot.class);
+
+    private static final int READ_CHUNK_SIZE = 0x100000;
+
+    private static final int CHECKPOINT_MAGIC = 0x55444350; // UDCP
+    private static final int CHECKPOINT_VERSION = 2;
+
+    private final String emulatorClass;
+    private final boolean is64Bit;
+    private final int pageSize;
+    private EmulatorSnapshot parent;
+    private boolean frozen;
+
+    private final Map<Integer, Number> registers;
+    private final Map<Integer, byte[]> vectorRegisters;
+    /**
+     * 采集的页是堆上的数组，从检查点读取的页是映射文件的切片
+     */
+    private final Map<Long, ByteBuffer> pages;
+    private final Map<String, Object> states;
+
+    /**
+     * 增量视图里需要恢复的页，<code>null</code> 表示恢复全部
+     */
+    private final NavigableSet<Long> dirtyPages;
+
+    private byte[] zeroPage;
+
+    /**
+     * @param parent 该模拟器上一次恢复的快照，用于共享未修改的页，可以为 <code>null</code>
+     */
+    public EmulatorSnapshot(Emulator<?> emulator, EmulatorSnapshot parent) {
+        this.emulatorClass = emulator.getClass().getName();
+        this.is64Bit = emulator.is64Bit();
+        this.pageSize = emulator.getPageAlign();
+        this.parent = parent;
+        this.registers = new LinkedHashMap<>();
+        this.vectorRegisters = new LinkedHashMap<>();
+        this.pages = new HashMap<>();
+        this.states = new HashMap<>();
+        this.dirtyPages = null;
+    }
+
+    private EmulatorSnapshot(String emulatorClass, boolean is64Bit, int pageSize) {
+        this.emulatorClass = emulatorClass;
+        this.is64Bit = is64Bit;
+        this.pageSize = pageSize;
+        this.registers = new LinkedHashMap<>();
+        this.vectorRegisters = new LinkedHashMap<>();
+        this.pages = new HashMap<>();
+        this.states = new HashMap<>();
+        this.dirtyPages = null;
+    }
+
+    private EmulatorSnapshot(EmulatorSnapshot snapshot, NavigableSet<Long> dirtyPages) {
+        this.emulatorClass = snapshot.emulatorClass;
+        this.is64Bit = snapshot.is64Bit;
+        this.pageSize = snapshot.pageSize;
+        this.frozen = true;
+        this.registers = snapshot.registers;
+        this.vectorRegisters = snapshot.vectorRegisters;
+        this.pages = snapshot.pages;
+        this.states = snapshot.states;
+        this.dirtyPages = dirtyPages;
+        this.zeroPage = snapshot.zeroPage;
+    }
+
+    /**
+     * 只恢复写过的页的视图，其它状态和这个快照共用
+     * @param dirtyPages 从这个快照恢复以后写过的页，见 {@link Backend#mem_dirty_pages()}
+     */
+    public EmulatorSnapshot incremental(long[] dirtyPages) {
+        if (!frozen) {
+            throw new IllegalStateException("snapshot is not frozen");
+        }
+        NavigableSet<Long> set = new TreeSet<>();
+        for (long page : dirtyPages) {
+            set.add(page & ~(pageSize - 1L));
+        }
+        return new EmulatorSnapshot(this, set);
+    }
+
+    public boolean isIncremental() {
+        return dirtyPages != null;
+    }
+
+    public String getEmulatorClass() {
+        return emulatorClass;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    public void checkCompatible(Emulator<?> emulator) {
+        if (!emulatorClass.equals(emulator.getClass().getName())) {
+            throw new IllegalStateException("Incompatible emulator: snapshot=" + emulatorClass + ", emulator=" + emulator.getClass().getName());
+        }
+        if (is64Bit != emulator.is64Bit() || pageSize != emulator.getPageAlign()) {
+            throw new IllegalStateException("Incompatible emulator: is64Bit=" + is64Bit + ", pageSize=0x" + Integer.toHexString(pageSize));
+        }
+    }
+
+    private int[] getRegisters() {
+        int[] regs;
+        if (is64Bit) {
+            regs = ARM.getAll64Registers();
+        } else {
+            regs = ARM.getAllRegisters(false);
+        }
+        regs = Arrays.copyOf(regs, regs.length + 1);
+        regs[regs.length - 1] = is64Bit ? Arm64Const.UC_ARM64_REG_TPIDR_EL0 : ArmConst.UC_ARM_REG_C13_C0_3;
+        return regs;
+    }
+
+    private boolean isVectorRegister(int regId) {
+        if (is64Bit) {
+            return regId >= Arm64Const.UC_ARM64_REG_Q0 && regId <= Arm64Const.UC_ARM64_REG_Q31;
+        } else {
+            return regId >= ArmConst.UC_ARM_REG_D0 && regId <= ArmConst.UC_ARM_REG_D15;
+        }
+    }
+
+    /**
+     * 采集完成，之后快照不可再修改
+     */
+    public void freeze() {
+        this.parent = null;
+        this.frozen = true;
+    }
+
+    private void checkFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("snapshot is frozen");
+        }
+    }
+
+    public void captureRegisters(Backend backend) {
+        checkFrozen();
+        for (int regId : getRegisters()) {
+            try {
+                if (isVectorRegister(regId)) {
+                    vectorRegisters.put(regId, backend.reg_read_vector(regId));
+                } else {
+                    Number value = backend.reg_read(regId);
+                    registers.put(regId, is64Bit ? value : Integer.valueOf(value.intValue())); // 32 位寄存器的高位可能是未初始化的数据
+                }
+            } catch (UnsupportedOperationException | BackendException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("captureRegisters skip regId=" + regId + ", msg=" + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public void restoreRegisters(Backend backend) {
+        for (Map.Entry<Integer, Number> entry : registers.entrySet()) {
+            try {
+                backend.reg_write(entry.getKey(), entry.getValue());
+            } catch (UnsupportedOperationException | BackendException e) {
+                log.debug("restoreRegisters skip regId=" + entry.getKey(), e);
+            }
+        }
+        for (Map.Entry<Integer, byte[]> entry : vectorRegisters.entrySet()) {
+            try {
+                backend.reg_write_vector(entry.getKey(), entry.getValue());
+            } catch (UnsupportedOperationException | BackendException e) {
+                log.debug("restoreRegisters skip vector regId=" + entry.getKey(), e);
+            }
+        }
+    }
+
+    public void capturePages(Backend backend, long base, long size) {
+        checkFrozen();
+        for (long offset = 0; offset < size; offset += READ_CHUNK_SIZE) {
+            int chunk = (int) Math.min(READ_CHUNK_SIZE, size - offset);
+            byte[] data = backend.mem_read(base + offset, chunk);
+            for (int off = 0; off < chunk; off += pageSize) {
+                long address = base + offset + off;
+                int end = Math.min(off + pageSize, chunk);
+                if (isZero(data, off, end)) {
+                    continue;
+                }
+                ByteBuffer page = parent == null ? null : parent.pages.get(address);
+                if (page == null || !equals(page, data, off, end)) {
+                    page = ByteBuffer.wrap(Arrays.copyOfRange(data, off, end));
+                }
+                pages.put(address, page);
+            }
+        }
+    }
+
+    /**
+     * @param zeroed 区域是否为新映射的内存，新映射的内存不需要写入全零页。增量视图只恢复不是新映射的区域里写过的页
+     */
+    public void restorePages(Backend backend, long base, long size, boolean zeroed) {
+        if (dirtyPages != null && !zeroed) {
+            for (long address : dirtyPages.subSet(base, true, base + size, false)) {
+                restorePage(backend, address, base + size);
+            }
+            return;
+        }
+        for (long address = base; address < base + size; address += pageSize) {
+            if (!zeroed || pages.containsKey(address)) {
+                restorePage(backend, address, base + size);
+            }
+        }
+    }
+
+    private void restorePage(Backend backend, long address, long end) {
+        ByteBuffer page = pages.get(address);
+        if (page != null) {
+            backend.mem_write(address, page.duplicate());
+        } else {
+            int length = (int) Math.min(pageSize, end - address);
+            backend.mem_write(address, length == pageSize ? getZeroPage() : new byte[length]);
+        }
+    }
+
+    private byte[] getZeroPage() {
+        if (zeroPage == null) {
+            zeroPage = new byte[pageSize];
+        }
+        return zeroPage;
+    }
+
+    public void put(String key, Object state) {
+        checkFrozen();
+        states.put(key, state);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(String key) {
+        V state = (V) states.get(key);
+        if (state == null) {
+            throw new IllegalStateException("No snapshot state: " + key);
+        }
+        return state;
+    }
+
+    public Map<String, Object> getStates() {
+        return Collections.unmodifiableMap(states);
+    }
+
+    private byte[] encodeMeta(List<? extends Snapshotable> components) throws IOException {
+        if (!frozen) {
+            throw new IllegalStateException("snapshot is not frozen");
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        out.writeUTF(emulatorClass);
+        out.writeBoolean(is64Bit);
+        out.writeInt(pageSize);
+        out.writeInt(registers.size());
+        for (Map.Entry<Integer, Number> entry : registers.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeLong(entry.getValue().longValue());
+        }
+        out.writeInt(vectorRegisters.size());
+        for (Map.Entry<Integer, byte[]> entry : vectorRegisters.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue().length);
+            out.write(entry.getValue());
+        }
+        out.writeInt(components.size());
+        for (Snapshotable component : components) {
+            out.writeUTF(component.getClass().getName());
+            component.writeState(this, out);
+        }
+        out.flush();
+        return baos.toByteArray();
+    }
+
+    private List<Long> sortedAddresses() {
+        List<Long> addresses = new ArrayList<>(pages.keySet());
+        Collections.sort(addresses);
+        return addresses;
+    }
+
+    /**
+     * 检查点格式：
+     * <pre>
+     * magic, version, metaLength, meta[metaLength], pageCount, (address, length)[pageCount], pageData...
+     * </pre>
+     * meta 包含模拟器类型、寄存器和 components 依次写入的组件状态。
+     */
+    public void write(DataOutput out, List<? extends Snapshotable> components) throws IOException {
+        byte[] meta = encodeMeta(components);
+        List<Long> addresses = sortedAddresses();
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeInt(CHECKPOINT_VERSION);
+        out.writeInt(meta.length);
+        out.write(meta);
+        out.writeInt(addresses.size());
+        for (Long address : addresses) {
+            out.writeLong(address);
+            out.writeInt(pages.get(address).remaining());
+        }
+        for (Long address : addresses) {
+            ByteBuffer page = pages.get(address);
+            if (page.hasArray()) {
+                out.write(page.array(), page.arrayOffset() + page.position(), page.remaining());
+            } else {
+                byte[] data = new byte[page.remaining()];
+                page.duplicate().get(data);
+                out.write(data);
+            }
+        }
+    }
+
+    /**
+     * 通过内存映射写入检查点文件，格式同 {@link #write(DataOutput, List)}
+     */
+    public void writeCheckpoint(File file, List<? extends Snapshotable> components) throws IOException {
+        byte[] meta = encodeMeta(components);
+        List<Long> addresses = sortedAddresses();
+        long size = 12 + meta.length + 4 + addresses.size() * 12L;
+        for (ByteBuffer page : pages.values()) {
+            size += page.remaining();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("checkpoint too large: size=0x" + Long.toHexString(size));
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(CHECKPOINT_MAGIC);
+            buffer.putInt(CHECKPOINT_VERSION);
+            buffer.putInt(meta.length);
+            buffer.put(meta);
+            buffer.putInt(addresses.size());
+            for (Long address : addresses) {
+                buffer.putLong(address);
+                buffer.putInt(pages.get(address).remaining());
+            }
+            for (Long address : addresses) {
+                buffer.put(pages.get(address).duplicate());
+            }
+            buffer.force();
+        }
+    }
+
+    /**
+     * 读取 {@link #writeCheckpoint(File, List)} 写入的检查点，components 必须和写入时一一对应。
+     * 页数据不复制到堆上，直接引用只读映射的切片
+     */
+    public static EmulatorSnapshot readCheckpoint(File file, Emulator<?> emulator, List<? extends Snapshotable> components) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid checkpoint: size=0x" + Long.toHexString(size));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != CHECKPOINT_MAGIC) {
+                throw new IOException("Invalid checkpoint: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != CHECKPOINT_VERSION) {
+                throw new IOException("Unsupported checkpoint version: " + version);
+            }
+            byte[] meta = new byte[buffer.getInt()];
+            buffer.get(meta);
+
+            DataInput in = new DataInputStream(new ByteArrayInputStream(meta));
+            EmulatorSnapshot snapshot = new EmulatorSnapshot(in.readUTF(), in.readBoolean(), in.readInt());
+            snapshot.checkCompatible(emulator);
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int regId = in.readInt();
+                long value = in.readLong();
+                snapshot.registers.put(regId, snapshot.is64Bit ? Long.valueOf(value) : Integer.valueOf((int) value));
+            }
+            count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                int regId = in.readInt();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                snapshot.vectorRegisters.put(regId, data);
+            }
+            count = in.readInt();
+            if (count != components.size()) {
+                throw new IllegalStateException("Incompatible checkpoint: components=" + count + ", expected=" + components.size());
+            }
+            for (Snapshotable component : components) {
+                String className = in.readUTF();
+                if (!className.equals(component.getClass().getName())) {
+                    throw new IllegalStateException("Incompatible checkpoint component: " + className + ", expected=" + component.getClass().getName());
+                }
+                component.readState(emulator, snapshot, in);
+            }
+
+            long[] addresses = new long[buffer.getInt()];
+            int[] lengths = new int[addresses.length];
+            for (int i = 0; i < addresses.length; i++) {
+                addresses[i] = buffer.getLong();
+                lengths[i] = buffer.getInt();
+            }
+            for (int i = 0; i < addresses.length; i++) {
+                ByteBuffer page = buffer.slice();
+                page.limit(lengths[i]);
+                buffer.position(buffer.position() + lengths[i]);
+                snapshot.pages.put(addresses[i], page);
+            }
+            snapshot.freeze();
+            return snapshot;
+        }
+    }
+
+    private static boolean isZero(byte[] data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equals(ByteBuffer page, byte[] data, int from, int to) {
+        if (page.remaining() != to - from) {
+            return false;
+        }
+        int position = page.position();
+        for (int i = from; i < to; i++) {
+            if (page.get(position + i - from) != data[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "EmulatorSnapshot{" +
+                "emulatorClass='" + emulatorClass + '\'' +
+                ", pages=" + pages.size() +
+                ", states=" + states.keySet() +
+                '}';
+    }
+}
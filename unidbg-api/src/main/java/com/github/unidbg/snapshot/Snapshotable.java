@@ -0,0 +1,25 @@
+package com.github.unidbg.snapshot;
+
+import com.github.unidbg.Emulator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public interface Snapshotable {
+
+    void snapshot(Emulator<?> emulator, EmulatorSnapshot snapshot);
+
+    void restore(Emulator<?> emulator, EmulatorSnapshot snapshot);
+
+    /**
+     * 把 {@link #snapshot(Emulator, EmulatorSnapshot)} 保存的状态写入检查点文件
+     */
+    void writeState(EmulatorSnapshot snapshot, DataOutput out) throws IOException;
+
+    /**
+     * 从检查点文件读取状态放入 snapshot，之后可以通过 {@link #restore(Emulator, EmulatorSnapshot)} 恢复
+     */
+    void readState(Emulator<?> emulator, EmulatorSnapshot snapshot, DataInput in) throws IOException;
+
+}
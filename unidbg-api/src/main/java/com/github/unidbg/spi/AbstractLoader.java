@@ -11,8 +11,12 @@ import com.github.unidbg.arm.backend.Backend;
 import com.github.unidbg.file.NewFileIO;
 import com.github.unidbg.hook.HookListener;
 import com.github.unidbg.memory.Memory;
+import com.github.unidbg.memory.SvcMemory;
 import com.github.unidbg.memory.MemoryMap;
+import com.github.unidbg.metrics.EmulatorMetrics;
 import com.github.unidbg.pointer.UnidbgPointer;
+import com.github.unidbg.snapshot.EmulatorSnapshot;
+import com.github.unidbg.snapshot.Snapshotable;
 import com.github.unidbg.unix.UnixEmulator;
 import com.github.unidbg.unix.UnixSyscallHandler;
 import com.sun.jna.Pointer;
@@ -21,6 +25,7 @@ import org.apache.commons.logging.LogFactory;
 import unicorn.Arm64Const;
 import unicorn.ArmConst;
 
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -30,11 +35,11 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
-public abstract class AbstractLoader<T extends NewFileIO> implements Memory, Loader {
+public abstract class AbstractLoader<T extends NewFileIO> implements Memory, Loader, Snapshotable {
 
     private static final Log log = LogFactory.getLog(AbstractLoader.class);
 
@@ -44,7 +49,7 @@ public abstract class AbstractLoader<T extends NewFileIO> implements Memory, Loa
 
     protected long sp;
     protected long mmapBaseAddress;
-    protected final Map<Long, MemoryMap> memoryMap = new TreeMap<>();
+    protected final MemoryMapTree memoryMap = new MemoryMapTree();
 
     protected void setMMapBaseAddress(long address) {
         this.mmapBaseAddress = address;
@@ -83,20 +88,11 @@ public abstract class AbstractLoader<T extends NewFileIO> implements Memory, Loa
 //    private static final int MAP_ANONYMOUS =	0x20;		/* don't use a file */
 
     protected final long allocateMapAddress(long mask, long length) {
-        Map.Entry<Long, MemoryMap> lastEntry = null;
-        for (Map.Entry<Long, MemoryMap> entry : memoryMap.entrySet()) {
-            if (lastEntry == null) {
-                lastEntry = entry;
-            } else {
-                MemoryMap map = lastEntry.getValue();
-                long mmapAddress = map.base + map.size;
-                if (mmapAddress + length < entry.getKey() && (mmapAddress & mask) == 0) {
-                    return mmapAddress;
-                } else {
-                    lastEntry = entry;
-                }
-            }
+        long hole = memoryMap.findHole(length, mask);
+        if (hole != -1) {
+            return hole;
         }
+        Map.Entry<Long, MemoryMap> lastEntry = memoryMap.lastEntry();
         if (lastEntry != null) {
             MemoryMap map = lastEntry.getValue();
             long mmapAddress = map.base + map.size;
@@ -116,74 +112,51 @@ public abstract class AbstractLoader<T extends NewFileIO> implements Memory, Loa
 
     @Override
     public final int munmap(long start, int length) {
+        EmulatorMetrics metrics = emulator.getMetrics();
+        if (metrics != null) {
+            metrics.onMunmap();
+        }
         int aligned = (int) ARM.alignSize(length, emulator.getPageAlign());
         backend.mem_unmap(start, aligned);
-        MemoryMap removed = memoryMap.remove(start);
-
-        if (removed == null) {
-            MemoryMap segment = null;
-            for (Map.Entry<Long, MemoryMap> entry : memoryMap.entrySet()) {
-                MemoryMap map = entry.getValue();
-                if (start > entry.getKey() && start < map.base + map.size) {
-                    segment = entry.getValue();
-                    break;
-                }
-            }
-            if (segment == null || segment.size < aligned) {
-                throw new IllegalStateException("munmap aligned=0x" + Long.toHexString(aligned) + ", start=0x" + Long.toHexString(start));
-            }
-            if (start + aligned < segment.base + segment.size) {
-                long newSize = segment.base + segment.size - start - aligned;
-                if (log.isDebugEnabled()) {
-                    log.debug("munmap aligned=0x" + Long.toHexString(aligned) + ", start=0x" + Long.toHexString(start) + ", base=0x" + Long.toHexString(start + aligned) + ", size=" + newSize);
-                }
-                if (memoryMap.put(start + aligned, new MemoryMap(start + aligned, (int) newSize, segment.prot)) != null) {
-                    log.warn("munmap replace exists memory map addr=0x" + Long.toHexString(start + aligned));
-                }
-            }
-            if (memoryMap.put(segment.base, new MemoryMap(segment.base, (int) (start - segment.base), segment.prot)) == null) {
-                log.warn("munmap replace failed warning: addr=0x" + Long.toHexString(segment.base));
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("munmap aligned=0x" + Long.toHexString(aligned) + ", start=0x" + Long.toHexString(start) + ", base=0x" + Long.toHexString(segment.base) + ", size=" + (start - segment.base));
-            }
-            return segment.prot;
+        emulator.getInstructionCache().invalidate(start, aligned);
+        Map.Entry<Long, MemoryMap> entry = memoryMap.floorEntry(start);
+        MemoryMap segment = entry == null ? null : entry.getValue();
+        if (segment == null || start >= segment.base + segment.size) {
+            throw new IllegalStateException("munmap aligned=0x" + Long.toHexString(aligned) + ", start=0x" + Long.toHexString(start));
         }
-
-        if(removed.size != aligned) {
-            if (aligned >= removed.size) {
-                if (log.isDebugEnabled()) {
-                    log.debug("munmap removed=0x" + Long.toHexString(removed.size) + ", aligned=0x" + Long.toHexString(aligned) + ", start=0x" + Long.toHexString(start));
-                }
-                long address = start + removed.size;
-                long size = aligned - removed.size;
-                while (size != 0) {
-                    MemoryMap remove = memoryMap.remove(address);
-                    if (removed.prot != remove.prot) {
-                        throw new IllegalStateException();
-                    }
-                    address += remove.size;
-                    size -= remove.size;
-                }
-                return removed.prot;
-            }
-
-            if (memoryMap.put(start + aligned, new MemoryMap(start + aligned, removed.size - aligned, removed.prot)) != null) {
-                log.warn("munmap replace exists memory map addr=0x" + Long.toHexString(start + aligned));
-            }
-            if (log.isDebugEnabled()) {
-                log.debug("munmap removed=0x" + Long.toHexString(removed.size) + ", aligned=0x" + Long.toHexString(aligned) + ", base=0x" + Long.toHexString(start + aligned) + ", size=" + (removed.size - aligned));
-            }
-            return removed.prot;
-        }
-
         if (log.isDebugEnabled()) {
-            log.debug("munmap aligned=0x" + Long.toHexString(aligned) + ", start=0x" + Long.toHexString(start) + ", base=0x" + Long.toHexString(removed.base) + ", size=" + removed.size);
+            log.debug("munmap aligned=0x" + Long.toHexString(aligned) + ", start=0x" + Long.toHexString(start) + ", base=0x" + Long.toHexString(segment.base) + ", size=0x" + Long.toHexString(segment.size));
         }
+        splitMemoryMap(start, start + aligned, -1);
         if (memoryMap.isEmpty()) {
             setMMapBaseAddress(MMAP_BASE);
         }
-        return removed.prot;
+        return segment.prot;
+    }
+
+    /**
+     * 把 [start, end) 范围内的 MemoryMap 拆出来，prot 为 -1 时移除，否则改成新的 prot
+     */
+    private void splitMemoryMap(long start, long end, int prot) {
+        Long from = memoryMap.floorKey(start);
+        List<MemoryMap> overlapped = new ArrayList<>(memoryMap.subMap(from == null ? start : from, true, end, false).values());
+        for (MemoryMap map : overlapped) {
+            long mapEnd = map.base + map.size;
+            if (mapEnd <= start) {
+                continue;
+            }
+            memoryMap.remove(map.base);
+            if (map.base < start) {
+                memoryMap.put(map.base, new MemoryMap(map.base, start - map.base, map.prot));
+            }
+            if (mapEnd > end) {
+                memoryMap.put(end, new MemoryMap(end, mapEnd - end, map.prot));
+            }
+            if (prot != -1) {
+                long base = Math.max(map.base, start);
+                memoryMap.put(base, new MemoryMap(base, Math.min(mapEnd, end) - base, prot));
+            }
+        }
     }
 
     @Override
@@ -194,6 +167,7 @@ public abstract class AbstractLoader<T extends NewFileIO> implements Memory, Loa
         }
 
         backend.mem_protect(address, length, prot);
+        splitMemoryMap(address, address + ARM.alignSize(length, emulator.getPageAlign()), prot);
         return 0;
     }
 
@@ -237,7 +211,42 @@ public abstract class AbstractLoader<T extends NewFileIO> implements Memory, Loa
 
     @Override
     public final void addHookListener(HookListener listener) {
-        hookListeners.add(listener);
+        hookListeners.add(new RecordHookListener(hookListeners.size(), listener));
+    }
+
+    private static class HookRecord {
+        final int index;
+        final String libraryName;
+        final String symbolName;
+        final long old;
+        HookRecord(int index, String libraryName, String symbolName, long old) {
+            this.index = index;
+            this.libraryName = libraryName;
+            this.symbolName = symbolName;
+            this.old = old;
+        }
+    }
+
+    private final List<HookRecord> hookRecords = new ArrayList<>();
+
+    /**
+     * 记录生效的 hook，fork 时在目标实例上按相同顺序重放，使延迟注册的 svc 编号保持一致
+     */
+    private class RecordHookListener implements HookListener {
+        private final int index;
+        private final HookListener listener;
+        RecordHookListener(int index, HookListener listener) {
+            this.index = index;
+            this.listener = listener;
+        }
+        @Override
+        public long hook(SvcMemory svcMemory, String libraryName, String symbolName, long old) {
+            long hook = listener.hook(svcMemory, libraryName, symbolName, old);
+            if (hook > 0) {
+                hookRecords.add(new HookRecord(index, libraryName, symbolName, old));
+            }
+            return hook;
+        }
     }
 
     protected LibraryResolver libraryResolver;
@@ -378,6 +387,181 @@ public abstract class AbstractLoader<T extends NewFileIO> implements Memory, Loa
         throw new UnsupportedOperationException();
     }
 
+    private static final String SNAPSHOT_KEY = AbstractLoader.class.getName();
+
+    private static class LoaderState {
+        final long sp;
+        final long mmapBaseAddress;
+        final long stackBase;
+        final int stackSize;
+        final List<MemoryMap> memoryMaps;
+        final List<HookRecord> hookRecords;
+        LoaderState(AbstractLoader<?> loader) {
+            this.sp = loader.sp;
+            this.mmapBaseAddress = loader.mmapBaseAddress;
+            this.stackBase = loader.stackBase;
+            this.stackSize = loader.stackSize;
+            this.memoryMaps = new ArrayList<>(loader.memoryMap.values());
+            this.hookRecords = new ArrayList<>(loader.hookRecords);
+        }
+        LoaderState(DataInput in) throws IOException {
+            this.sp = in.readLong();
+            this.mmapBaseAddress = in.readLong();
+            this.stackBase = in.readLong();
+            this.stackSize = in.readInt();
+            int count = in.readInt();
+            this.memoryMaps = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                memoryMaps.add(new MemoryMap(in.readLong(), in.readLong(), in.readInt()));
+            }
+            count = in.readInt();
+            this.hookRecords = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = in.readInt();
+                String libraryName = in.readBoolean() ? in.readUTF() : null;
+                hookRecords.add(new HookRecord(index, libraryName, in.readUTF(), in.readLong()));
+            }
+        }
+        void write(DataOutput out) throws IOException {
+            out.writeLong(sp);
+            out.writeLong(mmapBaseAddress);
+            out.writeLong(stackBase);
+            out.writeInt(stackSize);
+            out.writeInt(memoryMaps.size());
+            for (MemoryMap map : memoryMaps) {
+                map.serialize(out);
+            }
+            out.writeInt(hookRecords.size());
+            for (HookRecord record : hookRecords) {
+                out.writeInt(record.index);
+                out.writeBoolean(record.libraryName != null);
+                if (record.libraryName != null) {
+                    out.writeUTF(record.libraryName);
+                }
+                out.writeUTF(record.symbolName);
+                out.writeLong(record.old);
+            }
+        }
+    }
+
+    @Override
+    public final void snapshot(Emulator<?> emulator, EmulatorSnapshot snapshot) {
+        snapshot.put(SNAPSHOT_KEY, new LoaderState(this));
+        for (MemoryMap map : memoryMap.values()) {
+            snapshot.capturePages(backend, map.base, map.size);
+        }
+        snapshot.capturePages(backend, stackBase - stackSize, stackSize);
+        snapshotInternal(snapshot);
+    }
+
+    @Override
+    public final void restore(Emulator<?> emulator, EmulatorSnapshot snapshot) {
+        LoaderState state = snapshot.get(SNAPSHOT_KEY);
+        if (state.stackBase != stackBase || state.stackSize != stackSize) {
+            throw new IllegalStateException("Incompatible stack: base=0x" + Long.toHexString(state.stackBase) + ", size=0x" + Integer.toHexString(state.stackSize));
+        }
+
+        replayHooks(emulator, state.hookRecords);
+
+        if (snapshot.isIncremental()) {
+            restoreMaps(snapshot, state.memoryMaps);
+        } else {
+            for (MemoryMap map : memoryMap.values()) {
+                backend.mem_unmap(map.base, map.size);
+            }
+            memoryMap.clear();
+            for (MemoryMap map : state.memoryMaps) {
+                backend.mem_map(map.base, map.size, map.prot);
+                memoryMap.put(map.base, map);
+                snapshot.restorePages(backend, map.base, map.size, true);
+            }
+        }
+        snapshot.restorePages(backend, stackBase - stackSize, stackSize, false);
+        this.mmapBaseAddress = state.mmapBaseAddress;
+        setStackPoint(state.sp);
+        restoreInternal(snapshot);
+    }
+
+    /**
+     * 增量恢复：只重新映射有变化的区域，没变的区域只恢复写过的页
+     */
+    private void restoreMaps(EmulatorSnapshot snapshot, List<MemoryMap> maps) {
+        Map<Long, MemoryMap> expected = new HashMap<>();
+        for (MemoryMap map : maps) {
+            expected.put(map.base, map);
+        }
+        for (MemoryMap map : new ArrayList<>(memoryMap.values())) {
+            MemoryMap old = expected.get(map.base);
+            if (old == null || old.size != map.size || old.prot != map.prot) {
+                backend.mem_unmap(map.base, map.size);
+                memoryMap.remove(map.base);
+            }
+        }
+        for (MemoryMap map : maps) {
+            if (memoryMap.containsKey(map.base)) {
+                memoryMap.put(map.base, map);
+                snapshot.restorePages(backend, map.base, map.size, false);
+            } else {
+                backend.mem_map(map.base, map.size, map.prot);
+                memoryMap.put(map.base, map);
+                snapshot.restorePages(backend, map.base, map.size, true);
+            }
+        }
+    }
+
+    private void replayHooks(Emulator<?> emulator, List<HookRecord> records) {
+        int count = Math.min(hookRecords.size(), records.size());
+        for (int i = 0; i < count; i++) {
+            HookRecord record = hookRecords.get(i);
+            HookRecord expected = records.get(i);
+            if (record.index != expected.index || !record.symbolName.equals(expected.symbolName)) {
+                throw new IllegalStateException("Incompatible hook: " + record.symbolName + ", expected " + expected.symbolName);
+            }
+        }
+        while (hookRecords.size() > records.size()) {
+            hookRecords.remove(hookRecords.size() - 1);
+        }
+        for (int i = count; i < records.size(); i++) {
+            HookRecord record = records.get(i);
+            if (record.index >= hookListeners.size()) {
+                throw new IllegalStateException("hook listener not registered: index=" + record.index + ", symbol=" + record.symbolName);
+            }
+            hookListeners.get(record.index).hook(emulator.getSvcMemory(), record.libraryName, record.symbolName, record.old);
+        }
+    }
+
+    @Override
+    public final void writeState(EmulatorSnapshot snapshot, DataOutput out) throws IOException {
+        LoaderState state = snapshot.get(SNAPSHOT_KEY);
+        state.write(out);
+        writeStateInternal(snapshot, out);
+    }
+
+    @Override
+    public final void readState(Emulator<?> emulator, EmulatorSnapshot snapshot, DataInput in) throws IOException {
+        snapshot.put(SNAPSHOT_KEY, new LoaderState(in));
+        readStateInternal(snapshot, in);
+    }
+
+    /**
+     * 快照只由 AndroidEmulator 公开，其它 loader 不需要实现下面几个方法
+     */
+    protected void snapshotInternal(EmulatorSnapshot snapshot) {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
+
+    protected void restoreInternal(EmulatorSnapshot snapshot) {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
+
+    protected void writeStateInternal(EmulatorSnapshot snapshot, DataOutput out) throws IOException {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
+
+    protected void readStateInternal(EmulatorSnapshot snapshot, DataInput in) throws IOException {
+        throw new UnsupportedOperationException(getClass().getName());
+    }
+
     @Override
     public void serialize(DataOutput out) throws IOException {
         out.writeLong(sp);
@@ -0,0 +1,143 @@
+package com.github.unidbg.spi;
+
+import com.github.unidbg.Utils;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 进程内共享的系统库：jar 里打包的 so/dylib 只解压一次到按内容摘要命名的缓存目录，
+ * 之后所有模拟器都拿同一份只读的 mmap。缓存目录不可写或者设置为 null 时放到堆外内存
+ */
+public final class LibraryStore {
+
+    private static final Log log = LogFactory.getLog(LibraryStore.class);
+
+    private static final Map<String, ByteBuffer> buffers = new HashMap<>();
+    private static File cacheDir = new File(System.getProperty("java.io.tmpdir"), "unidbg-libs");
+
+    /**
+     * @param cacheDir 解压目录，null 表示不落盘，直接放到堆外内存
+     */
+    public static synchronized void setCacheDir(File cacheDir) {
+        LibraryStore.cacheDir = cacheDir;
+    }
+
+    public static synchronized void clear() {
+        buffers.clear();
+    }
+
+    /**
+     * @return 只读的库文件内容，file 协议直接 mmap
+     */
+    public static ByteBuffer mapBuffer(URL url) throws IOException {
+        if ("file".equalsIgnoreCase(url.getProtocol())) {
+            return Utils.mapBuffer(new File(url.getPath()));
+        }
+
+        String key = url.toExternalForm();
+        synchronized (LibraryStore.class) {
+            ByteBuffer buffer = buffers.get(key);
+            if (buffer == null) {
+                buffer = load(url);
+                buffers.put(key, buffer);
+            }
+            return buffer.duplicate();
+        }
+    }
+
+    private static ByteBuffer load(URL url) throws IOException {
+        if (cacheDir != null && (cacheDir.isDirectory() || cacheDir.mkdirs())) {
+            try {
+                return Utils.mapBuffer(extract(url, cacheDir)).asReadOnlyBuffer();
+            } catch (IOException e) {
+                log.warn("extract " + url + " to " + cacheDir + " failed", e);
+            }
+        }
+
+        byte[] data;
+        try (InputStream inputStream = url.openStream()) {
+            data = IOUtils.toByteArray(inputStream);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * 先写到临时文件，再按摘要改名，多个进程同时解压时不会读到写了一半的文件
+     */
+    private static File extract(URL url, File dir) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        File tmp = File.createTempFile("lib", ".tmp", dir);
+        try {
+            try (InputStream inputStream = url.openStream(); OutputStream outputStream = new DigestOutputStream(new FileOutputStream(tmp), messageDigest)) {
+                IOUtils.copy(inputStream, outputStream);
+            }
+            String digest = Hex.encodeHexString(messageDigest.digest());
+            File file = new File(dir, digest + "_" + FilenameUtils.getName(url.getPath()));
+            if (isValid(file, tmp, digest)) {
+                return file;
+            }
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException | FileAlreadyExistsException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("extract " + url + " to " + file);
+            }
+            return file;
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    /**
+     * 缓存目录可能是所有人可写的，已经存在的文件必须属于当前用户并且内容摘要一致，否则重新解压覆盖
+     */
+    private static boolean isValid(File file, File tmp, String digest) throws IOException {
+        if (!file.isFile() || file.length() != tmp.length()) {
+            return false;
+        }
+        if (!Files.getOwner(file.toPath()).equals(Files.getOwner(tmp.toPath()))) {
+            log.warn("ignore " + file + " owned by " + Files.getOwner(file.toPath()));
+            return false;
+        }
+        try (InputStream inputStream = new FileInputStream(file)) {
+            if (digest.equals(DigestUtils.sha1Hex(inputStream))) {
+                return true;
+            }
+        }
+        log.warn("ignore " + file + " with bad digest");
+        return false;
+    }
+
+}
@@ -0,0 +1,283 @@
+package com.github.unidbg.spi;
+
+import com.github.unidbg.memory.MemoryMap;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 按 base 排序的 MemoryMap，同时维护相邻 MemoryMap 之间空洞的索引（按大小排序），
+ * 分配地址时 O(log n) 找到最合适的空洞。只能通过 put/remove/clear 修改：
+ * entrySet、keySet、values 是只读视图，subMap、headMap、tailMap 等返回的是快照
+ */
+public final class MemoryMapTree extends AbstractMap<Long, MemoryMap> implements NavigableMap<Long, MemoryMap> {
+
+    private final TreeMap<Long, MemoryMap> map = new TreeMap<>();
+
+    /**
+     * key 是空洞大小，value 是该大小的空洞起始地址
+     */
+    private final TreeMap<Long, TreeSet<Long>> holes = new TreeMap<>();
+
+    MemoryMapTree() {
+    }
+
+    @Override
+    public MemoryMap put(Long key, MemoryMap value) {
+        MemoryMap old = remove(key);
+        Map.Entry<Long, MemoryMap> lower = map.lowerEntry(key);
+        Map.Entry<Long, MemoryMap> higher = map.higherEntry(key);
+        if (lower != null && higher != null) {
+            removeHole(end(lower.getValue()), higher.getKey());
+        }
+        if (lower != null) {
+            addHole(end(lower.getValue()), key);
+        }
+        if (higher != null) {
+            addHole(key + value.size, higher.getKey());
+        }
+        map.put(key, value);
+        return old;
+    }
+
+    @Override
+    public MemoryMap remove(Object key) {
+        MemoryMap removed = map.remove(key);
+        if (removed == null) {
+            return null;
+        }
+        long base = (Long) key;
+        Map.Entry<Long, MemoryMap> lower = map.lowerEntry(base);
+        Map.Entry<Long, MemoryMap> higher = map.higherEntry(base);
+        if (lower != null) {
+            removeHole(end(lower.getValue()), base);
+        }
+        if (higher != null) {
+            removeHole(end(removed), higher.getKey());
+        }
+        if (lower != null && higher != null) {
+            addHole(end(lower.getValue()), higher.getKey());
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+        holes.clear();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public MemoryMap get(Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public Set<Entry<Long, MemoryMap>> entrySet() {
+        return Collections.unmodifiableMap(map).entrySet();
+    }
+
+    @Override
+    public Set<Long> keySet() {
+        return Collections.unmodifiableSet(map.keySet());
+    }
+
+    @Override
+    public Collection<MemoryMap> values() {
+        return Collections.unmodifiableCollection(map.values());
+    }
+
+    @Override
+    public Entry<Long, MemoryMap> lowerEntry(Long key) {
+        return map.lowerEntry(key);
+    }
+
+    @Override
+    public Long lowerKey(Long key) {
+        return map.lowerKey(key);
+    }
+
+    @Override
+    public Entry<Long, MemoryMap> floorEntry(Long key) {
+        return map.floorEntry(key);
+    }
+
+    @Override
+    public Long floorKey(Long key) {
+        return map.floorKey(key);
+    }
+
+    @Override
+    public Entry<Long, MemoryMap> ceilingEntry(Long key) {
+        return map.ceilingEntry(key);
+    }
+
+    @Override
+    public Long ceilingKey(Long key) {
+        return map.ceilingKey(key);
+    }
+
+    @Override
+    public Entry<Long, MemoryMap> higherEntry(Long key) {
+        return map.higherEntry(key);
+    }
+
+    @Override
+    public Long higherKey(Long key) {
+        return map.higherKey(key);
+    }
+
+    @Override
+    public Entry<Long, MemoryMap> firstEntry() {
+        return map.firstEntry();
+    }
+
+    @Override
+    public Entry<Long, MemoryMap> lastEntry() {
+        return map.lastEntry();
+    }
+
+    @Override
+    public Entry<Long, MemoryMap> pollFirstEntry() {
+        Entry<Long, MemoryMap> entry = map.firstEntry();
+        if (entry != null) {
+            remove(entry.getKey());
+        }
+        return entry;
+    }
+
+    @Override
+    public Entry<Long, MemoryMap> pollLastEntry() {
+        Entry<Long, MemoryMap> entry = map.lastEntry();
+        if (entry != null) {
+            remove(entry.getKey());
+        }
+        return entry;
+    }
+
+    @Override
+    public Comparator<? super Long> comparator() {
+        return null;
+    }
+
+    @Override
+    public Long firstKey() {
+        return map.firstKey();
+    }
+
+    @Override
+    public Long lastKey() {
+        return map.lastKey();
+    }
+
+    @Override
+    public NavigableMap<Long, MemoryMap> descendingMap() {
+        return new TreeMap<>(map).descendingMap();
+    }
+
+    @Override
+    public NavigableSet<Long> navigableKeySet() {
+        return new TreeSet<>(map.navigableKeySet());
+    }
+
+    @Override
+    public NavigableSet<Long> descendingKeySet() {
+        return new TreeSet<>(map.navigableKeySet()).descendingSet();
+    }
+
+    @Override
+    public NavigableMap<Long, MemoryMap> subMap(Long fromKey, boolean fromInclusive, Long toKey, boolean toInclusive) {
+        return new TreeMap<>(map.subMap(fromKey, fromInclusive, toKey, toInclusive));
+    }
+
+    @Override
+    public NavigableMap<Long, MemoryMap> headMap(Long toKey, boolean inclusive) {
+        return new TreeMap<>(map.headMap(toKey, inclusive));
+    }
+
+    @Override
+    public NavigableMap<Long, MemoryMap> tailMap(Long fromKey, boolean inclusive) {
+        return new TreeMap<>(map.tailMap(fromKey, inclusive));
+    }
+
+    @Override
+    public SortedMap<Long, MemoryMap> subMap(Long fromKey, Long toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<Long, MemoryMap> headMap(Long toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<Long, MemoryMap> tailMap(Long fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    /**
+     * 在已映射区域之间找一个能放下 length 的空洞：取最小的够用的空洞，相同大小时取低地址
+     * @param mask 起始地址需要满足 (address &amp; mask) == 0
+     * @return 找不到时返回 -1
+     */
+    long findHole(long length, long mask) {
+        for (Map.Entry<Long, TreeSet<Long>> entry : holes.tailMap(length, true).entrySet()) {
+            long size = entry.getKey();
+            for (long start : entry.getValue()) {
+                long address = (start + mask) & ~mask;
+                if (address + length <= start + size) {
+                    return address;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long end(MemoryMap map) {
+        return map.base + map.size;
+    }
+
+    private void addHole(long start, long end) {
+        if (end <= start) {
+            return;
+        }
+        long size = end - start;
+        TreeSet<Long> set = holes.get(size);
+        if (set == null) {
+            set = new TreeSet<>();
+            holes.put(size, set);
+        }
+        set.add(start);
+    }
+
+    private void removeHole(long start, long end) {
+        if (end <= start) {
+            return;
+        }
+        long size = end - start;
+        TreeSet<Long> set = holes.get(size);
+        if (set != null && set.remove(start) && set.isEmpty()) {
+            holes.remove(size);
+        }
+    }
+
+}
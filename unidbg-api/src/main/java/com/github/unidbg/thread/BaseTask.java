@@ -98,6 +98,11 @@ public abstract class BaseTask implements RunnableTask {
     public void destroy(Emulator<?> emulator) {
         Backend backend = emulator.getBackend();
 
+        if (waiter instanceof ParkWaiter) {
+            ((ParkWaiter) waiter).cancel();
+        }
+        waiter = null;
+
         if (stackBlock != null) {
             stackBlock.free();
             stackBlock = null;
@@ -0,0 +1,57 @@
+package com.github.unidbg.thread;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件驱动的等待：调度器不会轮询 guest 内存，只有被 {@link #wakeUp()} 或者超时后才重新调度
+ */
+public abstract class ParkWaiter implements Waiter {
+
+    private final boolean timed;
+    private final long deadline;
+
+    private boolean wokenUp;
+
+    /**
+     * @param timeoutNanos 小于 0 表示无限等待
+     */
+    protected ParkWaiter(long timeoutNanos) {
+        this.timed = timeoutNanos >= 0;
+        this.deadline = timed ? System.nanoTime() + timeoutNanos : 0;
+    }
+
+    public final void wakeUp() {
+        this.wokenUp = true;
+    }
+
+    /**
+     * 等待的任务被销毁，不会再被调度
+     */
+    public void cancel() {
+    }
+
+    public final boolean isWokenUp() {
+        return wokenUp;
+    }
+
+    public final boolean isTimed() {
+        return timed;
+    }
+
+    /**
+     * @return 基于 {@link System#nanoTime()} 的超时时间
+     */
+    public final long getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public final boolean canDispatch() {
+        return wokenUp || (timed && System.nanoTime() - deadline >= 0);
+    }
+
+    public static long toNanos(long tv_sec, long tv_nsec) {
+        return TimeUnit.SECONDS.toNanos(tv_sec) + tv_nsec;
+    }
+
+}
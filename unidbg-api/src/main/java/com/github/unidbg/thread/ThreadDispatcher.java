@@ -22,4 +22,9 @@ public interface ThreadDispatcher extends SignalOps {
 
     RunnableTask getRunningTask();
 
+    /**
+     * 销毁所有任务，恢复快照之前调用
+     */
+    void reset();
+
 }
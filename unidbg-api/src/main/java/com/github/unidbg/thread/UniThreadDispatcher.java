@@ -16,6 +16,10 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * 抢占式调度
+ * <p>
+ * 所有 guest 线程都在同一个 backend vCPU 和宿主线程上轮流执行，内存、syscall、hook 都不是线程安全的。
+ * 需要利用多核时，用 {@link com.github.unidbg.worker.WorkerPool} 为每个 worker 创建独立的模拟器
+ * </p>
  */
 public class UniThreadDispatcher implements ThreadDispatcher {
 
@@ -126,12 +130,28 @@ public class UniThreadDispatcher implements ThreadDispatcher {
                 if (taskList.isEmpty()) {
                     throw new IllegalStateException();
                 }
+                boolean dispatched = false;
+                boolean polling = false;
+                long nextDeadline = 0;
+                boolean hasDeadline = false;
+                boolean alive = false;
                 for (Iterator<Task> iterator = taskList.iterator(); iterator.hasNext(); ) {
                     Task task = iterator.next();
                     if (task.isFinish()) {
                         continue;
                     }
+                    alive = true;
+                    Waiter waiter = task.getWaiter();
+                    if (waiter instanceof ParkWaiter && !waiter.canDispatch()) {
+                        ParkWaiter parkWaiter = (ParkWaiter) waiter;
+                        if (parkWaiter.isTimed() && (!hasDeadline || parkWaiter.getDeadline() - nextDeadline < 0)) {
+                            nextDeadline = parkWaiter.getDeadline();
+                            hasDeadline = true;
+                        }
+                        continue;
+                    }
                     if (task.canDispatch()) {
+                        dispatched = true;
                         if (log.isDebugEnabled()) {
                             log.debug("Start dispatch task=" + task);
                         }
@@ -186,11 +206,17 @@ public class UniThreadDispatcher implements ThreadDispatcher {
                         } catch(PopContextException e) {
                             this.runningTask.popContext(emulator);
                         }
-                    } else if (log.isDebugEnabled()) {
-                        log.debug("Skip dispatch task=" + task);
+                    } else {
+                        polling = true;
+                        if (log.isDebugEnabled()) {
+                            log.debug("Skip dispatch task=" + task);
+                        }
                     }
                 }
 
+                if (!threadTaskList.isEmpty()) {
+                    dispatched = true;
+                }
                 Collections.reverse(threadTaskList);
                 for (Iterator<ThreadTask> iterator = threadTaskList.iterator(); iterator.hasNext(); ) {
                     taskList.add(0, iterator.next());
@@ -205,6 +231,18 @@ public class UniThreadDispatcher implements ThreadDispatcher {
                     return null;
                 }
 
+                if (!dispatched && !polling) {
+                    if (!alive) {
+                        return null;
+                    }
+                    long end = timeout > 0 && unit != null ? start + unit.toMillis(timeout) : 0;
+                    if (!hasDeadline && end == 0) {
+                        throw new IllegalStateException("All tasks are blocked: " + taskList);
+                    }
+                    parkUntil(hasDeadline ? nextDeadline : 0, hasDeadline, end);
+                    continue;
+                }
+
                 if (log.isDebugEnabled()) {
                     try {
                         TimeUnit.SECONDS.sleep(1);
@@ -218,6 +256,45 @@ public class UniThreadDispatcher implements ThreadDispatcher {
         }
     }
 
+    /**
+     * 没有可运行的任务时，宿主线程休眠到最近的超时时间，而不是空转
+     */
+    private static void parkUntil(long deadline, boolean hasDeadline, long endMillis) {
+        long nanos = Long.MAX_VALUE;
+        if (hasDeadline) {
+            nanos = deadline - System.nanoTime();
+        }
+        if (endMillis > 0) {
+            nanos = Math.min(nanos, TimeUnit.MILLISECONDS.toNanos(endMillis - System.currentTimeMillis()));
+        }
+        if (nanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        List<Task> list = new ArrayList<>(taskList.size() + threadTaskList.size());
+        list.addAll(taskList);
+        list.addAll(threadTaskList);
+        for (Task task : list) {
+            for (SignalTask signalTask : task.getSignalTaskList()) {
+                signalTask.destroy(emulator);
+                task.removeSignalTask(signalTask);
+            }
+            task.destroy(emulator);
+        }
+        taskList.clear();
+        threadTaskList.clear();
+        runningTask = null;
+        mainThreadSigPendingSet = null;
+    }
+
     @Override
     public int getTaskCount() {
         return taskList.size() + threadTaskList.size();
@@ -6,6 +6,7 @@ public interface UnixEmulator {
     int ENOENT = 2; /* No such file or directory */
     int ESRCH = 3; /* No such process */
     int EINTR = 4; /* Interrupted system call */
+    int EIO = 5; /* I/O error */
     int EBADF = 9; /* Bad file descriptor */
     int EAGAIN = 11; /* Resource temporarily unavailable */
     int ENOMEM = 12; /* Cannot allocate memory */
@@ -15,6 +16,7 @@ public interface UnixEmulator {
     int ENOTDIR = 20; /* Not a directory */
     int EINVAL = 22; /* Invalid argument */
     int ENOTTY = 25; /* Inappropriate ioctl for device */
+    int ENOSPC = 28; /* No space left on device */
     int ENOSYS = 38; /* Function not implemented */
     int ENOATTR = 93; /* Attribute not found */
     int EOPNOTSUPP = 95; /* Operation not supported on transport endpoint */
@@ -3,13 +3,19 @@ package com.github.unidbg.unix;
 import com.github.unidbg.Emulator;
 import com.github.unidbg.Family;
 import com.github.unidbg.Module;
+import com.github.unidbg.Svc;
+import com.github.unidbg.arm.context.BaseRegisterContext;
+import com.github.unidbg.arm.context.RegisterContext;
 import com.github.unidbg.arm.backend.UnHook;
 import com.github.unidbg.debugger.Breaker;
+import com.github.unidbg.file.AbstractFileIO;
 import com.github.unidbg.file.FileIO;
 import com.github.unidbg.file.FileResult;
 import com.github.unidbg.file.IOResolver;
 import com.github.unidbg.file.NewFileIO;
 import com.github.unidbg.memory.MemRegion;
+import com.github.unidbg.snapshot.EmulatorSnapshot;
+import com.github.unidbg.snapshot.Snapshotable;
 import com.github.unidbg.spi.SyscallHandler;
 import com.github.unidbg.thread.MainTask;
 import com.github.unidbg.unix.struct.TimeVal32;
@@ -20,11 +26,13 @@ import com.sun.jna.Pointer;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -32,7 +40,7 @@ import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public abstract class UnixSyscallHandler<T extends NewFileIO> implements SyscallHandler<T> {
+public abstract class UnixSyscallHandler<T extends NewFileIO> implements SyscallHandler<T>, Snapshotable {
 
     private static final Log log = LogFactory.getLog(UnixSyscallHandler.class);
 
@@ -74,6 +82,24 @@ public abstract class UnixSyscallHandler<T extends NewFileIO> implements Syscall
         return breaker != null ? breaker : emulator.attach();
     }
 
+    /**
+     * svc 里通过 {@link RegisterContext} 多次读取同一个参数时只访问一次 backend
+     */
+    protected final long handleSvc(Emulator<?> emulator, Svc svc) {
+        RegisterContext context = emulator.getContext();
+        BaseRegisterContext registerContext = context instanceof BaseRegisterContext ? (BaseRegisterContext) context : null;
+        if (registerContext != null) {
+            registerContext.cacheArgs();
+        }
+        try {
+            return svc.handle(emulator);
+        } finally {
+            if (registerContext != null) {
+                registerContext.clearArgCache();
+            }
+        }
+    }
+
     protected int getMinFd() {
         int last_fd = -1;
         for (int fd : fdMap.keySet()) {
@@ -558,8 +584,102 @@ public abstract class UnixSyscallHandler<T extends NewFileIO> implements Syscall
     }
 
     @Override
-    public void serialize(DataOutput out) {
-        throw new UnsupportedOperationException();
+    public void serialize(DataOutput out) throws IOException {
+        writeFdMap(fdMap, out);
+    }
+
+    private static final String SNAPSHOT_KEY = UnixSyscallHandler.class.getName();
+
+    private static class FdState<T extends NewFileIO> {
+        final UnixSyscallHandler<T> owner;
+        final Map<Integer, T> fdMap;
+        final Map<Integer, AbstractFileIO.State> fileStates = new HashMap<>();
+        FdState(UnixSyscallHandler<T> owner, Map<Integer, T> fdMap) {
+            this.owner = owner;
+            this.fdMap = new TreeMap<>(fdMap);
+            for (Map.Entry<Integer, T> entry : fdMap.entrySet()) {
+                if (entry.getValue() instanceof AbstractFileIO) {
+                    fileStates.put(entry.getKey(), ((AbstractFileIO) entry.getValue()).saveState());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void snapshot(Emulator<?> emulator, EmulatorSnapshot snapshot) {
+        snapshot.put(SNAPSHOT_KEY, new FdState<>(this, fdMap));
+    }
+
+    /**
+     * 本实例仍然打开的文件直接复用，其它的通过 dup2 重新打开，然后恢复快照时的读写位置和标志
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void restore(Emulator<?> emulator, EmulatorSnapshot snapshot) {
+        FdState<T> state = snapshot.get(SNAPSHOT_KEY);
+        Map<T, Boolean> opened = new IdentityHashMap<>();
+        Map<T, Boolean> reused = new IdentityHashMap<>();
+        Map<T, T> duplicated = new IdentityHashMap<>();
+        for (T io : fdMap.values()) {
+            opened.put(io, Boolean.TRUE);
+        }
+
+        Map<Integer, T> restored = new TreeMap<>();
+        for (Map.Entry<Integer, T> entry : state.fdMap.entrySet()) {
+            T io = entry.getValue();
+            if (state.owner == this && opened.containsKey(io)) {
+                reused.put(io, Boolean.TRUE);
+            } else {
+                T dup = duplicated.get(io);
+                if (dup == null) {
+                    dup = (T) io.dup2();
+                    duplicated.put(io, dup);
+                }
+                io = dup;
+            }
+            AbstractFileIO.State fileState = state.fileStates.get(entry.getKey());
+            if (fileState != null && io instanceof AbstractFileIO) {
+                ((AbstractFileIO) io).restoreState(fileState);
+            }
+            restored.put(entry.getKey(), io);
+        }
+        for (T io : fdMap.values()) {
+            if (!reused.containsKey(io)) {
+                io.close();
+            }
+        }
+        fdMap.clear();
+        fdMap.putAll(restored);
+    }
+
+    private static void writeFdMap(Map<Integer, ? extends NewFileIO> fdMap, DataOutput out) throws IOException {
+        out.writeInt(fdMap.size());
+        for (Map.Entry<Integer, ? extends NewFileIO> entry : fdMap.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeUTF(String.valueOf(entry.getValue()));
+        }
+    }
+
+    /**
+     * 打开的文件不能写入检查点，只记录描述符，读取时保留本实例当前打开的文件
+     */
+    @Override
+    public void writeState(EmulatorSnapshot snapshot, DataOutput out) throws IOException {
+        FdState<T> state = snapshot.get(SNAPSHOT_KEY);
+        writeFdMap(state.fdMap, out);
+    }
+
+    @Override
+    public void readState(Emulator<?> emulator, EmulatorSnapshot snapshot, DataInput in) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int fd = in.readInt();
+            String io = in.readUTF();
+            if (!fdMap.containsKey(fd)) {
+                log.warn("readState fd=" + fd + " not opened: " + io);
+            }
+        }
+        snapshot.put(SNAPSHOT_KEY, new FdState<>(this, fdMap));
     }
 
     @Override
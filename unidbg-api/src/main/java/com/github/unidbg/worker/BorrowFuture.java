@@ -0,0 +1,128 @@
+package com.github.unidbg.worker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link WorkerPool#borrowAsync()} 的结果，取消即放弃等待
+ */
+public class BorrowFuture<T extends Worker> implements Future<T> {
+
+    private static final int PENDING = 0;
+    private static final int COMPLETED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+
+    private int state = PENDING;
+    private T value;
+    private Throwable cause;
+    private List<Runnable> listeners;
+
+    BorrowFuture() {
+    }
+
+    boolean complete(T value) {
+        return finish(COMPLETED, value, null);
+    }
+
+    boolean completeExceptionally(Throwable cause) {
+        return finish(FAILED, null, cause);
+    }
+
+    private boolean finish(int state, T value, Throwable cause) {
+        List<Runnable> list;
+        synchronized (this) {
+            if (this.state != PENDING) {
+                return false;
+            }
+            this.state = state;
+            this.value = value;
+            this.cause = cause;
+            list = listeners;
+            listeners = null;
+            notifyAll();
+        }
+        if (list != null) {
+            for (Runnable listener : list) {
+                listener.run();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 完成、失败或者取消以后在完成的线程里调用，已经完成时立即调用
+     */
+    public void addListener(Runnable listener) {
+        synchronized (this) {
+            if (state == PENDING) {
+                if (listeners == null) {
+                    listeners = new ArrayList<>(1);
+                }
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return finish(CANCELLED, null, null);
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return state != PENDING;
+    }
+
+    @Override
+    public synchronized T get() throws InterruptedException, ExecutionException {
+        while (state == PENDING) {
+            wait();
+        }
+        return report();
+    }
+
+    @Override
+    public synchronized T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (state == PENDING) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return report();
+    }
+
+    /**
+     * @return 没有成功借到时返回 valueIfAbsent
+     */
+    public synchronized T getNow(T valueIfAbsent) {
+        return state == COMPLETED ? value : valueIfAbsent;
+    }
+
+    private T report() throws ExecutionException {
+        switch (state) {
+            case CANCELLED:
+                throw new CancellationException();
+            case FAILED:
+                throw new ExecutionException(cause);
+            default:
+                return value;
+        }
+    }
+
+}
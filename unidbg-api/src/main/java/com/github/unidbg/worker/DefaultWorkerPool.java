@@ -1,95 +1,388 @@
 package com.github.unidbg.worker;
 
 import com.alibaba.fastjson.util.IOUtils;
+import com.github.unidbg.metrics.MBeans;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import javax.management.ObjectName;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-class DefaultWorkerPool implements WorkerPool, Runnable {
+/**
+ * worker 数量在 minWorkers 和 maxWorkers 之间伸缩：有等待者时并行创建，空闲超时回收，
+ * 借出次数达到上限或者调用方 invalidate 时关闭并替换。
+ */
+class DefaultWorkerPool implements WorkerPool {
 
     private static final Log log = LogFactory.getLog(DefaultWorkerPool.class);
 
-    private final BlockingQueue<Worker> releaseQueue = new LinkedBlockingQueue<>();
-    private final BlockingQueue<Worker> workers;
+    private static final long CREATE_RETRY_DELAY_MILLIS = 1000;
+
+    private static class PooledWorker {
+        final Worker worker;
+        int calls;
+        long idleSince;
+        PooledWorker(Worker worker) {
+            this.worker = worker;
+        }
+    }
+
+    private static class Waiter {
+        final BorrowFuture<Worker> future = new BorrowFuture<>();
+        final long start = System.nanoTime();
+    }
 
     private final WorkerFactory factory;
-    private final int workerCount;
+    private final int minWorkers;
+    private final int maxWorkers;
+    private final int maxCallsPerWorker;
+    private final long maxIdleNanos;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ObjectName objectName;
 
-    DefaultWorkerPool(WorkerFactory factory, int workerCount) {
-        this.factory = factory;
-        this.workerCount = workerCount;
-        this.workers = new LinkedBlockingQueue<>(workerCount - 1);
+    private final Deque<PooledWorker> idle = new ArrayDeque<>();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private final Map<Worker, PooledWorker> borrowed = new IdentityHashMap<>();
+    private int total; // 包括正在创建的
+    private int creating;
+    private boolean stopped;
 
-        Thread thread = new Thread(this, "worker pool for " + factory);
-        thread.start();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong retiredCount = new AtomicLong();
+    private final AtomicLong createFailedCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalQueueWaitNanos = new AtomicLong();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicLong totalCreateNanos = new AtomicLong();
+
+    DefaultWorkerPool(WorkerPoolBuilder builder) {
+        this.factory = builder.factory;
+        this.minWorkers = builder.minWorkers;
+        this.maxWorkers = builder.maxWorkers;
+        this.maxCallsPerWorker = builder.maxCallsPerWorker;
+        this.maxIdleNanos = builder.maxIdleNanos;
+
+        final String name = "worker pool for " + factory;
+        this.executor = new ScheduledThreadPoolExecutor(builder.createThreads, new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, name + "-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.setRemoveOnCancelPolicy(true);
+
+        synchronized (this) {
+            replenish();
+        }
+        long delay = Math.max(maxIdleNanos / 2, TimeUnit.MILLISECONDS.toNanos(100));
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                evictIdle();
+            }
+        }, delay, delay, TimeUnit.NANOSECONDS);
+
+        this.objectName = builder.jmxName == null ? null : MBeans.register(new WorkerPoolMBean(this), "WorkerPool", builder.jmxName);
     }
 
-    private boolean stopped;
-    private int created;
+    /**
+     * 补足 minWorkers，并为没有对应创建任务的等待者创建 worker
+     */
+    private void replenish() {
+        if (stopped) {
+            return;
+        }
+        int pending = countPendingWaiters();
+        while (total < maxWorkers && (total < minWorkers || pending > creating)) {
+            total++;
+            creating++;
+            executor.execute(new CreateTask());
+        }
+    }
 
-    @Override
-    public void run() {
-        while (!stopped) {
+    private int countPendingWaiters() {
+        int count = 0;
+        for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().future.isDone()) {
+                iterator.remove();
+            } else {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Waiter pollPendingWaiter() {
+        Waiter waiter;
+        while ((waiter = waiters.pollFirst()) != null) {
+            if (!waiter.future.isDone()) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private class CreateTask implements Runnable {
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            Worker worker;
             try {
-                Worker release = created >= workerCount ? releaseQueue.poll(10, TimeUnit.MILLISECONDS) : releaseQueue.poll();
-                if (release != null) {
-                    workers.put(release);
-                    continue;
+                worker = factory.createWorker();
+                if (worker == null) {
+                    throw new IllegalStateException("createWorker returns null: " + factory);
                 }
+            } catch (Throwable t) {
+                onCreateFailed(t);
+                return;
+            }
+            totalCreateNanos.addAndGet(System.nanoTime() - start);
+            createdCount.incrementAndGet();
+            synchronized (DefaultWorkerPool.this) {
+                creating--;
+            }
+            offer(new PooledWorker(worker));
+        }
+    }
 
-                if (created < workerCount) {
-                    workers.put(factory.createWorker());
-                    created++;
+    private void onCreateFailed(Throwable t) {
+        log.warn("create worker failed", t);
+        createFailedCount.incrementAndGet();
+        Waiter waiter;
+        synchronized (this) {
+            creating--;
+            total--;
+            waiter = pollPendingWaiter();
+            if (!stopped) {
+                executor.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        synchronized (DefaultWorkerPool.this) {
+                            replenish();
+                        }
+                    }
+                }, CREATE_RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (waiter != null) {
+            waiter.future.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * 交给最早的等待者，没有等待者时放回空闲队列
+     */
+    private void offer(PooledWorker pooled) {
+        while (true) {
+            Waiter waiter;
+            synchronized (this) {
+                if (stopped) {
+                    total--;
+                    break;
+                }
+                waiter = pollPendingWaiter();
+                if (waiter == null) {
+                    pooled.idleSince = System.nanoTime();
+                    idle.addFirst(pooled);
+                    return;
                 }
-            } catch (InterruptedException e) {
-                log.warn("worker pool loop failed", e);
+                borrowed.put(pooled.worker, pooled);
+            }
+            if (waiter.future.complete(pooled.worker)) {
+                recordBorrow(System.nanoTime() - waiter.start);
+                return;
+            }
+            synchronized (this) {
+                borrowed.remove(pooled.worker);
+            }
+        }
+        closeWorker(pooled, false);
+    }
+
+    private void recordBorrow(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalQueueWaitNanos.addAndGet(waitNanos);
+        long max;
+        while (waitNanos > (max = maxQueueWaitNanos.get())) {
+            if (maxQueueWaitNanos.compareAndSet(max, waitNanos)) {
                 break;
             }
         }
+    }
 
-        closeWorkers(releaseQueue);
-        closeWorkers(workers);
+    private void evictIdle() {
+        List<PooledWorker> list = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (Iterator<PooledWorker> iterator = idle.descendingIterator(); iterator.hasNext() && total > minWorkers; ) {
+                PooledWorker pooled = iterator.next();
+                if (now - pooled.idleSince < maxIdleNanos) {
+                    break;
+                }
+                iterator.remove();
+                total--;
+                list.add(pooled);
+            }
+        }
+        for (PooledWorker pooled : list) {
+            closeWorker(pooled, true);
+        }
     }
 
-    private static void closeWorkers(BlockingQueue<Worker> queue) {
-        Worker worker;
-        while ((worker = queue.poll()) != null) {
-            com.alibaba.fastjson.util.IOUtils.close(worker);
+    private void retire(PooledWorker pooled) {
+        synchronized (this) {
+            total--;
+            replenish();
+        }
+        closeWorker(pooled, true);
+    }
+
+    private void closeWorker(final PooledWorker pooled, boolean async) {
+        retiredCount.incrementAndGet();
+        if (async) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        IOUtils.close(pooled.worker);
+                    }
+                });
+                return;
+            } catch (RejectedExecutionException ignored) {
+            }
         }
+        IOUtils.close(pooled.worker);
     }
 
     @Override
     public void close() {
-        stopped = true;
-
-        closeWorkers(workers);
+        List<PooledWorker> list;
+        List<Waiter> pending;
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            list = new ArrayList<>(idle);
+            idle.clear();
+            total -= list.size();
+            pending = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        for (Waiter waiter : pending) {
+            waiter.future.complete(null);
+        }
+        for (PooledWorker pooled : list) {
+            closeWorker(pooled, false);
+        }
+        executor.shutdown();
+        MBeans.unregister(objectName);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T extends Worker> T borrow(long timeout, TimeUnit unit) {
-        if (stopped) {
-            return null;
-        }
-
+        BorrowFuture<T> future = borrowAsync();
         try {
-            return (T) workers.poll(timeout, unit);
+            return future.get(timeout, unit);
+        } catch (TimeoutException e) {
+            if (future.cancel(false)) {
+                return null;
+            }
+            return future.getNow(null);
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (future.cancel(false)) {
+                return null;
+            }
+            return future.getNow(null);
+        } catch (ExecutionException | CancellationException e) {
             log.warn("borrow failed", e);
             return null;
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends Worker> BorrowFuture<T> borrowAsync() {
+        Waiter waiter = new Waiter();
+        PooledWorker pooled;
+        synchronized (this) {
+            if (stopped) {
+                pooled = null;
+                waiter.future.complete(null);
+            } else {
+                pooled = idle.pollFirst();
+                if (pooled == null) {
+                    waiters.addLast(waiter);
+                    replenish();
+                } else {
+                    borrowed.put(pooled.worker, pooled);
+                }
+            }
+        }
+        if (pooled != null) {
+            recordBorrow(0);
+            waiter.future.complete(pooled.worker);
+        }
+        return (BorrowFuture<T>) (BorrowFuture<?>) waiter.future;
+    }
+
     @Override
     public void release(Worker worker) {
-        if (stopped) {
-            IOUtils.close(worker);
+        PooledWorker pooled;
+        boolean retire;
+        synchronized (this) {
+            pooled = borrowed.remove(worker);
+            if (pooled == null) {
+                log.warn("release unknown worker: " + worker);
+                return;
+            }
+            pooled.calls++;
+            retire = maxCallsPerWorker > 0 && pooled.calls >= maxCallsPerWorker;
+        }
+        if (retire) {
+            retire(pooled);
         } else {
-            releaseQueue.offer(worker);
+            offer(pooled);
+        }
+    }
+
+    @Override
+    public void invalidate(Worker worker) {
+        PooledWorker pooled;
+        synchronized (this) {
+            pooled = borrowed.remove(worker);
+            if (pooled == null) {
+                log.warn("invalidate unknown worker: " + worker);
+                return;
+            }
         }
+        retire(pooled);
+    }
+
+    @Override
+    public synchronized WorkerPoolMetrics getMetrics() {
+        return new WorkerPoolMetrics(total, idle.size(), borrowed.size(), countPendingWaiters(),
+                createdCount.get(), retiredCount.get(), createFailedCount.get(),
+                borrowCount.get(), totalQueueWaitNanos.get(), maxQueueWaitNanos.get(), totalCreateNanos.get());
     }
 
 }
@@ -5,8 +5,23 @@ import java.util.concurrent.TimeUnit;
 
 public interface WorkerPool extends Closeable {
 
+    /**
+     * @return <code>null</code> 表示超时、已经关闭或者等待时被中断，中断时保留线程的中断状态
+     */
     <T extends Worker> T borrow(long timeout, TimeUnit unit);
 
+    /**
+     * 有空闲的 worker 时立即完成，否则排队等待，取消返回的 future 即放弃等待
+     */
+    <T extends Worker> BorrowFuture<T> borrowAsync();
+
     void release(Worker worker);
 
+    /**
+     * 调用出现异常时代替 {@link #release(Worker)}，该 worker 会被关闭并由新的 worker 替换
+     */
+    void invalidate(Worker worker);
+
+    WorkerPoolMetrics getMetrics();
+
 }
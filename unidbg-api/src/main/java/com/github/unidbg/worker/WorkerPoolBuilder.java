@@ -0,0 +1,87 @@
+package com.github.unidbg.worker;
+
+import java.util.concurrent.TimeUnit;
+
+public class WorkerPoolBuilder {
+
+    public static WorkerPoolBuilder newBuilder(WorkerFactory factory) {
+        return new WorkerPoolBuilder(factory);
+    }
+
+    final WorkerFactory factory;
+
+    private WorkerPoolBuilder(WorkerFactory factory) {
+        if (factory == null) {
+            throw new NullPointerException("factory");
+        }
+        this.factory = factory;
+    }
+
+    int minWorkers = 1;
+
+    /**
+     * 启动时并行创建，空闲回收后也保留这么多 worker
+     */
+    public WorkerPoolBuilder setMinWorkers(int minWorkers) {
+        this.minWorkers = minWorkers;
+        return this;
+    }
+
+    int maxWorkers = Runtime.getRuntime().availableProcessors();
+
+    public WorkerPoolBuilder setMaxWorkers(int maxWorkers) {
+        this.maxWorkers = maxWorkers;
+        return this;
+    }
+
+    int maxCallsPerWorker;
+
+    /**
+     * worker 借出这么多次后关闭并替换，<code>0</code> 表示不限制
+     */
+    public WorkerPoolBuilder setMaxCallsPerWorker(int maxCallsPerWorker) {
+        this.maxCallsPerWorker = maxCallsPerWorker;
+        return this;
+    }
+
+    long maxIdleNanos = TimeUnit.MINUTES.toNanos(1);
+
+    /**
+     * 超过 minWorkers 的 worker 空闲这么久后关闭
+     */
+    public WorkerPoolBuilder setMaxIdleTime(long time, TimeUnit unit) {
+        this.maxIdleNanos = unit.toNanos(time);
+        return this;
+    }
+
+    int createThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 并行创建 worker 的线程数
+     */
+    public WorkerPoolBuilder setCreateThreads(int createThreads) {
+        this.createThreads = createThreads;
+        return this;
+    }
+
+    String jmxName;
+
+    /**
+     * 以 {@link WorkerPoolMXBean} 注册到 platform MBeanServer，关闭时注销，<code>null</code> 表示不注册
+     */
+    public WorkerPoolBuilder setJmxName(String jmxName) {
+        this.jmxName = jmxName;
+        return this;
+    }
+
+    public WorkerPool build() {
+        if (minWorkers < 0 || maxWorkers < 1 || minWorkers > maxWorkers) {
+            throw new IllegalArgumentException("minWorkers=" + minWorkers + ", maxWorkers=" + maxWorkers);
+        }
+        if (createThreads < 1 || maxCallsPerWorker < 0 || maxIdleNanos <= 0) {
+            throw new IllegalArgumentException("createThreads=" + createThreads + ", maxCallsPerWorker=" + maxCallsPerWorker + ", maxIdleNanos=" + maxIdleNanos);
+        }
+        return new DefaultWorkerPool(this);
+    }
+
+}
@@ -3,7 +3,7 @@ package com.github.unidbg.worker;
 public class WorkerPoolFactory {
 
     public static WorkerPool create(WorkerFactory factory, int workerCount) {
-        return new DefaultWorkerPool(factory, workerCount);
+        return WorkerPoolBuilder.newBuilder(factory).setMinWorkers(workerCount).setMaxWorkers(workerCount).build();
     }
 
 }
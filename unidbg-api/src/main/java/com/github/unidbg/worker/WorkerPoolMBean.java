@@ -0,0 +1,71 @@
+package com.github.unidbg.worker;
+
+class WorkerPoolMBean implements WorkerPoolMXBean {
+
+    private final WorkerPool pool;
+
+    WorkerPoolMBean(WorkerPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public int getTotalWorkers() {
+        return pool.getMetrics().getTotalWorkers();
+    }
+
+    @Override
+    public int getIdleWorkers() {
+        return pool.getMetrics().getIdleWorkers();
+    }
+
+    @Override
+    public int getBorrowedWorkers() {
+        return pool.getMetrics().getBorrowedWorkers();
+    }
+
+    @Override
+    public int getPendingBorrows() {
+        return pool.getMetrics().getPendingBorrows();
+    }
+
+    @Override
+    public long getCreatedCount() {
+        return pool.getMetrics().getCreatedCount();
+    }
+
+    @Override
+    public long getRetiredCount() {
+        return pool.getMetrics().getRetiredCount();
+    }
+
+    @Override
+    public long getCreateFailedCount() {
+        return pool.getMetrics().getCreateFailedCount();
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return pool.getMetrics().getBorrowCount();
+    }
+
+    @Override
+    public double getAverageQueueWaitMillis() {
+        return pool.getMetrics().getAverageQueueWaitMillis();
+    }
+
+    @Override
+    public double getMaxQueueWaitMillis() {
+        return pool.getMetrics().getMaxQueueWaitMillis();
+    }
+
+    @Override
+    public double getAverageCreateMillis() {
+        return pool.getMetrics().getAverageCreateMillis();
+    }
+
+    @Override
+    public double getUtilization() {
+        return pool.getMetrics().getUtilization();
+    }
+
+}
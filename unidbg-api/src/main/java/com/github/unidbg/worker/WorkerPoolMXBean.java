@@ -0,0 +1,23 @@
+package com.github.unidbg.worker;
+
+/**
+ * 通过 {@link WorkerPoolBuilder#setJmxName(String)} 导出，数值含义同 {@link WorkerPoolMetrics}
+ */
+public interface WorkerPoolMXBean {
+
+    int getTotalWorkers();
+    int getIdleWorkers();
+    int getBorrowedWorkers();
+    int getPendingBorrows();
+
+    long getCreatedCount();
+    long getRetiredCount();
+    long getCreateFailedCount();
+    long getBorrowCount();
+
+    double getAverageQueueWaitMillis();
+    double getMaxQueueWaitMillis();
+    double getAverageCreateMillis();
+    double getUtilization();
+
+}
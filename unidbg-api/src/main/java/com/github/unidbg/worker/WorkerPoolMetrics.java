@@ -0,0 +1,101 @@
+package com.github.unidbg.worker;
+
+public class WorkerPoolMetrics {
+
+    private final int totalWorkers;
+    private final int idleWorkers;
+    private final int borrowedWorkers;
+    private final int pendingBorrows;
+    private final long createdCount;
+    private final long retiredCount;
+    private final long createFailedCount;
+    private final long borrowCount;
+    private final long totalQueueWaitNanos;
+    private final long maxQueueWaitNanos;
+    private final long totalCreateNanos;
+
+    WorkerPoolMetrics(int totalWorkers, int idleWorkers, int borrowedWorkers, int pendingBorrows,
+                      long createdCount, long retiredCount, long createFailedCount,
+                      long borrowCount, long totalQueueWaitNanos, long maxQueueWaitNanos, long totalCreateNanos) {
+        this.totalWorkers = totalWorkers;
+        this.idleWorkers = idleWorkers;
+        this.borrowedWorkers = borrowedWorkers;
+        this.pendingBorrows = pendingBorrows;
+        this.createdCount = createdCount;
+        this.retiredCount = retiredCount;
+        this.createFailedCount = createFailedCount;
+        this.borrowCount = borrowCount;
+        this.totalQueueWaitNanos = totalQueueWaitNanos;
+        this.maxQueueWaitNanos = maxQueueWaitNanos;
+        this.totalCreateNanos = totalCreateNanos;
+    }
+
+    /**
+     * 包括正在创建的 worker
+     */
+    public int getTotalWorkers() {
+        return totalWorkers;
+    }
+
+    public int getIdleWorkers() {
+        return idleWorkers;
+    }
+
+    public int getBorrowedWorkers() {
+        return borrowedWorkers;
+    }
+
+    public int getPendingBorrows() {
+        return pendingBorrows;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getRetiredCount() {
+        return retiredCount;
+    }
+
+    public long getCreateFailedCount() {
+        return createFailedCount;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public double getAverageQueueWaitMillis() {
+        return borrowCount == 0 ? 0 : totalQueueWaitNanos / 1e6 / borrowCount;
+    }
+
+    public double getMaxQueueWaitMillis() {
+        return maxQueueWaitNanos / 1e6;
+    }
+
+    public double getAverageCreateMillis() {
+        return createdCount == 0 ? 0 : totalCreateNanos / 1e6 / createdCount;
+    }
+
+    /**
+     * 借出的 worker 占全部 worker 的比例
+     */
+    public double getUtilization() {
+        return totalWorkers == 0 ? 0 : (double) borrowedWorkers / totalWorkers;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerPoolMetrics{" +
+                "total=" + totalWorkers +
+                ", idle=" + idleWorkers +
+                ", borrowed=" + borrowedWorkers +
+                ", pending=" + pendingBorrows +
+                ", created=" + createdCount +
+                ", retired=" + retiredCount +
+                ", createFailed=" + createFailedCount +
+                ", borrows=" + borrowCount +
+                String.format(", avgQueueWait=%.3fms, maxQueueWait=%.3fms, avgCreate=%.1fms, utilization=%.2f", getAverageQueueWaitMillis(), getMaxQueueWaitMillis(), getAverageCreateMillis(), getUtilization()) +
+                '}';
+    }
+}
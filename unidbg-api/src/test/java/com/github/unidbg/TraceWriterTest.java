@@ -0,0 +1,75 @@
+package com.github.unidbg;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+public class TraceWriterTest extends TestCase {
+
+    private ByteArrayOutputStream baos;
+    private TraceWriter writer;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        baos = new ByteArrayOutputStream();
+        writer = new TraceWriter(new PrintStream(baos), 16, 1);
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.isRunning()) {
+            assertTrue(System.nanoTime() < deadline);
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    /**
+     * flush 放到另外的线程里，丢了输出时不会一直卡住
+     */
+    private void flush() throws InterruptedException {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writer.flush();
+            }
+        });
+        thread.start();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse("flush hangs", thread.isAlive());
+    }
+
+    public void testRestartAfterIdle() throws InterruptedException {
+        writer.print("a");
+        flush();
+        awaitIdle();
+
+        writer.print("b");
+        assertTrue(writer.isRunning());
+        flush();
+        awaitIdle();
+        assertEquals("ab", baos.toString());
+    }
+
+    /**
+     * 每次输出都卡在后台线程空闲退出的边上
+     */
+    public void testPrintAcrossIdleTimeout() throws InterruptedException {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            String text = Integer.toString(i) + ',';
+            writer.print(text);
+            expected.append(text);
+            long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(i % 10 * 200);
+            while (System.nanoTime() < deadline) {
+                Thread.yield();
+            }
+        }
+        flush();
+        writer.close();
+        assertEquals(expected.toString(), baos.toString());
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.github.unidbg.arm.backend;
+
+import junit.framework.TestCase;
+import unicorn.Arm64Const;
+import unicorn.UnicornConst;
+
+import java.util.Arrays;
+
+public class DirtyMemoryTest extends TestCase {
+
+    private static final long CODE = 0x10000;
+    private static final long DATA = 0x20000;
+
+    private static byte[] assemble(int... insns) {
+        byte[] code = new byte[insns.length * 4];
+        for (int i = 0; i < insns.length; i++) {
+            for (int j = 0; j < 4; j++) {
+                code[i * 4 + j] = (byte) (insns[i] >>> (j * 8));
+            }
+        }
+        return code;
+    }
+
+    public void testDirtyPages() {
+        UnicornBackend backend = new UnicornBackend(null, true);
+        try {
+            byte[] code = assemble(
+                    0xf9000001, // str x1, [x0]
+                    0x485ffc44, // ldaxrh w4, [x2]
+                    0x48057c41, // stxrh w5, w1, [x2]
+                    0x79400046, // ldrh w6, [x2]
+                    0xd503201f // nop
+            );
+            backend.mem_map(CODE, 0x1000, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_EXEC);
+            backend.mem_write(CODE, code);
+            backend.mem_map(DATA, 0x4000, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+            assertNull(backend.mem_dirty_pages());
+
+            assertTrue(backend.mem_track_dirty());
+            backend.mem_write(DATA + 0x3000, new byte[]{1});
+            for (int round = 0; round < 2; round++) {
+                backend.reg_write(Arm64Const.UC_ARM64_REG_X0, DATA + 0x1008);
+                backend.reg_write(Arm64Const.UC_ARM64_REG_X1, 0x1234 + round);
+                backend.reg_write(Arm64Const.UC_ARM64_REG_X2, DATA + 0x2010);
+                backend.emu_start(CODE, CODE + code.length, 0, 0);
+
+                assertEquals(0x1234 + round, backend.reg_read(Arm64Const.UC_ARM64_REG_X6).intValue()); // exclusive store
+                assertEquals(0x34 + round, backend.mem_read(DATA + 0x2010, 1)[0]);
+                long[] expected = round == 0 ? new long[]{DATA + 0x1000, DATA + 0x2000, DATA + 0x3000} : new long[]{DATA + 0x1000, DATA + 0x2000};
+                assertTrue(Arrays.toString(backend.mem_dirty_pages()), Arrays.equals(expected, backend.mem_dirty_pages()));
+                assertTrue(backend.mem_track_dirty());
+            }
+        } finally {
+            backend.destroy();
+        }
+    }
+
+}
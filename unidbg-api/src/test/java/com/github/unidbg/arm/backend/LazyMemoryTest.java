@@ -0,0 +1,150 @@
+package com.github.unidbg.arm.backend;
+
+import junit.framework.TestCase;
+import unicorn.Arm64Const;
+import unicorn.UnicornConst;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LazyMemoryTest extends TestCase {
+
+    private static final long CODE = 0x10000;
+    private static final long DATA = 0x100000;
+    private static final int PAGE_SIZE = LazyMemory.PAGE_SIZE;
+    private static final int PAGES = 32;
+
+    private static final int LDR = 0xf9400001; // ldr x1, [x0]
+    private static final int STR = 0xf9000001; // str x1, [x0]
+    private static final int NOP = 0xd503201f; // nop
+
+    /**
+     * 每一页的内容都是页号，记录每次加载的偏移和页数
+     */
+    private static class PatternLoader implements PageLoader {
+        final List<long[]> loads = new ArrayList<>();
+        boolean closed;
+        @Override
+        public void load(long offset, byte[] dst) {
+            loads.add(new long[]{offset / PAGE_SIZE, dst.length / PAGE_SIZE});
+            for (int i = 0; i < dst.length; i++) {
+                dst[i] = (byte) ((offset + i) / PAGE_SIZE);
+            }
+        }
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private UnicornBackend backend;
+    private PatternLoader loader;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        backend = new UnicornBackend(null, true);
+        backend.mem_map(CODE, PAGE_SIZE, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_EXEC);
+        byte[] code = new byte[8];
+        for (int i = 0; i < 4; i++) {
+            code[4 + i] = (byte) (NOP >>> (i * 8));
+        }
+        backend.mem_write(CODE, code);
+        loader = new PatternLoader();
+        assertTrue(backend.mem_map_lazy(DATA, PAGES * PAGE_SIZE, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE, loader));
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        backend.destroy();
+        assertTrue(loader.closed);
+        super.tearDown();
+    }
+
+    private long run(int insn, long address, long value) {
+        byte[] code = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            code[i] = (byte) (insn >>> (i * 8));
+        }
+        backend.mem_write(CODE, code);
+        backend.reg_write(Arm64Const.UC_ARM64_REG_X0, address);
+        backend.reg_write(Arm64Const.UC_ARM64_REG_X1, value);
+        backend.emu_start(CODE, CODE + 8, 0, 0);
+        return backend.reg_read(Arm64Const.UC_ARM64_REG_X1).longValue();
+    }
+
+    private void assertLoads(long... expected) {
+        assertEquals(expected.length / 2, loader.loads.size());
+        for (int i = 0; i < loader.loads.size(); i++) {
+            assertEquals(expected[i * 2], loader.loads.get(i)[0]);
+            assertEquals(expected[i * 2 + 1], loader.loads.get(i)[1]);
+        }
+    }
+
+    public void testFaultMidRegion() {
+        assertEquals(0x1414141414141414L, run(LDR, DATA + 20 * PAGE_SIZE + 8, 0));
+        assertLoads(20, 12);
+
+        assertEquals(0x1f, backend.mem_read(DATA + 31 * PAGE_SIZE + PAGE_SIZE - 1, 1)[0]);
+        assertEquals(5, backend.mem_read(DATA + 5 * PAGE_SIZE, 1)[0]);
+        assertLoads(20, 12, 5, 1);
+
+        assertEquals(0x1234, run(STR, DATA + 19 * PAGE_SIZE, 0x1234));
+        assertEquals(0x1234, run(LDR, DATA + 19 * PAGE_SIZE, 0));
+        assertEquals(0x13, backend.mem_read(DATA + 19 * PAGE_SIZE + 8, 1)[0]);
+        assertLoads(20, 12, 5, 1, 19, 1);
+    }
+
+    public void testPartialUnmap() {
+        assertEquals(6, backend.mem_read(DATA + 6 * PAGE_SIZE, 1)[0]);
+        backend.mem_unmap(DATA + 4 * PAGE_SIZE, 5 * PAGE_SIZE);
+        for (int page = 4; page < 9; page++) {
+            try {
+                backend.mem_read(DATA + (long) page * PAGE_SIZE, 1);
+                fail("page=" + page);
+            } catch (BackendException ignored) {
+            }
+        }
+        try {
+            run(LDR, DATA + 5 * PAGE_SIZE, 0);
+            fail();
+        } catch (BackendException ignored) {
+        }
+
+        assertEquals(0x0303030303030303L, run(LDR, DATA + 3 * PAGE_SIZE, 0));
+        assertEquals(0x0909090909090909L, run(LDR, DATA + 9 * PAGE_SIZE, 0));
+        assertLoads(6, 1, 3, 1, 9, 16);
+
+        // 在原来的位置重新映射，不能再按需加载
+        backend.mem_map(DATA + 4 * PAGE_SIZE, 5 * PAGE_SIZE, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+        assertEquals(0, run(LDR, DATA + 5 * PAGE_SIZE, -1));
+        assertLoads(6, 1, 3, 1, 9, 16);
+
+        assertFalse(loader.closed);
+        backend.mem_unmap(DATA, 4 * PAGE_SIZE);
+        backend.mem_unmap(DATA + 9 * PAGE_SIZE, (PAGES - 9) * PAGE_SIZE);
+        assertTrue(loader.closed);
+    }
+
+    public void testProtectUnloaded() {
+        backend.mem_protect(DATA + 2 * PAGE_SIZE, 2 * PAGE_SIZE, UnicornConst.UC_PROT_READ);
+        assertLoads();
+
+        assertEquals(0x0101010101010101L, run(LDR, DATA + PAGE_SIZE, 0));
+        assertLoads(1, 1);
+
+        try {
+            run(STR, DATA + 2 * PAGE_SIZE, 0x1234);
+            fail();
+        } catch (BackendException ignored) {
+        }
+        assertLoads(1, 1, 2, 2);
+        assertEquals(0x0202020202020202L, run(LDR, DATA + 2 * PAGE_SIZE, 0));
+        assertEquals(0x0303030303030303L, run(LDR, DATA + 3 * PAGE_SIZE, 0));
+
+        assertEquals(0x5678, run(STR, DATA + 4 * PAGE_SIZE, 0x5678));
+        assertEquals(0x5678, run(LDR, DATA + 4 * PAGE_SIZE, 0));
+        assertLoads(1, 1, 2, 2, 4, 16);
+    }
+
+}
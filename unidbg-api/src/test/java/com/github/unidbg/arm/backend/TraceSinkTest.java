@@ -0,0 +1,112 @@
+package com.github.unidbg.arm.backend;
+
+import junit.framework.TestCase;
+import unicorn.Arm64Const;
+import unicorn.UnicornConst;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TraceSinkTest extends TestCase {
+
+    private static final long CODE = 0x10000;
+    private static final long DATA = 0x20000;
+
+    private static final int[] CODES = new int[]{
+            0xf9000001, // str x1, [x0]
+            0xf9400002, // ldr x2, [x0]
+            0xf9000402, // str x2, [x0, #8]
+    };
+
+    private static class RecordingSink implements TraceSink {
+        final List<String> records = new ArrayList<>();
+        UnHook unHook;
+        @Override
+        public void onCode(long address, int size) {
+            records.add("code 0x" + Long.toHexString(address) + " " + size);
+        }
+        @Override
+        public void onRead(long address, int size) {
+            records.add("read 0x" + Long.toHexString(address) + " " + size);
+        }
+        @Override
+        public void onWrite(long address, int size, long value) {
+            records.add("write 0x" + Long.toHexString(address) + " " + size + " 0x" + Long.toHexString(value));
+        }
+        @Override
+        public void onAttach(UnHook unHook) {
+            this.unHook = unHook;
+        }
+        @Override
+        public void detach() {
+            unHook.unhook();
+        }
+    }
+
+    private UnicornBackend backend;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        backend = new UnicornBackend(null, true);
+        byte[] code = new byte[CODES.length * 4];
+        for (int i = 0; i < CODES.length; i++) {
+            for (int j = 0; j < 4; j++) {
+                code[i * 4 + j] = (byte) (CODES[i] >>> (j * 8));
+            }
+        }
+        backend.mem_map(CODE, 0x1000, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_EXEC);
+        backend.mem_write(CODE, code);
+        backend.mem_map(DATA, 0x1000, UnicornConst.UC_PROT_READ | UnicornConst.UC_PROT_WRITE);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        backend.destroy();
+        super.tearDown();
+    }
+
+    private void execute() {
+        backend.reg_write(Arm64Const.UC_ARM64_REG_X0, DATA);
+        backend.reg_write(Arm64Const.UC_ARM64_REG_X1, 0x1234);
+        backend.emu_start(CODE, CODE + CODES.length * 4, 0, 0);
+    }
+
+    /**
+     * emu_start 返回时所有记录都已经按执行顺序回调完
+     */
+    public void testOrderAndFlush() {
+        RecordingSink sink = new RecordingSink();
+        backend.hook_add_trace(sink, TraceSink.TRACE_CODE | TraceSink.TRACE_READ | TraceSink.TRACE_WRITE, 1, 0);
+        execute();
+        assertEquals(Arrays.asList(
+                "code 0x10000 4",
+                "write 0x20000 8 0x1234",
+                "code 0x10004 4",
+                "read 0x20000 8",
+                "code 0x10008 4",
+                "write 0x20008 8 0x1234"
+        ), sink.records);
+
+        sink.records.clear();
+        execute();
+        assertEquals(6, sink.records.size());
+
+        sink.detach();
+        sink.records.clear();
+        execute();
+        assertTrue(sink.records.isEmpty());
+    }
+
+    public void testTypesAndRange() {
+        RecordingSink code = new RecordingSink();
+        backend.hook_add_trace(code, TraceSink.TRACE_CODE, CODE + 4, CODE + 4);
+        RecordingSink write = new RecordingSink();
+        backend.hook_add_trace(write, TraceSink.TRACE_WRITE, DATA + 8, DATA + 0x10);
+        execute();
+        assertEquals(Arrays.asList("code 0x10004 4"), code.records);
+        assertEquals(Arrays.asList("write 0x20008 8 0x1234"), write.records);
+    }
+
+}
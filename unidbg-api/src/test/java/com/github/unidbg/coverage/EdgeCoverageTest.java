@@ -0,0 +1,45 @@
+package com.github.unidbg.coverage;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+public class EdgeCoverageTest extends TestCase {
+
+    private static void run(EdgeCoverage coverage, long base, long... blocks) {
+        coverage.reset();
+        for (long block : blocks) {
+            coverage.hookBlock(null, base + block, 4, base);
+        }
+    }
+
+    public void testEdges() {
+        EdgeCoverage coverage = new EdgeCoverage();
+        byte[] virgin = new byte[EdgeCoverage.MAP_SIZE];
+        Arrays.fill(virgin, (byte) 0xff);
+
+        run(coverage, 0x40000000L, 0x100, 0x200, 0x300);
+        assertEquals(3, coverage.countEdges());
+        assertTrue(coverage.hasNewBits(virgin));
+
+        run(coverage, 0x50000000L, 0x100, 0x200, 0x300); // relocated
+        assertFalse(coverage.hasNewBits(virgin));
+
+        run(coverage, 0x40000000L, 0x100, 0x300, 0x200);
+        assertTrue(coverage.hasNewBits(virgin));
+
+        long[] loop = new long[10];
+        Arrays.fill(loop, 0x100);
+        run(coverage, 0x40000000L, Arrays.copyOf(loop, 9));
+        assertTrue(coverage.hasNewBits(virgin));
+        run(coverage, 0x40000000L, loop); // same bucket
+        assertFalse(coverage.hasNewBits(virgin));
+
+        int edges = coverage.countEdges();
+        byte[] snapshot = coverage.snapshot();
+        coverage.reset();
+        assertEquals(0, coverage.countEdges());
+        assertEquals(edges, new EdgeCoverage(snapshot).countEdges());
+    }
+
+}
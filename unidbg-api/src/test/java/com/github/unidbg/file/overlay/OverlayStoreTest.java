@@ -0,0 +1,75 @@
+package com.github.unidbg.file.overlay;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class OverlayStoreTest extends TestCase {
+
+    private static void putEntry(ZipOutputStream zos, String name, String content, boolean stored) throws IOException {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        ZipEntry entry = new ZipEntry(name);
+        if (stored) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(data);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCrc(crc32.getValue());
+        }
+        zos.putNextEntry(entry);
+        zos.write(data);
+        zos.closeEntry();
+    }
+
+    private static String read(OverlayFile file) {
+        byte[] data = new byte[file.length()];
+        assertEquals(data.length, file.read(0, data, 0, data.length));
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    public void testOverlay() throws IOException {
+        File zip = File.createTempFile("rootfs", ".zip");
+        try {
+            try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zip))) {
+                putEntry(zos, "system/build.prop", "ro.build.version.sdk=23", true);
+                putEntry(zos, "data/local/tmp/a.txt", "hello", false);
+            }
+            RootfsArchive archive = RootfsArchive.open(zip);
+            assertTrue(archive.isDirectory("/data/local"));
+            assertEquals(Arrays.asList("data", "system"), archive.list("/"));
+
+            OverlayStore store = new OverlayStore(archive, 16);
+            assertEquals("ro.build.version.sdk=23", read(store.getFile("system/./build.prop")));
+
+            OverlayFile file = store.getFile("/data/local/tmp/a.txt");
+            assertTrue(file.write(5, " world".getBytes(StandardCharsets.UTF_8)));
+            assertEquals("hello world", read(store.getFile("/data/local/tmp/../tmp/a.txt")));
+            assertEquals(5, archive.getData("/data/local/tmp/a.txt").remaining()); // copy on write
+            assertFalse(file.write(0, new byte[17])); // ENOSPC
+
+            assertEquals(0, store.rename("/data/local/tmp/a.txt", "/sdcard/b.txt"));
+            assertFalse(store.exists("/data/local/tmp/a.txt"));
+            assertEquals(Arrays.asList("data", "sdcard", "system"), store.list("/"));
+            assertEquals("hello world", read(store.getFile("/sdcard/b.txt")));
+
+            store.rmdir("/system");
+            assertFalse(store.isFile("/system/build.prop"));
+            assertTrue(store.mkdir("/system"));
+            assertTrue(store.list("/system").isEmpty());
+
+            store.unlink("/sdcard/b.txt");
+            assertEquals(0, store.getSize());
+            assertEquals(-1, store.rename("/sdcard/b.txt", "/c.txt"));
+        } finally {
+            assertTrue(zip.delete());
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.github.unidbg.file.zip;
+
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ZipIndexTest extends TestCase {
+
+    private File file;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        file = File.createTempFile("index", ".zip");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteQuietly(file);
+        super.tearDown();
+    }
+
+    static void putEntry(ZipOutputStream zos, String name, byte[] data, boolean stored) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (stored) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(data);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCrc(crc32.getValue());
+        }
+        zos.putNextEntry(entry);
+        zos.write(data);
+        zos.closeEntry();
+    }
+
+    private static String toString(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    public void testEntries() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append(i).append('\n');
+        }
+        String large = builder.toString();
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            zos.setComment("comment");
+            putEntry(zos, "dir/", new byte[0], true);
+            putEntry(zos, "dir/stored.txt", "stored".getBytes(StandardCharsets.UTF_8), true);
+            putEntry(zos, "dir/deflated.txt", large.getBytes(StandardCharsets.UTF_8), false);
+            putEntry(zos, "empty.txt", new byte[0], false);
+        }
+
+        ZipIndex index = ZipIndex.open(file);
+        assertEquals(4, index.getEntries().size());
+        assertTrue(index.getEntry("dir/").isDirectory());
+        assertNull(index.getEntry("missing.txt"));
+
+        ZipIndex.Entry stored = index.getEntry("dir/stored.txt");
+        assertEquals(ZipIndex.METHOD_STORED, stored.getMethod());
+        ByteBuffer buffer = index.getData(stored);
+        assertTrue(buffer.isReadOnly());
+        assertEquals("stored", toString(buffer));
+        assertEquals("stored", toString(index.getData(stored)));
+
+        ZipIndex.Entry deflated = index.getEntry("dir/deflated.txt");
+        assertEquals(ZipIndex.METHOD_DEFLATED, deflated.getMethod());
+        assertEquals(large.length(), deflated.getSize());
+        assertEquals(large, toString(index.getData(deflated)));
+        assertEquals(large, new String(index.inflate(deflated), StandardCharsets.UTF_8));
+
+        assertEquals(0, index.getData(index.getEntry("empty.txt")).remaining());
+    }
+
+    public void testBadFiles() throws IOException {
+        for (int length = 0; length < 30; length++) {
+            FileUtils.writeByteArrayToFile(file, new byte[length]);
+            try {
+                ZipIndex.open(file);
+                fail("length=" + length);
+            } catch (IOException ignored) {
+            }
+        }
+
+        // 只有结束头，中心目录的偏移越界
+        ByteBuffer end = ByteBuffer.allocate(22).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        end.putInt(0x06054b50);
+        end.putShort(8, (short) 1);
+        end.putShort(10, (short) 1);
+        end.putInt(12, 46);
+        end.putInt(16, 0x1000);
+        FileUtils.writeByteArrayToFile(file, end.array());
+        try {
+            ZipIndex.open(file);
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("bad zip file"));
+        }
+    }
+
+}
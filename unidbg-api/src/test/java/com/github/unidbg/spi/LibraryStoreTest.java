@@ -0,0 +1,76 @@
+package com.github.unidbg.spi;
+
+import junit.framework.TestCase;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class LibraryStoreTest extends TestCase {
+
+    private static final byte[] DATA = "library data".getBytes(StandardCharsets.UTF_8);
+
+    private File jar;
+    private File cacheDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        jar = File.createTempFile("store", ".jar");
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(jar))) {
+            zos.putNextEntry(new ZipEntry("lib/libstore.so"));
+            zos.write(DATA);
+            zos.closeEntry();
+        }
+        cacheDir = Files.createTempDirectory("store").toFile();
+        LibraryStore.setCacheDir(cacheDir);
+        LibraryStore.clear();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LibraryStore.setCacheDir(new File(System.getProperty("java.io.tmpdir"), "unidbg-libs"));
+        LibraryStore.clear();
+        FileUtils.deleteQuietly(jar);
+        FileUtils.deleteQuietly(cacheDir);
+        super.tearDown();
+    }
+
+    private String map() throws IOException {
+        ByteBuffer buffer = LibraryStore.mapBuffer(new URL("jar:" + jar.toURI().toURL() + "!/lib/libstore.so"));
+        assertTrue(buffer.isReadOnly());
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    public void testExtract() throws IOException {
+        assertEquals("library data", map());
+        File file = new File(cacheDir, DigestUtils.sha1Hex(DATA) + "_libstore.so");
+        assertTrue(file.isFile());
+        assertEquals(1, cacheDir.list().length);
+        assertEquals("library data", map());
+    }
+
+    /**
+     * 缓存目录里预先放一个名字和长度都对、内容不对的文件，不能直接使用
+     */
+    public void testTamperedCache() throws IOException {
+        File file = new File(cacheDir, DigestUtils.sha1Hex(DATA) + "_libstore.so");
+        FileUtils.writeStringToFile(file, "LIBRARY DATA", StandardCharsets.UTF_8);
+        assertEquals(DATA.length, file.length());
+
+        assertEquals("library data", map());
+        assertEquals("library data", FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+        assertEquals(1, cacheDir.list().length);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.github.unidbg.spi;
+
+import com.github.unidbg.memory.MemoryMap;
+import junit.framework.TestCase;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class MemoryMapTreeTest extends TestCase {
+
+    private static void map(MemoryMapTree tree, long base, long size) {
+        tree.put(base, new MemoryMap(base, size, 3));
+    }
+
+    public void testHoles() {
+        MemoryMapTree tree = new MemoryMapTree();
+        map(tree, 0x1000, 0x1000);
+        map(tree, 0x2000, 0x3000);
+        map(tree, 0x5000, 0x1000);
+        map(tree, 0x6000, 0x2000);
+        map(tree, 0x8000, 0x1000);
+        assertEquals(-1, tree.findHole(0x1000, 0));
+
+        tree.remove(0x2000L);
+        tree.remove(0x6000L);
+        assertEquals(0x6000, tree.findHole(0x1000, 0)); // best fit
+        assertEquals(0x2000, tree.findHole(0x2800, 0));
+        assertEquals(-1, tree.findHole(0x4000, 0));
+
+        tree.remove(0x5000L); // merge 0x2000-0x5000 and 0x6000-0x8000
+        assertEquals(0x2000, tree.findHole(0x6000, 0));
+        assertEquals(-1, tree.findHole(0x7000, 0));
+        assertEquals(0x4000, tree.findHole(0x2000, 0x3fff));
+
+        map(tree, 0x2000, 0x6000);
+        assertEquals(-1, tree.findHole(0x1000, 0));
+
+        tree.clear();
+        assertEquals(-1, tree.findHole(0x1000, 0));
+    }
+
+    public void testViewsKeepHoles() {
+        MemoryMapTree tree = new MemoryMapTree();
+        map(tree, 0x1000, 0x1000);
+        map(tree, 0x2000, 0x1000);
+        map(tree, 0x3000, 0x1000);
+
+        Iterator<Map.Entry<Long, MemoryMap>> iterator = tree.entrySet().iterator();
+        iterator.next();
+        try {
+            iterator.remove();
+            fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        try {
+            tree.values().clear();
+            fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+        try {
+            tree.firstEntry().setValue(new MemoryMap(0x1000, 0x2000, 3));
+            fail();
+        } catch (UnsupportedOperationException ignored) {
+        }
+
+        tree.subMap(0x2000L, true, 0x3000L, true).clear();
+        tree.headMap(0x3000L).clear();
+        assertEquals(3, tree.size());
+        assertEquals(-1, tree.findHole(0x1000, 0));
+
+        Map<Long, MemoryMap> maps = new TreeMap<>();
+        maps.put(0x6000L, new MemoryMap(0x6000, 0x1000, 3));
+        maps.put(0x8000L, new MemoryMap(0x8000, 0x1000, 3));
+        tree.putAll(maps);
+        assertEquals(0x4000, tree.findHole(0x2000, 0));
+        assertEquals(0x7000, tree.findHole(0x1000, 0));
+
+        assertEquals(0x1000L, (long) tree.pollFirstEntry().getKey());
+        tree.pollLastEntry();
+        assertEquals(0x4000, tree.findHole(0x2000, 0));
+        tree.remove(0x6000L);
+        assertEquals(-1, tree.findHole(0x1000, 0));
+    }
+
+}
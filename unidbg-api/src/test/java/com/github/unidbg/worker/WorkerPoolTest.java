@@ -0,0 +1,104 @@
+package com.github.unidbg.worker;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WorkerPoolTest extends TestCase {
+
+    private static class TestWorker implements Worker {
+        final CountDownLatch closed = new CountDownLatch(1);
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    private final WorkerFactory factory = new WorkerFactory() {
+        @Override
+        public Worker createWorker() {
+            created.incrementAndGet();
+            return new TestWorker();
+        }
+    };
+
+    public void testGrowAndRetire() throws Exception {
+        WorkerPool pool = WorkerPoolBuilder.newBuilder(factory).setMinWorkers(1).setMaxWorkers(2).setMaxCallsPerWorker(2).build();
+        try {
+            TestWorker w1 = pool.borrow(10, TimeUnit.SECONDS);
+            TestWorker w2 = pool.borrow(10, TimeUnit.SECONDS);
+            assertNotNull(w1);
+            assertNotNull(w2);
+            assertNotSame(w1, w2);
+
+            BorrowFuture<TestWorker> future = pool.borrowAsync();
+            assertFalse(future.isDone());
+            final CountDownLatch notified = new CountDownLatch(1);
+            future.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    notified.countDown();
+                }
+            });
+            pool.release(w1);
+            assertTrue(notified.await(10, TimeUnit.SECONDS));
+            assertSame(w1, future.get(10, TimeUnit.SECONDS));
+
+            pool.release(w1);
+            assertClosed(w1);
+            pool.invalidate(w2);
+            assertClosed(w2);
+
+            TestWorker w3 = pool.borrow(10, TimeUnit.SECONDS);
+            assertNotNull(w3);
+            pool.release(w3);
+
+            WorkerPoolMetrics metrics = pool.getMetrics();
+            assertEquals(4, metrics.getBorrowCount());
+            assertTrue(metrics.getRetiredCount() >= 2);
+            assertTrue(metrics.getTotalWorkers() <= 2);
+        } finally {
+            pool.close();
+        }
+        assertNull(pool.borrow(1, TimeUnit.SECONDS));
+    }
+
+    private static void assertClosed(TestWorker worker) throws InterruptedException {
+        assertTrue(worker.closed.await(10, TimeUnit.SECONDS));
+    }
+
+    public void testBorrowTimeout() throws Exception {
+        WorkerPool pool = WorkerPoolBuilder.newBuilder(factory).setMinWorkers(1).setMaxWorkers(1).build();
+        try {
+            Worker worker = pool.borrow(10, TimeUnit.SECONDS);
+            assertNotNull(worker);
+            assertNull(pool.borrow(50, TimeUnit.MILLISECONDS));
+            pool.release(worker);
+            assertSame(worker, pool.borrow(10, TimeUnit.SECONDS));
+            assertEquals(1, created.get());
+        } finally {
+            pool.close();
+        }
+    }
+
+    public void testBorrowInterrupted() throws Exception {
+        WorkerPool pool = WorkerPoolBuilder.newBuilder(factory).setMinWorkers(1).setMaxWorkers(1).build();
+        try {
+            Worker worker = pool.borrow(10, TimeUnit.SECONDS);
+            assertNotNull(worker);
+            Thread.currentThread().interrupt();
+            assertNull(pool.borrow(10, TimeUnit.SECONDS));
+            assertTrue(Thread.interrupted());
+            assertEquals(0, pool.getMetrics().getPendingBorrows());
+            pool.release(worker);
+            assertSame(worker, pool.borrow(10, TimeUnit.SECONDS));
+        } finally {
+            pool.close();
+        }
+    }
+
+}
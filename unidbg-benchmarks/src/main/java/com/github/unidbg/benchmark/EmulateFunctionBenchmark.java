@@ -0,0 +1,86 @@
+package com.github.unidbg.benchmark;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.Module;
+import com.github.unidbg.memory.Memory;
+import com.github.unidbg.memory.MemoryBlock;
+import com.github.unidbg.pointer.UnidbgPointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Module#emulateFunction(com.github.unidbg.Emulator, long, Object...)} 调用 libc 的纯计算函数，主要是每次调用的固定开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmulateFunctionBenchmark {
+
+    private static final int BUFFER_SIZE = 0x400;
+
+    @Param({Emulators.UNICORN, Emulators.UNICORN2, Emulators.DYNARMIC})
+    public String backend;
+
+    @Param({"false", "true"})
+    public boolean is64Bit;
+
+    private AndroidEmulator emulator;
+    private MemoryBlock block;
+    private UnidbgPointer src;
+    private UnidbgPointer dest;
+
+    private long strlenAddress;
+    private long memcpyAddress;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emulator = Emulators.create(backend, is64Bit);
+        Memory memory = emulator.getMemory();
+        Module libc = memory.dlopen("libc.so");
+        strlenAddress = libc.findSymbolByName("strlen", false).getAddress();
+        memcpyAddress = libc.findSymbolByName("memcpy", false).getAddress();
+
+        block = memory.malloc(BUFFER_SIZE * 2, true);
+        src = block.getPointer();
+        dest = block.getPointer().share(BUFFER_SIZE, BUFFER_SIZE);
+        byte[] data = new byte[BUFFER_SIZE];
+        for (int i = 0; i < data.length - 1; i++) {
+            data[i] = (byte) ('a' + i % 26);
+        }
+        src.write(0, data, 0, data.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        block.free();
+        emulator.close();
+    }
+
+    @Benchmark
+    public int strlen() {
+        return Module.emulateFunction(emulator, strlenAddress, src).intValue();
+    }
+
+    @Benchmark
+    public Number memcpy() {
+        return Module.emulateFunction(emulator, memcpyAddress, dest, src, BUFFER_SIZE);
+    }
+
+}
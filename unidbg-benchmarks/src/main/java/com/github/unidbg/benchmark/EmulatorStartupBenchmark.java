@@ -0,0 +1,53 @@
+package com.github.unidbg.benchmark;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.Module;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 创建模拟器并加载自带的 libc.so
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmulatorStartupBenchmark {
+
+    @Param({Emulators.UNICORN, Emulators.UNICORN2, Emulators.DYNARMIC})
+    public String backend;
+
+    @Param({"false", "true"})
+    public boolean is64Bit;
+
+    @Benchmark
+    public AndroidEmulator createEmulator() throws IOException {
+        AndroidEmulator emulator = Emulators.create(backend, is64Bit);
+        emulator.close();
+        return emulator;
+    }
+
+    @Benchmark
+    public Module loadLibc() throws IOException {
+        AndroidEmulator emulator = Emulators.create(backend, is64Bit);
+        try {
+            return emulator.getMemory().dlopen("libc.so");
+        } finally {
+            emulator.close();
+        }
+    }
+
+}
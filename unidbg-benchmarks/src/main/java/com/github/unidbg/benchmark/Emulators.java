@@ -0,0 +1,53 @@
+package com.github.unidbg.benchmark;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.arm.backend.DynarmicFactory;
+import com.github.unidbg.arm.backend.Unicorn2Factory;
+import com.github.unidbg.linux.android.AndroidEmulatorBuilder;
+import com.github.unidbg.linux.android.AndroidResolver;
+
+import java.io.File;
+
+/**
+ * 各个基准测试共用的模拟器创建，<code>backend</code> 参数对应 {@link #UNICORN}、{@link #UNICORN2}、{@link #DYNARMIC}
+ */
+final class Emulators {
+
+    static final String UNICORN = "unicorn";
+    static final String UNICORN2 = "unicorn2";
+    static final String DYNARMIC = "dynarmic";
+
+    static final int SDK = 23;
+
+    static AndroidEmulator create(String backend, boolean is64Bit) {
+        AndroidEmulatorBuilder builder = is64Bit ? AndroidEmulatorBuilder.for64Bit() : AndroidEmulatorBuilder.for32Bit();
+        builder.setProcessName("com.github.unidbg.benchmark");
+        switch (backend) {
+            case UNICORN:
+                break;
+            case UNICORN2:
+                builder.addBackendFactory(new Unicorn2Factory(false));
+                break;
+            case DYNARMIC:
+                builder.addBackendFactory(new DynarmicFactory(false));
+                break;
+            default:
+                throw new IllegalArgumentException("backend=" + backend);
+        }
+        AndroidEmulator emulator = builder.build();
+        emulator.getMemory().setLibraryResolver(new AndroidResolver(SDK));
+        return emulator;
+    }
+
+    /**
+     * 默认从仓库根目录运行，可以通过 <code>-Dunidbg.benchmark.jnidispatch=</code> 指定
+     */
+    static File jniDispatch64() {
+        File file = new File(System.getProperty("unidbg.benchmark.jnidispatch", "unidbg-android/src/test/resources/example_binaries/arm64-v8a/libjnidispatch.so"));
+        if (!file.canRead()) {
+            throw new IllegalStateException("libjnidispatch.so not found: " + file.getAbsolutePath());
+        }
+        return file;
+    }
+
+}
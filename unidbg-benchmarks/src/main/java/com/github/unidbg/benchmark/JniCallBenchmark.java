@@ -0,0 +1,69 @@
+package com.github.unidbg.benchmark;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.linux.android.dvm.DalvikModule;
+import com.github.unidbg.linux.android.dvm.DvmClass;
+import com.github.unidbg.linux.android.dvm.DvmObject;
+import com.github.unidbg.linux.android.dvm.VM;
+import com.github.unidbg.linux.android.dvm.jni.ProxyClassFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过 DalvikVM64 调用 libjnidispatch.so 的静态 native 方法，<code>getNativeVersion</code> 会回调 NewStringUTF
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JniCallBenchmark {
+
+    @Param({Emulators.UNICORN, Emulators.UNICORN2, Emulators.DYNARMIC})
+    public String backend;
+
+    private AndroidEmulator emulator;
+    private DvmClass cNative;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emulator = Emulators.create(backend, true);
+        VM vm = emulator.createDalvikVM();
+        vm.setDvmClassFactory(new ProxyClassFactory());
+        DalvikModule dm = vm.loadLibrary(Emulators.jniDispatch64(), false);
+        dm.callJNI_OnLoad(emulator);
+        cNative = vm.resolveClass("com/sun/jna/Native");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        emulator.close();
+    }
+
+    @Benchmark
+    public int sizeof() {
+        return cNative.callStaticJniMethodInt(emulator, "sizeof(I)I", 0);
+    }
+
+    @Benchmark
+    public Object getNativeVersion() {
+        DvmObject<?> version = cNative.callStaticJniMethodObject(emulator, "getNativeVersion()Ljava/lang/String;");
+        return version.getValue();
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.github.unidbg.benchmark;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.memory.MemoryBlock;
+import com.github.unidbg.pointer.UnidbgPointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UnidbgPointer} 读写 guest 内存
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointerBenchmark {
+
+    @Param({Emulators.UNICORN, Emulators.UNICORN2, Emulators.DYNARMIC})
+    public String backend;
+
+    @Param({"16", "4096"})
+    public int size;
+
+    private AndroidEmulator emulator;
+    private MemoryBlock block;
+    private UnidbgPointer pointer;
+    private byte[] bytes;
+    private int[] ints;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emulator = Emulators.create(backend, true);
+        block = emulator.getMemory().malloc(size, true);
+        pointer = block.getPointer();
+        bytes = new byte[size];
+        ints = new int[size / 4];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        block.free();
+        emulator.close();
+    }
+
+    @Benchmark
+    public int getInt() {
+        return pointer.getInt(0);
+    }
+
+    @Benchmark
+    public void setInt() {
+        pointer.setInt(0, size);
+    }
+
+    @Benchmark
+    public long getLong() {
+        return pointer.getLong(8);
+    }
+
+    @Benchmark
+    public byte[] getByteArray() {
+        return pointer.getByteArray(0, size);
+    }
+
+    @Benchmark
+    public void writeBytes() {
+        pointer.write(0, bytes, 0, size);
+    }
+
+    @Benchmark
+    public int[] readInts() {
+        pointer.read(0, ints, 0, ints.length);
+        return ints;
+    }
+
+    @Benchmark
+    public void writeInts() {
+        pointer.write(0, ints, 0, ints.length);
+    }
+
+}
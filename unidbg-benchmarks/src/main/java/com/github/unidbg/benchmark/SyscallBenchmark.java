@@ -0,0 +1,106 @@
+package com.github.unidbg.benchmark;
+
+import com.github.unidbg.AndroidEmulator;
+import com.github.unidbg.Module;
+import com.github.unidbg.Symbol;
+import com.github.unidbg.memory.Memory;
+import com.github.unidbg.memory.MemoryBlock;
+import com.github.unidbg.pointer.UnidbgPointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过 libc.so 的包装函数触发系统调用
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SyscallBenchmark {
+
+    private static final int CLOCK_MONOTONIC = 1;
+    private static final int O_RDONLY = 0;
+    private static final int PROT_READ = 1;
+    private static final int PROT_WRITE = 2;
+    private static final int MAP_PRIVATE = 0x2;
+    private static final int MAP_ANONYMOUS = 0x20;
+
+    private static final int READ_SIZE = 0x100;
+    private static final int MMAP_SIZE = 0x4000;
+
+    @Param({Emulators.UNICORN, Emulators.UNICORN2, Emulators.DYNARMIC})
+    public String backend;
+
+    @Param({"false", "true"})
+    public boolean is64Bit;
+
+    private AndroidEmulator emulator;
+    private MemoryBlock block;
+    private UnidbgPointer timespec;
+    private UnidbgPointer buffer;
+    private int fd;
+
+    private Symbol clock_gettime;
+    private Symbol read;
+    private Symbol mmap;
+    private Symbol munmap;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        emulator = Emulators.create(backend, is64Bit);
+        Memory memory = emulator.getMemory();
+        Module libc = memory.dlopen("libc.so");
+        clock_gettime = libc.findSymbolByName("clock_gettime", false);
+        read = libc.findSymbolByName("read", false);
+        mmap = libc.findSymbolByName("mmap", false);
+        munmap = libc.findSymbolByName("munmap", false);
+
+        block = memory.malloc(0x1000, false);
+        timespec = block.getPointer();
+        buffer = block.getPointer().share(0x100, READ_SIZE);
+        fd = libc.findSymbolByName("open", false).call(emulator, "/dev/urandom", O_RDONLY).intValue();
+        if (fd < 0) {
+            throw new IllegalStateException("open /dev/urandom failed: " + fd);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        block.free();
+        emulator.close();
+    }
+
+    @Benchmark
+    public int clockGettime() {
+        return clock_gettime.call(emulator, CLOCK_MONOTONIC, timespec).intValue();
+    }
+
+    @Benchmark
+    public int readUrandom() {
+        return read.call(emulator, fd, buffer, READ_SIZE).intValue();
+    }
+
+    @Benchmark
+    public int mmapMunmap() {
+        Number address = mmap.call(emulator, null, MMAP_SIZE, PROT_READ | PROT_WRITE, MAP_PRIVATE | MAP_ANONYMOUS, -1, 0);
+        UnidbgPointer pointer = UnidbgPointer.pointer(emulator, address);
+        return munmap.call(emulator, pointer, MMAP_SIZE).intValue();
+    }
+
+}
@@ -28,7 +28,9 @@ public class DarwinFileSystem extends BaseFileSystem<DarwinFileIO> implements Fi
 
     @Override
     public DarwinFileIO createSimpleFileIO(File file, int oflags, String path) {
-        return new SimpleFileIO(oflags, file, path);
+        SimpleFileIO io = new SimpleFileIO(oflags, file, path);
+        io.setDurability(getDurability());
+        return io;
     }
 
     @Override
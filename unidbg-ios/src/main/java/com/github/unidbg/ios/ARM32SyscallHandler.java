@@ -82,6 +82,7 @@ import com.github.unidbg.ios.struct.sysctl.SockAddrDL;
 import com.github.unidbg.ios.struct.sysctl.TaskDyldInfo;
 import com.github.unidbg.memory.MemoryMap;
 import com.github.unidbg.memory.SvcMemory;
+import com.github.unidbg.metrics.EmulatorMetrics;
 import com.github.unidbg.pointer.UnidbgPointer;
 import com.github.unidbg.pointer.UnidbgStructure;
 import com.github.unidbg.thread.PopContextException;
@@ -151,6 +152,7 @@ public class ARM32SyscallHandler extends DarwinSyscallHandler {
         }
 
         int NR = backend.reg_read(ArmConst.UC_ARM_REG_R12).intValue();
+        EmulatorMetrics metrics = emulator.getMetrics();
         String syscall = null;
         Throwable exception = null;
         try {
@@ -183,7 +185,10 @@ public class ARM32SyscallHandler extends DarwinSyscallHandler {
                 }
                 Svc svc = svcMemory.getSvc(swi);
                 if (svc != null) {
-                    backend.reg_write(ArmConst.UC_ARM_REG_R0, (int) svc.handle(emulator));
+                    if (metrics != null) {
+                        metrics.onSvc(swi, svc);
+                    }
+                    backend.reg_write(ArmConst.UC_ARM_REG_R0, (int) handleSvc(emulator, svc));
                     return;
                 }
                 backend.emu_stop();
@@ -195,6 +200,9 @@ public class ARM32SyscallHandler extends DarwinSyscallHandler {
             }
 
             Cpsr.getArm(backend).setCarry(false);
+            if (metrics != null) {
+                metrics.onSyscall(NR);
+            }
             if (handleSyscall(emulator, NR)) {
                 return;
             }
@@ -670,7 +678,12 @@ public class ARM32SyscallHandler extends DarwinSyscallHandler {
         if (log.isDebugEnabled()) {
             log.debug("fsync fd=" + fd);
         }
-        return 0;
+        FileIO file = fdMap.get(fd);
+        if (file == null) {
+            emulator.getMemory().setErrno(UnixEmulator.EBADF);
+            return -1;
+        }
+        return file.fsync();
     }
 
     private int sigaltstack(Emulator<?> emulator) {
@@ -85,6 +85,7 @@ import com.github.unidbg.ios.struct.sysctl.SockAddrDL;
 import com.github.unidbg.ios.struct.sysctl.TaskDyldInfo;
 import com.github.unidbg.memory.MemoryMap;
 import com.github.unidbg.memory.SvcMemory;
+import com.github.unidbg.metrics.EmulatorMetrics;
 import com.github.unidbg.pointer.UnidbgPointer;
 import com.github.unidbg.pointer.UnidbgStructure;
 import com.github.unidbg.thread.PopContextException;
@@ -148,6 +149,7 @@ public class ARM64SyscallHandler extends DarwinSyscallHandler {
         }
 
         int NR = backend.reg_read(Arm64Const.UC_ARM64_REG_X16).intValue();
+        EmulatorMetrics metrics = emulator.getMetrics();
         String syscall = null;
         Throwable exception = null;
         try {
@@ -180,7 +182,10 @@ public class ARM64SyscallHandler extends DarwinSyscallHandler {
                 }
                 Svc svc = svcMemory.getSvc(swi);
                 if (svc != null) {
-                    backend.reg_write(Arm64Const.UC_ARM64_REG_X0, svc.handle(emulator));
+                    if (metrics != null) {
+                        metrics.onSvc(swi, svc);
+                    }
+                    backend.reg_write(Arm64Const.UC_ARM64_REG_X0, handleSvc(emulator, svc));
                     return;
                 }
                 backend.emu_stop();
@@ -205,6 +210,9 @@ public class ARM64SyscallHandler extends DarwinSyscallHandler {
                 return;
             }
 
+            if (metrics != null) {
+                metrics.onSyscall(NR);
+            }
             if (handleSyscall(emulator, NR)) {
                 return;
             }
@@ -3195,7 +3203,12 @@ public class ARM64SyscallHandler extends DarwinSyscallHandler {
         if (log.isDebugEnabled()) {
             log.debug("fsync fd=" + fd);
         }
-        return 0;
+        FileIO file = fdMap.get(fd);
+        if (file == null) {
+            emulator.getMemory().setErrno(UnixEmulator.EBADF);
+            return -1;
+        }
+        return file.fsync();
     }
 
     private long mmap(Emulator<?> emulator) {
@@ -34,6 +34,7 @@ import com.github.unidbg.memory.MemoryAllocBlock;
 import com.github.unidbg.memory.MemoryBlock;
 import com.github.unidbg.memory.MemoryBlockImpl;
 import com.github.unidbg.memory.MemoryMap;
+import com.github.unidbg.metrics.EmulatorMetrics;
 import com.github.unidbg.pointer.UnidbgPointer;
 import com.github.unidbg.pointer.UnidbgStructure;
 import com.github.unidbg.spi.AbstractLoader;
@@ -1771,6 +1772,10 @@ public class MachOLoader extends AbstractLoader<DarwinFileIO> implements Memory,
 
     @Override
     public long mmap2(long start, int length, int prot, int flags, int fd, int offset) {
+        EmulatorMetrics metrics = emulator.getMetrics();
+        if (metrics != null) {
+            metrics.onMmap();
+        }
         int aligned = (int) ARM.alignSize(length, emulator.getPageAlign());
 
         boolean isAnonymous = ((flags & com.github.unidbg.ios.MachO.MAP_ANONYMOUS) != 0) || (start == 0 && fd <= 0 && offset == 0);
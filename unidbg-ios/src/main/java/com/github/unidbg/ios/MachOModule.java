@@ -29,6 +29,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -632,6 +633,51 @@ public class MachOModule extends Module implements com.github.unidbg.ios.MachO {
 
     private CDObjectiveCProcessor objectiveCProcessor;
 
+    private long[] symbolValues;
+    private int[] symbolIndices;
+
+    /**
+     * 按地址排序的全局符号和本地符号，地址相同时保留先遍历到的（全局符号优先）
+     */
+    private void buildSymbolAddressIndex(final List<MachO.SymtabCommand.Nlist> symbols) {
+        List<Integer> list = new ArrayList<>();
+        // first walk all global symbols
+        for (long i = dysymtabCommand.iExtDefSym(); i < dysymtabCommand.iExtDefSym() + dysymtabCommand.nExtDefSym(); i++) {
+            MachO.SymtabCommand.Nlist nlist = symbols.get((int) i);
+            if ((nlist.type() & N_TYPE) == N_SECT) {
+                list.add((int) i);
+            }
+        }
+        // next walk all local symbols
+        for (long i = dysymtabCommand.iLocalSym(); i < dysymtabCommand.iLocalSym() + dysymtabCommand.nLocalSym(); i++) {
+            MachO.SymtabCommand.Nlist nlist = symbols.get((int) i);
+            if ((nlist.type() & N_TYPE) == N_SECT && ((nlist.type() & N_STAB) == 0)) {
+                list.add((int) i);
+            }
+        }
+        Collections.sort(list, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Long.compare(symbols.get(o1).value(), symbols.get(o2).value());
+            }
+        });
+
+        long[] values = new long[list.size()];
+        int[] indices = new int[list.size()];
+        int count = 0;
+        for (int index : list) {
+            long value = symbols.get(index).value();
+            if (count > 0 && values[count - 1] == value) {
+                continue;
+            }
+            values[count] = value;
+            indices[count] = index;
+            count++;
+        }
+        symbolIndices = Arrays.copyOf(indices, count);
+        symbolValues = Arrays.copyOf(values, count);
+    }
+
     @Override
     public Symbol findClosestSymbolByAddress(long addr, boolean fast) {
         long targetAddress = addr - base;
@@ -643,34 +689,22 @@ public class MachOModule extends Module implements com.github.unidbg.ios.MachO {
         }
 
         List<MachO.SymtabCommand.Nlist> symbols = symtabCommand.symbols();
+        if (symbolValues == null) {
+            buildSymbolAddressIndex(symbols);
+        }
         MachO.SymtabCommand.Nlist bestSymbol = null;
-
-        // first walk all global symbols
-        for (long i = dysymtabCommand.iExtDefSym(); i < dysymtabCommand.iExtDefSym() + dysymtabCommand.nExtDefSym(); i++) {
-            MachO.SymtabCommand.Nlist nlist = symbols.get((int) i);
-            if ((nlist.type() & N_TYPE) == N_SECT) {
-                if ( bestSymbol == null ) {
-                    if ( nlist.value() <= targetAddress ) {
-                        bestSymbol = nlist;
-                    }
-                } else if ( (nlist.value() <= targetAddress) && (bestSymbol.value() < nlist.value()) ) {
-                    bestSymbol = nlist;
-                }
+        int low = 0;
+        int high = symbolValues.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (symbolValues[mid] <= targetAddress) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
             }
         }
-
-        // next walk all local symbols
-        for (long i = dysymtabCommand.iLocalSym(); i < dysymtabCommand.iLocalSym() + dysymtabCommand.nLocalSym(); i++) {
-            MachO.SymtabCommand.Nlist nlist = symbols.get((int) i);
-            if ((nlist.type() & N_TYPE) == N_SECT && ((nlist.type() & N_STAB) == 0)) {
-                if ( bestSymbol == null ) {
-                    if ( nlist.value() <= targetAddress ) {
-                        bestSymbol = nlist;
-                    }
-                } else if ( (nlist.value() <= targetAddress) && (bestSymbol.value() < nlist.value()) ) {
-                    bestSymbol = nlist;
-                }
-            }
+        if (high >= 0) {
+            bestSymbol = symbols.get(symbolIndices[high]);
         }
 
         Symbol symbol = null;
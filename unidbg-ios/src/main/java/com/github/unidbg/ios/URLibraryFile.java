@@ -1,12 +1,10 @@
 package com.github.unidbg.ios;
 
 import com.github.unidbg.Emulator;
-import com.github.unidbg.Utils;
 import com.github.unidbg.spi.LibraryFile;
+import com.github.unidbg.spi.LibraryStore;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.IOUtils;
 
-import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.ByteBuffer;
@@ -46,11 +44,7 @@ public class URLibraryFile implements LibraryFile {
 
     @Override
     public ByteBuffer mapBuffer() throws IOException {
-        if ("file".equalsIgnoreCase(url.getProtocol())) {
-            return Utils.mapBuffer(new File(url.getPath()));
-        } else {
-            return ByteBuffer.wrap(IOUtils.toByteArray(url));
-        }
+        return LibraryStore.mapBuffer(url);
     }
 
     @Override
@@ -2,6 +2,7 @@ package com.github.unidbg.ios.file;
 
 import com.github.unidbg.Emulator;
 import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.file.FileIO;
 import com.github.unidbg.file.ios.BaseDarwinFileIO;
 import com.github.unidbg.file.ios.StatStructure;
 import com.github.unidbg.unix.IO;
@@ -88,6 +89,24 @@ public class JarEntryFileIO extends BaseDarwinFileIO {
         return super.lseek(offset, whence);
     }
 
+    @Override
+    protected long getPosition() {
+        return pos;
+    }
+
+    @Override
+    protected void setPosition(long position) {
+        pos = (int) position;
+    }
+
+    @Override
+    public FileIO dup2() {
+        JarEntryFileIO dup = new JarEntryFileIO(oflags, path, jarFile, entry);
+        dup.op = op;
+        dup.pos = pos;
+        return dup;
+    }
+
     @Override
     protected byte[] getMmapData(long addr, int offset, int length) {
         try (JarFile jarFile = new JarFile(this.jarFile); InputStream inputStream = jarFile.getInputStream(entry)) {
@@ -4,11 +4,14 @@ import com.alibaba.fastjson.util.IOUtils;
 import com.github.unidbg.Emulator;
 import com.github.unidbg.Utils;
 import com.github.unidbg.arm.backend.Backend;
+import com.github.unidbg.arm.backend.PageLoader;
+import com.github.unidbg.file.FileDurability;
 import com.github.unidbg.file.FileIO;
 import com.github.unidbg.file.ios.BaseDarwinFileIO;
 import com.github.unidbg.file.ios.IOConstants;
 import com.github.unidbg.file.ios.StatStructure;
 import com.github.unidbg.unix.IO;
+import com.github.unidbg.unix.UnixEmulator;
 import com.github.unidbg.utils.Inspector;
 import com.sun.jna.Pointer;
 import org.apache.commons.io.FileUtils;
@@ -16,12 +19,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 
@@ -32,6 +35,12 @@ public class SimpleFileIO extends BaseDarwinFileIO implements FileIO {
     protected final File file;
     protected final String path;
     private RandomAccessFile _randomAccessFile;
+    private FileDurability durability = FileDurability.CLOSE;
+
+    /**
+     * 上次落盘以后是否写过或者截断过
+     */
+    private boolean dirty;
 
     private synchronized RandomAccessFile checkOpenFile() {
         try {
@@ -40,7 +49,7 @@ public class SimpleFileIO extends BaseDarwinFileIO implements FileIO {
                 if (!file.exists() && !file.createNewFile()) {
                     throw new IOException("createNewFile failed: " + file);
                 }
-                _randomAccessFile = new RandomAccessFile(file, "rws");
+                _randomAccessFile = new RandomAccessFile(file, "rw");
             }
             return _randomAccessFile;
         } catch (IOException e) {
@@ -61,8 +70,20 @@ public class SimpleFileIO extends BaseDarwinFileIO implements FileIO {
         }
     }
 
+    public void setDurability(FileDurability durability) {
+        this.durability = durability;
+    }
+
     @Override
     public void close() {
+        if (_randomAccessFile != null && dirty && durability != FileDurability.NONE) {
+            try {
+                _randomAccessFile.getChannel().force(true);
+                dirty = false;
+            } catch (IOException e) {
+                log.debug("force failed: " + file, e);
+            }
+        }
         IOUtils.close(_randomAccessFile);
 
         if (debugStream != null) {
@@ -90,6 +111,11 @@ public class SimpleFileIO extends BaseDarwinFileIO implements FileIO {
                 randomAccessFile.seek(randomAccessFile.length());
             }
             randomAccessFile.write(data);
+            if (durability == FileDurability.ALWAYS) {
+                randomAccessFile.getChannel().force(true);
+            } else {
+                dirty = true;
+            }
             return data.length;
         } catch (IOException e) {
             throw new IllegalStateException(e);
@@ -108,31 +134,50 @@ public class SimpleFileIO extends BaseDarwinFileIO implements FileIO {
         return Utils.readFile(randomAccessFile, pointer, _count);
     }
 
+    @Override
+    public int fsync() {
+        if (_randomAccessFile == null || durability == FileDurability.NONE) {
+            return 0;
+        }
+        try {
+            _randomAccessFile.getChannel().force(true);
+            dirty = false;
+            return 0;
+        } catch (IOException e) {
+            log.debug("fsync failed: " + file, e);
+            return -UnixEmulator.EIO;
+        }
+    }
+
     @Override
     protected byte[] getMmapData(long addr, int offset, int length) throws IOException {
         RandomAccessFile randomAccessFile = checkOpenFile();
         randomAccessFile.seek(offset);
-        int remaining = (int) (randomAccessFile.length() - randomAccessFile.getFilePointer());
-        ByteArrayOutputStream baos = remaining <= 0 ? new ByteArrayOutputStream() : new ByteArrayOutputStream(Math.min(length, remaining));
-        byte[] buf = new byte[1024];
-        do {
-            int count = length - baos.size();
-            if (count == 0) {
-                break;
-            }
+        long remaining = randomAccessFile.length() - randomAccessFile.getFilePointer();
+        byte[] data = new byte[(int) Math.max(0, Math.min(length, remaining))];
+        randomAccessFile.readFully(data);
+        return data;
+    }
 
-            if (count > buf.length) {
-                count = buf.length;
+    @Override
+    protected PageLoader createPageLoader(final int offset, final int length) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); // 映射以后 fd 可能被关闭，单独打开
+        return new PageLoader() {
+            @Override
+            public void load(long position, byte[] dst) throws IOException {
+                FileChannel channel = randomAccessFile.getChannel();
+                ByteBuffer buffer = ByteBuffer.wrap(dst, 0, (int) Math.max(0, Math.min(dst.length, length - position)));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + position + buffer.position()) == -1) {
+                        break;
+                    }
+                }
             }
-
-            int read = randomAccessFile.read(buf, 0, count);
-            if (read == -1) {
-                break;
+            @Override
+            public void close() {
+                IOUtils.close(randomAccessFile);
             }
-
-            baos.write(buf, 0, read);
-        } while (true);
-        return baos.toByteArray();
+        };
     }
 
     @Override
@@ -155,6 +200,7 @@ public class SimpleFileIO extends BaseDarwinFileIO implements FileIO {
         dup.debugStream = debugStream;
         dup.op = op;
         dup.oflags = oflags;
+        dup.durability = durability;
         return dup;
     }
 
@@ -201,6 +247,24 @@ public class SimpleFileIO extends BaseDarwinFileIO implements FileIO {
         return super.llseek(offset, result, whence);
     }
 
+    @Override
+    protected synchronized long getPosition() {
+        try {
+            return _randomAccessFile == null ? 0 : _randomAccessFile.getFilePointer();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected void setPosition(long position) {
+        try {
+            checkOpenFile().seek(position);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public int fstat(Emulator<?> emulator, StatStructure stat) {
         int blockSize = emulator.getPageAlign();
@@ -229,6 +293,7 @@ public class SimpleFileIO extends BaseDarwinFileIO implements FileIO {
     public int ftruncate(int length) {
         try (FileChannel channel = new FileOutputStream(file, true).getChannel()) {
             channel.truncate(length);
+            dirty = true;
             return 0;
         } catch (IOException e) {
             log.debug("ftruncate failed", e);
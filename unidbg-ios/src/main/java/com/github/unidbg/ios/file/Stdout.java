@@ -94,6 +94,11 @@ public class Stdout extends SimpleFileIO {
         }
     }
 
+    @Override
+    protected long getPosition() {
+        return -1;
+    }
+
     @Override
     public FileIO dup2() {
         Stdout dup = new Stdout(0, file, path, err, callback);